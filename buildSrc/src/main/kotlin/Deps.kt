@@ -15,4 +15,9 @@ object Deps {
     object Mockito {
         val core = "org.mockito:mockito-core:${Versions.mockito}"
     }
+
+    object Jmh {
+        val core = "org.openjdk.jmh:jmh-core:${Versions.jmh}"
+        val annprocess = "org.openjdk.jmh:jmh-generator-annprocess:${Versions.jmh}"
+    }
 }
@@ -0,0 +1,38 @@
+apply(plugin = "java-common")
+
+dependencies {
+    val implementation: Configuration by configurations
+    val annotationProcessor: Configuration by configurations
+
+    implementation(Deps.Jmh.core)
+    annotationProcessor(Deps.Jmh.annprocess)
+}
+
+tasks {
+    val libPath: String by rootProject.extra
+    val execPath: String by rootProject.extra
+
+    val jmh by creating(JavaExec::class) {
+        group = "benchmark"
+        description = "Runs the JMH benchmarks and writes the results as JSON."
+
+        val resultFile = buildDir.resolve("reports/jmh/results.json")
+        val sourceSets = project.the<JavaPluginConvention>().sourceSets
+
+        dependsOn(named("classes"))
+        main = "org.openjdk.jmh.Main"
+        classpath = sourceSets["main"].runtimeClasspath
+        args("-rf", "json", "-rff", resultFile.path)
+        // Benchmarks can be filtered with -PjmhInclude=<regex>
+        project.findProperty("jmhInclude")?.let { args(it.toString()) }
+        // Profilers can be added with -PjmhProfiler=<name>, e.g., gc
+        project.findProperty("jmhProfiler")?.let { args("-prof", it.toString()) }
+        environment["PATH"] = execPath
+        environment["LD_LIBRARY_PATH"] = libPath
+        outputs.file(resultFile)
+
+        doFirst {
+            resultFile.parentFile.mkdirs()
+        }
+    }
+}
@@ -2,6 +2,7 @@ rootProject.name = "theta"
 
 include(
         "analysis",
+        "benchmarks",
         "cfa",
         "cfa2dot",
         "cfa-analysis",
@@ -22,13 +22,18 @@ import static java.util.stream.Collectors.toList;
 
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Optional;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.OptionalInt;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.PartialOrd;
 import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.reachedset.ReachedSet;
 
 /**
  * Represents an abstract reachability graph (ARG). See the related class
@@ -37,12 +42,24 @@ import hu.bme.mit.theta.analysis.State;
 public final class ARG<S extends State, A extends Action> {
 
 	private final Collection<ArgNode<S, A>> initNodes;
+	// Indexes maintained incrementally, so that queries do not traverse the
+	// whole ARG. Excluded nodes are filtered out on demand.
+	private final Collection<ArgNode<S, A>> targetNodes;
+	private final Collection<ArgNode<S, A>> unexpandedNodes;
+	private final Collection<ArgNode<S, A>> coveredNodes;
+	// Reached sets kept in sync with the nodes, keyed by their factories
+	private final Map<Supplier<? extends ReachedSet<S, A>>, ReachedSet<S, A>> reachedSets;
 	boolean initialized; // Set by ArgBuilder
 	private int nextId = 0;
+	int exclusionVersion = 0; // Incremented when the exclusion of nodes may change
 	final PartialOrd<S> partialOrd;
 
 	private ARG(final PartialOrd<S> partialOrd) {
 		initNodes = new HashSet<>();
+		targetNodes = new LinkedHashSet<>();
+		unexpandedNodes = new LinkedHashSet<>();
+		coveredNodes = new LinkedHashSet<>();
+		reachedSets = new IdentityHashMap<>();
 		this.partialOrd = partialOrd;
 		this.initialized = false;
 	}
@@ -66,11 +83,41 @@ public final class ARG<S extends State, A extends Action> {
 	}
 
 	public Stream<ArgNode<S, A>> getUnsafeNodes() {
-		return getInitNodes().flatMap(ArgNode::unexcludedDescendants).filter(ArgNode::isTarget);
+		return targetNodes.stream().filter(n -> !n.isExcluded());
 	}
 
 	public Stream<ArgNode<S, A>> getIncompleteNodes() {
-		return getInitNodes().flatMap(ArgNode::unexcludedDescendants).filter(n -> !n.isExpanded());
+		return unexpandedNodes.stream().filter(n -> !n.isExcluded());
+	}
+
+	/**
+	 * Gets the nodes that have a covering edge.
+	 */
+	public Stream<ArgNode<S, A>> getCoveredNodes() {
+		return coveredNodes.stream();
+	}
+
+	/**
+	 * Gets the excluded nodes, i.e., the subtrees of subsumed nodes.
+	 */
+	public Stream<ArgNode<S, A>> getExcludedNodes() {
+		return getNodes().filter(ArgNode::isExcluded);
+	}
+
+	/**
+	 * Gets a reached set containing the nodes of the ARG. The reached set is
+	 * created with the factory and filled on the first call for a factory
+	 * (compared by identity), and then it is updated incrementally as nodes
+	 * are created, pruned or their states change. Therefore, it can be reused
+	 * across iterations without traversing the ARG again.
+	 */
+	public ReachedSet<S, A> getReachedSet(final Supplier<? extends ReachedSet<S, A>> factory) {
+		checkNotNull(factory);
+		return reachedSets.computeIfAbsent(factory, f -> {
+			final ReachedSet<S, A> reachedSet = f.get();
+			reachedSet.addAll(getNodes());
+			return reachedSet;
+		});
 	}
 
 	////
@@ -80,14 +127,14 @@ public final class ARG<S extends State, A extends Action> {
 	 * its nodes are complete.
 	 */
 	public boolean isComplete() {
-		return isInitialized() && getNodes().allMatch(ArgNode::isComplete);
+		return isInitialized() && !getIncompleteNodes().findAny().isPresent();
 	}
 
 	/**
 	 * Checks if the ARG is safe, i.e., whether all of its nodes are safe.
 	 */
 	public boolean isSafe() {
-		return getNodes().allMatch(ArgNode::isSafe);
+		return !getUnsafeNodes().findAny().isPresent();
 	}
 
 	/**
@@ -122,13 +169,18 @@ public final class ARG<S extends State, A extends Action> {
 	private ArgNode<S, A> createNode(final S state, final int depth, final boolean target) {
 		final ArgNode<S, A> node = new ArgNode<>(this, state, nextId, depth, target);
 		nextId = nextId + 1;
+		if (target) {
+			targetNodes.add(node);
+		}
+		unexpandedNodes.add(node);
+		addToReachedSets(node);
 		return node;
 	}
 
 	private ArgEdge<S, A> createEdge(final ArgNode<S, A> source, final A action, final ArgNode<S, A> target) {
 		final ArgEdge<S, A> edge = new ArgEdge<>(source, action, target);
-		source.outEdges.add(edge);
-		target.inEdge = Optional.of(edge);
+		source.addOutEdge(edge);
+		target.setInEdge(edge);
 		return edge;
 	}
 
@@ -141,16 +193,52 @@ public final class ARG<S extends State, A extends Action> {
 		if (node.getInEdge().isPresent()) {
 			final ArgEdge<S, A> edge = node.getInEdge().get();
 			final ArgNode<S, A> parent = edge.getSource();
-			parent.outEdges.remove(edge);
-			parent.expanded = false;
+			parent.removeOutEdge(edge);
+			parent.setExpanded(false);
 		} else {
 			assert initNodes.contains(node);
 			initNodes.remove(node);
 			this.initialized = false;
 		}
-		node.descendants().forEach(ArgNode::unsetCoveringNode);
-		node.descendants().forEach(ArgNode::clearCoveredNodes);
+		final List<ArgNode<S, A>> prunedNodes = node.descendants().collect(toList());
+		prunedNodes.forEach(n -> {
+			n.unsetCoveringNode();
+			n.clearCoveredNodes();
+			targetNodes.remove(n);
+			unexpandedNodes.remove(n);
+		});
+		reachedSets.values().forEach(r -> r.removeAll(prunedNodes));
+		invalidateExclusion();
+
+	}
+
+	void addToReachedSets(final ArgNode<S, A> node) {
+		reachedSets.values().forEach(r -> r.add(node));
+	}
+
+	void removeFromReachedSets(final ArgNode<S, A> node) {
+		reachedSets.values().forEach(r -> r.remove(node));
+	}
+
+	void updateExpanded(final ArgNode<S, A> node) {
+		if (node.isExpanded()) {
+			unexpandedNodes.remove(node);
+		} else {
+			unexpandedNodes.add(node);
+		}
+	}
+
+	void updateCovered(final ArgNode<S, A> node) {
+		if (node.isCovered()) {
+			coveredNodes.add(node);
+		} else {
+			coveredNodes.remove(node);
+		}
+		invalidateExclusion();
+	}
 
+	void invalidateExclusion() {
+		exclusionVersion = exclusionVersion + 1;
 	}
 
 	public void minimize() {
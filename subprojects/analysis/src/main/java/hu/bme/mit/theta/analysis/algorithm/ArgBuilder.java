@@ -19,12 +19,14 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.Analysis;
 import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.analysis.PartialOrd;
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.TransFunc;
@@ -89,24 +91,56 @@ public final class ArgBuilder<S extends State, A extends Action, P extends Prec>
 		checkNotNull(node);
 		checkNotNull(prec);
 
-		final Collection<ArgNode<S, A>> newSuccNodes = new ArrayList<>();
+		return addSuccs(node, computeSuccs(node, prec));
+	}
+
+	/**
+	 * Computes the successors of a node that are not covered by its existing
+	 * successors, without modifying the ARG. This part of the expansion does
+	 * not touch the ARG, so different ArgBuilders (with their own analyses)
+	 * can compute successors of different nodes concurrently, as long as the
+	 * ARG itself is not modified meanwhile.
+	 */
+	public List<Successor<S, A>> computeSuccs(final ArgNode<S, A> node, final P prec) {
+		checkNotNull(node);
+		checkNotNull(prec);
+
+		final List<Successor<S, A>> succs = new ArrayList<>();
 		final S state = node.getState();
 		final Collection<? extends A> actions = lts.getEnabledActionsFor(state);
 		final TransFunc<S, ? super A, ? super P> transFunc = analysis.getTransFunc();
+		final PartialOrd<S> partialOrd = analysis.getPartialOrd();
 		for (final A action : actions) {
 			final Collection<? extends S> succStates = transFunc.getSuccStates(state, action, prec);
 			for (final S succState : succStates) {
 				if (excludeBottom && succState.isBottom()) {
 					continue;
 				}
-				if (node.getSuccStates().noneMatch(s -> analysis.getPartialOrd().isLeq(succState, s))) {
+				if (node.getSuccStates().noneMatch(s -> partialOrd.isLeq(succState, s))
+						&& succs.stream().noneMatch(s -> partialOrd.isLeq(succState, s.getState()))) {
 					final boolean isTarget = target.test(succState);
-					final ArgNode<S, A> newNode = node.arg.createSuccNode(node, action, succState, isTarget);
-					newSuccNodes.add(newNode);
+					succs.add(new Successor<>(action, succState, isTarget));
 				}
 			}
 		}
-		node.expanded = true;
+		return succs;
+	}
+
+	/**
+	 * Adds successors computed by {@link #computeSuccs(ArgNode, Prec)} to the
+	 * ARG (in the given order) and marks the node as expanded.
+	 */
+	public Collection<ArgNode<S, A>> addSuccs(final ArgNode<S, A> node, final Collection<Successor<S, A>> succs) {
+		checkNotNull(node);
+		checkNotNull(succs);
+
+		final Collection<ArgNode<S, A>> newSuccNodes = new ArrayList<>(succs.size());
+		for (final Successor<S, A> succ : succs) {
+			final ArgNode<S, A> newNode = node.arg.createSuccNode(node, succ.getAction(), succ.getState(),
+					succ.isTarget());
+			newSuccNodes.add(newNode);
+		}
+		node.setExpanded(true);
 
 		return newSuccNodes;
 	}
@@ -120,4 +154,31 @@ public final class ArgBuilder<S extends State, A extends Action, P extends Prec>
 		}
 	}
 
+	/**
+	 * A successor of a node that is not (yet) part of the ARG.
+	 */
+	public static final class Successor<S extends State, A extends Action> {
+		private final A action;
+		private final S state;
+		private final boolean target;
+
+		private Successor(final A action, final S state, final boolean target) {
+			this.action = action;
+			this.state = state;
+			this.target = target;
+		}
+
+		public A getAction() {
+			return action;
+		}
+
+		public S getState() {
+			return state;
+		}
+
+		public boolean isTarget() {
+			return target;
+		}
+	}
+
 }
@@ -18,9 +18,13 @@ package hu.bme.mit.theta.analysis.algorithm;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -31,7 +35,6 @@ import hu.bme.mit.theta.common.Utils;
 public final class ArgNode<S extends State, A extends Action> {
 
 	private static final int HASH_SEED = 8543;
-	private volatile int hashCode = 0;
 
 	final ARG<S, A> arg;
 
@@ -41,13 +44,20 @@ public final class ArgNode<S extends State, A extends Action> {
 
 	private S state;
 
-	Optional<ArgEdge<S, A>> inEdge; // Set by ARG
-	final Collection<ArgEdge<S, A>> outEdges;
+	// The relations are stored in nullable fields and lazily allocated
+	// collections to keep the footprint of nodes small in large ARGs
+	private ArgEdge<S, A> inEdge; // Set by ARG
+	private List<ArgEdge<S, A>> outEdges;
 
-	Optional<ArgNode<S, A>> coveringNode; // Set by ARG
-	final Collection<ArgNode<S, A>> coveredNodes;
+	private ArgNode<S, A> coveringNode;
+	private Collection<ArgNode<S, A>> coveredNodes;
 
-	boolean expanded; // Set by ArgBuilder
+	private boolean expanded;
+
+	// Cached exclusion status, valid if excludedVersion matches the exclusion
+	// version of the ARG
+	private boolean excluded;
+	private int excludedVersion;
 
 	ArgNode(final ARG<S, A> arg, final S state, final int id, final int depth, final boolean target) {
 		this.arg = arg;
@@ -55,11 +65,13 @@ public final class ArgNode<S extends State, A extends Action> {
 		this.id = id;
 		this.depth = depth;
 		this.target = target;
-		inEdge = Optional.empty();
-		outEdges = new ArrayList<>();
-		coveringNode = Optional.empty();
-		coveredNodes = new HashSet<>();
+		inEdge = null;
+		outEdges = Collections.emptyList();
+		coveringNode = null;
+		coveredNodes = Collections.emptySet();
 		expanded = false;
+		excluded = false;
+		excludedVersion = -1;
 	}
 
 	////
@@ -82,14 +94,18 @@ public final class ArgNode<S extends State, A extends Action> {
 
 	public void setState(final S state) {
 		checkNotNull(state);
+		// The reached sets are indexed by the state
+		arg.removeFromReachedSets(this);
 		this.state = state;
+		arg.addToReachedSets(this);
+		arg.invalidateExclusion();
 	}
 
 	public boolean mayCover(final ArgNode<S, A> node) {
-		if (arg.partialOrd.isLeq(node.getState(), this.getState())) {
-			return ancestors().noneMatch(n -> n.equals(node) || n.isSubsumed());
-		} else {
+		if (this.isExcluded() || node.isAncestorOf(this)) {
 			return false;
+		} else {
+			return arg.partialOrd.isLeq(node.getState(), this.getState());
 		}
 	}
 
@@ -97,20 +113,31 @@ public final class ArgNode<S extends State, A extends Action> {
 		checkNotNull(node);
 		checkArgument(node.arg == this.arg, "Nodes belong to different ARGs");
 		unsetCoveringNode();
-		coveringNode = Optional.of(node);
+		coveringNode = node;
+		if (node.coveredNodes.isEmpty()) {
+			node.coveredNodes = new HashSet<>(4);
+		}
 		node.coveredNodes.add(this);
+		arg.updateCovered(this);
 	}
 
 	public void unsetCoveringNode() {
-		if (coveringNode.isPresent()) {
-			coveringNode.get().coveredNodes.remove(this);
-			coveringNode = Optional.empty();
+		if (coveringNode != null) {
+			coveringNode.coveredNodes.remove(this);
+			coveringNode = null;
+			arg.updateCovered(this);
 		}
 	}
 
 	public void clearCoveredNodes() {
-		coveredNodes.forEach(n -> n.coveringNode = Optional.empty());
-		coveredNodes.clear();
+		if (!coveredNodes.isEmpty()) {
+			final Collection<ArgNode<S, A>> oldCoveredNodes = coveredNodes;
+			coveredNodes = Collections.emptySet();
+			oldCoveredNodes.forEach(n -> {
+				n.coveringNode = null;
+				arg.updateCovered(n);
+			});
+		}
 	}
 
 	public void cover(final ArgNode<S, A> node) {
@@ -124,11 +151,11 @@ public final class ArgNode<S extends State, A extends Action> {
 	////
 
 	public Optional<ArgNode<S, A>> getParent() {
-		return inEdge.map(ArgEdge::getSource);
+		return Optional.ofNullable(parentOrNull());
 	}
 
 	public Optional<ArgEdge<S, A>> getInEdge() {
-		return inEdge;
+		return Optional.ofNullable(inEdge);
 	}
 
 	public Stream<ArgEdge<S, A>> getOutEdges() {
@@ -136,7 +163,7 @@ public final class ArgNode<S extends State, A extends Action> {
 	}
 
 	public Optional<ArgNode<S, A>> getCoveringNode() {
-		return coveringNode;
+		return Optional.ofNullable(coveringNode);
 	}
 
 	public Stream<ArgNode<S, A>> getCoveredNodes() {
@@ -145,6 +172,23 @@ public final class ArgNode<S extends State, A extends Action> {
 
 	////
 
+	void setInEdge(final ArgEdge<S, A> edge) {
+		inEdge = edge;
+	}
+
+	void addOutEdge(final ArgEdge<S, A> edge) {
+		if (outEdges.isEmpty()) {
+			outEdges = new ArrayList<>(2);
+		}
+		outEdges.add(edge);
+	}
+
+	void removeOutEdge(final ArgEdge<S, A> edge) {
+		outEdges.remove(edge);
+	}
+
+	////
+
 	public Stream<ArgNode<S, A>> getSuccNodes() {
 		return getOutEdges().map(ArgEdge::getTarget);
 	}
@@ -160,7 +204,7 @@ public final class ArgNode<S extends State, A extends Action> {
 	 * node.
 	 */
 	public boolean isCovered() {
-		return coveringNode.isPresent();
+		return coveringNode != null;
 	}
 
 	/**
@@ -183,7 +227,26 @@ public final class ArgNode<S extends State, A extends Action> {
 	 * excluded parent.
 	 */
 	public boolean isExcluded() {
-		return ancestors().anyMatch(ArgNode::isSubsumed);
+		if (excludedVersion != arg.exclusionVersion) {
+			updateExcluded();
+		}
+		return excluded;
+	}
+
+	private void updateExcluded() {
+		final Deque<ArgNode<S, A>> path = new ArrayDeque<>();
+		ArgNode<S, A> node = this;
+		while (node != null && node.excludedVersion != arg.exclusionVersion) {
+			path.push(node);
+			node = node.parentOrNull();
+		}
+		boolean excludedAbove = node != null && node.excluded;
+		while (!path.isEmpty()) {
+			final ArgNode<S, A> n = path.pop();
+			excludedAbove = excludedAbove || n.isSubsumed();
+			n.excluded = excludedAbove;
+			n.excludedVersion = arg.exclusionVersion;
+		}
 	}
 
 	/**
@@ -201,6 +264,11 @@ public final class ArgNode<S extends State, A extends Action> {
 		return expanded;
 	}
 
+	void setExpanded(final boolean expanded) {
+		this.expanded = expanded;
+		arg.updateExpanded(this);
+	}
+
 	/**
 	 * Checks if the node is leaf, i.e., it has no successors.
 	 */
@@ -225,7 +293,11 @@ public final class ArgNode<S extends State, A extends Action> {
 	////
 
 	public Stream<ArgNode<S, A>> properAncestors() {
-		return getParent().map(p -> Stream.concat(Stream.of(p), p.properAncestors())).orElse(Stream.empty());
+		final List<ArgNode<S, A>> result = new ArrayList<>(depth);
+		for (ArgNode<S, A> node = parentOrNull(); node != null; node = node.parentOrNull()) {
+			result.add(node);
+		}
+		return result.stream();
 	}
 
 	public Stream<ArgNode<S, A>> ancestors() {
@@ -237,7 +309,21 @@ public final class ArgNode<S extends State, A extends Action> {
 	}
 
 	public Stream<ArgNode<S, A>> properDescendants() {
-		return Stream.concat(this.children(), this.children().flatMap(ArgNode::properDescendants));
+		// Children of a node come before the descendants of the children
+		final List<ArgNode<S, A>> result = new ArrayList<>();
+		final Deque<ArgNode<S, A>> stack = new ArrayDeque<>();
+		stack.push(this);
+		while (!stack.isEmpty()) {
+			final ArgNode<S, A> node = stack.pop();
+			final int size = result.size();
+			for (final ArgEdge<S, A> edge : node.outEdges) {
+				result.add(edge.getTarget());
+			}
+			for (int i = result.size() - 1; i >= size; --i) {
+				stack.push(result.get(i));
+			}
+		}
+		return result.stream();
 	}
 
 	public Stream<ArgNode<S, A>> descendants() {
@@ -247,30 +333,39 @@ public final class ArgNode<S extends State, A extends Action> {
 	public Stream<ArgNode<S, A>> unexcludedDescendants() {
 		if (this.isExcluded()) {
 			return Stream.empty();
-		} else {
-			return unexcludedDescendantsOfNode();
 		}
+		final List<ArgNode<S, A>> result = new ArrayList<>();
+		final Deque<ArgNode<S, A>> stack = new ArrayDeque<>();
+		stack.push(this);
+		while (!stack.isEmpty()) {
+			final ArgNode<S, A> node = stack.pop();
+			if (!node.isSubsumed()) {
+				result.add(node);
+				for (int i = node.outEdges.size() - 1; i >= 0; --i) {
+					stack.push(node.outEdges.get(i).getTarget());
+				}
+			}
+		}
+		return result.stream();
 	}
 
-	private Stream<ArgNode<S, A>> unexcludedDescendantsOfNode() {
-		if (this.isSubsumed()) {
-			return Stream.empty();
-		} else {
-			return Stream.concat(Stream.of(this), this.children().flatMap(ArgNode::unexcludedDescendantsOfNode));
+	private ArgNode<S, A> parentOrNull() {
+		return inEdge != null ? inEdge.getSource() : null;
+	}
+
+	private boolean isAncestorOf(final ArgNode<S, A> node) {
+		ArgNode<S, A> ancestor = node;
+		while (ancestor != null && ancestor.depth > this.depth) {
+			ancestor = ancestor.parentOrNull();
 		}
+		return this.equals(ancestor);
 	}
 
 	////
 
 	@Override
 	public int hashCode() {
-		int result = hashCode;
-		if (result == 0) {
-			result = HASH_SEED;
-			result = 31 * result + id;
-			hashCode = result;
-		}
-		return result;
+		return 31 * HASH_SEED + id;
 	}
 
 	@Override
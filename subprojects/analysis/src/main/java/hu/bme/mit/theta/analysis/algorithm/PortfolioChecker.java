@@ -0,0 +1,225 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableMap;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.common.logging.Logger;
+import hu.bme.mit.theta.common.logging.Logger.Level;
+import hu.bme.mit.theta.common.logging.NullLogger;
+
+/**
+ * Safety checker that runs multiple checkers concurrently on the same problem
+ * and returns the result of the first one that terminates successfully. The
+ * remaining checkers are cancelled by interrupting their threads, which is
+ * checked by the algorithms between steps (e.g., between the expansion of
+ * nodes), so they stop cooperatively. Long running steps (e.g., solver calls)
+ * can be stopped by the cancel hooks of the checkers. A checker that fails
+ * with an exception is ignored as long as the others can still produce a
+ * result. The checkers should not share solvers, as they are used
+ * concurrently. The portfolio returns only after all checkers have stopped,
+ * so their solvers can be released afterwards.
+ */
+public final class PortfolioChecker<S extends State, A extends Action, P extends Prec>
+		implements SafetyChecker<S, A, P> {
+
+	private final Map<String, SafetyChecker<? extends S, ? extends A, ? super P>> checkers;
+	private final Map<String, Runnable> cancelHooks;
+	private final int threads;
+	private final Logger logger;
+
+	private PortfolioChecker(final Map<String, SafetyChecker<? extends S, ? extends A, ? super P>> checkers,
+							 final Map<String, Runnable> cancelHooks, final int threads, final Logger logger) {
+		checkNotNull(checkers);
+		checkArgument(!checkers.isEmpty(), "At least one checker is required");
+		checkArgument(threads > 0, "Number of threads must be positive");
+		this.checkers = ImmutableMap.copyOf(checkers);
+		this.cancelHooks = ImmutableMap.copyOf(cancelHooks);
+		this.threads = threads;
+		this.logger = checkNotNull(logger);
+	}
+
+	public static <S extends State, A extends Action, P extends Prec> Builder<S, A, P> builder() {
+		return new Builder<>();
+	}
+
+	@Override
+	public SafetyResult<S, A> check(final P prec) {
+		checkNotNull(prec);
+		final int nThreads = Math.min(threads, checkers.size());
+		logger.write(Level.INFO, "Portfolio of %d checkers on %d threads%n", checkers.size(), nThreads);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(nThreads, r -> {
+			final Thread thread = new Thread(r, getClass().getSimpleName() + "-worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		final CompletionService<SafetyResult<S, A>> completionService = new ExecutorCompletionService<>(executor);
+		final Map<Future<SafetyResult<S, A>>, String> names = new HashMap<>();
+
+		try {
+			// Checkers are started in the order of their addition if there are
+			// less threads than checkers
+			for (final Map.Entry<String, SafetyChecker<? extends S, ? extends A, ? super P>> entry : checkers
+					.entrySet()) {
+				final SafetyChecker<? extends S, ? extends A, ? super P> checker = entry.getValue();
+				names.put(completionService.submit(() -> cast(checker.check(prec))), entry.getKey());
+			}
+
+			final List<Throwable> failures = new ArrayList<>();
+			for (int i = 0; i < checkers.size(); i++) {
+				final Future<SafetyResult<S, A>> future = completionService.take();
+				final String name = names.get(future);
+				try {
+					final SafetyResult<S, A> result = future.get();
+					logger.write(Level.RESULT, "Checker %s finished first: %s%n", name, result);
+					return result;
+				} catch (final ExecutionException e) {
+					logger.write(Level.INFO, "Checker %s failed: %s%n", name, e.getCause());
+					failures.add(e.getCause());
+				}
+			}
+
+			final IllegalStateException ex = new IllegalStateException("All checkers of the portfolio failed",
+					failures.get(0));
+			failures.stream().skip(1).forEach(ex::addSuppressed);
+			throw ex;
+
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while waiting for the checkers");
+		} finally {
+			executor.shutdownNow();
+			cancel(names);
+			awaitTermination(executor);
+		}
+	}
+
+	private void awaitTermination(final ExecutorService executor) {
+		try {
+			while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+				logger.write(Level.INFO, "Waiting for the cancelled checkers to stop%n");
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void cancel(final Map<Future<SafetyResult<S, A>>, String> names) {
+		for (final Map.Entry<Future<SafetyResult<S, A>>, String> entry : names.entrySet()) {
+			if (!entry.getKey().isDone()) {
+				final String name = entry.getValue();
+				try {
+					cancelHooks.get(name).run();
+				} catch (final RuntimeException e) {
+					logger.write(Level.INFO, "Cancelling checker %s failed: %s%n", name, e);
+				}
+			}
+		}
+	}
+
+	// Results are not modified, so they can be viewed with the supertypes
+	@SuppressWarnings("unchecked")
+	private SafetyResult<S, A> cast(final SafetyResult<? extends S, ? extends A> result) {
+		return (SafetyResult<S, A>) result;
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).addAll(checkers.keySet())
+				.add("threads = " + threads).toString();
+	}
+
+	public static final class Builder<S extends State, A extends Action, P extends Prec> {
+		private final Map<String, SafetyChecker<? extends S, ? extends A, ? super P>> checkers;
+		private final Map<String, Runnable> cancelHooks;
+		private Integer threads;
+		private Logger logger;
+
+		private Builder() {
+			this.checkers = new LinkedHashMap<>();
+			this.cancelHooks = new HashMap<>();
+			this.threads = null;
+			this.logger = NullLogger.getInstance();
+		}
+
+		/**
+		 * Add a checker to the portfolio with a name that identifies it in
+		 * the log.
+		 */
+		public Builder<S, A, P> add(final String name, final SafetyChecker<? extends S, ? extends A, ? super P> checker) {
+			return add(name, checker, () -> {
+			});
+		}
+
+		/**
+		 * Add a checker to the portfolio with a name that identifies it in
+		 * the log, and a hook that is called from the thread of the portfolio
+		 * if the checker is still running when the portfolio terminates (e.g.,
+		 * to interrupt its solvers).
+		 */
+		public Builder<S, A, P> add(final String name, final SafetyChecker<? extends S, ? extends A, ? super P> checker,
+									final Runnable cancelHook) {
+			checkNotNull(name);
+			checkNotNull(checker);
+			checkNotNull(cancelHook);
+			checkArgument(!checkers.containsKey(name), "Duplicate checker name: " + name);
+			checkers.put(name, checker);
+			cancelHooks.put(name, cancelHook);
+			return this;
+		}
+
+		/**
+		 * Maximal number of checkers running at the same time. Defaults to the
+		 * number of checkers.
+		 */
+		public Builder<S, A, P> threads(final int threads) {
+			this.threads = threads;
+			return this;
+		}
+
+		public Builder<S, A, P> logger(final Logger logger) {
+			this.logger = logger;
+			return this;
+		}
+
+		public PortfolioChecker<S, A, P> build() {
+			return new PortfolioChecker<>(checkers, cancelHooks, threads == null ? checkers.size() : threads, logger);
+		}
+	}
+
+}
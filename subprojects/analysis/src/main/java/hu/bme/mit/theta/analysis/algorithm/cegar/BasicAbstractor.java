@@ -19,7 +19,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import java.util.Collection;
+import java.util.concurrent.CancellationException;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.Prec;
@@ -29,7 +31,8 @@ import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
 import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterion;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
-import hu.bme.mit.theta.analysis.reachedset.Partition;
+import hu.bme.mit.theta.analysis.reachedset.PartitionedReachedSet;
+import hu.bme.mit.theta.analysis.reachedset.ReachedSet;
 import hu.bme.mit.theta.analysis.waitlist.FifoWaitlist;
 import hu.bme.mit.theta.analysis.waitlist.Waitlist;
 import hu.bme.mit.theta.common.Utils;
@@ -43,15 +46,16 @@ import hu.bme.mit.theta.common.logging.Logger.Level;
 public final class BasicAbstractor<S extends State, A extends Action, P extends Prec> implements Abstractor<S, A, P> {
 
 	private final ArgBuilder<S, A, P> argBuilder;
-	private final Function<? super S, ?> projection;
+	private final Supplier<? extends ReachedSet<S, A>> reachedSetFactory;
 	private final Waitlist<ArgNode<S, A>> waitlist;
 	private final StopCriterion<S, A> stopCriterion;
 	private final Logger logger;
 
-	private BasicAbstractor(final ArgBuilder<S, A, P> argBuilder, final Function<? super S, ?> projection,
-							final Waitlist<ArgNode<S, A>> waitlist, final StopCriterion<S, A> stopCriterion, final Logger logger) {
+	private BasicAbstractor(final ArgBuilder<S, A, P> argBuilder,
+							final Supplier<? extends ReachedSet<S, A>> reachedSetFactory, final Waitlist<ArgNode<S, A>> waitlist,
+							final StopCriterion<S, A> stopCriterion, final Logger logger) {
 		this.argBuilder = checkNotNull(argBuilder);
-		this.projection = checkNotNull(projection);
+		this.reachedSetFactory = checkNotNull(reachedSetFactory);
 		this.waitlist = checkNotNull(waitlist);
 		this.stopCriterion = checkNotNull(stopCriterion);
 		this.logger = checkNotNull(logger);
@@ -81,30 +85,32 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 
 		assert arg.isInitialized();
 
-		logger.write(Level.INFO, "|  |  Starting ARG: %d nodes, %d incomplete, %d unsafe%n", arg.getNodes().count(),
-				arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count());
+		logger.write(Level.INFO, () -> String.format("|  |  Starting ARG: %d nodes, %d incomplete, %d unsafe%n",
+				arg.getNodes().count(), arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count()));
 		logger.write(Level.SUBSTEP, "|  |  Building ARG...");
 
-		final Partition<ArgNode<S, A>, ?> reachedSet = Partition.of(n -> projection.apply(n.getState()));
+		// New nodes are added to the reached set by the ARG
+		final ReachedSet<S, A> reachedSet = arg.getReachedSet(reachedSetFactory);
 		waitlist.clear();
 
-		reachedSet.addAll(arg.getNodes());
 		waitlist.addAll(arg.getIncompleteNodes());
 
 		while (!waitlist.isEmpty() && !stopCriterion.canStop(arg)) {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new CancellationException("Interrupted while building ARG");
+			}
 			final ArgNode<S, A> node = waitlist.remove();
 
-			close(node, reachedSet.get(node));
+			close(node, reachedSet);
 			if (!node.isSubsumed() && !node.isTarget()) {
 				final Collection<ArgNode<S, A>> newNodes = argBuilder.expand(node, prec);
-				reachedSet.addAll(newNodes);
 				waitlist.addAll(newNodes);
 			}
 		}
 
 		logger.write(Level.SUBSTEP, "done%n");
-		logger.write(Level.INFO, "|  |  Finished ARG: %d nodes, %d incomplete, %d unsafe%n", arg.getNodes().count(),
-				arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count());
+		logger.write(Level.INFO, () -> String.format("|  |  Finished ARG: %d nodes, %d incomplete, %d unsafe%n",
+				arg.getNodes().count(), arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count()));
 
 		waitlist.clear(); // Optimization
 
@@ -116,15 +122,9 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 		}
 	}
 
-	private void close(final ArgNode<S, A> node, final Collection<ArgNode<S, A>> candidates) {
-		if (!node.isLeaf()) {
-			return;
-		}
-		for (final ArgNode<S, A> candidate : candidates) {
-			if (candidate.mayCover(node)) {
-				node.cover(candidate);
-				return;
-			}
+	private void close(final ArgNode<S, A> node, final ReachedSet<S, A> reachedSet) {
+		if (node.isLeaf()) {
+			reachedSet.tryToCover(node);
 		}
 	}
 
@@ -136,6 +136,7 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 	public static final class Builder<S extends State, A extends Action, P extends Prec> {
 		private final ArgBuilder<S, A, P> argBuilder;
 		private Function<? super S, ?> projection;
+		private Supplier<? extends ReachedSet<S, A>> reachedSetFactory;
 		private Waitlist<ArgNode<S, A>> waitlist;
 		private StopCriterion<S, A> stopCriterion;
 		private Logger logger;
@@ -143,6 +144,7 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 		private Builder(final ArgBuilder<S, A, P> argBuilder) {
 			this.argBuilder = argBuilder;
 			this.projection = s -> 0;
+			this.reachedSetFactory = null;
 			this.waitlist = FifoWaitlist.create();
 			this.stopCriterion = StopCriterions.firstCex();
 			this.logger = NullLogger.getInstance();
@@ -153,6 +155,15 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 			return this;
 		}
 
+		/**
+		 * Factory for the reached set used for covering. Defaults to a
+		 * PartitionedReachedSet with the projection.
+		 */
+		public Builder<S, A, P> reachedSet(final Supplier<? extends ReachedSet<S, A>> reachedSetFactory) {
+			this.reachedSetFactory = reachedSetFactory;
+			return this;
+		}
+
 		public Builder<S, A, P> waitlist(final Waitlist<ArgNode<S, A>> waitlist) {
 			this.waitlist = waitlist;
 			return this;
@@ -169,7 +180,10 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 		}
 
 		public BasicAbstractor<S, A, P> build() {
-			return new BasicAbstractor<>(argBuilder, projection, waitlist, stopCriterion, logger);
+			final Function<? super S, ?> projection = this.projection;
+			final Supplier<? extends ReachedSet<S, A>> reachedSetFactory = this.reachedSetFactory != null
+					? this.reachedSetFactory : () -> PartitionedReachedSet.create(projection);
+			return new BasicAbstractor<>(argBuilder, reachedSetFactory, waitlist, stopCriterion, logger);
 		}
 	}
 
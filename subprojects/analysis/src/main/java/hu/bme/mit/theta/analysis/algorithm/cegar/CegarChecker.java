@@ -17,6 +17,7 @@ package hu.bme.mit.theta.analysis.algorithm.cegar;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Stopwatch;
@@ -36,7 +37,8 @@ import hu.bme.mit.theta.common.logging.Logger.Level;
  * Counterexample-Guided Abstraction Refinement (CEGAR) loop implementation,
  * that uses an Abstractor to explore the abstract state space and a Refiner to
  * check counterexamples and refine them if needed. It also provides certain
- * statistics about its execution.
+ * statistics about its execution. The loop stops with a CancellationException
+ * if its thread is interrupted.
  */
 public final class CegarChecker<S extends State, A extends Action, P extends Prec> implements SafetyChecker<S, A, P> {
 
@@ -72,6 +74,9 @@ public final class CegarChecker<S extends State, A extends Action, P extends Pre
 		P prec = initPrec;
 		int iteration = 0;
 		do {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new CancellationException("Interrupted in iteration " + (iteration + 1));
+			}
 			++iteration;
 
 			logger.write(Level.MAINSTEP, "Iteration %d%n", iteration);
@@ -0,0 +1,304 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.cegar;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
+import hu.bme.mit.theta.analysis.algorithm.ArgBuilder.Successor;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterion;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
+import hu.bme.mit.theta.analysis.reachedset.PartitionedReachedSet;
+import hu.bme.mit.theta.analysis.reachedset.ReachedSet;
+import hu.bme.mit.theta.analysis.waitlist.FifoWaitlist;
+import hu.bme.mit.theta.analysis.waitlist.Waitlist;
+import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.common.logging.Logger;
+import hu.bme.mit.theta.common.logging.Logger.Level;
+import hu.bme.mit.theta.common.logging.NullLogger;
+
+/**
+ * Abstractor implementation that expands a frontier of nodes from the waitlist
+ * concurrently. Each worker thread owns an ArgBuilder (with its own analysis
+ * and solver), and only computes successors. Covering and adding the new nodes
+ * to the ARG is done by the calling thread in the order of the frontier, so
+ * node ids do not depend on thread scheduling. The worker threads only live
+ * during a call to check.
+ */
+public final class ParallelAbstractor<S extends State, A extends Action, P extends Prec>
+		implements Abstractor<S, A, P> {
+
+	private final List<ArgBuilder<S, A, P>> argBuilders;
+	private final Supplier<? extends ReachedSet<S, A>> reachedSetFactory;
+	private final Waitlist<ArgNode<S, A>> waitlist;
+	private final StopCriterion<S, A> stopCriterion;
+	private final Logger logger;
+	private final int frontierSize;
+
+	private ParallelAbstractor(final List<ArgBuilder<S, A, P>> argBuilders,
+							   final Supplier<? extends ReachedSet<S, A>> reachedSetFactory,
+							   final Waitlist<ArgNode<S, A>> waitlist, final StopCriterion<S, A> stopCriterion,
+							   final Logger logger, final int frontierSize) {
+		checkNotNull(argBuilders);
+		checkArgument(!argBuilders.isEmpty(), "At least one ArgBuilder is required");
+		checkArgument(frontierSize > 0, "Frontier size must be positive");
+		this.argBuilders = ImmutableList.copyOf(argBuilders);
+		this.reachedSetFactory = checkNotNull(reachedSetFactory);
+		this.waitlist = checkNotNull(waitlist);
+		this.stopCriterion = checkNotNull(stopCriterion);
+		this.logger = checkNotNull(logger);
+		this.frontierSize = frontierSize;
+	}
+
+	/**
+	 * Create a builder with the ArgBuilders of the workers. The number of
+	 * workers is the number of ArgBuilders. The ArgBuilders should not share
+	 * solvers, as they are used concurrently, and their solvers must be usable
+	 * by threads other than the one creating them. The first ArgBuilder is
+	 * also used for creating and initializing the ARG.
+	 */
+	public static <S extends State, A extends Action, P extends Prec> Builder<S, A, P> builder(
+			final List<ArgBuilder<S, A, P>> argBuilders) {
+		return new Builder<>(argBuilders);
+	}
+
+	@Override
+	public ARG<S, A> createArg() {
+		return argBuilders.get(0).createArg();
+	}
+
+	@Override
+	public AbstractorResult check(final ARG<S, A> arg, final P prec) {
+		checkNotNull(arg);
+		checkNotNull(prec);
+		logger.write(Level.DETAIL, "|  |  Precision: %s%n", prec);
+
+		if (!arg.isInitialized()) {
+			logger.write(Level.SUBSTEP, "|  |  (Re)initializing ARG...");
+			argBuilders.get(0).init(arg, prec);
+			logger.write(Level.SUBSTEP, "done%n");
+		}
+
+		assert arg.isInitialized();
+
+		logger.write(Level.INFO, () -> String.format("|  |  Starting ARG: %d nodes, %d incomplete, %d unsafe%n",
+				arg.getNodes().count(), arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count()));
+		logger.write(Level.SUBSTEP, "|  |  Building ARG with %d workers...", argBuilders.size());
+
+		// New nodes are added to the reached set by the ARG
+		final ReachedSet<S, A> reachedSet = arg.getReachedSet(reachedSetFactory);
+		waitlist.clear();
+
+		waitlist.addAll(arg.getIncompleteNodes());
+
+		final ExecutorService executor = Executors.newFixedThreadPool(argBuilders.size(), r -> {
+			final Thread thread = new Thread(r, getClass().getSimpleName() + "-worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			while (!waitlist.isEmpty() && !stopCriterion.canStop(arg)) {
+				if (Thread.currentThread().isInterrupted()) {
+					throw new CancellationException("Interrupted while building ARG");
+				}
+				final List<ArgNode<S, A>> frontier = new ArrayList<>(frontierSize);
+				while (!waitlist.isEmpty() && frontier.size() < frontierSize) {
+					final ArgNode<S, A> node = waitlist.remove();
+					close(node, reachedSet);
+					if (!node.isSubsumed() && !node.isTarget()) {
+						frontier.add(node);
+					}
+				}
+
+				final List<List<Successor<S, A>>> succs = computeSuccs(executor, frontier, prec);
+
+				for (int i = 0; i < frontier.size(); ++i) {
+					final Collection<ArgNode<S, A>> newNodes = argBuilders.get(0).addSuccs(frontier.get(i),
+							succs.get(i));
+					waitlist.addAll(newNodes);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		logger.write(Level.SUBSTEP, "done%n");
+		logger.write(Level.INFO, () -> String.format("|  |  Finished ARG: %d nodes, %d incomplete, %d unsafe%n",
+				arg.getNodes().count(), arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count()));
+
+		waitlist.clear(); // Optimization
+
+		if (arg.isSafe()) {
+			checkState(arg.isComplete(), "Returning incomplete ARG as safe");
+			return AbstractorResult.safe();
+		} else {
+			return AbstractorResult.unsafe();
+		}
+	}
+
+	/**
+	 * Computes the successors of the frontier. Worker i is statically assigned
+	 * nodes i, i + n, i + 2n, ... of the frontier, so that the solver of each
+	 * worker gets the same queries regardless of scheduling.
+	 */
+	private List<List<Successor<S, A>>> computeSuccs(final ExecutorService executor,
+													 final List<ArgNode<S, A>> frontier, final P prec) {
+		final int nWorkers = Math.min(argBuilders.size(), frontier.size());
+		final List<List<Successor<S, A>>> result = new ArrayList<>(frontier.size());
+		for (int i = 0; i < frontier.size(); ++i) {
+			result.add(null);
+		}
+
+		if (nWorkers == 1) {
+			for (int i = 0; i < frontier.size(); ++i) {
+				result.set(i, argBuilders.get(0).computeSuccs(frontier.get(i), prec));
+			}
+			return result;
+		}
+
+		final List<Callable<Void>> tasks = new ArrayList<>(nWorkers);
+		for (int w = 0; w < nWorkers; ++w) {
+			final int worker = w;
+			tasks.add(() -> {
+				final ArgBuilder<S, A, P> argBuilder = argBuilders.get(worker);
+				for (int i = worker; i < frontier.size(); i += nWorkers) {
+					result.set(i, argBuilder.computeSuccs(frontier.get(i), prec));
+				}
+				return null;
+			});
+		}
+
+		try {
+			for (final Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while expanding nodes");
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new IllegalStateException(cause);
+			}
+		}
+
+		return result;
+	}
+
+	private void close(final ArgNode<S, A> node, final ReachedSet<S, A> reachedSet) {
+		if (node.isLeaf()) {
+			reachedSet.tryToCover(node);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add(waitlist).add("workers = " + argBuilders.size())
+				.toString();
+	}
+
+	public static final class Builder<S extends State, A extends Action, P extends Prec> {
+		private final List<ArgBuilder<S, A, P>> argBuilders;
+		private Function<? super S, ?> projection;
+		private Supplier<? extends ReachedSet<S, A>> reachedSetFactory;
+		private Waitlist<ArgNode<S, A>> waitlist;
+		private StopCriterion<S, A> stopCriterion;
+		private Logger logger;
+		private int frontierSize;
+
+		private Builder(final List<ArgBuilder<S, A, P>> argBuilders) {
+			this.argBuilders = argBuilders;
+			this.projection = s -> 0;
+			this.reachedSetFactory = null;
+			this.waitlist = FifoWaitlist.create();
+			this.stopCriterion = StopCriterions.firstCex();
+			this.logger = NullLogger.getInstance();
+			this.frontierSize = argBuilders.size();
+		}
+
+		public Builder<S, A, P> projection(final Function<? super S, ?> projection) {
+			this.projection = projection;
+			return this;
+		}
+
+		/**
+		 * Factory for the reached set used for covering. Defaults to a
+		 * PartitionedReachedSet with the projection.
+		 */
+		public Builder<S, A, P> reachedSet(final Supplier<? extends ReachedSet<S, A>> reachedSetFactory) {
+			this.reachedSetFactory = reachedSetFactory;
+			return this;
+		}
+
+		public Builder<S, A, P> waitlist(final Waitlist<ArgNode<S, A>> waitlist) {
+			this.waitlist = waitlist;
+			return this;
+		}
+
+		public Builder<S, A, P> stopCriterion(final StopCriterion<S, A> stopCriterion) {
+			this.stopCriterion = stopCriterion;
+			return this;
+		}
+
+		public Builder<S, A, P> logger(final Logger logger) {
+			this.logger = logger;
+			return this;
+		}
+
+		/**
+		 * Maximal number of nodes removed from the waitlist and expanded
+		 * together. Defaults to the number of workers.
+		 */
+		public Builder<S, A, P> frontierSize(final int frontierSize) {
+			this.frontierSize = frontierSize;
+			return this;
+		}
+
+		public ParallelAbstractor<S, A, P> build() {
+			final Function<? super S, ?> projection = this.projection;
+			final Supplier<? extends ReachedSet<S, A>> reachedSetFactory = this.reachedSetFactory != null
+					? this.reachedSetFactory : () -> PartitionedReachedSet.create(projection);
+			return new ParallelAbstractor<>(argBuilders, reachedSetFactory, waitlist, stopCriterion, logger,
+					frontierSize);
+		}
+	}
+
+}
@@ -75,9 +75,7 @@ public final class StopCriterions {
 
 		@Override
 		public boolean canStop(final ARG<S, A> arg) {
-			// TODO: this could be optimized: we don't need to count it,
-			// we just need to know if there are >= n elements
-			return arg.getUnsafeNodes().count() >= n;
+			return arg.getUnsafeNodes().limit(n).count() >= n;
 		}
 
 		@Override
@@ -0,0 +1,429 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+import hu.bme.mit.theta.analysis.expl.StmtApplier.ApplyResult;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.MutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.stmt.AssignStmt;
+import hu.bme.mit.theta.core.stmt.AssumeStmt;
+import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.SkipStmt;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.type.BinaryExpr;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.type.anytype.IteExpr;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+import hu.bme.mit.theta.core.type.booltype.AndExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
+import hu.bme.mit.theta.core.type.booltype.IffExpr;
+import hu.bme.mit.theta.core.type.booltype.ImplyExpr;
+import hu.bme.mit.theta.core.type.booltype.NotExpr;
+import hu.bme.mit.theta.core.type.booltype.OrExpr;
+import hu.bme.mit.theta.core.type.booltype.XorExpr;
+import hu.bme.mit.theta.core.type.inttype.IntAddExpr;
+import hu.bme.mit.theta.core.type.inttype.IntDivExpr;
+import hu.bme.mit.theta.core.type.inttype.IntEqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntGeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntGtExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLtExpr;
+import hu.bme.mit.theta.core.type.inttype.IntMulExpr;
+import hu.bme.mit.theta.core.type.inttype.IntNegExpr;
+import hu.bme.mit.theta.core.type.inttype.IntNeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntSubExpr;
+import hu.bme.mit.theta.core.type.inttype.IntToRatExpr;
+import hu.bme.mit.theta.core.type.inttype.ModExpr;
+import hu.bme.mit.theta.core.type.inttype.RemExpr;
+import hu.bme.mit.theta.core.type.rattype.RatAddExpr;
+import hu.bme.mit.theta.core.type.rattype.RatDivExpr;
+import hu.bme.mit.theta.core.type.rattype.RatEqExpr;
+import hu.bme.mit.theta.core.type.rattype.RatGeqExpr;
+import hu.bme.mit.theta.core.type.rattype.RatGtExpr;
+import hu.bme.mit.theta.core.type.rattype.RatLeqExpr;
+import hu.bme.mit.theta.core.type.rattype.RatLitExpr;
+import hu.bme.mit.theta.core.type.rattype.RatLtExpr;
+import hu.bme.mit.theta.core.type.rattype.RatMulExpr;
+import hu.bme.mit.theta.core.type.rattype.RatNegExpr;
+import hu.bme.mit.theta.core.type.rattype.RatNeqExpr;
+import hu.bme.mit.theta.core.type.rattype.RatSubExpr;
+import hu.bme.mit.theta.core.utils.StmtUtils;
+
+/**
+ * A list of statements compiled into steps over an array of slots, one slot
+ * for each variable of the statements. A slot holds the literal value of its
+ * variable, or null if the value is unknown. Expressions are evaluated
+ * directly on the slots instead of being simplified with respect to a
+ * valuation.
+ *
+ * The compiled steps only handle the cases where the result is a literal. In
+ * any other case (unknown values, nondeterministic statements) the execution
+ * stops, and the remaining statements should be applied by {@link StmtApplier}
+ * (and the solver).
+ */
+final class CompiledStmts {
+
+	private final List<VarDecl<?>> vars;
+	private final Map<VarDecl<?>, Integer> slotOf;
+	private final Step[] steps;
+
+	private CompiledStmts(final List<Stmt> stmts) {
+		this.vars = new ArrayList<>(StmtUtils.getVars(stmts));
+		this.slotOf = new HashMap<>();
+		for (int i = 0; i < vars.size(); ++i) {
+			slotOf.put(vars.get(i), i);
+		}
+		final List<Step> steps = new ArrayList<>(stmts.size());
+		for (final Stmt stmt : stmts) {
+			final Step step = compile(stmt);
+			if (step == null) {
+				break;
+			}
+			steps.add(step);
+		}
+		this.steps = steps.toArray(new Step[0]);
+	}
+
+	public static CompiledStmts compile(final List<Stmt> stmts) {
+		return new CompiledStmts(stmts);
+	}
+
+	/**
+	 * Load the values of the variables from a valuation into a new array of
+	 * slots.
+	 */
+	public LitExpr<?>[] load(final Valuation val) {
+		final LitExpr<?>[] slots = new LitExpr<?>[vars.size()];
+		for (int i = 0; i < slots.length; ++i) {
+			final Optional<? extends LitExpr<?>> eval = val.eval(vars.get(i));
+			slots[i] = eval.orElse(null);
+		}
+		return slots;
+	}
+
+	/**
+	 * Execute the statements on the slots. Returns the number of statements
+	 * executed, or -1 if the statements are infeasible. If not all statements
+	 * could be executed, the slots hold the values before the first statement
+	 * that was not executed.
+	 */
+	public int execute(final LitExpr<?>[] slots) {
+		for (int i = 0; i < steps.length; ++i) {
+			final ApplyResult result = steps[i].apply(slots);
+			if (result == ApplyResult.BOTTOM) {
+				return -1;
+			} else if (result == ApplyResult.FAILURE) {
+				return i;
+			}
+		}
+		return steps.length;
+	}
+
+	/**
+	 * Create a mutable copy of a valuation, updated with the values of the
+	 * slots.
+	 */
+	public MutableValuation store(final Valuation val, final LitExpr<?>[] slots) {
+		final MutableValuation result = MutableValuation.copyOf(val);
+		for (int i = 0; i < slots.length; ++i) {
+			if (slots[i] == null) {
+				result.remove(vars.get(i));
+			} else {
+				result.put(vars.get(i), slots[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Create the state of a precision from a valuation updated with the values
+	 * of the slots, without copying the valuation.
+	 */
+	public ExplState createState(final Valuation val, final LitExpr<?>[] slots, final ExplPrec prec) {
+		final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+		for (final VarDecl<?> varDecl : prec.getVars()) {
+			final Integer slot = slotOf.get(varDecl);
+			if (slot == null) {
+				final Optional<? extends LitExpr<?>> eval = val.eval(varDecl);
+				if (eval.isPresent()) {
+					builder.put(varDecl, eval.get());
+				}
+			} else if (slots[slot] != null) {
+				builder.put(varDecl, slots[slot]);
+			}
+		}
+		return ExplState.of(builder.build());
+	}
+
+	////
+
+	private interface Step {
+		ApplyResult apply(LitExpr<?>[] slots);
+	}
+
+	/**
+	 * Evaluates an expression over the slots, returning null if the value is
+	 * unknown.
+	 */
+	private interface Evaluator {
+		LitExpr<?> eval(LitExpr<?>[] slots);
+	}
+
+	private Step compile(final Stmt stmt) {
+		if (stmt instanceof AssignStmt) {
+			final AssignStmt<?> assignStmt = (AssignStmt<?>) stmt;
+			final int slot = slotOf.get(assignStmt.getVarDecl());
+			final Evaluator expr = compile(assignStmt.getExpr());
+			return slots -> {
+				final LitExpr<?> value = expr.eval(slots);
+				if (value == null) {
+					return ApplyResult.FAILURE;
+				}
+				slots[slot] = value;
+				return ApplyResult.SUCCESS;
+			};
+		} else if (stmt instanceof AssumeStmt) {
+			final Evaluator cond = compile(((AssumeStmt) stmt).getCond());
+			return slots -> {
+				final LitExpr<?> value = cond.eval(slots);
+				if (value == null) {
+					return ApplyResult.FAILURE;
+				}
+				return ((BoolLitExpr) value).getValue() ? ApplyResult.SUCCESS : ApplyResult.BOTTOM;
+			};
+		} else if (stmt instanceof HavocStmt) {
+			final int slot = slotOf.get(((HavocStmt<?>) stmt).getVarDecl());
+			return slots -> {
+				slots[slot] = null;
+				return ApplyResult.SUCCESS;
+			};
+		} else if (stmt instanceof SkipStmt) {
+			return slots -> ApplyResult.SUCCESS;
+		} else {
+			return null;
+		}
+	}
+
+	private Evaluator compile(final Expr<?> expr) {
+		if (expr instanceof LitExpr) {
+			final LitExpr<?> lit = (LitExpr<?>) expr;
+			return slots -> lit;
+		} else if (expr instanceof RefExpr) {
+			final Decl<?> decl = ((RefExpr<?>) expr).getDecl();
+			final Integer slot = slotOf.get(decl);
+			if (slot == null) {
+				return slots -> null;
+			}
+			return slots -> slots[slot];
+		} else if (expr instanceof IteExpr) {
+			return compileIte((IteExpr<?>) expr);
+		} else if (expr instanceof NotExpr) {
+			return unary((NotExpr) expr, op -> BoolLitExpr.of(!((BoolLitExpr) op).getValue()));
+		} else if (expr instanceof AndExpr) {
+			return compileAndOr(((AndExpr) expr).getOps(), false);
+		} else if (expr instanceof OrExpr) {
+			return compileAndOr(((OrExpr) expr).getOps(), true);
+		} else if (expr instanceof ImplyExpr) {
+			return compileImply((ImplyExpr) expr);
+		} else if (expr instanceof IffExpr) {
+			return binary((IffExpr) expr, (l, r) -> BoolLitExpr.of(l.equals(r)));
+		} else if (expr instanceof XorExpr) {
+			return binary((XorExpr) expr, (l, r) -> BoolLitExpr.of(!l.equals(r)));
+		} else if (expr instanceof IntAddExpr) {
+			return multiary(((IntAddExpr) expr).getOps(), (l, r) -> ((IntLitExpr) l).add((IntLitExpr) r));
+		} else if (expr instanceof IntMulExpr) {
+			return compileIntMul((IntMulExpr) expr);
+		} else if (expr instanceof IntSubExpr) {
+			return binary((IntSubExpr) expr, (l, r) -> ((IntLitExpr) l).sub((IntLitExpr) r));
+		} else if (expr instanceof IntNegExpr) {
+			return unary((IntNegExpr) expr, op -> ((IntLitExpr) op).neg());
+		} else if (expr instanceof IntDivExpr) {
+			return binary((IntDivExpr) expr, (l, r) -> ((IntLitExpr) l).div((IntLitExpr) r));
+		} else if (expr instanceof ModExpr) {
+			return binary((ModExpr) expr, (l, r) -> ((IntLitExpr) l).mod((IntLitExpr) r));
+		} else if (expr instanceof RemExpr) {
+			return binary((RemExpr) expr, (l, r) -> ((IntLitExpr) l).rem((IntLitExpr) r));
+		} else if (expr instanceof IntEqExpr) {
+			return binary((IntEqExpr) expr, (l, r) -> ((IntLitExpr) l).eq((IntLitExpr) r));
+		} else if (expr instanceof IntNeqExpr) {
+			return binary((IntNeqExpr) expr, (l, r) -> ((IntLitExpr) l).neq((IntLitExpr) r));
+		} else if (expr instanceof IntLtExpr) {
+			return binary((IntLtExpr) expr, (l, r) -> ((IntLitExpr) l).lt((IntLitExpr) r));
+		} else if (expr instanceof IntLeqExpr) {
+			return binary((IntLeqExpr) expr, (l, r) -> ((IntLitExpr) l).leq((IntLitExpr) r));
+		} else if (expr instanceof IntGtExpr) {
+			return binary((IntGtExpr) expr, (l, r) -> ((IntLitExpr) l).gt((IntLitExpr) r));
+		} else if (expr instanceof IntGeqExpr) {
+			return binary((IntGeqExpr) expr, (l, r) -> ((IntLitExpr) l).geq((IntLitExpr) r));
+		} else if (expr instanceof IntToRatExpr) {
+			return unary((IntToRatExpr) expr, op -> ((IntLitExpr) op).toRat());
+		} else if (expr instanceof RatAddExpr) {
+			return multiary(((RatAddExpr) expr).getOps(), (l, r) -> ((RatLitExpr) l).add((RatLitExpr) r));
+		} else if (expr instanceof RatMulExpr) {
+			return multiary(((RatMulExpr) expr).getOps(), (l, r) -> ((RatLitExpr) l).mul((RatLitExpr) r));
+		} else if (expr instanceof RatSubExpr) {
+			return binary((RatSubExpr) expr, (l, r) -> ((RatLitExpr) l).sub((RatLitExpr) r));
+		} else if (expr instanceof RatNegExpr) {
+			return unary((RatNegExpr) expr, op -> ((RatLitExpr) op).neg());
+		} else if (expr instanceof RatDivExpr) {
+			return binary((RatDivExpr) expr, (l, r) -> ((RatLitExpr) l).div((RatLitExpr) r));
+		} else if (expr instanceof RatEqExpr) {
+			return binary((RatEqExpr) expr, (l, r) -> ((RatLitExpr) l).eq((RatLitExpr) r));
+		} else if (expr instanceof RatNeqExpr) {
+			return binary((RatNeqExpr) expr, (l, r) -> ((RatLitExpr) l).neq((RatLitExpr) r));
+		} else if (expr instanceof RatLtExpr) {
+			return binary((RatLtExpr) expr, (l, r) -> ((RatLitExpr) l).lt((RatLitExpr) r));
+		} else if (expr instanceof RatLeqExpr) {
+			return binary((RatLeqExpr) expr, (l, r) -> ((RatLitExpr) l).leq((RatLitExpr) r));
+		} else if (expr instanceof RatGtExpr) {
+			return binary((RatGtExpr) expr, (l, r) -> ((RatLitExpr) l).gt((RatLitExpr) r));
+		} else if (expr instanceof RatGeqExpr) {
+			return binary((RatGeqExpr) expr, (l, r) -> ((RatLitExpr) l).geq((RatLitExpr) r));
+		} else {
+			// Unsupported expressions are left to the simplifier
+			return slots -> null;
+		}
+	}
+
+	private Evaluator unary(final Expr<?> expr, final UnaryOperator<LitExpr<?>> operator) {
+		final Evaluator op = compile(expr.getOps().get(0));
+		return slots -> {
+			final LitExpr<?> value = op.eval(slots);
+			return value == null ? null : operator.apply(value);
+		};
+	}
+
+	private Evaluator binary(final BinaryExpr<?, ?> expr, final BinaryOperator<LitExpr<?>> operator) {
+		final Evaluator left = compile(expr.getLeftOp());
+		final Evaluator right = compile(expr.getRightOp());
+		return slots -> {
+			final LitExpr<?> leftValue = left.eval(slots);
+			if (leftValue == null) {
+				return null;
+			}
+			final LitExpr<?> rightValue = right.eval(slots);
+			return rightValue == null ? null : operator.apply(leftValue, rightValue);
+		};
+	}
+
+	private Evaluator multiary(final List<? extends Expr<?>> ops, final BinaryOperator<LitExpr<?>> operator) {
+		final Evaluator[] evaluators = compileAll(ops);
+		return slots -> {
+			LitExpr<?> result = null;
+			for (final Evaluator evaluator : evaluators) {
+				final LitExpr<?> value = evaluator.eval(slots);
+				if (value == null) {
+					return null;
+				}
+				result = result == null ? value : operator.apply(result, value);
+			}
+			return result;
+		};
+	}
+
+	private Evaluator compileIte(final IteExpr<?> expr) {
+		final Evaluator cond = compile(expr.getCond());
+		final Evaluator then = compile(expr.getThen());
+		final Evaluator elze = compile(expr.getElse());
+		return slots -> {
+			final LitExpr<?> condValue = cond.eval(slots);
+			if (condValue == null) {
+				return null;
+			}
+			return ((BoolLitExpr) condValue).getValue() ? then.eval(slots) : elze.eval(slots);
+		};
+	}
+
+	// The value of a conjunction (disjunction) is known if any of its
+	// operands is false (true), even if other operands are unknown
+	private Evaluator compileAndOr(final List<? extends Expr<?>> ops, final boolean dominant) {
+		final Evaluator[] evaluators = compileAll(ops);
+		final BoolLitExpr dominantValue = BoolLitExpr.of(dominant);
+		final BoolLitExpr neutralValue = BoolLitExpr.of(!dominant);
+		return slots -> {
+			boolean known = true;
+			for (final Evaluator evaluator : evaluators) {
+				final LitExpr<?> value = evaluator.eval(slots);
+				if (value == null) {
+					known = false;
+				} else if (((BoolLitExpr) value).getValue() == dominant) {
+					return dominantValue;
+				}
+			}
+			return known ? neutralValue : null;
+		};
+	}
+
+	private Evaluator compileImply(final ImplyExpr expr) {
+		final Evaluator left = compile(expr.getLeftOp());
+		final Evaluator right = compile(expr.getRightOp());
+		return slots -> {
+			final LitExpr<?> leftValue = left.eval(slots);
+			final LitExpr<?> rightValue = right.eval(slots);
+			if ((leftValue != null && !((BoolLitExpr) leftValue).getValue())
+					|| (rightValue != null && ((BoolLitExpr) rightValue).getValue())) {
+				return BoolLitExpr.of(true);
+			} else if (leftValue != null && rightValue != null) {
+				return BoolLitExpr.of(false);
+			}
+			return null;
+		};
+	}
+
+	// A product is zero if any of its operands is zero, even if other
+	// operands are unknown
+	private Evaluator compileIntMul(final IntMulExpr expr) {
+		final Evaluator[] evaluators = compileAll(expr.getOps());
+		return slots -> {
+			boolean known = true;
+			int result = 1;
+			for (final Evaluator evaluator : evaluators) {
+				final LitExpr<?> value = evaluator.eval(slots);
+				if (value == null) {
+					known = false;
+				} else {
+					result *= ((IntLitExpr) value).getValue();
+					if (result == 0) {
+						return IntLitExpr.of(0);
+					}
+				}
+			}
+			return known ? IntLitExpr.of(result) : null;
+		};
+	}
+
+	private Evaluator[] compileAll(final List<? extends Expr<?>> ops) {
+		final Evaluator[] evaluators = new Evaluator[ops.size()];
+		for (int i = 0; i < evaluators.length; ++i) {
+			evaluators[i] = compile(ops.get(i));
+		}
+		return evaluators;
+	}
+
+}
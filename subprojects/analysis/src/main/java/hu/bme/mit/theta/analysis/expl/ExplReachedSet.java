@@ -0,0 +1,308 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.reachedset.ReachedSet;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.LitExpr;
+
+/**
+ * Reached set for states containing an explicit state, which indexes the nodes
+ * by their valuations. Nodes are first partitioned by a projection (e.g., the
+ * location), and then grouped by the set of variables defined by their
+ * explicit state. A node can only be covered by a node whose valuation is a
+ * subset of its own valuation, so covering candidates are found by a hash
+ * lookup of the restricted valuation in each group with a subset of the
+ * defined variables, instead of checking every node of the partition. Groups
+ * are stored in a trie keyed by the ids of the variables, so only the groups
+ * with a subset of the defined variables are visited.
+ *
+ * The partial order of the analysis must imply the order of the explicit
+ * states, i.e., a node can only cover an other node if its explicit state is
+ * less defined, which holds for the explicit analysis and its products. The
+ * explicit states can only define variables.
+ */
+public final class ExplReachedSet<S extends State, A extends Action> implements ReachedSet<S, A> {
+
+	private final Function<? super S, ?> projection;
+	private final Function<? super S, ? extends ExplState> toExplState;
+	private final Map<Object, Index<S, A>> indexes;
+
+	private ExplReachedSet(final Function<? super S, ?> projection,
+						   final Function<? super S, ? extends ExplState> toExplState) {
+		this.projection = checkNotNull(projection);
+		this.toExplState = checkNotNull(toExplState);
+		this.indexes = new HashMap<>();
+	}
+
+	public static <S extends State, A extends Action> ExplReachedSet<S, A> create(
+			final Function<? super S, ?> projection, final Function<? super S, ? extends ExplState> toExplState) {
+		return new ExplReachedSet<>(projection, toExplState);
+	}
+
+	public static <A extends Action> ExplReachedSet<ExplState, A> create() {
+		return new ExplReachedSet<>(s -> 0, s -> s);
+	}
+
+	@Override
+	public void add(final ArgNode<S, A> node) {
+		checkNotNull(node);
+		final Object key = projection.apply(node.getState());
+		indexes.computeIfAbsent(key, k -> new Index<>()).add(node, toExplState.apply(node.getState()));
+	}
+
+	@Override
+	public void remove(final ArgNode<S, A> node) {
+		checkNotNull(node);
+		final Object key = projection.apply(node.getState());
+		final Index<S, A> index = indexes.get(key);
+		if (index != null) {
+			index.remove(node, toExplState.apply(node.getState()));
+			if (index.isEmpty()) {
+				indexes.remove(key);
+			}
+		}
+	}
+
+	@Override
+	public void tryToCover(final ArgNode<S, A> node) {
+		checkNotNull(node);
+		final Index<S, A> index = indexes.get(projection.apply(node.getState()));
+		if (index != null) {
+			for (final ArgNode<S, A> candidate : index.getCandidates(toExplState.apply(node.getState()))) {
+				if (candidate.mayCover(node)) {
+					node.cover(candidate);
+					return;
+				}
+			}
+		}
+	}
+
+	private static final class Index<S extends State, A extends Action> {
+		// Trie of the defined variables in the order of their ids, where each
+		// group of nodes is stored at the end of the path of its variables
+		private final Group<S, A> root;
+		private final List<ArgNode<S, A>> bottomNodes;
+		private int size;
+
+		private Index() {
+			root = new Group<>(new VarDecl<?>[0]);
+			bottomNodes = new ArrayList<>();
+			size = 0;
+		}
+
+		public void add(final ArgNode<S, A> node, final ExplState state) {
+			if (state.isBottom()) {
+				bottomNodes.add(node);
+			} else {
+				final VarDecl<?>[] vars = sortedVars(state);
+				Group<S, A> group = root;
+				for (int i = 0; i < vars.length; i++) {
+					group = group.getOrCreateChild(vars, i);
+				}
+				group.nodes.computeIfAbsent(Values.of(state, vars), k -> new ArrayList<>()).add(node);
+			}
+			size++;
+		}
+
+		public void remove(final ArgNode<S, A> node, final ExplState state) {
+			final boolean removed;
+			if (state.isBottom()) {
+				removed = bottomNodes.remove(node);
+			} else {
+				final VarDecl<?>[] vars = sortedVars(state);
+				Group<S, A> group = root;
+				for (int i = 0; i < vars.length && group != null; i++) {
+					group = group.getChild(vars[i].getId());
+				}
+				if (group != null) {
+					final Values values = Values.of(state, vars);
+					final List<ArgNode<S, A>> nodes = group.nodes.get(values);
+					removed = nodes != null && nodes.remove(node);
+					if (removed && nodes.isEmpty()) {
+						group.nodes.remove(values);
+					}
+				} else {
+					removed = false;
+				}
+			}
+			if (removed) {
+				size--;
+			}
+		}
+
+		public boolean isEmpty() {
+			return size == 0;
+		}
+
+		public Collection<ArgNode<S, A>> getCandidates(final ExplState state) {
+			final List<ArgNode<S, A>> candidates = new ArrayList<>();
+			if (state.isBottom()) {
+				// Bottom is less than or equal to any state
+				root.collectAll(candidates);
+				candidates.addAll(bottomNodes);
+			} else {
+				root.collectSubsets(state, sortedVars(state), 0, candidates);
+			}
+			return candidates;
+		}
+
+		private static VarDecl<?>[] sortedVars(final ExplState state) {
+			final Collection<? extends Decl<?>> decls = state.getDecls();
+			final VarDecl<?>[] vars = new VarDecl<?>[decls.size()];
+			int i = 0;
+			for (final Decl<?> decl : decls) {
+				checkArgument(decl instanceof VarDecl, "Only variables are supported in explicit states");
+				vars[i++] = (VarDecl<?>) decl;
+			}
+			Arrays.sort(vars, Comparator.comparingInt(VarDecl::getId));
+			return vars;
+		}
+	}
+
+	private static final class Group<S extends State, A extends Action> {
+		// Defined variables of the group, sorted by id
+		private final VarDecl<?>[] vars;
+		// Valuation restricted to the variables -> nodes
+		private final Map<Values, List<ArgNode<S, A>>> nodes;
+		// Children sorted by the id of their last variable
+		private int[] childIds;
+		private Group<S, A>[] children;
+		private int nChildren;
+
+		@SuppressWarnings("unchecked")
+		private Group(final VarDecl<?>[] vars) {
+			this.vars = vars;
+			this.nodes = new HashMap<>();
+			this.childIds = new int[0];
+			this.children = (Group<S, A>[]) new Group<?, ?>[0];
+			this.nChildren = 0;
+		}
+
+		private Group<S, A> getChild(final int id) {
+			final int pos = Arrays.binarySearch(childIds, 0, nChildren, id);
+			return pos >= 0 ? children[pos] : null;
+		}
+
+		private Group<S, A> getOrCreateChild(final VarDecl<?>[] path, final int depth) {
+			final int id = path[depth].getId();
+			final int pos = Arrays.binarySearch(childIds, 0, nChildren, id);
+			if (pos >= 0) {
+				return children[pos];
+			}
+			final int insert = -pos - 1;
+			if (nChildren == childIds.length) {
+				final int capacity = Math.max(2, nChildren * 2);
+				childIds = Arrays.copyOf(childIds, capacity);
+				children = Arrays.copyOf(children, capacity);
+			}
+			System.arraycopy(childIds, insert, childIds, insert + 1, nChildren - insert);
+			System.arraycopy(children, insert, children, insert + 1, nChildren - insert);
+			final Group<S, A> child = new Group<>(Arrays.copyOf(path, depth + 1));
+			childIds[insert] = id;
+			children[insert] = child;
+			nChildren++;
+			return child;
+		}
+
+		private void collectAll(final List<ArgNode<S, A>> candidates) {
+			nodes.values().forEach(candidates::addAll);
+			for (int i = 0; i < nChildren; i++) {
+				children[i].collectAll(candidates);
+			}
+		}
+
+		/**
+		 * Collect the nodes of the groups whose variables are a subset of the
+		 * variables of the state, and whose valuation agrees with the state.
+		 * Only the children with a variable among the remaining variables of
+		 * the state (from a given position) are visited.
+		 */
+		private void collectSubsets(final ExplState state, final VarDecl<?>[] stateVars, final int from,
+									final List<ArgNode<S, A>> candidates) {
+			if (!nodes.isEmpty()) {
+				final List<ArgNode<S, A>> matching = nodes.get(Values.of(state, vars));
+				if (matching != null) {
+					candidates.addAll(matching);
+				}
+			}
+			int j = from;
+			for (int i = 0; i < nChildren && j < stateVars.length; i++) {
+				final int id = childIds[i];
+				while (j < stateVars.length && stateVars[j].getId() < id) {
+					j++;
+				}
+				if (j < stateVars.length && stateVars[j].getId() == id) {
+					children[i].collectSubsets(state, stateVars, j + 1, candidates);
+					j++;
+				}
+			}
+		}
+	}
+
+	// Values of the variables of a group, in the order of the variables
+	private static final class Values {
+		private final LitExpr<?>[] values;
+		private final int hashCode;
+
+		private Values(final LitExpr<?>[] values) {
+			this.values = values;
+			this.hashCode = Arrays.hashCode(values);
+		}
+
+		private static Values of(final ExplState state, final VarDecl<?>[] vars) {
+			final LitExpr<?>[] values = new LitExpr<?>[vars.length];
+			for (int i = 0; i < vars.length; i++) {
+				values[i] = state.eval(vars[i]).get();
+			}
+			return new Values(values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (obj instanceof Values) {
+				final Values that = (Values) obj;
+				return this.hashCode == that.hashCode && Arrays.equals(this.values, that.values);
+			} else {
+				return false;
+			}
+		}
+	}
+
+}
@@ -22,7 +22,9 @@ import static java.util.Collections.singleton;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import hu.bme.mit.theta.analysis.TransFunc;
 import hu.bme.mit.theta.analysis.expl.StmtApplier.ApplyResult;
@@ -31,6 +33,7 @@ import hu.bme.mit.theta.analysis.expr.StmtAction;
 import hu.bme.mit.theta.core.model.MutableValuation;
 import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.core.utils.StmtUnfoldResult;
 import hu.bme.mit.theta.core.utils.StmtUtils;
@@ -42,10 +45,13 @@ public final class ExplStmtTransFunc implements TransFunc<ExplState, StmtAction,
 	private final Solver solver;
 	// 0 means arbitrarily many
 	private final int maxSuccToEnumerate;
+	// Statements of the actions compiled on their first use
+	private final Map<List<Stmt>, CompiledStmts> compiledStmts;
 
 	private ExplStmtTransFunc(final Solver solver, final int maxSuccToEnumerate) {
 		this.solver = checkNotNull(solver);
 		this.maxSuccToEnumerate = maxSuccToEnumerate;
+		this.compiledStmts = new HashMap<>();
 	}
 
 	public static ExplStmtTransFunc create(final Solver solver, final int maxSuccToEnumerate) {
@@ -59,10 +65,26 @@ public final class ExplStmtTransFunc implements TransFunc<ExplState, StmtAction,
 	}
 
 	Collection<ExplState> getSuccStates(final ExplState state, final List<Stmt> stmts, final ExplPrec prec) {
-		final MutableValuation val = MutableValuation.copyOf(state);
+		final CompiledStmts compiled = compiledStmts.computeIfAbsent(stmts, CompiledStmts::compile);
+		final LitExpr<?>[] slots = compiled.load(state);
+		final int executed = compiled.execute(slots);
+
+		if (executed < 0) {
+			return singleton(ExplState.bottom());
+		} else if (executed == stmts.size()) {
+			return singleton(compiled.createState(state, slots, prec));
+		} else {
+			// Apply the remaining statements with the simplifier and the solver
+			final MutableValuation val = compiled.store(state, slots);
+			return getSuccStates(val, stmts, executed, prec);
+		}
+	}
+
+	private Collection<ExplState> getSuccStates(final MutableValuation val, final List<Stmt> stmts, final int from,
+												final ExplPrec prec) {
 		boolean triedSolver = false;
 
-		for (int i = 0; i < stmts.size(); i++) {
+		for (int i = from; i < stmts.size(); i++) {
 			final Stmt stmt = stmts.get(i);
 			final ApplyResult applyResult = StmtApplier.apply(stmt, val, triedSolver);
 
@@ -15,11 +15,17 @@
  */
 package hu.bme.mit.theta.analysis.expl;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import hu.bme.mit.theta.core.decl.Decl;
 import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.MutableValuation;
 import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
 import hu.bme.mit.theta.core.stmt.SkipStmt;
 import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.type.Expr;
@@ -50,6 +56,9 @@ final class StmtApplier {
 		} else if (stmt instanceof SkipStmt) {
 			final SkipStmt skipStmt = (SkipStmt) stmt;
 			return applySkip(skipStmt);
+		} else if (stmt instanceof NonDetStmt) {
+			final NonDetStmt nonDetStmt = (NonDetStmt) stmt;
+			return applyNonDet(nonDetStmt, val, approximate);
 		} else {
 			throw new UnsupportedOperationException("Unhandled statement: " + stmt);
 		}
@@ -101,4 +110,44 @@ final class StmtApplier {
 		return ApplyResult.SUCCESS;
 	}
 
+	private static ApplyResult applyNonDet(final NonDetStmt stmt, final MutableValuation val,
+										   final boolean approximate) {
+		final List<Map<Decl<?>, LitExpr<?>>> succVals = new ArrayList<>(stmt.getBranches().size());
+		for (final List<Stmt> branch : stmt.getBranches()) {
+			final MutableValuation branchVal = MutableValuation.copyOf(val);
+			ApplyResult branchResult = ApplyResult.SUCCESS;
+			for (final Stmt subStmt : branch) {
+				branchResult = apply(subStmt, branchVal, approximate);
+				if (branchResult != ApplyResult.SUCCESS) {
+					break;
+				}
+			}
+			if (branchResult == ApplyResult.FAILURE) {
+				return ApplyResult.FAILURE;
+			} else if (branchResult == ApplyResult.SUCCESS) {
+				succVals.add(branchVal.toMap());
+			}
+		}
+
+		if (succVals.isEmpty()) {
+			return ApplyResult.BOTTOM;
+		}
+
+		// Different successors can only be approximated by their common values
+		final Map<Decl<?>, LitExpr<?>> first = succVals.get(0);
+		final boolean same = succVals.stream().allMatch(first::equals);
+		if (!same && !approximate) {
+			return ApplyResult.FAILURE;
+		}
+		for (final Decl<?> decl : new ArrayList<>(val.getDecls())) {
+			val.remove(decl);
+		}
+		for (final Map.Entry<Decl<?>, LitExpr<?>> entry : first.entrySet()) {
+			if (succVals.stream().allMatch(v -> entry.getValue().equals(v.get(entry.getKey())))) {
+				val.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return ApplyResult.SUCCESS;
+	}
+
 }
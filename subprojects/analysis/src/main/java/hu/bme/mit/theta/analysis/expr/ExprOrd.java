@@ -16,23 +16,43 @@
 package hu.bme.mit.theta.analysis.expr;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
 import static hu.bme.mit.theta.core.utils.PathUtils.unfold;
 
+import com.google.common.collect.ImmutableList;
+
 import hu.bme.mit.theta.analysis.PartialOrd;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
 import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
 
 public final class ExprOrd implements PartialOrd<ExprState> {
 
 	private final Solver solver;
+	private final boolean useAssumptions;
 
-	private ExprOrd(final Solver solver) {
+	private ExprOrd(final Solver solver, final boolean useAssumptions) {
 		this.solver = checkNotNull(solver);
+		this.useAssumptions = useAssumptions;
 	}
 
 	public static ExprOrd create(final Solver solver) {
-		return new ExprOrd(solver);
+		return new ExprOrd(solver, false);
+	}
+
+	/**
+	 * Create a partial order that checks states using assumptions instead of
+	 * push and pop. This keeps the context of the solver between checks, but
+	 * the solver keeps the definitions of the assumptions permanently, so it
+	 * should be dedicated to this partial order (and not be used with pending
+	 * push operations).
+	 */
+	public static ExprOrd createWithAssumptions(final Solver solver) {
+		return new ExprOrd(solver, true);
 	}
 
 	@Override
@@ -40,9 +60,22 @@ public final class ExprOrd implements PartialOrd<ExprState> {
 		checkNotNull(state1);
 		checkNotNull(state2);
 
+		final Expr<BoolType> expr1 = state1.toExpr();
+		final Expr<BoolType> expr2 = state2.toExpr();
+
+		// Syntactic checks: a conjunction implies any subset of its conjuncts
+		if (expr1.equals(expr2) || expr1.equals(False()) || expr2.equals(True())
+				|| ExprUtils.getConjuncts(expr1).containsAll(ExprUtils.getConjuncts(expr2))) {
+			return true;
+		}
+
+		if (useAssumptions) {
+			return solver.check(ImmutableList.of(unfold(expr1, 0), Not(unfold(expr2, 0)))).isUnsat();
+		}
+
 		try (WithPushPop wpp = new WithPushPop(solver)) {
-			solver.add(unfold(state1.toExpr(), 0));
-			solver.add(Not(unfold(state2.toExpr(), 0)));
+			solver.add(unfold(expr1, 0));
+			solver.add(Not(unfold(expr2, 0)));
 			return solver.check().isUnsat();
 		}
 	}
@@ -0,0 +1,31 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import java.util.List;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.analysis.expr.ExprState;
+
+/**
+ * Interface for checking multiple traces together. The status of trace i is
+ * at index i of the result. Checking may stop when a feasible trace is found,
+ * in which case the statuses of the remaining traces are null.
+ */
+public interface ExprTraceBatchChecker<R extends Refutation> {
+	List<ExprTraceStatus<R>> check(final List<? extends Trace<? extends ExprState, ? extends ExprAction>> traces);
+}
@@ -0,0 +1,175 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.common.Utils;
+
+public final class ExprTraceBatchCheckers {
+
+	private ExprTraceBatchCheckers() {
+	}
+
+	/**
+	 * Check the traces one by one with a checker until a feasible one is
+	 * found.
+	 */
+	public static <R extends Refutation> ExprTraceBatchChecker<R> sequential(
+			final ExprTraceChecker<R> exprTraceChecker) {
+		return new Sequential<>(exprTraceChecker);
+	}
+
+	/**
+	 * Check the traces concurrently, one thread for each checker. The checkers
+	 * should not share solvers. Worker i checks traces i, i + n, i + 2n, ...,
+	 * and the workers skip the traces after the first feasible one found so
+	 * far. The result is the same as the result of the sequential checker:
+	 * the statuses of the traces up to the first feasible one. The threads
+	 * only live during a check.
+	 */
+	public static <R extends Refutation> ExprTraceBatchChecker<R> parallel(
+			final List<? extends ExprTraceChecker<R>> exprTraceCheckers) {
+		if (exprTraceCheckers.size() == 1) {
+			return new Sequential<>(exprTraceCheckers.get(0));
+		} else {
+			return new Parallel<>(exprTraceCheckers);
+		}
+	}
+
+	private static <R extends Refutation> List<ExprTraceStatus<R>> emptyResult(final int size) {
+		final List<ExprTraceStatus<R>> result = new ArrayList<>(size);
+		for (int i = 0; i < size; ++i) {
+			result.add(null);
+		}
+		return result;
+	}
+
+	private static final class Sequential<R extends Refutation> implements ExprTraceBatchChecker<R> {
+		private final ExprTraceChecker<R> exprTraceChecker;
+
+		private Sequential(final ExprTraceChecker<R> exprTraceChecker) {
+			this.exprTraceChecker = checkNotNull(exprTraceChecker);
+		}
+
+		@Override
+		public List<ExprTraceStatus<R>> check(
+				final List<? extends Trace<? extends ExprState, ? extends ExprAction>> traces) {
+			final List<ExprTraceStatus<R>> result = emptyResult(traces.size());
+			for (int i = 0; i < traces.size(); ++i) {
+				final ExprTraceStatus<R> status = exprTraceChecker.check(traces.get(i));
+				result.set(i, status);
+				if (status.isFeasible()) {
+					break;
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return Utils.lispStringBuilder(getClass().getSimpleName()).add(exprTraceChecker).toString();
+		}
+	}
+
+	private static final class Parallel<R extends Refutation> implements ExprTraceBatchChecker<R> {
+		private final List<ExprTraceChecker<R>> exprTraceCheckers;
+
+		private Parallel(final List<? extends ExprTraceChecker<R>> exprTraceCheckers) {
+			checkArgument(!exprTraceCheckers.isEmpty(), "At least one ExprTraceChecker is required");
+			this.exprTraceCheckers = ImmutableList.copyOf(exprTraceCheckers);
+		}
+
+		@Override
+		public List<ExprTraceStatus<R>> check(
+				final List<? extends Trace<? extends ExprState, ? extends ExprAction>> traces) {
+			final List<ExprTraceStatus<R>> result = emptyResult(traces.size());
+			final int nWorkers = Math.min(exprTraceCheckers.size(), traces.size());
+			// Index of the first feasible trace found so far
+			final AtomicInteger firstFeasible = new AtomicInteger(traces.size());
+			final List<Callable<Void>> tasks = new ArrayList<>(nWorkers);
+			for (int w = 0; w < nWorkers; ++w) {
+				final int worker = w;
+				tasks.add(() -> {
+					final ExprTraceChecker<R> exprTraceChecker = exprTraceCheckers.get(worker);
+					for (int i = worker; i < firstFeasible.get(); i += nWorkers) {
+						final ExprTraceStatus<R> status = exprTraceChecker.check(traces.get(i));
+						result.set(i, status);
+						if (status.isFeasible()) {
+							firstFeasible.accumulateAndGet(i, Math::min);
+						}
+					}
+					return null;
+				});
+			}
+
+			final ExecutorService executor = Executors.newFixedThreadPool(nWorkers, r -> {
+				final Thread thread = new Thread(r, ExprTraceBatchCheckers.class.getSimpleName() + "-worker");
+				thread.setDaemon(true);
+				return thread;
+			});
+			try {
+				for (final Future<Void> future : executor.invokeAll(tasks)) {
+					future.get();
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new CancellationException("Interrupted while checking traces");
+			} catch (final ExecutionException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				} else {
+					throw new IllegalStateException(cause);
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+
+			// Traces before the first feasible one are all checked, but some
+			// after it might also be checked, depending on the scheduling
+			for (int i = firstFeasible.get() + 1; i < traces.size(); ++i) {
+				result.set(i, null);
+			}
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return Utils.lispStringBuilder(getClass().getSimpleName()).add(exprTraceCheckers.get(0))
+					.add("workers = " + exprTraceCheckers.size()).toString();
+		}
+	}
+
+}
@@ -0,0 +1,414 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.common.Tuple2;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.core.utils.IndexedVars;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.core.utils.VarIndexing;
+import hu.bme.mit.theta.solver.Interpolant;
+import hu.bme.mit.theta.solver.ItpMarker;
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
+
+/**
+ * An ExprTraceChecker that keeps the steps (states and actions) of the
+ * previously checked trace asserted in the solver, each step in its own
+ * scope. When a new trace is checked, only the steps after the longest common
+ * prefix with the previous trace are popped, and only the new steps are
+ * asserted. The new steps are checked at once with the target, and one by one
+ * only if needed to find an infeasible prefix. Infeasible prefixes are
+ * remembered, and traces extending them are refuted without calling the
+ * solver. At most
+ * {@link #MAX_REFUTED_STEPS} steps of refuted traces are remembered, older
+ * ones are forgotten when the limit is reached.
+ *
+ * As assertions are kept between calls, the solver should not be shared with
+ * other components.
+ */
+public final class ExprTraceIncrementalChecker<R extends Refutation> implements ExprTraceChecker<R> {
+
+	public static final int MAX_REFUTED_STEPS = 100_000;
+
+	private final Encoder<R> encoder;
+	private final Expr<BoolType> init;
+	private final Expr<BoolType> target;
+
+	// Steps asserted in the solver, each in its own scope
+	private final List<Step> steps;
+	private final PrefixNode<R> refuted;
+	private int refutedSteps;
+
+	private ExprTraceIncrementalChecker(final Expr<BoolType> init, final Expr<BoolType> target,
+										final Encoder<R> encoder) {
+		this.encoder = checkNotNull(encoder);
+		this.init = checkNotNull(init);
+		this.target = checkNotNull(target);
+		this.steps = new ArrayList<>();
+		this.refuted = new PrefixNode<>();
+		this.refutedSteps = 0;
+	}
+
+	/**
+	 * Create a checker that refutes traces with sequence interpolants.
+	 */
+	public static ExprTraceIncrementalChecker<ItpRefutation> seqItp(final Expr<BoolType> init,
+																	final Expr<BoolType> target, final ItpSolver solver) {
+		return new ExprTraceIncrementalChecker<>(init, target, new ItpEncoder(solver, false));
+	}
+
+	/**
+	 * Create a checker that refutes traces with a binary interpolant for the
+	 * shortest infeasible prefix (similarly to {@link ExprTraceFwBinItpChecker}).
+	 */
+	public static ExprTraceIncrementalChecker<ItpRefutation> fwBinItp(final Expr<BoolType> init,
+																	  final Expr<BoolType> target, final ItpSolver solver) {
+		return new ExprTraceIncrementalChecker<>(init, target, new ItpEncoder(solver, true));
+	}
+
+	/**
+	 * Create a checker that refutes traces with the variables of an unsat core
+	 * (similarly to {@link ExprTraceUnsatCoreChecker}).
+	 */
+	public static ExprTraceIncrementalChecker<VarsRefutation> unsatCore(final Expr<BoolType> init,
+																		final Expr<BoolType> target, final Solver solver) {
+		return new ExprTraceIncrementalChecker<>(init, target, new UnsatCoreEncoder(solver));
+	}
+
+	@Override
+	public ExprTraceStatus<R> check(final Trace<? extends ExprState, ? extends ExprAction> trace) {
+		checkNotNull(trace);
+		final int stateCount = trace.getStates().size();
+
+		final List<Object> keys = new ArrayList<>(stateCount);
+		keys.add(trace.getState(0));
+		for (int i = 1; i < stateCount; ++i) {
+			keys.add(Tuple2.of(trace.getAction(i - 1), trace.getState(i)));
+		}
+
+		final R known = lookup(keys);
+		if (known != null) {
+			return ExprTraceStatus.infeasible(encoder.extend(known, stateCount));
+		}
+
+		int common = 0;
+		while (common < steps.size() && common < stateCount && steps.get(common).key.equals(keys.get(common))) {
+			++common;
+		}
+		if (common < steps.size()) {
+			encoder.pop(steps.size() - common);
+			steps.subList(common, steps.size()).clear();
+		}
+
+		// The new steps are checked together with the target, and the steps
+		// are only checked one by one if the trace turns out to be infeasible
+		for (int i = common; i < stateCount; ++i) {
+			addStep(trace, keys.get(i), i);
+		}
+		final Expr<BoolType> unfoldedTarget = PathUtils.unfold(target, steps.get(stateCount - 1).indexing);
+		encoder.push();
+		encoder.add(ImmutableList.of(unfoldedTarget));
+		if (encoder.getSolver().check().isSat()) {
+			final Valuation model = encoder.getSolver().getModel();
+			final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
+			for (final VarIndexing indexing : indexings()) {
+				builder.add(PathUtils.extractValuation(model, indexing));
+			}
+			encoder.pop(1);
+			return ExprTraceStatus.feasible(Trace.of(builder.build(), trace.getActions()));
+		}
+
+		// Steps that were in the solver before are known to be feasible
+		if (common < stateCount) {
+			encoder.pop(1);
+			if (!encoder.getSolver().check().isSat()) {
+				return refutePrefix(trace, keys, common);
+			}
+			encoder.push();
+			encoder.add(ImmutableList.of(unfoldedTarget));
+			checkState(encoder.getSolver().check().isUnsat(), "Trace became feasible when checked again");
+		}
+
+		final R refutation = encoder.refute(indexings(), stateCount);
+		insert(keys).traceRefutation = refutation;
+		encoder.pop(1);
+		return ExprTraceStatus.infeasible(refutation);
+	}
+
+	/**
+	 * Locate the shortest infeasible prefix among the steps after a given
+	 * number of steps that are known to be feasible, by checking the steps
+	 * one by one.
+	 */
+	private ExprTraceStatus<R> refutePrefix(final Trace<? extends ExprState, ? extends ExprAction> trace,
+											final List<Object> keys, final int feasible) {
+		final int stateCount = keys.size();
+		encoder.pop(stateCount - feasible);
+		steps.subList(feasible, stateCount).clear();
+
+		for (int i = feasible; i < stateCount; ++i) {
+			addStep(trace, keys.get(i), i);
+			if (!encoder.getSolver().check().isSat()) {
+				// The refutation of the prefix is stored with the length of
+				// the prefix, and it is extended to the length of each trace
+				final R refutation = encoder.refute(indexings(), i + 1);
+				insert(keys.subList(0, i + 1)).prefixRefutation = refutation;
+				encoder.pop(1);
+				steps.remove(i);
+				return ExprTraceStatus.infeasible(encoder.extend(refutation, stateCount));
+			}
+		}
+		throw new IllegalStateException("Steps of the trace are infeasible, but none of their prefixes is");
+	}
+
+	private void addStep(final Trace<? extends ExprState, ? extends ExprAction> trace, final Object key,
+						 final int i) {
+		final List<Expr<BoolType>> exprs = new ArrayList<>(2);
+		final VarIndexing indexing;
+		if (i == 0) {
+			indexing = VarIndexing.all(0);
+			exprs.add(PathUtils.unfold(init, indexing));
+		} else {
+			final VarIndexing prevIndexing = steps.get(i - 1).indexing;
+			indexing = prevIndexing.add(trace.getAction(i - 1).nextIndexing());
+			exprs.add(PathUtils.unfold(trace.getAction(i - 1).toExpr(), prevIndexing));
+		}
+		exprs.add(PathUtils.unfold(trace.getState(i).toExpr(), indexing));
+
+		encoder.push();
+		encoder.add(exprs);
+		steps.add(new Step(key, indexing));
+	}
+
+	private List<VarIndexing> indexings() {
+		final List<VarIndexing> indexings = new ArrayList<>(steps.size());
+		for (final Step step : steps) {
+			indexings.add(step.indexing);
+		}
+		return indexings;
+	}
+
+	private R lookup(final List<Object> keys) {
+		PrefixNode<R> node = refuted;
+		for (int i = 0; i < keys.size(); ++i) {
+			node = node.children.get(keys.get(i));
+			if (node == null) {
+				return null;
+			} else if (node.prefixRefutation != null) {
+				return node.prefixRefutation;
+			}
+		}
+		return node.traceRefutation;
+	}
+
+	private PrefixNode<R> insert(final List<Object> keys) {
+		if (refutedSteps + keys.size() > MAX_REFUTED_STEPS) {
+			refuted.children.clear();
+			refutedSteps = 0;
+		}
+		PrefixNode<R> node = refuted;
+		for (final Object key : keys) {
+			PrefixNode<R> child = node.children.get(key);
+			if (child == null) {
+				child = new PrefixNode<>();
+				node.children.put(key, child);
+				++refutedSteps;
+			}
+			node = child;
+		}
+		return node;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName();
+	}
+
+	private static final class Step {
+		private final Object key;
+		private final VarIndexing indexing;
+
+		private Step(final Object key, final VarIndexing indexing) {
+			this.key = key;
+			this.indexing = indexing;
+		}
+	}
+
+	private static final class PrefixNode<R> {
+		private final Map<Object, PrefixNode<R>> children = new HashMap<>();
+		// Refutation of every trace with this prefix
+		private R prefixRefutation = null;
+		// Refutation of the trace ending here
+		private R traceRefutation = null;
+	}
+
+	/**
+	 * Asserts the steps and computes refutations for a given kind of solver.
+	 */
+	private interface Encoder<R extends Refutation> {
+		Solver getSolver();
+
+		void push();
+
+		void pop(int n);
+
+		/**
+		 * Add the expressions of a new step in the current scope.
+		 */
+		void add(Collection<Expr<BoolType>> exprs);
+
+		/**
+		 * Compute the refutation of a trace with a given number of states, if
+		 * the steps in the solver are unsatisfiable. The indexings belong to
+		 * the steps of the trace in the solver (the target has no indexing).
+		 */
+		R refute(List<VarIndexing> indexings, int stateCount);
+
+		/**
+		 * Extend the refutation of a prefix to a trace with a given number of
+		 * states.
+		 */
+		R extend(R refutation, int stateCount);
+	}
+
+	private static final class ItpEncoder implements Encoder<ItpRefutation> {
+		private final ItpSolver solver;
+		private final boolean binary;
+		private final List<ItpMarker> markers;
+
+		private ItpEncoder(final ItpSolver solver, final boolean binary) {
+			this.solver = checkNotNull(solver);
+			this.binary = binary;
+			this.markers = new ArrayList<>();
+		}
+
+		@Override
+		public Solver getSolver() {
+			return solver;
+		}
+
+		@Override
+		public void push() {
+			solver.push();
+			markers.add(solver.createMarker());
+		}
+
+		@Override
+		public void pop(final int n) {
+			solver.pop(n);
+			markers.subList(markers.size() - n, markers.size()).clear();
+		}
+
+		@Override
+		public void add(final Collection<Expr<BoolType>> exprs) {
+			final ItpMarker marker = markers.get(markers.size() - 1);
+			for (final Expr<BoolType> expr : exprs) {
+				solver.add(marker, expr);
+			}
+		}
+
+		@Override
+		public ItpRefutation refute(final List<VarIndexing> indexings, final int stateCount) {
+			final Interpolant interpolant = solver.getInterpolant(solver.createSeqPattern(markers));
+			// The last marker is the step (or target) that made the formula unsatisfiable
+			final int last = markers.size() - 2;
+			if (binary && last >= 0) {
+				final Expr<BoolType> itp = PathUtils.foldin(interpolant.eval(markers.get(last)), indexings.get(last));
+				return ItpRefutation.binary(itp, last, stateCount);
+			}
+			final List<Expr<BoolType>> itps = new ArrayList<>(stateCount);
+			for (int i = 0; i <= last; ++i) {
+				itps.add(PathUtils.foldin(interpolant.eval(markers.get(i)), indexings.get(i)));
+			}
+			return ItpRefutation.sequence(pad(itps, stateCount));
+		}
+
+		@Override
+		public ItpRefutation extend(final ItpRefutation refutation, final int stateCount) {
+			if (refutation.size() == stateCount) {
+				return refutation;
+			}
+			return ItpRefutation.sequence(pad(new ArrayList<>(refutation.toList()), stateCount));
+		}
+
+		private static List<Expr<BoolType>> pad(final List<Expr<BoolType>> itps, final int stateCount) {
+			while (itps.size() < stateCount) {
+				itps.add(False());
+			}
+			return itps;
+		}
+	}
+
+	private static final class UnsatCoreEncoder implements Encoder<VarsRefutation> {
+		private final Solver solver;
+
+		private UnsatCoreEncoder(final Solver solver) {
+			this.solver = checkNotNull(solver);
+		}
+
+		@Override
+		public Solver getSolver() {
+			return solver;
+		}
+
+		@Override
+		public void push() {
+			solver.push();
+		}
+
+		@Override
+		public void pop(final int n) {
+			solver.pop(n);
+		}
+
+		@Override
+		public void add(final Collection<Expr<BoolType>> exprs) {
+			for (final Expr<BoolType> expr : exprs) {
+				solver.track(ExprUtils.getConjuncts(expr));
+			}
+		}
+
+		@Override
+		public VarsRefutation refute(final List<VarIndexing> indexings, final int stateCount) {
+			final IndexedVars indexedVars = ExprUtils.getVarsIndexed(solver.getUnsatCore());
+			return VarsRefutation.create(indexedVars);
+		}
+
+		@Override
+		public VarsRefutation extend(final VarsRefutation refutation, final int stateCount) {
+			return refutation;
+		}
+	}
+}
@@ -0,0 +1,324 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Eq;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Imply;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.core.utils.VarIndexing;
+import hu.bme.mit.theta.solver.Interpolant;
+import hu.bme.mit.theta.solver.ItpMarker;
+import hu.bme.mit.theta.solver.ItpPattern;
+import hu.bme.mit.theta.solver.ItpSolver;
+
+/**
+ * An ExprTraceBatchChecker that checks multiple traces at once with a single
+ * tree interpolation query. The traces are merged into a tree by their common
+ * prefixes (equal states and actions), and each node of the tree is encoded
+ * once. The root of the tree is a virtual node without a state, whose
+ * children are the initial states of the traces. Since the traces are
+ * alternatives (disjunction), each node n gets a Boolean guard b_n meaning "a
+ * target is reached through n": the guard of the root holds, and the guard of
+ * a node implies its state, its incoming action (or the initial condition)
+ * and the guard of one of its children (or reaching the target if a trace
+ * ends there). Siblings get fresh copies of the variables modified by their
+ * incoming actions, linked to the variables of the parent by equalities.
+ *
+ * The formula is satisfiable iff one of the traces is feasible. Otherwise,
+ * the tree interpolant of a node c over-approximates the states of its parent
+ * from which a target can be reached through c, when b_c is substituted with
+ * true. Its negation is used as the interpolant of the parent in the
+ * sequence refutation of each trace going through c.
+ */
+public final class ExprTraceTreeItpChecker implements ExprTraceBatchChecker<ItpRefutation> {
+
+	private final ItpSolver solver;
+	private final Expr<BoolType> init;
+	private final Expr<BoolType> target;
+
+	private ExprTraceTreeItpChecker(final Expr<BoolType> init, final Expr<BoolType> target, final ItpSolver solver) {
+		this.solver = checkNotNull(solver);
+		this.init = checkNotNull(init);
+		this.target = checkNotNull(target);
+	}
+
+	public static ExprTraceTreeItpChecker create(final Expr<BoolType> init, final Expr<BoolType> target,
+												 final ItpSolver solver) {
+		return new ExprTraceTreeItpChecker(init, target, solver);
+	}
+
+	@Override
+	public List<ExprTraceStatus<ItpRefutation>> check(
+			final List<? extends Trace<? extends ExprState, ? extends ExprAction>> traces) {
+		checkNotNull(traces);
+		checkArgument(!traces.isEmpty(), "No traces to check");
+
+		final Node root = new Node(null, null);
+		for (int i = 0; i < traces.size(); ++i) {
+			final Trace<? extends ExprState, ? extends ExprAction> trace = traces.get(i);
+			Node node = root.getOrCreateChild(null, trace.getState(0));
+			for (int j = 0; j < trace.getActions().size(); ++j) {
+				node = node.getOrCreateChild(trace.getAction(j), trace.getState(j + 1));
+			}
+			node.endingTraces.add(i);
+		}
+
+		solver.push();
+		try {
+			final ItpPattern pattern = new Encoder(root).encode(root);
+			if (solver.check().isSat()) {
+				return extractFeasible(root, solver.getModel(), traces);
+			} else {
+				return extractRefutations(root, solver.getInterpolant(pattern), traces);
+			}
+		} finally {
+			solver.pop();
+		}
+	}
+
+	private final class Encoder {
+		// Variables of the encoded expressions
+		private final Collection<VarDecl<?>> vars;
+		private int nextId = 0;
+		// Index for the next fresh copy of variables
+		private int nextIndex = 1;
+
+		private Encoder(final Node root) {
+			vars = new HashSet<>();
+			ExprUtils.collectVars(init, vars);
+			ExprUtils.collectVars(target, vars);
+			collectVars(root);
+		}
+
+		private void collectVars(final Node node) {
+			if (node.state != null) {
+				ExprUtils.collectVars(node.state.toExpr(), vars);
+			}
+			if (node.action != null) {
+				ExprUtils.collectVars(node.action.toExpr(), vars);
+			}
+			node.children.forEach(this::collectVars);
+		}
+
+		private ItpPattern encode(final Node root) {
+			initNode(root);
+			final ItpPattern pattern = solver.createPattern(root.marker);
+			solver.add(root.marker, root.guard.getRef());
+
+			// The initial states are alternatives, they do not modify the
+			// variables, so they do not need fresh copies
+			final List<Expr<BoolType>> initGuards = new ArrayList<>(root.children.size());
+			for (final Node initNode : root.children) {
+				initNode(initNode);
+				initNode.indexing = VarIndexing.all(0);
+				initGuards.add(initNode.guard.getRef());
+			}
+			solver.add(root.marker, Or(initGuards));
+
+			for (final Node initNode : root.children) {
+				solver.add(initNode.marker, Imply(initNode.guard.getRef(), PathUtils.unfold(init, initNode.indexing)));
+				encode(initNode, pattern.createChild(initNode.marker));
+			}
+			return pattern;
+		}
+
+		private void initNode(final Node node) {
+			node.marker = solver.createMarker();
+			node.guard = Const("__reach" + nextId, Bool());
+			nextId++;
+		}
+
+		private void encode(final Node node, final ItpPattern pattern) {
+			final Expr<BoolType> guard = node.guard.getRef();
+			solver.add(node.marker, Imply(guard, PathUtils.unfold(node.state.toExpr(), node.indexing)));
+
+			final List<Expr<BoolType>> succGuards = new ArrayList<>(node.children.size() + 1);
+			if (!node.endingTraces.isEmpty()) {
+				node.endMarker = solver.createMarker();
+				node.endGuard = Const("__end" + nextId, Bool());
+				nextId++;
+				pattern.createChild(node.endMarker);
+				solver.add(node.endMarker, Imply(node.endGuard.getRef(), PathUtils.unfold(target, node.indexing)));
+				succGuards.add(node.endGuard.getRef());
+			}
+			for (final Node child : node.children) {
+				initNode(child);
+				succGuards.add(child.guard.getRef());
+			}
+			solver.add(node.marker, Imply(guard, Or(succGuards)));
+
+			for (final Node child : node.children) {
+				// Variables modified by the action (including the ones only
+				// havocked by its indexing) get a fresh copy for the pre-state,
+				// linked to the parent, so that siblings do not clash
+				final VarIndexing nextIndexing = child.action.nextIndexing();
+				final VarIndexing.Builder preBuilder = node.indexing.transform();
+				final List<Expr<BoolType>> links = new ArrayList<>();
+				int maxOffset = 0;
+				for (final VarDecl<?> var : vars) {
+					final int offset = nextIndexing.get(var);
+					if (offset > 0) {
+						final int parentIndex = node.indexing.get(var);
+						preBuilder.inc(var, nextIndex - parentIndex);
+						links.add(Eq(var.getConstDecl(parentIndex).getRef(), var.getConstDecl(nextIndex).getRef()));
+						maxOffset = Math.max(maxOffset, offset);
+					}
+				}
+				nextIndex += maxOffset + 1;
+				final VarIndexing preIndexing = preBuilder.build();
+				child.indexing = preIndexing.add(nextIndexing);
+
+				final Expr<BoolType> childGuard = child.guard.getRef();
+				solver.add(child.marker, Imply(childGuard, And(links)));
+				solver.add(child.marker, Imply(childGuard, PathUtils.unfold(child.action.toExpr(), preIndexing)));
+				encode(child, pattern.createChild(child.marker));
+			}
+		}
+	}
+
+	private List<ExprTraceStatus<ItpRefutation>> extractFeasible(final Node root, final Valuation model,
+			final List<? extends Trace<? extends ExprState, ? extends ExprAction>> traces) {
+		// Follow the guards that are true in the model to a node where a
+		// trace ends
+		final List<Node> path = new ArrayList<>();
+		Node node = root.children.stream().filter(c -> isTrue(model, c.guard)).findFirst()
+				.orElseThrow(() -> new AssertionError("No satisfied initial state in model"));
+		path.add(node);
+		while (!(node.endGuard != null && isTrue(model, node.endGuard))) {
+			node = node.children.stream().filter(c -> isTrue(model, c.guard)).findFirst()
+					.orElseThrow(() -> new AssertionError("No satisfied successor in model"));
+			path.add(node);
+		}
+
+		final int traceIndex = node.endingTraces.get(0);
+		final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
+		for (final Node n : path) {
+			builder.add(PathUtils.extractValuation(model, n.indexing));
+		}
+		final List<ExprTraceStatus<ItpRefutation>> result = new ArrayList<>(traces.size());
+		for (int i = 0; i < traces.size(); ++i) {
+			result.add(null);
+		}
+		result.set(traceIndex, ExprTraceStatus.feasible(Trace.of(builder.build(), traces.get(traceIndex).getActions())));
+		return result;
+	}
+
+	private List<ExprTraceStatus<ItpRefutation>> extractRefutations(final Node root, final Interpolant interpolant,
+			final List<? extends Trace<? extends ExprState, ? extends ExprAction>> traces) {
+		final List<ExprTraceStatus<ItpRefutation>> result = new ArrayList<>(traces.size());
+		for (final Trace<? extends ExprState, ? extends ExprAction> trace : traces) {
+			final List<Expr<BoolType>> itpSequence = new ArrayList<>(trace.getStates().size());
+			Node node = root.getChild(null, trace.getState(0)).get();
+			for (int j = 0; j < trace.getActions().size(); ++j) {
+				final Node child = node.getChild(trace.getAction(j), trace.getState(j + 1)).get();
+				itpSequence.add(stateItp(interpolant, child.marker, child.guard, node.indexing));
+				node = child;
+			}
+			itpSequence.add(stateItp(interpolant, node.endMarker, node.endGuard, node.indexing));
+			result.add(ExprTraceStatus.infeasible(ItpRefutation.sequence(itpSequence)));
+		}
+		return result;
+	}
+
+	/**
+	 * The negation of the interpolant of a successor (with its guard set to
+	 * true) as a state expression of the parent.
+	 */
+	private static Expr<BoolType> stateItp(final Interpolant interpolant, final ItpMarker marker,
+										   final ConstDecl<BoolType> guard, final VarIndexing indexing) {
+		final Valuation guardTrue = ImmutableValuation.builder().put(guard, True()).build();
+		final Expr<BoolType> itp = ExprUtils.simplify(Not(interpolant.eval(marker)), guardTrue);
+		return PathUtils.foldin(itp, indexing);
+	}
+
+	private static boolean isTrue(final Valuation model, final ConstDecl<BoolType> decl) {
+		final Optional<LitExpr<BoolType>> value = model.eval(decl);
+		return value.isPresent() && ((BoolLitExpr) value.get()).getValue();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName();
+	}
+
+	private static final class Node {
+		// Null for the root and the initial states
+		private final ExprAction action;
+		// Null for the root
+		private final ExprState state;
+		private final List<Node> children;
+		private final List<Integer> endingTraces;
+		// Set during encoding
+		private ItpMarker marker;
+		private ConstDecl<BoolType> guard;
+		private VarIndexing indexing;
+		private ItpMarker endMarker;
+		private ConstDecl<BoolType> endGuard;
+
+		private Node(final ExprAction action, final ExprState state) {
+			this.action = action;
+			this.state = state;
+			this.children = new ArrayList<>();
+			this.endingTraces = new ArrayList<>();
+		}
+
+		private Optional<Node> getChild(final ExprAction action, final ExprState state) {
+			return children.stream().filter(c -> Objects.equals(c.action, action) && c.state.equals(state))
+					.findFirst();
+		}
+
+		private Node getOrCreateChild(final ExprAction action, final ExprState state) {
+			final Optional<Node> child = getChild(action, state);
+			if (child.isPresent()) {
+				return child.get();
+			}
+			final Node newChild = new Node(action, state);
+			children.add(newChild);
+			return newChild;
+		}
+	}
+
+}
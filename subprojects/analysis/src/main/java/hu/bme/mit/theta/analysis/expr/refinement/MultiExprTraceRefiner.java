@@ -19,6 +19,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import hu.bme.mit.theta.analysis.Prec;
@@ -30,19 +32,20 @@ import hu.bme.mit.theta.analysis.algorithm.cegar.Refiner;
 import hu.bme.mit.theta.analysis.algorithm.cegar.RefinerResult;
 import hu.bme.mit.theta.analysis.expr.ExprAction;
 import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.Logger.Level;
 
 public class MultiExprTraceRefiner<S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation>
 		implements Refiner<S, A, P> {
 
-	private final ExprTraceChecker<R> exprTraceChecker;
+	private final ExprTraceBatchChecker<R> exprTraceBatchChecker;
 	private final PrecRefiner<S, A, P, R> precRefiner;
 	private final Logger logger;
 
-	private MultiExprTraceRefiner(final ExprTraceChecker<R> exprTraceChecker, final PrecRefiner<S, A, P, R> precRefiner,
-								  final Logger logger) {
-		this.exprTraceChecker = checkNotNull(exprTraceChecker);
+	private MultiExprTraceRefiner(final ExprTraceBatchChecker<R> exprTraceBatchChecker,
+								  final PrecRefiner<S, A, P, R> precRefiner, final Logger logger) {
+		this.exprTraceBatchChecker = checkNotNull(exprTraceBatchChecker);
 		this.precRefiner = checkNotNull(precRefiner);
 		this.logger = checkNotNull(logger);
 	}
@@ -50,7 +53,30 @@ public class MultiExprTraceRefiner<S extends ExprState, A extends ExprAction, P
 	public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> MultiExprTraceRefiner<S, A, P, R> create(
 			final ExprTraceChecker<R> exprTraceChecker, final PrecRefiner<S, A, P, R> precRefiner,
 			final Logger logger) {
-		return new MultiExprTraceRefiner<>(exprTraceChecker, precRefiner, logger);
+		return new MultiExprTraceRefiner<>(ExprTraceBatchCheckers.sequential(exprTraceChecker), precRefiner, logger);
+	}
+
+	/**
+	 * Create a refiner that checks the traces concurrently, one thread for
+	 * each checker. The checkers should not share solvers. Checking stops as
+	 * soon as a feasible trace is found, and refutations are applied in the
+	 * order of the traces, so the refined precision does not depend on thread
+	 * scheduling.
+	 */
+	public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> MultiExprTraceRefiner<S, A, P, R> createParallel(
+			final List<? extends ExprTraceChecker<R>> exprTraceCheckers, final PrecRefiner<S, A, P, R> precRefiner,
+			final Logger logger) {
+		return new MultiExprTraceRefiner<>(ExprTraceBatchCheckers.parallel(exprTraceCheckers), precRefiner, logger);
+	}
+
+	/**
+	 * Create a refiner that checks all traces with a batch checker, e.g.,
+	 * one that checks them at once.
+	 */
+	public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> MultiExprTraceRefiner<S, A, P, R> createBatch(
+			final ExprTraceBatchChecker<R> exprTraceBatchChecker, final PrecRefiner<S, A, P, R> precRefiner,
+			final Logger logger) {
+		return new MultiExprTraceRefiner<>(exprTraceBatchChecker, precRefiner, logger);
 	}
 
 	@Override
@@ -60,28 +86,21 @@ public class MultiExprTraceRefiner<S extends ExprState, A extends ExprAction, P
 		assert !arg.isSafe() : "ARG must be unsafe";
 
 		final List<ArgTrace<S, A>> cexs = arg.getCexs().collect(Collectors.toList());
-		final List<Trace<S, A>> traces = arg.getCexs().map(ArgTrace::toTrace).collect(Collectors.toList());
-		assert traces.size() == cexs.size();
+		final List<Trace<S, A>> traces = cexs.stream().map(ArgTrace::toTrace).collect(Collectors.toList());
 
-		logger.write(Level.INFO, "|  |  Number of traces: %d%n", traces.size());
+		logger.write(Level.INFO, () -> String.format("|  |  Number of traces: %d%n", traces.size()));
 		assert traces.size() > 0 : "No counterexample in ARG";
 
 		logger.write(Level.SUBSTEP, "|  |  Checking traces...");
-		final List<ExprTraceStatus<R>> cexStatuses = new ArrayList<>(traces.size());
-		for (final Trace<S, A> trace : traces) {
-			final ExprTraceStatus<R> status = exprTraceChecker.check(trace);
-			cexStatuses.add(status);
-			if (status.isFeasible()) {
-				break;
-			}
-		}
+		final List<ExprTraceStatus<R>> cexStatuses = exprTraceBatchChecker.check(traces);
 
-		if (cexStatuses.stream().anyMatch(ExprTraceStatus::isFeasible)) {
+		final Optional<ExprTraceStatus<R>> feasibleStatus = cexStatuses.stream()
+				.filter(s -> s != null && s.isFeasible()).findFirst();
+		if (feasibleStatus.isPresent()) {
 			logger.write(Level.SUBSTEP, "done, result: found feasible%n");
-			return RefinerResult.unsafe(traces.get(
-					cexStatuses.indexOf(cexStatuses.stream().filter(ExprTraceStatus::isFeasible).findFirst().get())));
+			return RefinerResult.unsafe(traces.get(cexStatuses.indexOf(feasibleStatus.get())));
 		} else {
-			assert cexStatuses.size() == cexs.size();
+			assert cexStatuses.stream().allMatch(Objects::nonNull);
 			logger.write(Level.SUBSTEP, "done, result: all infeasible%n");
 			final List<R> refutations = cexStatuses.stream().map(s -> s.asInfeasible().getRefutation())
 					.collect(Collectors.toList());
@@ -123,4 +142,10 @@ public class MultiExprTraceRefiner<S extends ExprState, A extends ExprAction, P
 
 	}
 
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add(exprTraceBatchChecker).add(precRefiner)
+				.toString();
+	}
+
 }
\ No newline at end of file
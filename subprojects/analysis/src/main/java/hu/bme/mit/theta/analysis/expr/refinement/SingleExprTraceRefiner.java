@@ -62,7 +62,7 @@ public final class SingleExprTraceRefiner<S extends ExprState, A extends ExprAct
 
 		final ArgTrace<S, A> cexToConcretize = arg.getCexs().findFirst().get();
 		final Trace<S, A> traceToConcretize = cexToConcretize.toTrace();
-		logger.write(Level.INFO, "|  |  Trace length: %d%n", traceToConcretize.length());
+		logger.write(Level.INFO, () -> String.format("|  |  Trace length: %d%n", traceToConcretize.length()));
 		logger.write(Level.DETAIL, "|  |  Trace: %s%n", traceToConcretize);
 
 		logger.write(Level.SUBSTEP, "|  |  Checking trace...");
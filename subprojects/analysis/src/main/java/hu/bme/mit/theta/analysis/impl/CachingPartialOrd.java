@@ -0,0 +1,76 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.impl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import hu.bme.mit.theta.analysis.PartialOrd;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.common.Tuple2;
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * Partial order that memoizes the results of another partial order for pairs
+ * of states. Useful for partial orders that call a solver, as the same pairs
+ * are usually checked repeatedly when covering nodes of the ARG.
+ */
+public final class CachingPartialOrd<S extends State> implements PartialOrd<S> {
+
+	private static final long DEFAULT_CACHE_SIZE = 100_000;
+
+	private final PartialOrd<S> partialOrd;
+	private final Cache<Tuple2<S, S>, Boolean> cache;
+
+	private CachingPartialOrd(final PartialOrd<S> partialOrd, final long cacheSize) {
+		checkArgument(cacheSize > 0, "Cache size must be positive");
+		this.partialOrd = checkNotNull(partialOrd);
+		this.cache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+	}
+
+	public static <S extends State> CachingPartialOrd<S> create(final PartialOrd<S> partialOrd) {
+		return new CachingPartialOrd<>(partialOrd, DEFAULT_CACHE_SIZE);
+	}
+
+	public static <S extends State> CachingPartialOrd<S> create(final PartialOrd<S> partialOrd,
+																final long cacheSize) {
+		return new CachingPartialOrd<>(partialOrd, cacheSize);
+	}
+
+	@Override
+	public boolean isLeq(final S state1, final S state2) {
+		if (state1.equals(state2)) {
+			return true;
+		}
+		try {
+			return cache.get(Tuple2.of(state1, state2), () -> partialOrd.isLeq(state1, state2));
+		} catch (final ExecutionException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add(partialOrd).add("size = " + cache.size())
+				.toString();
+	}
+
+}
@@ -18,6 +18,7 @@ package hu.bme.mit.theta.analysis.pred;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Iff;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Imply;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
@@ -25,13 +26,18 @@ import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.ImmutableList;
+
 import hu.bme.mit.theta.core.decl.ConstDecl;
 import hu.bme.mit.theta.core.decl.Decls;
 import hu.bme.mit.theta.core.model.Valuation;
@@ -74,7 +80,7 @@ public class PredAbstractors {
 	 * @return
 	 */
 	public static PredAbstractor booleanSplitAbstractor(final Solver solver) {
-		return new BooleanAbstractor(solver, true);
+		return new BooleanAbstractor(solver, true, false);
 	}
 
 	/**
@@ -85,7 +91,33 @@ public class PredAbstractors {
 	 * @return
 	 */
 	public static PredAbstractor booleanAbstractor(final Solver solver) {
-		return new BooleanAbstractor(solver, false);
+		return new BooleanAbstractor(solver, false, false);
+	}
+
+	/**
+	 * Get the strategy that uses Boolean abstraction incrementally and splits
+	 * the disjuncts. The definitions of the predicates are kept in the solver
+	 * and the queries are guarded by assumptions, so the solver should be
+	 * dedicated to the abstractor.
+	 *
+	 * @param solver
+	 * @return
+	 */
+	public static PredAbstractor incrementalBooleanSplitAbstractor(final Solver solver) {
+		return new BooleanAbstractor(solver, true, true);
+	}
+
+	/**
+	 * Get the strategy that uses Boolean abstraction incrementally (and keeps
+	 * the formula as a whole). The definitions of the predicates are kept in
+	 * the solver and the queries are guarded by assumptions, so the solver
+	 * should be dedicated to the abstractor.
+	 *
+	 * @param solver
+	 * @return
+	 */
+	public static PredAbstractor incrementalBooleanAbstractor(final Solver solver) {
+		return new BooleanAbstractor(solver, false, true);
 	}
 
 	/**
@@ -98,20 +130,36 @@ public class PredAbstractors {
 		return new CartesianAbstractor(solver);
 	}
 
+	/**
+	 * Get the strategy that uses Cartesian abstraction incrementally. The
+	 * definitions of the predicates are kept in the solver and the queries
+	 * are guarded by assumptions, so the solver should be dedicated to the
+	 * abstractor.
+	 *
+	 * @param solver
+	 * @return
+	 */
+	public static PredAbstractor incrementalCartesianAbstractor(final Solver solver) {
+		return new IncrementalCartesianAbstractor(solver);
+	}
+
+	private static final AtomicInteger instanceCounter = new AtomicInteger();
+
 	private static final class BooleanAbstractor implements PredAbstractor {
 
 		private final Solver solver;
 		private final List<ConstDecl<BoolType>> actLits;
 		private final String litPrefix;
-		private static int instanceCounter = 0;
 		private final boolean split;
+		// Only in incremental mode
+		private final ActivationLiterals definedActLits;
 
-		public BooleanAbstractor(final Solver solver, final boolean split) {
+		public BooleanAbstractor(final Solver solver, final boolean split, final boolean incremental) {
 			this.solver = checkNotNull(solver);
 			this.actLits = new ArrayList<>();
-			this.litPrefix = "__" + getClass().getSimpleName() + "_" + instanceCounter + "_";
-			instanceCounter++;
+			this.litPrefix = "__" + getClass().getSimpleName() + "_" + instanceCounter.getAndIncrement() + "_";
 			this.split = split;
+			this.definedActLits = incremental ? new ActivationLiterals(solver, litPrefix) : null;
 		}
 
 		@Override
@@ -123,37 +171,19 @@ public class PredAbstractors {
 			checkNotNull(precIndexing);
 
 			final List<Expr<BoolType>> preds = new ArrayList<>(prec.getPreds());
-			generateActivationLiterals(preds.size());
-
-			assert actLits.size() >= preds.size();
+			final List<PredState> states;
+			if (definedActLits != null) {
+				states = createStatesIncrementally(expr, exprIndexing, preds, prec, precIndexing);
+			} else {
+				generateActivationLiterals(preds.size());
+				assert actLits.size() >= preds.size();
 
-			final List<PredState> states = new LinkedList<>();
-			try (WithPushPop wp = new WithPushPop(solver)) {
-				solver.add(PathUtils.unfold(expr, exprIndexing));
-				for (int i = 0; i < preds.size(); ++i) {
-					solver.add(Iff(actLits.get(i).getRef(), PathUtils.unfold(preds.get(i), precIndexing)));
-				}
-				while (solver.check().isSat()) {
-					final Valuation model = solver.getModel();
-					final Set<Expr<BoolType>> newStatePreds = new HashSet<>();
-					final List<Expr<BoolType>> feedback = new LinkedList<>();
-					feedback.add(True());
+				try (WithPushPop wp = new WithPushPop(solver)) {
+					solver.add(PathUtils.unfold(expr, exprIndexing));
 					for (int i = 0; i < preds.size(); ++i) {
-						final ConstDecl<BoolType> lit = actLits.get(i);
-						final Expr<BoolType> pred = preds.get(i);
-						final Optional<LitExpr<BoolType>> eval = model.eval(lit);
-						if (eval.isPresent()) {
-							if (eval.get().equals(True())) {
-								newStatePreds.add(pred);
-								feedback.add(lit.getRef());
-							} else {
-								newStatePreds.add(prec.negate(pred));
-								feedback.add(Not(lit.getRef()));
-							}
-						}
+						solver.add(Iff(actLits.get(i).getRef(), PathUtils.unfold(preds.get(i), precIndexing)));
 					}
-					states.add(PredState.of(newStatePreds));
-					solver.add(Not(And(feedback)));
+					states = enumerateStates(actLits, preds, prec, Optional.empty());
 				}
 			}
 			if (!split && states.size() > 1) {
@@ -164,6 +194,54 @@ public class PredAbstractors {
 			}
 		}
 
+		private List<PredState> createStatesIncrementally(final Expr<BoolType> expr, final VarIndexing exprIndexing,
+														  final List<Expr<BoolType>> preds, final PredPrec prec,
+														  final VarIndexing precIndexing) {
+			final Expr<BoolType> query = definedActLits.startQuery();
+			final List<ConstDecl<BoolType>> lits = new ArrayList<>(preds.size());
+			for (final Expr<BoolType> pred : preds) {
+				lits.add(definedActLits.getDefined(PathUtils.unfold(pred, precIndexing)));
+			}
+			try {
+				solver.add(Imply(query, PathUtils.unfold(expr, exprIndexing)));
+				return enumerateStates(lits, preds, prec, Optional.of(query));
+			} finally {
+				definedActLits.finishQuery(query);
+			}
+		}
+
+		// Enumerate the models of the activation literals (under the literal
+		// of the query in incremental mode)
+		private List<PredState> enumerateStates(final List<ConstDecl<BoolType>> lits,
+												final List<Expr<BoolType>> preds, final PredPrec prec,
+												final Optional<Expr<BoolType>> query) {
+			final List<PredState> states = new LinkedList<>();
+			while ((query.isPresent() ? solver.check(ImmutableList.of(query.get())) : solver.check()).isSat()) {
+				final Valuation model = solver.getModel();
+				final Set<Expr<BoolType>> newStatePreds = new HashSet<>();
+				final List<Expr<BoolType>> feedback = new LinkedList<>();
+				feedback.add(True());
+				for (int i = 0; i < preds.size(); ++i) {
+					final ConstDecl<BoolType> lit = lits.get(i);
+					final Expr<BoolType> pred = preds.get(i);
+					final Optional<LitExpr<BoolType>> eval = model.eval(lit);
+					if (eval.isPresent()) {
+						if (eval.get().equals(True())) {
+							newStatePreds.add(pred);
+							feedback.add(lit.getRef());
+						} else {
+							newStatePreds.add(prec.negate(pred));
+							feedback.add(Not(lit.getRef()));
+						}
+					}
+				}
+				states.add(PredState.of(newStatePreds));
+				final Expr<BoolType> block = Not(And(feedback));
+				solver.add(query.isPresent() ? Imply(query.get(), block) : block);
+			}
+			return states;
+		}
+
 		private void generateActivationLiterals(final int n) {
 			while (actLits.size() < n) {
 				actLits.add(Decls.Const(litPrefix + actLits.size(), BoolExprs.Bool()));
@@ -218,4 +296,132 @@ public class PredAbstractors {
 		}
 
 	}
+
+	private static final class IncrementalCartesianAbstractor implements PredAbstractor {
+
+		private final Solver solver;
+		private final ActivationLiterals definedActLits;
+
+		public IncrementalCartesianAbstractor(final Solver solver) {
+			this.solver = checkNotNull(solver);
+			this.definedActLits = new ActivationLiterals(solver,
+					"__" + getClass().getSimpleName() + "_" + instanceCounter.getAndIncrement() + "_");
+		}
+
+		@Override
+		public Collection<PredState> createStatesForExpr(final Expr<BoolType> expr, final VarIndexing exprIndexing,
+														 final PredPrec prec, final VarIndexing precIndexing) {
+			checkNotNull(expr);
+			checkNotNull(exprIndexing);
+			checkNotNull(prec);
+			checkNotNull(precIndexing);
+
+			final Expr<BoolType> query = definedActLits.startQuery();
+			final List<Expr<BoolType>> newStatePreds = new ArrayList<>();
+			try {
+				solver.add(Imply(query, PathUtils.unfold(expr, exprIndexing)));
+				if (solver.check(ImmutableList.of(query)).isUnsat()) {
+					return Collections.emptySet();
+				}
+
+				for (final Expr<BoolType> pred : prec.getPreds()) {
+					final Expr<BoolType> lit = definedActLits.getDefined(PathUtils.unfold(pred, precIndexing)).getRef();
+					final boolean ponEntailed = solver.check(ImmutableList.of(query, Not(lit))).isUnsat();
+					final boolean negEntailed = solver.check(ImmutableList.of(query, lit)).isUnsat();
+
+					assert !(ponEntailed && negEntailed) : "Ponated and negated predicates are both entailed.";
+
+					if (ponEntailed) {
+						newStatePreds.add(pred);
+					}
+					if (negEntailed) {
+						newStatePreds.add(prec.negate(pred));
+					}
+				}
+			} finally {
+				definedActLits.finishQuery(query);
+			}
+
+			return Collections.singleton(PredState.of(newStatePreds));
+		}
+
+	}
+
+	/**
+	 * Activation literals of the incremental abstractors. Each literal is
+	 * defined to be equivalent to an unfolded predicate, and each query gets
+	 * a literal that guards its assertions. The definitions are kept asserted
+	 * in a push level of the solver, which is dropped when the number of
+	 * literals reaches a limit. The literals are then reused in the next
+	 * level, so neither the assertions nor the declarations known to the
+	 * solver grow without bound.
+	 */
+	private static final class ActivationLiterals {
+
+		private static final int MAX_LITS = 1000;
+
+		private final Solver solver;
+		private final String litPrefix;
+		private final Map<Expr<BoolType>, ConstDecl<BoolType>> definedLits;
+		private final List<ConstDecl<BoolType>> lits;
+		private int litsInSolver;
+		private boolean pushed;
+
+		public ActivationLiterals(final Solver solver, final String litPrefix) {
+			this.solver = checkNotNull(solver);
+			this.litPrefix = checkNotNull(litPrefix);
+			this.definedLits = new HashMap<>();
+			this.lits = new ArrayList<>();
+			this.litsInSolver = 0;
+			this.pushed = false;
+		}
+
+		/**
+		 * Start a new query. The assertions of the query should be guarded by
+		 * the returned literal, and the literal should be assumed when
+		 * checking.
+		 */
+		public Expr<BoolType> startQuery() {
+			if (pushed && litsInSolver >= MAX_LITS) {
+				solver.pop();
+				definedLits.clear();
+				litsInSolver = 0;
+				pushed = false;
+			}
+			if (!pushed) {
+				solver.push();
+				pushed = true;
+			}
+			return createLit().getRef();
+		}
+
+		/**
+		 * Finish a query, disabling the assertions guarded by its literal.
+		 */
+		public void finishQuery(final Expr<BoolType> query) {
+			solver.add(Not(query));
+		}
+
+		public ConstDecl<BoolType> getDefined(final Expr<BoolType> unfoldedPred) {
+			assert pushed;
+			ConstDecl<BoolType> lit = definedLits.get(unfoldedPred);
+			if (lit == null) {
+				lit = createLit();
+				solver.add(Iff(lit.getRef(), unfoldedPred));
+				definedLits.put(unfoldedPred, lit);
+			}
+			return lit;
+		}
+
+		private ConstDecl<BoolType> createLit() {
+			// Literals of the dropped level are unconstrained, so they can be
+			// reused
+			if (litsInSolver == lits.size()) {
+				lits.add(Decls.Const(litPrefix + lits.size(), BoolExprs.Bool()));
+			}
+			final ConstDecl<BoolType> lit = lits.get(litsInSolver);
+			litsInSolver++;
+			return lit;
+		}
+	}
 }
@@ -15,6 +15,8 @@
  */
 package hu.bme.mit.theta.analysis.pred;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import hu.bme.mit.theta.analysis.Analysis;
 import hu.bme.mit.theta.analysis.InitFunc;
 import hu.bme.mit.theta.analysis.PartialOrd;
@@ -31,15 +33,25 @@ public final class PredAnalysis implements Analysis<PredState, ExprAction, PredP
 	private final InitFunc<PredState, PredPrec> initFunc;
 	private final TransFunc<PredState, ExprAction, PredPrec> transFunc;
 
-	private PredAnalysis(final Solver solver, final PredAbstractor predAbstractor, final Expr<BoolType> initExpr) {
-		partialOrd = PredOrd.create(solver);
+	private PredAnalysis(final PartialOrd<PredState> partialOrd, final PredAbstractor predAbstractor,
+						 final Expr<BoolType> initExpr) {
+		this.partialOrd = checkNotNull(partialOrd);
 		initFunc = PredInitFunc.create(predAbstractor, initExpr);
 		transFunc = PredTransFunc.create(predAbstractor);
 	}
 
 	public static PredAnalysis create(final Solver solver, final PredAbstractor predAbstractor,
 									  final Expr<BoolType> initExpr) {
-		return new PredAnalysis(solver, predAbstractor, initExpr);
+		return new PredAnalysis(PredOrd.create(solver), predAbstractor, initExpr);
+	}
+
+	/**
+	 * Create an analysis with a custom partial order, e.g., a
+	 * CachingPartialOrd wrapping a PredOrd.
+	 */
+	public static PredAnalysis create(final PartialOrd<PredState> partialOrd, final PredAbstractor predAbstractor,
+									  final Expr<BoolType> initExpr) {
+		return new PredAnalysis(partialOrd, predAbstractor, initExpr);
 	}
 
 	////
@@ -18,6 +18,8 @@ package hu.bme.mit.theta.analysis.pred;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
 
+import com.google.common.collect.ImmutableList;
+
 import hu.bme.mit.theta.analysis.PartialOrd;
 import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.solver.Solver;
@@ -26,17 +28,40 @@ import hu.bme.mit.theta.solver.utils.WithPushPop;
 public final class PredOrd implements PartialOrd<PredState> {
 
 	private final Solver solver;
+	private final boolean useAssumptions;
 
 	public static PredOrd create(final Solver solver) {
-		return new PredOrd(solver);
+		return new PredOrd(solver, false);
+	}
+
+	/**
+	 * Create a partial order that checks states using assumptions instead of
+	 * push and pop. This keeps the context of the solver between checks, but
+	 * the solver keeps the definitions of the assumptions permanently, so it
+	 * should be dedicated to this partial order (and not be used with pending
+	 * push operations).
+	 */
+	public static PredOrd createWithAssumptions(final Solver solver) {
+		return new PredOrd(solver, true);
 	}
 
-	private PredOrd(final Solver solver) {
+	private PredOrd(final Solver solver, final boolean useAssumptions) {
 		this.solver = checkNotNull(solver);
+		this.useAssumptions = useAssumptions;
 	}
 
 	@Override
 	public boolean isLeq(final PredState state1, final PredState state2) {
+		// Syntactic checks: a conjunction implies any subset of its conjuncts
+		if (state1.isBottom() || state1.getPreds().containsAll(state2.getPreds())) {
+			return true;
+		}
+
+		if (useAssumptions) {
+			return solver.check(ImmutableList.of(PathUtils.unfold(state1.toExpr(), 0),
+					PathUtils.unfold(Not(state2.toExpr()), 0))).isUnsat();
+		}
+
 		try (WithPushPop wpp = new WithPushPop(solver)) {
 			solver.add(PathUtils.unfold(state1.toExpr(), 0));
 			solver.add(PathUtils.unfold(Not(state2.toExpr()), 0));
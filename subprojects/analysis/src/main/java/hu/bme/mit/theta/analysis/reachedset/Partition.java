@@ -21,8 +21,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -55,6 +57,37 @@ public final class Partition<T, K> {
 		elems.forEach(this::add);
 	}
 
+	public void remove(final T elem) {
+		checkNotNull(elem);
+		final K key = projection.apply(elem);
+		final List<T> partition = classes.get(key);
+		if (partition != null) {
+			partition.remove(elem);
+			if (partition.isEmpty()) {
+				classes.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Removes multiple elements, traversing each affected class only once.
+	 */
+	public void removeAll(final Collection<? extends T> elems) {
+		final Map<K, Set<T>> elemsByKey = new HashMap<>();
+		for (final T elem : elems) {
+			elemsByKey.computeIfAbsent(projection.apply(elem), k -> new HashSet<>()).add(elem);
+		}
+		for (final Map.Entry<K, Set<T>> entry : elemsByKey.entrySet()) {
+			final List<T> partition = classes.get(entry.getKey());
+			if (partition != null) {
+				partition.removeIf(entry.getValue()::contains);
+				if (partition.isEmpty()) {
+					classes.remove(entry.getKey());
+				}
+			}
+		}
+	}
+
 	public List<T> get(final T elem) {
 		checkNotNull(elem);
 		final K key = projection.apply(elem);
@@ -0,0 +1,71 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+
+/**
+ * Reached set that partitions the nodes by a projection of their states and
+ * tries to cover a node with each node of its class in the order of addition.
+ */
+public final class PartitionedReachedSet<S extends State, A extends Action> implements ReachedSet<S, A> {
+
+	private final Partition<ArgNode<S, A>, ?> partition;
+
+	private PartitionedReachedSet(final Function<? super S, ?> projection) {
+		checkNotNull(projection);
+		this.partition = Partition.of(n -> projection.apply(n.getState()));
+	}
+
+	public static <S extends State, A extends Action> PartitionedReachedSet<S, A> create(
+			final Function<? super S, ?> projection) {
+		return new PartitionedReachedSet<>(projection);
+	}
+
+	@Override
+	public void add(final ArgNode<S, A> node) {
+		partition.add(node);
+	}
+
+	@Override
+	public void remove(final ArgNode<S, A> node) {
+		partition.remove(node);
+	}
+
+	@Override
+	public void removeAll(final Collection<? extends ArgNode<S, A>> nodes) {
+		partition.removeAll(nodes);
+	}
+
+	@Override
+	public void tryToCover(final ArgNode<S, A> node) {
+		checkNotNull(node);
+		for (final ArgNode<S, A> candidate : partition.get(node)) {
+			if (candidate.mayCover(node)) {
+				node.cover(candidate);
+				return;
+			}
+		}
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package hu.bme.mit.theta.analysis.reachedset;
 
+import java.util.Collection;
 import java.util.stream.Stream;
 
 import hu.bme.mit.theta.analysis.Action;
@@ -33,6 +34,16 @@ public interface ReachedSet<S extends State, A extends Action> {
 		nodes.forEach(this::add);
 	}
 
+	/**
+	 * Removes a node. The state of the node must be the same as when it was
+	 * added.
+	 */
+	void remove(ArgNode<S, A> node);
+
+	default void removeAll(final Collection<? extends ArgNode<S, A>> nodes) {
+		nodes.forEach(this::remove);
+	}
+
 	void tryToCover(ArgNode<S, A> node);
 
 }
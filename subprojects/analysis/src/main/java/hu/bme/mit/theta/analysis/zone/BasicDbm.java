@@ -22,17 +22,28 @@ import static hu.bme.mit.theta.analysis.zone.DiffBounds.Leq;
 import static hu.bme.mit.theta.analysis.zone.DiffBounds.Lt;
 import static hu.bme.mit.theta.analysis.zone.DiffBounds.add;
 import static hu.bme.mit.theta.analysis.zone.DiffBounds.asString;
-import static java.lang.Math.min;
 
 import java.util.Arrays;
 import java.util.function.IntBinaryOperator;
 
-import hu.bme.mit.theta.common.IntMatrix;
-
+/**
+ * Difference bound matrix stored in a flat array in row-major order. Bounds
+ * are accessed without range checks (the indices are checked by the public
+ * operations), and the matrix is kept closed after each operation.
+ *
+ * A single constraint is added by incremental closure in O(n^2). Multiple
+ * constraints can be added in a batch (see {@link #beginBatch()}), which only
+ * tightens the bounds and closes the matrix once at the end of the batch.
+ */
 final class BasicDbm {
 
 	private final int nClocks;
-	private final IntMatrix matrix;
+	private final int size;
+	private final int[] matrix;
+
+	// Depth of nested batches, the matrix is not closed while positive
+	private int batchDepth;
+	private boolean dirty;
 
 	////
 
@@ -40,13 +51,15 @@ final class BasicDbm {
 		checkArgument(size > 0, "Zero sized DBM");
 		checkNotNull(values);
 		this.nClocks = size - 1;
-		matrix = IntMatrix.create(size, size);
+		this.size = size;
+		this.matrix = new int[size * size];
 		fill(values);
 	}
 
 	BasicDbm(final BasicDbm dbm) {
 		this.nClocks = dbm.nClocks;
-		this.matrix = IntMatrix.copyOf(dbm.matrix);
+		this.size = dbm.size;
+		this.matrix = dbm.matrix.clone();
 	}
 
 	////
@@ -65,60 +78,80 @@ final class BasicDbm {
 	////
 
 	int get(final int x, final int y) {
-		checkArgument(isClock(x));
-		checkArgument(isClock(y));
-		return matrix.get(x, y);
+		assert isClock(x) && isClock(y);
+		return matrix[x * size + y];
 	}
 
 	void set(final int x, final int y, final int b) {
-		checkArgument(isClock(x));
-		checkArgument(isClock(y));
-		matrix.set(x, y, b);
+		assert isClock(x) && isClock(y);
+		matrix[x * size + y] = b;
 	}
 
 	void fill(final IntBinaryOperator values) {
 		checkNotNull(values);
-		matrix.fill(values);
+		for (int i = 0; i < size; i++) {
+			final int row = i * size;
+			for (int j = 0; j < size; j++) {
+				matrix[row + j] = values.applyAsInt(i, j);
+			}
+		}
 	}
 
 	////
 
 	public int size() {
-		return nClocks + 1;
+		return size;
 	}
 
 	////
 
 	public boolean isConsistent() {
-		return matrix.get(0, 0) > 0;
+		return matrix[0] > 0;
 	}
 
 	public boolean isSatisfied(final int x, final int y, final int b) {
 		checkArgument(isClock(x));
 		checkArgument(isClock(y));
-		return add(matrix.get(y, x), b) >= Leq(0);
+		return add(matrix[y * size + x], b) >= Leq(0);
 	}
 
 	public boolean constrains(final int x) {
 		checkArgument(isClock(x));
-		for (int i = 0; i <= nClocks; i++) {
-			if (matrix.get(x, i) < defaultBound(x, i)) {
+		final int row = x * size;
+		for (int i = 0; i < size; i++) {
+			if (matrix[row + i] < defaultBound(x, i)) {
 				return true;
 			}
 
-			if (matrix.get(i, x) < defaultBound(i, x)) {
+			if (matrix[i * size + x] < defaultBound(i, x)) {
 				return true;
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * Check if all the bounds of this DBM are less than or equal to the bounds
+	 * of a DBM of the same size.
+	 */
+	public boolean isLeq(final BasicDbm that) {
+		checkArgument(this.size == that.size, "DBMs have different size");
+		final int[] thisMatrix = this.matrix;
+		final int[] thatMatrix = that.matrix;
+		for (int i = 0; i < thisMatrix.length; i++) {
+			if (thisMatrix[i] > thatMatrix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	////
 
 	public void up() {
 		if (isConsistent()) {
 			for (int i = 1; i <= nClocks; i++) {
-				matrix.set(i, 0, Inf());
+				matrix[i * size] = Inf();
 			}
 			assert isClosed();
 		}
@@ -126,13 +159,34 @@ final class BasicDbm {
 
 	public void down() {
 		if (isConsistent()) {
-			for (int i = 1; i <= nClocks; i++) {
-				matrix.set(0, i, Inf());
-			}
+			Arrays.fill(matrix, 1, size, Inf());
 			assert isClosed();
 		}
 	}
 
+	/**
+	 * Start a batch of constraints. Until the matching {@link #endBatch()},
+	 * {@link #and(int, int, int)} only tightens the bounds without closing the
+	 * matrix, and the other operations must not be used.
+	 */
+	void beginBatch() {
+		batchDepth++;
+	}
+
+	/**
+	 * End a batch of constraints, closing the matrix if it was changed.
+	 */
+	void endBatch() {
+		checkArgument(batchDepth > 0, "No batch to end");
+		batchDepth--;
+		if (batchDepth == 0 && dirty) {
+			dirty = false;
+			if (isConsistent()) {
+				close();
+			}
+		}
+	}
+
 	public void and(final int x, final int y, final int b) {
 		checkArgument(isClock(x));
 		checkArgument(isClock(y));
@@ -141,23 +195,17 @@ final class BasicDbm {
 			// do nothing
 
 		} else if (!isSatisfied(x, y, b)) {
-			matrix.set(0, 0, Leq(-1));
-
-		} else if (b < matrix.get(x, y)) {
-			matrix.set(x, y, b);
-
-			for (int i = 0; i <= nClocks; i++) {
-				for (int j = 0; j <= nClocks; j++) {
-					if (add(matrix.get(i, x), matrix.get(x, j)) < matrix.get(i, j)) {
-						matrix.set(i, j, add(matrix.get(i, x), matrix.get(x, j)));
-					}
-					if (add(matrix.get(i, y), matrix.get(y, j)) < matrix.get(i, j)) {
-						matrix.set(i, j, add(matrix.get(i, y), matrix.get(y, j)));
-					}
-				}
+			matrix[0] = Leq(-1);
+
+		} else if (b < matrix[x * size + y]) {
+			matrix[x * size + y] = b;
+			if (batchDepth > 0) {
+				dirty = true;
+			} else {
+				closeThrough(x, y, b);
 			}
 		}
-		assert !isConsistent() || isClosed();
+		assert batchDepth > 0 || !isConsistent() || isClosed();
 	}
 
 	public void nonnegative() {
@@ -166,23 +214,10 @@ final class BasicDbm {
 		}
 
 		for (int k = 1; k <= nClocks; k++) {
-			if (!isSatisfied(0, k, Leq(0))) {
-				matrix.set(0, 0, Leq(-1));
-				return;
-			}
-
-			if (Leq(0) < matrix.get(0, k)) {
-				matrix.set(0, k, Leq(0));
-
-				for (int i = 0; i <= nClocks; i++) {
-					for (int j = 0; j <= nClocks; j++) {
-						if (add(matrix.get(i, 0), matrix.get(0, j)) < matrix.get(i, j)) {
-							matrix.set(i, j, add(matrix.get(i, 0), matrix.get(0, j)));
-						}
-						if (add(matrix.get(i, k), matrix.get(k, j)) < matrix.get(i, j)) {
-							matrix.set(i, j, add(matrix.get(i, k), matrix.get(k, j)));
-						}
-					}
+			if (Leq(0) < matrix[k]) {
+				and(0, k, Leq(0));
+				if (!isConsistent()) {
+					return;
 				}
 			}
 		}
@@ -194,10 +229,11 @@ final class BasicDbm {
 		checkArgument(isNonZeroClock(x));
 
 		if (isConsistent()) {
-			for (int i = 0; i <= nClocks; i++) {
+			final int row = x * size;
+			for (int i = 0; i < size; i++) {
 				if (i != x) {
-					matrix.set(x, i, Inf());
-					matrix.set(i, x, Inf());
+					matrix[row + i] = Inf();
+					matrix[i * size + x] = Inf();
 				}
 			}
 			assert isClosed();
@@ -212,9 +248,10 @@ final class BasicDbm {
 		checkArgument(isNonZeroClock(x));
 
 		if (isConsistent()) {
-			for (int i = 0; i <= nClocks; i++) {
-				matrix.set(x, i, add(Leq(m), matrix.get(0, i)));
-				matrix.set(i, x, add(matrix.get(i, 0), Leq(-m)));
+			final int row = x * size;
+			for (int i = 0; i < size; i++) {
+				matrix[row + i] = add(Leq(m), matrix[i]);
+				matrix[i * size + x] = add(matrix[i * size], Leq(-m));
 			}
 
 			assert isClosed();
@@ -224,24 +261,27 @@ final class BasicDbm {
 	public void copy(final int x, final int y) {
 		checkArgument(isNonZeroClock(y));
 
-		for (int i = 0; i <= nClocks; i++) {
+		final int rowX = x * size;
+		final int rowY = y * size;
+		for (int i = 0; i < size; i++) {
 			if (i != x) {
-				matrix.set(x, i, matrix.get(y, i));
-				matrix.set(i, x, matrix.get(i, y));
+				matrix[rowX + i] = matrix[rowY + i];
+				matrix[i * size + x] = matrix[i * size + y];
 			}
 		}
-		matrix.set(x, y, Leq(0));
-		matrix.set(y, x, Leq(0));
+		matrix[rowX + y] = Leq(0);
+		matrix[rowY + x] = Leq(0);
 		assert isClosed();
 	}
 
 	public void shift(final int x, final int m) {
 		checkArgument(isNonZeroClock(x));
 
-		for (int i = 0; i <= nClocks; i++) {
+		final int row = x * size;
+		for (int i = 0; i < size; i++) {
 			if (i != x) {
-				matrix.set(x, i, add(matrix.get(x, i), Leq(m)));
-				matrix.set(i, x, add(matrix.get(i, x), Leq(-m)));
+				matrix[row + i] = add(matrix[row + i], Leq(m));
+				matrix[i * size + x] = add(matrix[i * size + x], Leq(-m));
 			}
 		}
 		assert isClosed();
@@ -251,13 +291,16 @@ final class BasicDbm {
 		checkNotNull(k);
 		checkArgument(k.length == nClocks + 1);
 
-		for (int i = 0; i <= nClocks; i++) {
-			for (int j = 0; j <= nClocks; j++) {
-				if (matrix.get(i, j) != Inf()) {
-					if (matrix.get(i, j) > Leq(k[i])) {
-						matrix.set(i, j, Inf());
-					} else if (matrix.get(i, j) < Lt(-k[j])) {
-						matrix.set(i, j, Lt(-k[j]));
+		for (int i = 0; i < size; i++) {
+			final int row = i * size;
+			final int upper = Leq(k[i]);
+			for (int j = 0; j < size; j++) {
+				final int b = matrix[row + j];
+				if (b != Inf()) {
+					if (b > upper) {
+						matrix[row + j] = Inf();
+					} else if (b < Lt(-k[j])) {
+						matrix[row + j] = Lt(-k[j]);
 					}
 				}
 			}
@@ -266,33 +309,74 @@ final class BasicDbm {
 	}
 
 	void close() {
-		for (int k = 0; k <= nClocks; k++) {
-			for (int i = 0; i <= nClocks; i++) {
-				for (int j = 0; j <= nClocks; j++) {
-					final int newBound = min(matrix.get(i, j), add(matrix.get(i, k), matrix.get(k, j)));
-					if (i == j && newBound < Leq(0)) {
-						matrix.set(0, 0, Leq(-1));
-						return;
-					} else {
-						matrix.set(i, j, newBound);
+		for (int k = 0; k < size; k++) {
+			final int rowK = k * size;
+			for (int i = 0; i < size; i++) {
+				final int row = i * size;
+				final int bik = matrix[row + k];
+				if (bik == Inf()) {
+					continue;
+				}
+				for (int j = 0; j < size; j++) {
+					final int bkj = matrix[rowK + j];
+					if (bkj != Inf()) {
+						final int newBound = add(bik, bkj);
+						if (newBound < matrix[row + j]) {
+							matrix[row + j] = newBound;
+						}
 					}
 				}
+				if (matrix[row + i] < Leq(0)) {
+					matrix[0] = Leq(-1);
+					return;
+				}
 			}
 		}
 		assert isClosed();
 	}
 
+	/**
+	 * Close a closed matrix after the bound of (x, y) was tightened to b, by
+	 * updating each bound with the paths through the new bound.
+	 */
+	private void closeThrough(final int x, final int y, final int b) {
+		final int rowY = y * size;
+		for (int i = 0; i < size; i++) {
+			final int bix = matrix[i * size + x];
+			if (bix == Inf()) {
+				continue;
+			}
+			final int biy = add(bix, b);
+			final int row = i * size;
+			for (int j = 0; j < size; j++) {
+				final int byj = matrix[rowY + j];
+				if (byj != Inf()) {
+					final int newBound = add(biy, byj);
+					if (newBound < matrix[row + j]) {
+						matrix[row + j] = newBound;
+					}
+				}
+			}
+		}
+	}
+
 	int[] closeItp() {
-		final IntMatrix next = IntMatrix.create(nClocks + 1, nClocks + 1);
-		next.fill((x, y) -> y);
-
-		for (int k = 0; k <= nClocks; k++) {
-			for (int i = 0; i <= nClocks; i++) {
-				for (int j = 0; j <= nClocks; j++) {
-					final int newBound = add(matrix.get(i, k), matrix.get(k, j));
-					if (newBound < matrix.get(i, j)) {
-						matrix.set(i, j, newBound);
-						next.set(i, j, next.get(i, k));
+		final int[] next = new int[size * size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				next[i * size + j] = j;
+			}
+		}
+
+		for (int k = 0; k < size; k++) {
+			final int rowK = k * size;
+			for (int i = 0; i < size; i++) {
+				final int row = i * size;
+				for (int j = 0; j < size; j++) {
+					final int newBound = add(matrix[row + k], matrix[rowK + j]);
+					if (newBound < matrix[row + j]) {
+						matrix[row + j] = newBound;
+						next[row + j] = next[row + k];
 						if (i == j && newBound < Leq(0)) {
 							final int[] cycle = path(next, i, j);
 							return cycle;
@@ -305,14 +389,14 @@ final class BasicDbm {
 		throw new IllegalStateException();
 	}
 
-	private int[] path(final IntMatrix next, final int u, final int v) {
+	private int[] path(final int[] next, final int u, final int v) {
 		final int[] path = new int[nClocks + 2];
 
 		int w = u;
 		path[0] = w;
 		int i = 1;
 		do {
-			w = next.get(w, v);
+			w = next[w * size + v];
 			path[i] = w;
 			i++;
 		} while (w != v);
@@ -320,11 +404,116 @@ final class BasicDbm {
 		return Arrays.copyOf(path, i);
 	}
 
+	/**
+	 * Compute a minimal set of bounds of a closed and consistent matrix, whose
+	 * closure is the matrix itself. Clocks on zero cycles form classes that are
+	 * connected by a single cycle each, and a bound between the representatives
+	 * of two classes is only kept if it is not implied by a path through a
+	 * third representative. The result is a sequence of (x, y, bound) triples in
+	 * a fixed order, thus equal matrices have equal reductions.
+	 */
+	int[] reduce() {
+		assert isConsistent();
+		final int[] rep = new int[size];
+		for (int i = 0; i < size; i++) {
+			rep[i] = i;
+		}
+		for (int i = 0; i < size; i++) {
+			if (rep[i] != i) {
+				continue;
+			}
+			for (int j = i + 1; j < size; j++) {
+				if (rep[j] == j && add(matrix[i * size + j], matrix[j * size + i]) == Leq(0)) {
+					rep[j] = i;
+				}
+			}
+		}
+
+		final int[] result = new int[3 * size * size];
+		int n = 0;
+
+		for (int i = 0; i < size; i++) {
+			if (rep[i] != i) {
+				continue;
+			}
+			int prev = i;
+			for (int j = i + 1; j < size; j++) {
+				if (rep[j] == i) {
+					n = addBound(result, n, prev, j);
+					prev = j;
+				}
+			}
+			if (prev != i) {
+				n = addBound(result, n, prev, i);
+			}
+		}
+
+		for (int i = 0; i < size; i++) {
+			if (rep[i] != i) {
+				continue;
+			}
+			for (int j = 0; j < size; j++) {
+				if (j != i && rep[j] == j && matrix[i * size + j] != Inf() && !isImplied(rep, i, j)) {
+					n = addBound(result, n, i, j);
+				}
+			}
+		}
+
+		return Arrays.copyOf(result, n);
+	}
+
+	private int addBound(final int[] bounds, final int n, final int x, final int y) {
+		bounds[n] = x;
+		bounds[n + 1] = y;
+		bounds[n + 2] = matrix[x * size + y];
+		return n + 3;
+	}
+
+	private boolean isImplied(final int[] rep, final int x, final int y) {
+		final int bxy = matrix[x * size + y];
+		for (int k = 0; k < size; k++) {
+			if (k != x && k != y && rep[k] == k) {
+				final int bxk = matrix[x * size + k];
+				final int bky = matrix[k * size + y];
+				if (bxk != Inf() && bky != Inf() && add(bxk, bky) <= bxy) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Create the closed matrix of bounds computed by {@link #reduce()}.
+	 */
+	static BasicDbm fromReduced(final int size, final int[] bounds) {
+		final BasicDbm dbm = new BasicDbm(size, BasicDbm::defaultBound);
+		for (int i = 0; i < bounds.length; i += 3) {
+			dbm.matrix[bounds[i] * size + bounds[i + 1]] = bounds[i + 2];
+		}
+		dbm.close();
+		return dbm;
+	}
+
+	/**
+	 * Check if the bounds of this matrix are less than or equal to the bounds
+	 * computed by {@link #reduce()} for a matrix of the same size, which is
+	 * equivalent to {@link #isLeq(BasicDbm)} for consistent matrices.
+	 */
+	boolean isLeq(final int[] bounds) {
+		for (int i = 0; i < bounds.length; i += 3) {
+			if (matrix[bounds[i] * size + bounds[i + 1]] > bounds[i + 2]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	boolean isClosed() {
-		for (int i = 0; i <= nClocks; i++) {
-			for (int j = 0; j <= nClocks; j++) {
-				for (int k = 0; k <= nClocks; k++) {
-					if (matrix.get(i, j) > add(matrix.get(i, k), matrix.get(k, j))) {
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				for (int k = 0; k < size; k++) {
+					if (matrix[i * size + j] > add(matrix[i * size + k], matrix[k * size + j])) {
 						return false;
 					}
 				}
@@ -335,24 +524,33 @@ final class BasicDbm {
 
 	////
 
+	// Inconsistent matrices are all equal, as their bounds are not closed
 	@Override
 	public int hashCode() {
-		// TODO Auto-generated method stub
-		throw new UnsupportedOperationException("TODO: auto-generated method stub");
+		return isConsistent() ? Arrays.hashCode(matrix) : size;
 	}
 
 	@Override
 	public boolean equals(final Object obj) {
-		// TODO Auto-generated method stub
-		throw new UnsupportedOperationException("TODO: auto-generated method stub");
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof BasicDbm) {
+			final BasicDbm that = (BasicDbm) obj;
+			if (this.size != that.size || this.isConsistent() != that.isConsistent()) {
+				return false;
+			}
+			return !this.isConsistent() || Arrays.equals(this.matrix, that.matrix);
+		} else {
+			return false;
+		}
 	}
 
 	@Override
 	public String toString() {
 		final StringBuilder sb = new StringBuilder();
-		for (int i = 0; i <= nClocks; i++) {
-			for (int j = 0; j <= nClocks; j++) {
-				sb.append(String.format("%-12s", asString(matrix.get(i, j))));
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				sb.append(String.format("%-12s", asString(matrix[i * size + j])));
 			}
 			sb.append(System.lineSeparator());
 		}
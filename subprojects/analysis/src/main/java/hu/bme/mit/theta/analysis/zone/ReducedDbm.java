@@ -0,0 +1,63 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+
+/**
+ * A consistent DBM stored as a minimal set of bounds. Equal DBMs have equal
+ * reduced forms.
+ */
+final class ReducedDbm {
+
+	private final DbmSignature signature;
+	private final int[] bounds;
+
+	ReducedDbm(final DbmSignature signature, final int[] bounds) {
+		this.signature = checkNotNull(signature);
+		this.bounds = checkNotNull(bounds);
+	}
+
+	DbmSignature getSignature() {
+		return signature;
+	}
+
+	int[] getBounds() {
+		return bounds;
+	}
+
+	////
+
+	@Override
+	public int hashCode() {
+		return 31 * signature.toList().hashCode() + Arrays.hashCode(bounds);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof ReducedDbm) {
+			final ReducedDbm that = (ReducedDbm) obj;
+			return this.signature.toList().equals(that.signature.toList()) && Arrays.equals(this.bounds, that.bounds);
+		} else {
+			return false;
+		}
+	}
+
+}
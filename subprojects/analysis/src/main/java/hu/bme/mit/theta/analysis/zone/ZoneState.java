@@ -22,6 +22,7 @@ import static hu.bme.mit.theta.core.clock.constr.ClockConstrs.Lt;
 import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.And;
 import static java.util.stream.Collectors.toList;
 
+import java.lang.ref.SoftReference;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -49,7 +50,11 @@ public final class ZoneState implements ExprState {
 	private volatile int hashCode = 0;
 	private volatile Expr<BoolType> expr = null;
 
-	private final DBM dbm;
+	// Either the DBM or its reduced form is stored, see reduce()
+	private volatile DBM dbm;
+	private volatile ReducedDbm reduced = null;
+	// DBM expanded from the reduced form, kept until memory is needed
+	private volatile SoftReference<DBM> expanded = null;
 
 	private ZoneState(final DBM dbm) {
 		this.dbm = dbm;
@@ -59,6 +64,21 @@ public final class ZoneState implements ExprState {
 		this.dbm = ops.dbm;
 	}
 
+	private DBM dbm() {
+		final DBM result = dbm;
+		if (result != null) {
+			return result;
+		}
+		final SoftReference<DBM> ref = expanded;
+		final DBM cached = ref == null ? null : ref.get();
+		if (cached != null) {
+			return cached;
+		}
+		final DBM newExpanded = DBM.expand(reduced);
+		expanded = new SoftReference<>(newExpanded);
+		return newExpanded;
+	}
+
 	////
 
 	public static ZoneState region(final Valuation valuation, final Collection<VarDecl<RatType>> vars) {
@@ -113,31 +133,31 @@ public final class ZoneState implements ExprState {
 	public static ZoneState intersection(final ZoneState zone1, final ZoneState zone2) {
 		checkNotNull(zone1);
 		checkNotNull(zone2);
-		return new ZoneState(DBM.intersection(zone1.dbm, zone2.dbm));
+		return new ZoneState(DBM.intersection(zone1.dbm(), zone2.dbm()));
 	}
 
 	public static ZoneState enclosure(final ZoneState zone1, final ZoneState zone2) {
 		checkNotNull(zone1);
 		checkNotNull(zone2);
-		return new ZoneState(DBM.enclosure(zone1.dbm, zone2.dbm));
+		return new ZoneState(DBM.enclosure(zone1.dbm(), zone2.dbm()));
 	}
 
 	public static ZoneState interpolant(final ZoneState zoneA, final ZoneState zoneB) {
 		checkNotNull(zoneA);
 		checkNotNull(zoneB);
-		return new ZoneState(DBM.interpolant(zoneA.dbm, zoneB.dbm));
+		return new ZoneState(DBM.interpolant(zoneA.dbm(), zoneB.dbm()));
 	}
 
 	public static ZoneState weakInterpolant(final ZoneState zoneA, final ZoneState zoneB) {
 		checkNotNull(zoneA);
 		checkNotNull(zoneB);
-		return new ZoneState(DBM.weakInterpolant(zoneA.dbm, zoneB.dbm));
+		return new ZoneState(DBM.weakInterpolant(zoneA.dbm(), zoneB.dbm()));
 	}
 
 	////
 
 	public Collection<ZoneState> complement() {
-		final Collection<DBM> dbms = dbm.complement();
+		final Collection<DBM> dbms = dbm().complement();
 		return dbms.stream().map(ZoneState::new).collect(toList());
 	}
 
@@ -153,28 +173,66 @@ public final class ZoneState implements ExprState {
 	////
 
 	public boolean isTop() {
-		return DBM.top(Collections.emptySet()).getRelation(dbm) == DbmRelation.EQUAL;
+		return DBM.top(Collections.emptySet()).getRelation(dbm()) == DbmRelation.EQUAL;
 	}
 
 	@Override
 	public boolean isBottom() {
-		return !dbm.isConsistent();
+		return !dbm().isConsistent();
 	}
 
 	public boolean isLeq(final ZoneState that) {
-		return this.dbm.isLeq(that.dbm);
+		final DBM thatDbm = that.dbm;
+		if (thatDbm != null) {
+			return this.dbm().isLeq(thatDbm);
+		}
+		return this.dbm().isLeq(that.reduced);
 	}
 
 	public boolean isLeq(final ZoneState that, final Collection<? extends VarDecl<RatType>> activeVars) {
-		return this.dbm.isLeq(that.dbm, activeVars);
+		return this.dbm().isLeq(that.dbm(), activeVars);
 	}
 
 	public boolean isLeq(final ZoneState that, final BoundFunc boundFunction) {
-		return this.dbm.isLeq(that.dbm, boundFunction);
+		return this.dbm().isLeq(that.dbm(), boundFunction);
 	}
 
 	public boolean isConsistentWith(final ZoneState that) {
-		return this.dbm.isConsistentWith(that.dbm);
+		return this.dbm().isConsistentWith(that.dbm());
+	}
+
+	////
+
+	/**
+	 * Store the zone as a minimal set of constraints instead of a full DBM, if
+	 * it is smaller. The DBM is recomputed when it is needed, apart from
+	 * inclusion checks against this zone, and kept in a soft reference until
+	 * the memory is needed. Returns the number of bytes saved.
+	 */
+	long reduce() {
+		final DBM current = dbm;
+		if (current == null || !current.isConsistent()) {
+			return 0;
+		}
+		final ReducedDbm newReduced = current.reduce();
+		final long saved = getSizeInBytes() - 4L * newReduced.getBounds().length;
+		if (saved <= 0) {
+			return 0;
+		}
+		reduced = newReduced;
+		dbm = null;
+		return saved;
+	}
+
+	/**
+	 * Approximate size of the bounds stored by this zone.
+	 */
+	long getSizeInBytes() {
+		final DBM current = dbm;
+		if (current != null) {
+			return 4L * current.size() * current.size();
+		}
+		return 4L * reduced.getBounds().length;
 	}
 
 	////
@@ -183,7 +241,7 @@ public final class ZoneState implements ExprState {
 	public Expr<BoolType> toExpr() {
 		Expr<BoolType> result = expr;
 		if (result == null) {
-			final Collection<Expr<BoolType>> exprs = dbm.getConstrs().stream().map(ClockConstr::toExpr)
+			final Collection<Expr<BoolType>> exprs = dbm().getConstrs().stream().map(ClockConstr::toExpr)
 					.collect(toList());
 			result = And(exprs);
 			expr = result;
@@ -198,7 +256,7 @@ public final class ZoneState implements ExprState {
 		int result = hashCode;
 		if (result == 0) {
 			result = HASH_SEED;
-			result = 31 * result + dbm.hashCode();
+			result = 31 * result + dbm().hashCode();
 			hashCode = result;
 		}
 		return result;
@@ -210,7 +268,10 @@ public final class ZoneState implements ExprState {
 			return true;
 		} else if (obj instanceof ZoneState) {
 			final ZoneState that = (ZoneState) obj;
-			return this.dbm.equals(that.dbm);
+			if (this.dbm == null && that.dbm == null) {
+				return this.reduced.equals(that.reduced);
+			}
+			return this.dbm().equals(that.dbm());
 		} else {
 			return false;
 		}
@@ -218,7 +279,7 @@ public final class ZoneState implements ExprState {
 
 	@Override
 	public String toString() {
-		final Collection<ClockConstr> constrs = dbm.getConstrs();
+		final Collection<ClockConstr> constrs = dbm().getConstrs();
 		return Utils.lispStringBuilder(getClass().getSimpleName()).aligned().addAll(constrs).toString();
 	}
 
@@ -234,11 +295,20 @@ public final class ZoneState implements ExprState {
 		////
 
 		private static Builder transform(final ZoneState state) {
-			return new Builder(DBM.copyOf(state.dbm));
+			final DBM dbm = state.dbm;
+			if (dbm != null) {
+				return new Builder(DBM.copyOf(dbm));
+			}
+			final SoftReference<DBM> ref = state.expanded;
+			final DBM cached = ref == null ? null : ref.get();
+			if (cached != null) {
+				return new Builder(DBM.copyOf(cached));
+			}
+			return new Builder(DBM.expand(state.reduced));
 		}
 
 		private static Builder project(final ZoneState state, final Collection<? extends VarDecl<RatType>> clocks) {
-			return new Builder(DBM.project(state.dbm, clocks));
+			return new Builder(DBM.project(state.dbm(), clocks));
 		}
 
 		////
@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * Store of zones that interns equal zones, so that they share a single
+ * ZoneState instance. Interned zones can also be stored in a reduced form (a
+ * minimal set of constraints), whose DBM is only computed when an operation
+ * needs it. Inclusion checks against reduced zones only use the reduced form.
+ *
+ * Zones are held weakly, so zones that are no longer referenced elsewhere (e.g.,
+ * by pruned nodes of the ARG) are dropped from the store.
+ */
+public final class ZoneStore {
+
+	private final Map<ZoneState, WeakReference<ZoneState>> zones;
+	private long hits;
+	private long savedBytes;
+
+	private ZoneStore() {
+		zones = new WeakHashMap<>();
+		hits = 0;
+		savedBytes = 0;
+	}
+
+	public static ZoneStore create() {
+		return new ZoneStore();
+	}
+
+	////
+
+	/**
+	 * Get the zone equal to the given one that was interned first, or the
+	 * given zone if there is no such zone.
+	 */
+	public synchronized ZoneState intern(final ZoneState zone) {
+		checkNotNull(zone);
+		final WeakReference<ZoneState> ref = zones.get(zone);
+		final ZoneState interned = ref == null ? null : ref.get();
+		if (interned == null) {
+			zones.put(zone, new WeakReference<>(zone));
+			return zone;
+		} else {
+			if (interned != zone) {
+				hits++;
+				savedBytes += zone.getSizeInBytes();
+			}
+			return interned;
+		}
+	}
+
+	/**
+	 * Intern a zone, and store the interned zone in a reduced form.
+	 */
+	public synchronized ZoneState internReduced(final ZoneState zone) {
+		final ZoneState interned = intern(zone);
+		savedBytes += interned.reduce();
+		return interned;
+	}
+
+	////
+
+	/**
+	 * Number of distinct zones in the store that are still referenced.
+	 */
+	public synchronized int getZoneCount() {
+		return zones.size();
+	}
+
+	/**
+	 * Number of zones that were replaced by an equal interned zone.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Approximate number of bytes saved by sharing and reducing zones, assuming
+	 * that the replaced zones are not referenced elsewhere.
+	 */
+	public synchronized long getSavedBytes() {
+		return savedBytes;
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add("zones = " + getZoneCount())
+				.add("hits = " + getHits()).add("savedBytes = " + getSavedBytes()).toString();
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
+import hu.bme.mit.theta.analysis.stubs.StateStub;
+
+public class ArgNodeTest {
+
+	@Test
+	public void testExclusion() {
+		final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+		final Action a = new ActionStub("A");
+		final State s = new StateStub("S");
+
+		final ArgNode<State, Action> n0 = arg.createInitNode(s, false);
+		final ArgNode<State, Action> n00 = arg.createSuccNode(n0, a, s, false);
+		final ArgNode<State, Action> n01 = arg.createSuccNode(n0, a, s, false);
+		final ArgNode<State, Action> n000 = arg.createSuccNode(n00, a, s, false);
+
+		assertFalse(n000.isExcluded());
+		assertTrue(n01.mayCover(n00));
+		assertFalse(n0.mayCover(n0));
+		assertFalse(n000.mayCover(n00));
+
+		n00.setCoveringNode(n01);
+		assertTrue(n00.isExcluded());
+		assertTrue(n000.isExcluded());
+		assertFalse(n01.isExcluded());
+		assertFalse(n000.mayCover(n01));
+
+		n00.unsetCoveringNode();
+		assertFalse(n000.isExcluded());
+		assertTrue(n000.mayCover(n01));
+	}
+
+	@Test
+	public void testDeep() {
+		final int depth = 20000;
+		final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+		final Action a = new ActionStub("A");
+
+		final ArgNode<State, Action> root = arg.createInitNode(new StateStub("0"), false);
+		ArgNode<State, Action> node = root;
+		for (int i = 1; i <= depth; ++i) {
+			node = arg.createSuccNode(node, a, new StateStub(Integer.toString(i)), false);
+		}
+
+		assertEquals(depth, node.properAncestors().count());
+		assertEquals(depth + 1, root.descendants().count());
+		assertEquals(depth + 1, root.unexcludedDescendants().count());
+		assertFalse(node.isExcluded());
+		assertEquals(depth, arg.getDepth());
+	}
+
+}
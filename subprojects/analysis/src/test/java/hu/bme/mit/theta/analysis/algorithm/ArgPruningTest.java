@@ -17,11 +17,18 @@ package hu.bme.mit.theta.analysis.algorithm;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.junit.Test;
 
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.reachedset.Partition;
+import hu.bme.mit.theta.analysis.reachedset.ReachedSet;
 import hu.bme.mit.theta.analysis.stubs.ActionStub;
 import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
 import hu.bme.mit.theta.analysis.stubs.StateStub;
@@ -61,6 +68,9 @@ public class ArgPruningTest {
 		assertEquals(1, arg.getUnsafeNodes().count());
 		assertEquals(n001, arg.getUnsafeNodes().iterator().next());
 		assertEquals(2, n0.getCoveredNodes().count());
+		assertEquals(3, arg.getCoveredNodes().count());
+		assertEquals(3, arg.getIncompleteNodes().count());
+		assertFalse(arg.isSafe());
 
 		System.out.println(GraphvizWriter.getInstance().writeString(ArgVisualizer.getDefault().visualize(arg)));
 		System.out.println("=========================");
@@ -72,9 +82,64 @@ public class ArgPruningTest {
 		assertEquals(1, arg.getDepth());
 		assertEquals(1, arg.getInitNodes().count());
 		assertEquals(0, arg.getUnsafeNodes().count());
-		assertEquals(1, n0.coveredNodes.size());
+		assertEquals(1, n0.getCoveredNodes().count());
 		assertFalse(n02.getCoveringNode().isPresent());
+		assertEquals(1, arg.getCoveredNodes().count());
+		assertEquals(2, arg.getIncompleteNodes().count());
+		assertTrue(arg.isSafe());
 
 		System.out.println(GraphvizWriter.getInstance().writeString(ArgVisualizer.getDefault().visualize(arg)));
 	}
+
+	@Test
+	public void testReachedSet() {
+		final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+		final Action a = new ActionStub("A");
+		final Supplier<PartitionReachedSet> factory = () -> new PartitionReachedSet(s -> s.toString().length());
+
+		final ArgNode<State, Action> n0 = arg.createInitNode(new StateStub("0"), false);
+		final ArgNode<State, Action> n00 = arg.createSuccNode(n0, a, new StateStub("00"), false);
+
+		final ReachedSet<State, Action> reachedSet = arg.getReachedSet(factory);
+		assertSame(reachedSet, arg.getReachedSet(factory));
+		final Partition<ArgNode<State, Action>, ?> partition = ((PartitionReachedSet) reachedSet).partition;
+		assertEquals(1, partition.get(n00).size());
+
+		final ArgNode<State, Action> n01 = arg.createSuccNode(n0, a, new StateStub("01"), false);
+		final ArgNode<State, Action> n000 = arg.createSuccNode(n00, a, new StateStub("000"), false);
+		assertEquals(2, partition.get(n01).size());
+		assertEquals(1, partition.get(n000).size());
+
+		arg.prune(n00);
+		assertEquals(1, partition.get(n01).size());
+		assertTrue(partition.get(n01).contains(n01));
+		assertEquals(0, partition.get(n000).size());
+
+		n01.setState(new StateStub("001"));
+		assertEquals(1, partition.get(n0).size());
+		assertEquals(1, partition.get(n01).size());
+	}
+
+	private static final class PartitionReachedSet implements ReachedSet<State, Action> {
+		private final Partition<ArgNode<State, Action>, ?> partition;
+
+		private PartitionReachedSet(final Function<State, ?> projection) {
+			partition = Partition.of(n -> projection.apply(n.getState()));
+		}
+
+		@Override
+		public void add(final ArgNode<State, Action> node) {
+			partition.add(node);
+		}
+
+		@Override
+		public void remove(final ArgNode<State, Action> node) {
+			partition.remove(node);
+		}
+
+		@Override
+		public void tryToCover(final ArgNode<State, Action> node) {
+		}
+	}
+
 }
@@ -0,0 +1,100 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
+import hu.bme.mit.theta.analysis.stubs.PrecStub;
+
+public class PortfolioCheckerTest {
+
+	private final SafetyResult<State, Action> safe = SafetyResult.safe(ARG.create(new PartialOrdStub()));
+
+	@Test
+	public void testFirstResultCancelsOthers() {
+		final CountDownLatch cancelled = new CountDownLatch(1);
+		final SafetyChecker<State, Action, PrecStub> slow = prec -> {
+			while (!Thread.currentThread().isInterrupted()) {
+				Thread.yield();
+			}
+			cancelled.countDown();
+			throw new CancellationException();
+		};
+
+		final PortfolioChecker<State, Action, PrecStub> checker = PortfolioChecker.<State, Action, PrecStub>builder()
+				.add("slow", slow).add("fast", prec -> safe).build();
+
+		assertSame(safe, checker.check(new PrecStub()));
+		// The portfolio waits for the cancelled checkers to stop
+		assertEquals(0, cancelled.getCount());
+	}
+
+	@Test
+	public void testCancelHook() {
+		// The slow checker does not check for interrupts, only the hook stops it
+		final AtomicBoolean slowCancelled = new AtomicBoolean(false);
+		final AtomicBoolean fastCancelled = new AtomicBoolean(false);
+		final SafetyChecker<State, Action, PrecStub> slow = prec -> {
+			while (!slowCancelled.get()) {
+				Thread.yield();
+			}
+			throw new CancellationException();
+		};
+
+		final PortfolioChecker<State, Action, PrecStub> checker = PortfolioChecker.<State, Action, PrecStub>builder()
+				.add("slow", slow, () -> slowCancelled.set(true))
+				.add("fast", prec -> safe, () -> fastCancelled.set(true)).build();
+
+		assertSame(safe, checker.check(new PrecStub()));
+		assertTrue(slowCancelled.get());
+		assertFalse(fastCancelled.get());
+	}
+
+	@Test
+	public void testFailureIgnored() {
+		final PortfolioChecker<State, Action, PrecStub> checker = PortfolioChecker.<State, Action, PrecStub>builder()
+				.add("failing", prec -> {
+					throw new UnsupportedOperationException();
+				}).add("ok", prec -> safe).threads(1).build();
+
+		assertSame(safe, checker.check(new PrecStub()));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAllFailed() {
+		final PortfolioChecker<State, Action, PrecStub> checker = PortfolioChecker.<State, Action, PrecStub>builder()
+				.add("failing1", prec -> {
+					throw new UnsupportedOperationException();
+				}).add("failing2", prec -> {
+					throw new UnsupportedOperationException();
+				}).build();
+
+		checker.check(new PrecStub());
+	}
+
+}
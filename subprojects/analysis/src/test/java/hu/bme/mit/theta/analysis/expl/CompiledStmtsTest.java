@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expl;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.stmt.Stmts.Assign;
+import static hu.bme.mit.theta.core.stmt.Stmts.Assume;
+import static hu.bme.mit.theta.core.stmt.Stmts.Havoc;
+import static hu.bme.mit.theta.core.type.anytype.Exprs.Ite;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Mul;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.MutableValuation;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class CompiledStmtsTest {
+	private final VarDecl<IntType> x = Var("x", Int());
+	private final VarDecl<IntType> y = Var("y", Int());
+	private final VarDecl<IntType> z = Var("z", Int());
+	private final ExplPrec prec = ExplPrec.of(ImmutableSet.of(x, y, z));
+
+	@Test
+	public void testExecuteAll() {
+		final List<Stmt> stmts = ImmutableList.of(Assign(x, Add(x.getRef(), Int(1))),
+				Assume(Lt(x.getRef(), Int(5))), Assign(y, Ite(Eq(x.getRef(), Int(2)), Int(10), Int(20))),
+				Havoc(z));
+		final CompiledStmts compiled = CompiledStmts.compile(stmts);
+		final ExplState state = ExplState.of(ImmutableValuation.builder().put(x, Int(1)).put(z, Int(3)).build());
+
+		final LitExpr<?>[] slots = compiled.load(state);
+		Assert.assertEquals(stmts.size(), compiled.execute(slots));
+		final ExplState expected = ExplState.of(ImmutableValuation.builder().put(x, Int(2)).put(y, Int(10)).build());
+		Assert.assertEquals(expected, compiled.createState(state, slots, prec));
+	}
+
+	@Test
+	public void testBottom() {
+		final List<Stmt> stmts = ImmutableList.of(Assume(And(Lt(y.getRef(), Int(0)), Eq(x.getRef(), Int(0)))));
+		final CompiledStmts compiled = CompiledStmts.compile(stmts);
+		final ExplState state = ExplState.of(ImmutableValuation.builder().put(x, Int(1)).build());
+
+		Assert.assertEquals(-1, compiled.execute(compiled.load(state)));
+	}
+
+	@Test
+	public void testUnknown() {
+		final List<Stmt> stmts = ImmutableList.of(Assign(z, Mul(x.getRef(), Int(0))), Assign(x, Int(1)),
+				Assign(y, Add(y.getRef(), Int(1))), Assign(x, Int(2)));
+		final CompiledStmts compiled = CompiledStmts.compile(stmts);
+		final ExplState state = ExplState.top();
+
+		final LitExpr<?>[] slots = compiled.load(state);
+		Assert.assertEquals(2, compiled.execute(slots));
+		final MutableValuation val = compiled.store(state, slots);
+		Assert.assertEquals(ImmutableValuation.builder().put(x, Int(1)).put(z, Int(0)).build(), val);
+	}
+
+}
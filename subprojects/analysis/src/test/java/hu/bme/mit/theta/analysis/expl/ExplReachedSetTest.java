@@ -0,0 +1,114 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expl;
+
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.core.decl.Decls;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class ExplReachedSetTest {
+
+	private final VarDecl<IntType> X = Decls.Var("x", Int());
+	private final VarDecl<IntType> Y = Decls.Var("y", Int());
+	private final VarDecl<IntType> Z = Decls.Var("z", Int());
+
+	private final ExplState s1 = ExplState.of(ImmutableValuation.builder().put(X, Int(1)).build());
+	private final ExplState s2 = ExplState.of(ImmutableValuation.builder().put(X, Int(2)).put(Y, Int(1)).build());
+	private final ExplState s4 = ExplState.of(ImmutableValuation.builder().put(X, Int(1)).put(Y, Int(1)).build());
+
+	private final Action a = new ActionStub("A");
+
+	@Test
+	public void testCover() {
+		final ARG<ExplState, Action> arg = ARG.create(ExplOrd.getInstance());
+		final ExplReachedSet<ExplState, Action> reachedSet = ExplReachedSet.create();
+
+		final ArgNode<ExplState, Action> n0 = arg.createInitNode(ExplState.top(), false);
+		final ArgNode<ExplState, Action> n1 = arg.createSuccNode(n0, a, s1, false);
+		final ArgNode<ExplState, Action> n2 = arg.createSuccNode(n1, a, s2, false);
+		final ArgNode<ExplState, Action> n4 = arg.createSuccNode(n2, a, s4, false);
+		reachedSet.add(n1);
+		reachedSet.add(n2);
+
+		reachedSet.tryToCover(n4);
+		assertTrue(n4.isCovered());
+		assertSame(n1, n4.getCoveringNode().get());
+	}
+
+	@Test
+	public void testCoverSubset() {
+		final ARG<ExplState, Action> arg = ARG.create(ExplOrd.getInstance());
+		final ExplReachedSet<ExplState, Action> reachedSet = ExplReachedSet.create();
+
+		final ExplState sxz = ExplState.of(ImmutableValuation.builder().put(X, Int(1)).put(Z, Int(3)).build());
+		final ExplState sxy = ExplState.of(ImmutableValuation.builder().put(X, Int(1)).put(Y, Int(2)).build());
+		final ExplState sxyz = ExplState
+				.of(ImmutableValuation.builder().put(Z, Int(3)).put(Y, Int(1)).put(X, Int(1)).build());
+
+		final ArgNode<ExplState, Action> n0 = arg.createInitNode(ExplState.top(), false);
+		final ArgNode<ExplState, Action> n1 = arg.createSuccNode(n0, a, sxy, false);
+		final ArgNode<ExplState, Action> n2 = arg.createSuccNode(n0, a, sxz, false);
+		final ArgNode<ExplState, Action> n3 = arg.createSuccNode(n2, a, sxyz, false);
+		reachedSet.add(n1);
+		reachedSet.add(n2);
+
+		// Only {x, z} agrees with the state, the variables are not in the order of their ids
+		reachedSet.tryToCover(n3);
+		assertTrue(n3.isCovered());
+		assertSame(n2, n3.getCoveringNode().get());
+	}
+
+	@Test
+	public void testNoCover() {
+		final ARG<ExplState, Action> arg = ARG.create(ExplOrd.getInstance());
+		final ExplReachedSet<ExplState, Action> reachedSet = ExplReachedSet.create();
+
+		final ArgNode<ExplState, Action> n0 = arg.createInitNode(s2, false);
+		final ArgNode<ExplState, Action> n1 = arg.createSuccNode(n0, a, s1, false);
+		reachedSet.add(n0);
+
+		reachedSet.tryToCover(n1);
+		assertFalse(n1.isCovered());
+	}
+
+	@Test
+	public void testRemove() {
+		final ARG<ExplState, Action> arg = ARG.create(ExplOrd.getInstance());
+		final ExplReachedSet<ExplState, Action> reachedSet = ExplReachedSet.create();
+
+		final ArgNode<ExplState, Action> n0 = arg.createInitNode(ExplState.top(), false);
+		final ArgNode<ExplState, Action> n1 = arg.createSuccNode(n0, a, s1, false);
+		final ArgNode<ExplState, Action> n4 = arg.createSuccNode(n0, a, s4, false);
+		reachedSet.add(n1);
+		reachedSet.remove(n1);
+
+		reachedSet.tryToCover(n4);
+		assertFalse(n4.isCovered());
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceBatchChecker;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceBatchCheckers;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceChecker;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceStatus;
+import hu.bme.mit.theta.analysis.expr.refinement.ItpRefutation;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+
+public final class ExprTraceBatchCheckersTest {
+
+	@Test
+	public void testParallelFirstFeasible() {
+		final List<Trace<ExprState, ExprAction>> traces = new ArrayList<>();
+		for (int i = 0; i < 4; ++i) {
+			traces.add(Trace.of(ImmutableList.of(mock(ExprState.class)), ImmutableList.of()));
+		}
+
+		// Traces 1 and 2 are feasible, but trace 1 is found later
+		final ExprTraceChecker<ItpRefutation> checker = trace -> {
+			final int i = traces.indexOf(trace);
+			if (i == 1) {
+				sleep(200);
+			}
+			if (i == 1 || i == 2) {
+				return ExprTraceStatus.feasible(Trace.of(ImmutableList.of(ImmutableValuation.empty()), ImmutableList.of()));
+			} else {
+				return ExprTraceStatus.infeasible(ItpRefutation.sequence(ImmutableList.of(True())));
+			}
+		};
+		final ExprTraceBatchChecker<ItpRefutation> batchChecker = ExprTraceBatchCheckers
+				.parallel(ImmutableList.of(checker, checker));
+
+		// Same result as the sequential checker, independently of scheduling
+		final List<ExprTraceStatus<ItpRefutation>> result = batchChecker.check(traces);
+		assertEquals(4, result.size());
+		assertTrue(result.get(0).isInfeasible());
+		assertTrue(result.get(1).isFeasible());
+		assertNull(result.get(2));
+		assertNull(result.get(3));
+	}
+
+	private static void sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.anytype.Exprs.Prime;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Geq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceIncrementalChecker;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceStatus;
+import hu.bme.mit.theta.analysis.expr.refinement.ItpRefutation;
+import hu.bme.mit.theta.analysis.expr.refinement.VarsRefutation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.VarIndexing;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+
+public final class ExprTraceIncrementalCheckerTest {
+
+	private ExprTraceIncrementalChecker<VarsRefutation> checker;
+	private Expr<IntType> x;
+	private ExprAction set;
+	private ExprAction inc;
+	private ExprAction check;
+	private ExprState s0;
+	private ExprState s1;
+	private ExprState s2;
+	private ExprState s3;
+
+	@Before
+	public void before() {
+		x = Var("x", Int()).getRef();
+		set = mockAction(Eq(Prime(x), Int(0)), 1);
+		inc = mockAction(Eq(Prime(x), Add(x, Int(1))), 1);
+		check = mockAction(Geq(x, Int(2)), 0);
+		s0 = BasicExprState.of(True());
+		s1 = BasicExprState.of(True());
+		s2 = BasicExprState.of(True());
+		s3 = BasicExprState.of(True());
+		checker = ExprTraceIncrementalChecker.unsatCore(True(), True(), Z3SolverFactory.getInstace().createSolver());
+	}
+
+	@Test
+	public void testSharedPrefix() {
+		// x := 0; x := x + 1; x >= 2 is infeasible
+		final ExprTraceStatus<VarsRefutation> status1 = checker
+				.check(Trace.of(Arrays.asList(s0, s1, s2, s3), Arrays.asList(set, inc, check)));
+		assertTrue(status1.isInfeasible());
+
+		// x := 0; x := x + 1; x := x + 1; x >= 2 is feasible
+		final ExprTraceStatus<VarsRefutation> status2 = checker.check(Trace.of(
+				Arrays.asList(s0, s1, s2, BasicExprState.of(True()), s3), Arrays.asList(set, inc, inc, check)));
+		assertTrue(status2.isFeasible());
+
+		// x := 0; x >= 2 is infeasible
+		final ExprTraceStatus<VarsRefutation> status3 = checker
+				.check(Trace.of(Arrays.asList(s0, s1, s3), Arrays.asList(set, check)));
+		assertTrue(status3.isInfeasible());
+	}
+
+	@Test
+	public void testInfeasiblePrefix() {
+		final Trace<ExprState, ExprAction> prefix = Trace.of(Arrays.asList(s0, s1, s2), Arrays.asList(set, check));
+		final ExprTraceStatus<VarsRefutation> status1 = checker.check(prefix);
+		assertTrue(status1.isInfeasible());
+
+		// Extending the infeasible prefix gives the same refutation
+		final ExprTraceStatus<VarsRefutation> status2 = checker
+				.check(Trace.of(Arrays.asList(s0, s1, s2, s3), Arrays.asList(set, check, inc)));
+		assertTrue(status2.isInfeasible());
+		assertSame(status1.asInfeasible().getRefutation(), status2.asInfeasible().getRefutation());
+	}
+
+	@Test
+	public void testInfeasibleTarget() {
+		final ExprTraceIncrementalChecker<VarsRefutation> targetChecker = ExprTraceIncrementalChecker
+				.unsatCore(True(), Geq(x, Int(2)), Z3SolverFactory.getInstace().createSolver());
+
+		// Only the target is infeasible, so the trace can still be extended
+		final ExprTraceStatus<VarsRefutation> status1 = targetChecker
+				.check(Trace.of(Arrays.asList(s0, s1, s2), Arrays.asList(set, inc)));
+		assertTrue(status1.isInfeasible());
+
+		final ExprTraceStatus<VarsRefutation> status2 = targetChecker
+				.check(Trace.of(Arrays.asList(s0, s1, s2, s3), Arrays.asList(set, inc, inc)));
+		assertTrue(status2.isFeasible());
+	}
+
+	@Test
+	public void testPrefixRefutationLength() {
+		final ExprTraceIncrementalChecker<ItpRefutation> itpChecker = ExprTraceIncrementalChecker
+				.seqItp(True(), True(), Z3SolverFactory.getInstace().createItpSolver());
+
+		final ExprTraceStatus<ItpRefutation> status1 = itpChecker
+				.check(Trace.of(Arrays.asList(s0, s1, s2, s3), Arrays.asList(set, check, inc)));
+		assertTrue(status1.isInfeasible());
+		assertEquals(4, status1.asInfeasible().getRefutation().size());
+
+		// The refutation of the prefix fits both shorter and longer traces
+		final ExprTraceStatus<ItpRefutation> status2 = itpChecker
+				.check(Trace.of(Arrays.asList(s0, s1, s2), Arrays.asList(set, check)));
+		assertTrue(status2.isInfeasible());
+		assertEquals(3, status2.asInfeasible().getRefutation().size());
+
+		final ExprTraceStatus<ItpRefutation> status3 = itpChecker.check(Trace.of(
+				Arrays.asList(s0, s1, s2, s3, BasicExprState.of(True())), Arrays.asList(set, check, inc, inc)));
+		assertTrue(status3.isInfeasible());
+		assertEquals(5, status3.asInfeasible().getRefutation().size());
+	}
+
+	private static ExprAction mockAction(final Expr<?> expr, final int nextIndex) {
+		final ExprAction action = mock(ExprAction.class);
+		doReturn(expr).when(action).toExpr();
+		when(action.nextIndexing()).thenReturn(VarIndexing.all(nextIndex));
+		return action;
+	}
+
+}
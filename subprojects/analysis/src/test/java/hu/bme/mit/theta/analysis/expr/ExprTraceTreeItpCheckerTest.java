@@ -0,0 +1,155 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.anytype.Exprs.Prime;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Geq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceStatus;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceTreeItpChecker;
+import hu.bme.mit.theta.analysis.expr.refinement.ItpRefutation;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.VarIndexing;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+
+public final class ExprTraceTreeItpCheckerTest {
+
+	@Test
+	public void testSharedPrefixFeasible() {
+		// Arrange
+		final Expr<IntType> x = Var("x", Int()).getRef();
+
+		final ExprAction setMock = mock(ExprAction.class);
+		doReturn(Eq(Prime(x), Int(0))).when(setMock).toExpr();
+		when(setMock.nextIndexing()).thenReturn(VarIndexing.all(1));
+
+		final ExprAction infeasibleMock = mock(ExprAction.class);
+		doReturn(Geq(x, Int(1))).when(infeasibleMock).toExpr();
+		when(infeasibleMock.nextIndexing()).thenReturn(VarIndexing.all(0));
+
+		final ExprAction feasibleMock = mock(ExprAction.class);
+		doReturn(Eq(x, Int(0))).when(feasibleMock).toExpr();
+		when(feasibleMock.nextIndexing()).thenReturn(VarIndexing.all(0));
+
+		// The traces share their first two states and the first action
+		final ExprState s0 = BasicExprState.of(True());
+		final ExprState s1 = BasicExprState.of(True());
+		final Trace<ExprState, ExprAction> trace1 = Trace.of(Arrays.asList(s0, s1, BasicExprState.of(True())),
+				Arrays.asList(setMock, infeasibleMock));
+		final Trace<ExprState, ExprAction> trace2 = Trace.of(Arrays.asList(s0, s1, BasicExprState.of(True())),
+				Arrays.asList(setMock, feasibleMock));
+
+		final ExprTraceTreeItpChecker checker = ExprTraceTreeItpChecker.create(True(), True(),
+				Z3SolverFactory.getInstace().createItpSolver());
+
+		// Act
+		final List<ExprTraceStatus<ItpRefutation>> statuses = checker.check(Arrays.asList(trace1, trace2));
+
+		// Assert
+		assertEquals(2, statuses.size());
+		assertNull(statuses.get(0));
+		assertTrue(statuses.get(1).isFeasible());
+	}
+
+	@Test
+	public void testMultipleInitStatesFeasible() {
+		// Arrange
+		final VarDecl<IntType> vx = Var("x", Int());
+		final Expr<IntType> x = vx.getRef();
+
+		final ExprAction guardMock = mock(ExprAction.class);
+		doReturn(Geq(x, Int(1))).when(guardMock).toExpr();
+		when(guardMock.nextIndexing()).thenReturn(VarIndexing.all(0));
+
+		// Only the second initial state can take the guard
+		final Trace<ExprState, ExprAction> trace1 = Trace.of(
+				Arrays.asList(BasicExprState.of(Eq(x, Int(0))), BasicExprState.of(True())), Arrays.asList(guardMock));
+		final Trace<ExprState, ExprAction> trace2 = Trace.of(
+				Arrays.asList(BasicExprState.of(Eq(x, Int(1))), BasicExprState.of(True())), Arrays.asList(guardMock));
+
+		final ExprTraceTreeItpChecker checker = ExprTraceTreeItpChecker.create(True(), True(),
+				Z3SolverFactory.getInstace().createItpSolver());
+
+		// Act
+		final List<ExprTraceStatus<ItpRefutation>> statuses = checker.check(Arrays.asList(trace1, trace2));
+
+		// Assert
+		assertEquals(2, statuses.size());
+		assertNull(statuses.get(0));
+		assertTrue(statuses.get(1).isFeasible());
+		assertEquals(Int(1), statuses.get(1).asFeasible().getValuations().getState(0).eval(vx).get());
+	}
+
+	@Test
+	public void testMultipleInitStatesInfeasible() {
+		// Arrange
+		final Expr<IntType> x = Var("x", Int()).getRef();
+
+		final ExprAction guardMock = mock(ExprAction.class);
+		doReturn(Geq(x, Int(2))).when(guardMock).toExpr();
+		when(guardMock.nextIndexing()).thenReturn(VarIndexing.all(0));
+
+		final ExprAction incMock = mock(ExprAction.class);
+		doReturn(Eq(Prime(x), Int(5))).when(incMock).toExpr();
+		when(incMock.nextIndexing()).thenReturn(VarIndexing.all(1));
+
+		// No initial state can take the guard, the second trace branches
+		// after its initial state
+		final ExprState init1 = BasicExprState.of(Eq(x, Int(0)));
+		final ExprState init2 = BasicExprState.of(Eq(x, Int(1)));
+		final Trace<ExprState, ExprAction> trace1 = Trace.of(Arrays.asList(init1, BasicExprState.of(True())),
+				Arrays.asList(guardMock));
+		final Trace<ExprState, ExprAction> trace2 = Trace.of(Arrays.asList(init2, BasicExprState.of(True())),
+				Arrays.asList(guardMock));
+		final Trace<ExprState, ExprAction> trace3 = Trace.of(
+				Arrays.asList(init2, BasicExprState.of(True()), BasicExprState.of(Lt(x, Int(5)))),
+				Arrays.asList(incMock, incMock));
+
+		final ExprTraceTreeItpChecker checker = ExprTraceTreeItpChecker.create(True(), True(),
+				Z3SolverFactory.getInstace().createItpSolver());
+
+		// Act
+		final List<ExprTraceStatus<ItpRefutation>> statuses = checker.check(Arrays.asList(trace1, trace2, trace3));
+
+		// Assert
+		assertEquals(3, statuses.size());
+		assertTrue(statuses.get(0).isInfeasible());
+		assertTrue(statuses.get(1).isInfeasible());
+		assertTrue(statuses.get(2).isInfeasible());
+		assertEquals(2, statuses.get(0).asInfeasible().getRefutation().size());
+		assertEquals(3, statuses.get(2).asInfeasible().getRefutation().size());
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.impl;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Gt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hu.bme.mit.theta.analysis.PartialOrd;
+import hu.bme.mit.theta.analysis.pred.PredOrd;
+import hu.bme.mit.theta.analysis.pred.PredState;
+import hu.bme.mit.theta.core.decl.Decls;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+
+public class CachingPartialOrdTest {
+	private final VarDecl<IntType> VX = Decls.Var("x", Int());
+
+	PredState sb = PredState.of(False());
+	PredState s1 = PredState.of(Gt(VX.getRef(), Int(1)));
+	PredState s2 = PredState.of(Gt(VX.getRef(), Int(0)));
+	PredState s3 = PredState.of(Lt(VX.getRef(), Int(5)));
+	PredState s13 = PredState.of(Gt(VX.getRef(), Int(1)), Lt(VX.getRef(), Int(5)));
+	PredState st = PredState.of();
+
+	private int calls = 0;
+
+	@Test
+	public void testCaching() {
+		final PredOrd predOrd = PredOrd.create(Z3SolverFactory.getInstace().createSolver());
+		final PartialOrd<PredState> ord = CachingPartialOrd.create((state1, state2) -> {
+			calls++;
+			return predOrd.isLeq(state1, state2);
+		});
+
+		Assert.assertTrue(ord.isLeq(s1, s2));
+		Assert.assertTrue(ord.isLeq(s1, s2));
+		Assert.assertFalse(ord.isLeq(s2, s1));
+		Assert.assertFalse(ord.isLeq(s2, s1));
+		Assert.assertEquals(2, calls);
+
+		Assert.assertTrue(ord.isLeq(s3, PredState.of(Lt(VX.getRef(), Int(5)))));
+		Assert.assertEquals(2, calls);
+	}
+
+	@Test
+	public void testSyntactic() {
+		final PredOrd ord = PredOrd.create(Z3SolverFactory.getInstace().createSolver());
+
+		Assert.assertTrue(ord.isLeq(sb, s1));
+		Assert.assertTrue(ord.isLeq(s13, s1));
+		Assert.assertTrue(ord.isLeq(s13, s3));
+		Assert.assertTrue(ord.isLeq(s13, st));
+		Assert.assertFalse(ord.isLeq(s1, s13));
+		Assert.assertTrue(ord.isLeq(s13, s2));
+	}
+}
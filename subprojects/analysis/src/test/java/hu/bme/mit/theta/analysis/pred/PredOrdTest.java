@@ -32,6 +32,7 @@ public class PredOrdTest {
 	private final VarDecl<IntType> VX = Decls.Var("x", Int());
 
 	private final PredOrd ord = PredOrd.create(Z3SolverFactory.getInstace().createSolver());
+	private final PredOrd assumptionOrd = PredOrd.createWithAssumptions(Z3SolverFactory.getInstace().createSolver());
 
 	PredState sb = PredState.of(False());
 	PredState s1 = PredState.of(Gt(VX.getRef(), Int(1)));
@@ -74,4 +75,14 @@ public class PredOrdTest {
 		Assert.assertFalse(ord.isLeq(st, s3));
 		Assert.assertTrue(ord.isLeq(st, st));
 	}
+
+	@Test
+	public void testLeqWithAssumptions() {
+		final PredState[] states = {sb, s1, s2, s3, st};
+		for (final PredState state1 : states) {
+			for (final PredState state2 : states) {
+				Assert.assertEquals(ord.isLeq(state1, state2), assumptionOrd.isLeq(state1, state2));
+			}
+		}
+	}
 }
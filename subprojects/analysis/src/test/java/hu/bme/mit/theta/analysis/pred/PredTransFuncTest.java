@@ -30,6 +30,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 import hu.bme.mit.theta.analysis.expr.ExprAction;
 import hu.bme.mit.theta.analysis.expr.StmtAction;
@@ -85,6 +86,72 @@ public class PredTransFuncTest {
 		Assert.assertEquals(PredState.bottom(), Utils.singleElementOf(succStates));
 	}
 
+	@Test
+	public void testIncremental() {
+		final Solver incSolver = Z3SolverFactory.getInstace().createSolver();
+		final PredTransFunc incTransFunc = PredTransFunc
+				.create(PredAbstractors.incrementalBooleanSplitAbstractor(incSolver));
+
+		final PredPrec prec1 = PredPrec.of(ImmutableList.of(Lt(x.getRef(), Int(5))));
+		final PredPrec prec2 = PredPrec.of(ImmutableList.of(Gt(x.getRef(), Int(0)), Gt(y.getRef(), Int(0))));
+		final PredState state1 = PredState.of(Lt(x.getRef(), Int(5)));
+		final PredState state2 = PredState.of(Gt(x.getRef(), Int(0)));
+		final ExprAction inc = new BasicStmtAction(Stmts.Assign(x, Add(x.getRef(), Int(1))));
+		final ExprAction add = new BasicStmtAction(Stmts.Assign(x, Add(x.getRef(), y.getRef())));
+
+		// Definitions are reused across calls, so the order should not matter
+		for (int i = 0; i < 2; ++i) {
+			Assert.assertEquals(ImmutableSet.copyOf(transFunc.getSuccStates(state1, inc, prec1)),
+					ImmutableSet.copyOf(incTransFunc.getSuccStates(state1, inc, prec1)));
+			Assert.assertEquals(ImmutableSet.copyOf(transFunc.getSuccStates(state2, add, prec2)),
+					ImmutableSet.copyOf(incTransFunc.getSuccStates(state2, add, prec2)));
+			Assert.assertEquals(ImmutableSet.copyOf(transFunc.getSuccStates(state2, inc, prec1)),
+					ImmutableSet.copyOf(incTransFunc.getSuccStates(state2, inc, prec1)));
+		}
+	}
+
+	@Test
+	public void testIncrementalCartesian() {
+		final PredTransFunc cartTransFunc = PredTransFunc.create(PredAbstractors.cartesianAbstractor(solver));
+		final Solver incSolver = Z3SolverFactory.getInstace().createSolver();
+		final PredTransFunc incTransFunc = PredTransFunc
+				.create(PredAbstractors.incrementalCartesianAbstractor(incSolver));
+
+		final PredPrec prec = PredPrec.of(ImmutableList.of(Lt(x.getRef(), Int(5)), Gt(x.getRef(), Int(0)),
+				Gt(y.getRef(), Int(0))));
+		final PredState state1 = PredState.of(Lt(x.getRef(), Int(4)), Gt(y.getRef(), Int(0)));
+		final PredState state2 = PredState.of(Gt(x.getRef(), Int(0)));
+		final ExprAction inc = new BasicStmtAction(Stmts.Assign(x, Add(x.getRef(), Int(1))));
+		final ExprAction zero = new BasicStmtAction(Stmts.Assume(Eq(Int(0), x.getRef())));
+
+		for (int i = 0; i < 2; ++i) {
+			Assert.assertEquals(ImmutableSet.copyOf(cartTransFunc.getSuccStates(state1, inc, prec)),
+					ImmutableSet.copyOf(incTransFunc.getSuccStates(state1, inc, prec)));
+			Assert.assertEquals(ImmutableSet.copyOf(cartTransFunc.getSuccStates(state2, inc, prec)),
+					ImmutableSet.copyOf(incTransFunc.getSuccStates(state2, inc, prec)));
+			Assert.assertEquals(PredState.bottom(), Utils.singleElementOf(incTransFunc.getSuccStates(state2, zero, prec)));
+		}
+	}
+
+	@Test
+	public void testIncrementalSolverBounded() {
+		final Solver incSolver = Z3SolverFactory.getInstace().createSolver();
+		final PredTransFunc incTransFunc = PredTransFunc
+				.create(PredAbstractors.incrementalBooleanSplitAbstractor(incSolver));
+		final PredState state = PredState.of(Gt(x.getRef(), Int(0)));
+		final ExprAction inc = new BasicStmtAction(Stmts.Assign(x, Add(x.getRef(), Int(1))));
+
+		// Each query introduces a new predicate and a few assertions, but old
+		// definitions and queries are dropped from the solver and their
+		// literals are reused
+		for (int i = 0; i < 1200; ++i) {
+			final PredPrec prec = PredPrec.of(ImmutableList.of(Lt(x.getRef(), Int(i))));
+			Assert.assertEquals(ImmutableSet.copyOf(transFunc.getSuccStates(state, inc, prec)),
+					ImmutableSet.copyOf(incTransFunc.getSuccStates(state, inc, prec)));
+		}
+		Assert.assertTrue(incSolver.getAssertions().size() < 4000);
+	}
+
 	private static final class BasicStmtAction extends StmtAction {
 		private final Stmt stmt;
 
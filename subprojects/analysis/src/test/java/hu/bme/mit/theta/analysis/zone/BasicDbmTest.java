@@ -0,0 +1,118 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static hu.bme.mit.theta.analysis.zone.DiffBounds.Bound;
+import static hu.bme.mit.theta.analysis.zone.DiffBounds.Leq;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BasicDbmTest {
+
+	private static final int SIZE = 6;
+
+	@Test
+	public void testAndInconsistent() {
+		final BasicDbm dbm = new BasicDbm(SIZE, BasicDbm::defaultBound);
+		dbm.and(1, 0, Leq(3));
+		dbm.and(0, 1, Leq(-4));
+		assertFalse(dbm.isConsistent());
+	}
+
+	@Test
+	public void testNonnegative() {
+		final BasicDbm dbm = new BasicDbm(SIZE, BasicDbm::defaultBound);
+		dbm.and(1, 2, Leq(-2));
+		dbm.nonnegative();
+		assertTrue(dbm.isConsistent());
+		assertEquals(Leq(-2), dbm.get(0, 2));
+		assertTrue(dbm.isClosed());
+	}
+
+	@Test
+	public void testIncrementalAndBatchClosure() {
+		final Random random = new Random(0);
+		for (int n = 0; n < 200; n++) {
+			final BasicDbm incremental = new BasicDbm(SIZE, BasicDbm::defaultBound);
+			final BasicDbm batch = new BasicDbm(SIZE, BasicDbm::defaultBound);
+			final BasicDbm reference = new BasicDbm(SIZE, BasicDbm::defaultBound);
+			batch.beginBatch();
+			for (int c = 0; c < SIZE; c++) {
+				final int x = random.nextInt(SIZE);
+				final int y = random.nextInt(SIZE);
+				if (x == y) {
+					continue;
+				}
+				final int b = Bound(random.nextInt(21) - 5, random.nextBoolean());
+				incremental.and(x, y, b);
+				batch.and(x, y, b);
+				if (b < reference.get(x, y)) {
+					reference.set(x, y, b);
+				}
+			}
+			batch.endBatch();
+			reference.close();
+
+			assertEquals(reference.isConsistent(), incremental.isConsistent());
+			assertEquals(reference.isConsistent(), batch.isConsistent());
+			if (reference.isConsistent()) {
+				assertTrue(incremental.isLeq(reference) && reference.isLeq(incremental));
+				assertTrue(batch.isLeq(reference) && reference.isLeq(batch));
+			}
+		}
+	}
+
+	@Test
+	public void testReduce() {
+		final Random random = new Random(0);
+		int tested = 0;
+		while (tested < 200) {
+			final BasicDbm dbm = new BasicDbm(SIZE, BasicDbm::defaultBound);
+			final BasicDbm other = new BasicDbm(SIZE, BasicDbm::defaultBound);
+			for (int c = 0; c < SIZE; c++) {
+				final int x = random.nextInt(SIZE);
+				final int y = random.nextInt(SIZE);
+				if (x == y) {
+					continue;
+				}
+				final int m = random.nextInt(11) - 5;
+				dbm.and(x, y, Leq(m));
+				if (random.nextBoolean()) {
+					// Equality, to get zero cycles
+					dbm.and(y, x, Leq(-m));
+				}
+				other.and(x, y, Bound(m + random.nextInt(3), random.nextBoolean()));
+			}
+			if (!dbm.isConsistent() || !other.isConsistent()) {
+				continue;
+			}
+			tested++;
+
+			final int[] bounds = dbm.reduce();
+			final BasicDbm expanded = BasicDbm.fromReduced(SIZE, bounds);
+			assertEquals(dbm, expanded);
+			assertTrue(bounds.length <= 3 * SIZE * SIZE);
+			assertEquals(other.isLeq(dbm), other.isLeq(bounds));
+			assertEquals(dbm.isLeq(other), dbm.isLeq(other.reduce()));
+		}
+	}
+
+}
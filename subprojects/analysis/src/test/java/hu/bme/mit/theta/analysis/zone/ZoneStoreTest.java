@@ -0,0 +1,96 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static hu.bme.mit.theta.core.clock.constr.ClockConstrs.Lt;
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+
+public final class ZoneStoreTest {
+
+	private final VarDecl<RatType> x = Var("x", Rat());
+	private final VarDecl<RatType> y = Var("y", Rat());
+	private final VarDecl<RatType> z = Var("z", Rat());
+	private final Collection<VarDecl<RatType>> clocks = ImmutableList.of(x, y, z);
+
+	@Test
+	public void testIntern() {
+		final ZoneStore store = ZoneStore.create();
+		final ZoneState zone1 = ZoneState.zero(clocks).transform().up().build();
+		final ZoneState zone2 = ZoneState.zero(clocks).transform().up().build();
+		final ZoneState zone3 = ZoneState.zero(clocks).transform().up().reset(x, 0).build();
+
+		assertNotSame(zone1, zone2);
+		assertEquals(zone1, zone2);
+		assertSame(zone1, store.intern(zone1));
+		assertSame(zone1, store.intern(zone2));
+		assertSame(zone3, store.intern(zone3));
+		assertEquals(2, store.getZoneCount());
+		assertEquals(1, store.getHits());
+	}
+
+	@Test
+	public void testInternReduced() {
+		final ZoneStore store = ZoneStore.create();
+		final ZoneState zone = ZoneState.zero(clocks).transform().up().build();
+		final ZoneState smaller = zone.transform().and(Lt(x, 2)).build();
+		final ZoneState other = zone.transform().reset(x, 0).up().build();
+		final String expected = zone.toString();
+
+		final ZoneState interned = store.internReduced(ZoneState.zero(clocks).transform().up().build());
+		assertTrue(store.getSavedBytes() > 0);
+
+		assertEquals(zone, interned);
+		assertEquals(expected, interned.toString());
+		assertTrue(smaller.isLeq(interned));
+		assertFalse(interned.isLeq(smaller));
+		assertFalse(other.isLeq(interned));
+		assertTrue(interned.isLeq(zone));
+		assertEquals(smaller, interned.transform().and(Lt(x, 2)).build());
+		assertSame(interned, store.internReduced(zone));
+	}
+
+	@Test
+	public void testUnreferencedZonesDropped() throws InterruptedException {
+		final ZoneStore store = ZoneStore.create();
+		final ZoneState kept = store.intern(ZoneState.zero(clocks).transform().up().build());
+		store.intern(ZoneState.zero(clocks).transform().up().reset(x, 0).build());
+		assertEquals(2, store.getZoneCount());
+
+		for (int i = 0; i < 50 && store.getZoneCount() > 1; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		assertEquals(1, store.getZoneCount());
+		assertSame(kept, store.intern(ZoneState.zero(clocks).transform().up().build()));
+	}
+
+}
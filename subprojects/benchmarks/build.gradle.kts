@@ -0,0 +1,28 @@
+plugins {
+    id("java-common")
+    id("jmh-benchmark")
+}
+
+dependencies {
+    compile(project(":theta-analysis"))
+    compile(project(":theta-cfa"))
+    compile(project(":theta-cfa-analysis"))
+    compile(project(":theta-common"))
+    compile(project(":theta-core"))
+    compile(project(":theta-solver"))
+    compile(project(":theta-solver-z3"))
+    compile(project(":theta-sts"))
+    compile(project(":theta-sts-analysis"))
+    compile(project(":theta-xta"))
+    compile(project(":theta-xta-analysis"))
+    implementation(Deps.z3)
+}
+
+sourceSets {
+    named("main") {
+        // The end-to-end benchmarks run on the test models of the formalisms
+        resources.srcDir(rootDir.resolve("subprojects/cfa/src/test/resources"))
+        resources.srcDir(rootDir.resolve("subprojects/sts/src/test/resources"))
+        resources.srcDir(rootDir.resolve("subprojects/xta/src/test/resources"))
+    }
+}
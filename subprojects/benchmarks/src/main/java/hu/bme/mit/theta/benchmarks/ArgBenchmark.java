@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.unit.UnitState;
+
+/**
+ * Benchmark for the memory footprint of ARG nodes. A binary tree of nodes is
+ * built with shared states, and a quarter of the leaves is covered. Nearly all
+ * allocated memory is retained by the ARG, so running it with the GC profiler
+ * (-prof gc) and dividing gc.alloc.rate.norm by the number of nodes gives the
+ * bytes per node (including edges and covering).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgBenchmark {
+
+	private static final Action ACTION = new Action() {
+	};
+
+	@Param({"100000"})
+	public int nodes;
+
+	@Benchmark
+	public ARG<UnitState, Action> build() {
+		final UnitState state = UnitState.getInstance();
+		final ARG<UnitState, Action> arg = ARG.create((s1, s2) -> false);
+		final List<ArgNode<UnitState, Action>> all = new ArrayList<>(nodes);
+		all.add(arg.createInitNode(state, false));
+		for (int i = 0; all.size() < nodes; i++) {
+			final ArgNode<UnitState, Action> parent = all.get(i);
+			all.add(arg.createSuccNode(parent, ACTION, state, false));
+			if (all.size() < nodes) {
+				all.add(arg.createSuccNode(parent, ACTION, state, false));
+			}
+		}
+		for (int i = nodes / 2; i < nodes; i += 4) {
+			all.get(i).setCoveringNode(all.get(i - 1));
+		}
+		return arg;
+	}
+
+}
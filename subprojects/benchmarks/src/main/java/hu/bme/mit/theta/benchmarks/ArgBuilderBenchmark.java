@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.analysis.Analysis;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.expl.ExplAnalysis;
+import hu.bme.mit.theta.analysis.expl.ExplPrec;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.expl.ExplStatePredicate;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.z3.Z3CachePolicy;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+import hu.bme.mit.theta.sts.STS;
+import hu.bme.mit.theta.sts.analysis.StsAction;
+import hu.bme.mit.theta.sts.analysis.StsLts;
+
+/**
+ * Benchmark for expanding ARG nodes with explicit analysis, tracking every
+ * variable of an STS. Nodes are expanded in BFS order without covering, until
+ * the given number of nodes is reached.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgBuilderBenchmark {
+
+	@Param({"readerswriters.system"})
+	public String model;
+
+	@Param({"1000"})
+	public int nodes;
+
+	private ArgBuilder<ExplState, StsAction, ExplPrec> argBuilder;
+	private ExplPrec prec;
+	private Z3SolverFactory solverFactory;
+
+	@Setup
+	public void setup() throws IOException {
+		final STS sts = Models.loadSts(model);
+		solverFactory = Z3SolverFactory.create(Z3CachePolicy.getDefault());
+		final Solver solver = solverFactory.createSolver();
+		final Analysis<ExplState, ExprAction, ExplPrec> analysis = ExplAnalysis.create(solver, sts.getInit());
+		final Predicate<ExplState> target = new ExplStatePredicate(Not(sts.getProp()), solver);
+		argBuilder = ArgBuilder.create(StsLts.create(sts), analysis, target);
+		prec = ExplPrec.of(sts.getVars());
+	}
+
+	@TearDown
+	public void tearDown() {
+		solverFactory.close();
+	}
+
+	@Benchmark
+	public ARG<ExplState, StsAction> expand() {
+		final ARG<ExplState, StsAction> arg = argBuilder.createArg();
+		final Queue<ArgNode<ExplState, StsAction>> queue = new ArrayDeque<>(argBuilder.init(arg, prec));
+		int size = queue.size();
+		while (!queue.isEmpty() && size < nodes) {
+			final ArgNode<ExplState, StsAction> node = queue.remove();
+			if (!node.isTarget()) {
+				final int before = queue.size();
+				queue.addAll(argBuilder.expand(node, prec));
+				size += queue.size() - before;
+			}
+		}
+		return arg;
+	}
+
+}
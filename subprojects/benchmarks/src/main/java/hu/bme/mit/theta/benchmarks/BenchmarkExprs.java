@@ -0,0 +1,91 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.anytype.Exprs.Prime;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Imply;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Leq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Mul;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Sub;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+/**
+ * Deterministic synthetic expressions for the microbenchmarks. The
+ * expressions contain constant subterms for the simplifier and primed
+ * variables for unfolding.
+ */
+public final class BenchmarkExprs {
+
+	private BenchmarkExprs() {
+	}
+
+	public static List<VarDecl<IntType>> createVars(final int n) {
+		final List<VarDecl<IntType>> vars = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			vars.add(Var("x" + i, Int()));
+		}
+		return vars;
+	}
+
+	public static List<Expr<BoolType>> createConstraints(final int n) {
+		return createConstraints(createVars(n));
+	}
+
+	/**
+	 * Creates three constraints for each variable, relating it to the next one
+	 * (cyclically).
+	 */
+	public static List<Expr<BoolType>> createConstraints(final List<VarDecl<IntType>> vars) {
+		final int n = vars.size();
+		final List<Expr<BoolType>> exprs = new ArrayList<>(3 * n);
+		for (int i = 0; i < n; i++) {
+			final Expr<IntType> x = vars.get(i).getRef();
+			final Expr<IntType> y = vars.get((i + 1) % n).getRef();
+			exprs.add(Leq(Add(x, Int(i), Int(0)), Mul(Int(1), Int(2), y)));
+			exprs.add(Or(Eq(x, Sub(y, Int(0))), Not(Lt(y, Add(Int(i), Int(1))))));
+			exprs.add(Imply(Lt(x, Int(i)), Eq(Prime(x), Add(x, Mul(Int(2), Prime(y))))));
+		}
+		return exprs;
+	}
+
+	/**
+	 * Creates a valuation assigning every second variable.
+	 */
+	public static Valuation createValuation(final List<VarDecl<IntType>> vars) {
+		final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+		for (int i = 0; i < vars.size(); i += 2) {
+			builder.put(vars.get(i), Int(i));
+		}
+		return builder.build();
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder;
+import hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.Domain;
+import hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.Refinement;
+import hu.bme.mit.theta.solver.z3.Z3CachePolicy;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+
+/**
+ * End-to-end CEGAR runs on the CFA test models.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CfaBenchmark {
+
+	@Param({"counter5_true.cfa", "locking.cfa"})
+	public String model;
+
+	@Param({"PRED_CART"})
+	public Domain domain;
+
+	@Param({"SEQ_ITP"})
+	public Refinement refinement;
+
+	private CFA cfa;
+	private Z3SolverFactory solverFactory;
+
+	@Setup
+	public void setup() throws IOException {
+		cfa = Models.loadCfa(model);
+	}
+
+	// Each run gets its own solvers, whose contexts are closed after the run
+	@Setup(Level.Invocation)
+	public void createSolverFactory() {
+		solverFactory = Z3SolverFactory.create(Z3CachePolicy.getDefault());
+	}
+
+	@TearDown(Level.Invocation)
+	public void closeSolverFactory() {
+		solverFactory.close();
+	}
+
+	@Benchmark
+	public SafetyResult<?, ?> cegar() {
+		return new CfaConfigBuilder(domain, refinement, solverFactory).build(cfa).check();
+	}
+
+}
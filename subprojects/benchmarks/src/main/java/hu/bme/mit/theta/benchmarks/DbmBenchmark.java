@@ -0,0 +1,116 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import static hu.bme.mit.theta.core.clock.constr.ClockConstrs.And;
+import static hu.bme.mit.theta.core.clock.constr.ClockConstrs.Lt;
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.analysis.zone.ZoneState;
+import hu.bme.mit.theta.core.clock.constr.ClockConstr;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+
+/**
+ * Benchmarks for the closure of difference bound matrices through zone
+ * operations. Conjoining the constraints one by one closes the DBM
+ * incrementally after each constraint, while conjoining them at once closes
+ * it only once at the end if there are at least two constraints per clock. The
+ * number of constraints is given relative to the number of clocks, so that
+ * both sides of this threshold are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DbmBenchmark {
+
+	private static final long SEED = 0;
+
+	@Param({"4", "16", "64"})
+	public int nClocks;
+
+	@Param({"0.25", "1", "2"})
+	public double constrsPerClock;
+
+	private ZoneState zone;
+	private List<ClockConstr> constrs;
+	private ClockConstr andConstr;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(SEED);
+
+		final List<VarDecl<RatType>> clocks = new ArrayList<>(nClocks);
+		for (int i = 0; i < nClocks; i++) {
+			clocks.add(Var("c" + i, Rat()));
+		}
+
+		// All clocks are unbounded and independent
+		final ZoneState.Builder builder = ZoneState.zero(clocks).transform();
+		clocks.forEach(builder::free);
+		zone = builder.nonnegative().build();
+
+		// Only upper bounds, so the zone stays consistent
+		final int nConstrs = Math.max(1, (int) Math.round(nClocks * constrsPerClock));
+		constrs = new ArrayList<>(nConstrs);
+		for (int i = 0; i < nConstrs; i++) {
+			final VarDecl<RatType> x = clocks.get(random.nextInt(nClocks));
+			if (nClocks > 1 && random.nextBoolean()) {
+				final VarDecl<RatType> y = clocks.get((clocks.indexOf(x) + 1 + random.nextInt(nClocks - 1)) % nClocks);
+				constrs.add(Lt(x, y, 100 + random.nextInt(100)));
+			} else {
+				constrs.add(Lt(x, 100 + random.nextInt(100)));
+			}
+		}
+		andConstr = And(constrs);
+	}
+
+	@Benchmark
+	public ZoneState.Builder and() {
+		return zone.transform().and(andConstr);
+	}
+
+	@Benchmark
+	public ZoneState.Builder incrementalAnd() {
+		final ZoneState.Builder builder = zone.transform();
+		for (final ClockConstr constr : constrs) {
+			builder.and(constr);
+		}
+		return builder;
+	}
+
+}
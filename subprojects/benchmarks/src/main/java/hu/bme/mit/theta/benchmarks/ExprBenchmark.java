@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.core.utils.VarIndexing;
+
+/**
+ * Benchmarks for the expression utilities used in every abstraction and
+ * refinement step: simplification and unfolding.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExprBenchmark {
+
+	@Param({"10", "100"})
+	public int size;
+
+	private Expr<BoolType> expr;
+	private Valuation valuation;
+	private VarIndexing indexing;
+
+	@Setup
+	public void setup() {
+		final List<VarDecl<IntType>> vars = BenchmarkExprs.createVars(size);
+		expr = And(BenchmarkExprs.createConstraints(vars));
+		valuation = BenchmarkExprs.createValuation(vars);
+		final VarIndexing.Builder builder = VarIndexing.builder(0);
+		for (int i = 0; i < size; i++) {
+			builder.inc(vars.get(i), i % 3);
+		}
+		indexing = builder.build();
+	}
+
+	@Benchmark
+	public Expr<BoolType> simplify() {
+		return ExprUtils.simplify(expr);
+	}
+
+	@Benchmark
+	public Expr<BoolType> simplifyWithValuation() {
+		return ExprUtils.simplify(expr, valuation);
+	}
+
+	@Benchmark
+	public Expr<BoolType> unfold() {
+		return PathUtils.unfold(expr, indexing);
+	}
+
+}
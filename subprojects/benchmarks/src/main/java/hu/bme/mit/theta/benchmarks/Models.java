@@ -0,0 +1,67 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.dsl.CfaDslManager;
+import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.sts.STS;
+import hu.bme.mit.theta.sts.StsUtils;
+import hu.bme.mit.theta.sts.dsl.StsDslManager;
+import hu.bme.mit.theta.sts.dsl.StsSpec;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+
+/**
+ * Loads the test models of the formalisms from the classpath.
+ */
+public final class Models {
+
+	private Models() {
+	}
+
+	public static CFA loadCfa(final String name) throws IOException {
+		try (InputStream inputStream = open(name)) {
+			return CfaDslManager.createCfa(inputStream);
+		}
+	}
+
+	public static STS loadSts(final String name) throws IOException {
+		try (InputStream inputStream = open(name)) {
+			final StsSpec spec = StsDslManager.createStsSpec(inputStream);
+			return StsUtils.eliminateIte(Utils.singleElementOf(spec.getAllSts()));
+		}
+	}
+
+	public static XtaSystem loadXta(final String name) throws IOException {
+		try (InputStream inputStream = open(name)) {
+			return XtaDslManager.createSystem(inputStream);
+		}
+	}
+
+	private static InputStream open(final String name) throws FileNotFoundException {
+		final InputStream inputStream = Models.class.getResourceAsStream("/" + name);
+		if (inputStream == null) {
+			throw new FileNotFoundException("Model not found on the classpath: " + name);
+		}
+		return inputStream;
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.analysis.unit.UnitState;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.XtaAction;
+import hu.bme.mit.theta.xta.analysis.XtaLts;
+import hu.bme.mit.theta.xta.analysis.XtaState;
+
+/**
+ * Computing the enabled actions of the XTA test models for all of their
+ * reachable location vectors (ignoring data and clocks), either with a new LTS
+ * (including indexing the system) or with an LTS that already cached them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XtaLtsBenchmark {
+
+	private static final int MAX_STATES = 100_000;
+
+	@Param({"critical-2-25-50.xta", "csma-2.xta", "fischer-2-32-64.xta", "lynch-2-16.xta"})
+	public String model;
+
+	private XtaSystem system;
+	private List<XtaState<UnitState>> states;
+	private XtaLts cachedLts;
+
+	@Setup
+	public void setup() throws IOException {
+		system = Models.loadXta(model);
+		cachedLts = XtaLts.create(system);
+
+		states = new ArrayList<>();
+		final Set<List<Loc>> reached = new HashSet<>();
+		final Deque<List<Loc>> waitlist = new ArrayDeque<>();
+		waitlist.add(system.getInitLocs());
+		while (!waitlist.isEmpty() && states.size() < MAX_STATES) {
+			final List<Loc> locs = waitlist.remove();
+			if (reached.add(locs)) {
+				final XtaState<UnitState> state = XtaState.of(locs, UnitState.getInstance());
+				states.add(state);
+				for (final XtaAction action : cachedLts.getEnabledActionsFor(state)) {
+					waitlist.add(action.getTargetLocs());
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public int uncached() {
+		final XtaLts lts = XtaLts.create(system);
+		int count = 0;
+		for (final XtaState<UnitState> state : states) {
+			count += lts.getEnabledActionsFor(state).size();
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int cached() {
+		int count = 0;
+		for (final XtaState<UnitState> state : states) {
+			count += cachedLts.getEnabledActionsFor(state).size();
+		}
+		return count;
+	}
+
+}
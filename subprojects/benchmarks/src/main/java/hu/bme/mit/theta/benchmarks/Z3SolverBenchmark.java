@@ -0,0 +1,96 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.z3.Z3CachePolicy;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+
+/**
+ * Benchmarks for adding expressions to a Z3 solver, which is dominated by
+ * transforming them to Z3 terms. Without caching, every expression is
+ * transformed again each time it is added. The expressions are unfolded in
+ * advance, as the solver only handles constants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Z3SolverBenchmark {
+
+	@Param({"10", "100"})
+	public int size;
+
+	@Param({"false", "true"})
+	public boolean cached;
+
+	private Z3SolverFactory factory;
+	private Solver solver;
+	private List<Expr<BoolType>> exprs;
+
+	@Setup
+	public void setup() {
+		final Z3CachePolicy.Builder policy = Z3CachePolicy.builder();
+		if (cached) {
+			policy.unbounded();
+		} else {
+			policy.maximumSize(0);
+		}
+		factory = Z3SolverFactory.create(policy.build());
+		solver = factory.createSolver();
+		exprs = BenchmarkExprs.createConstraints(size).stream().map(e -> PathUtils.unfold(e, 0)).collect(toList());
+		exprs.forEach(solver::add);
+	}
+
+	@TearDown
+	public void tearDown() {
+		factory.close();
+	}
+
+	@Benchmark
+	public Solver add() {
+		solver.push();
+		for (final Expr<BoolType> expr : exprs) {
+			solver.add(expr);
+		}
+		solver.pop();
+		return solver;
+	}
+
+}
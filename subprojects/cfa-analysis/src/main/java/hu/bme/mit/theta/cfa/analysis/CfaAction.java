@@ -18,18 +18,26 @@ package hu.bme.mit.theta.cfa.analysis;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.ImmutableList;
+
 import hu.bme.mit.theta.analysis.expr.StmtAction;
 import hu.bme.mit.theta.cfa.CFA.Edge;
 import hu.bme.mit.theta.cfa.CFA.Loc;
 import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
 import hu.bme.mit.theta.core.stmt.Stmt;
 
 public final class CfaAction extends StmtAction {
 
+	private final List<List<Edge>> paths;
 	private final List<Edge> edges;
 	private final List<Stmt> stmts;
 	private final Loc source;
@@ -39,9 +47,60 @@ public final class CfaAction extends StmtAction {
 		this.source = checkNotNull(source);
 		this.target = checkNotNull(target);
 		this.edges = Collections.unmodifiableList(checkNotNull(edges));
+		this.paths = Collections.singletonList(this.edges);
 		this.stmts = Collections.unmodifiableList(edges.stream().map(Edge::getStmt).collect(Collectors.toList()));
 	}
 
+	private CfaAction(final Loc source, final Loc target, final List<List<Edge>> paths, final List<Edge> edges) {
+		this.source = checkNotNull(source);
+		this.target = checkNotNull(target);
+		this.paths = checkNotNull(paths);
+		this.edges = Collections.unmodifiableList(checkNotNull(edges));
+		this.stmts = Collections.unmodifiableList(mergePaths(paths));
+	}
+
+	/**
+	 * Merge paths into a non-deterministic statement. The common prefix and
+	 * suffix of the paths is kept outside.
+	 */
+	private static List<Stmt> mergePaths(final List<List<Edge>> paths) {
+		final int minLength = paths.stream().mapToInt(List::size).min().getAsInt();
+		final List<Edge> first = paths.get(0);
+		int prefix = 0;
+		while (prefix < minLength && isCommon(paths, prefix, false)) {
+			++prefix;
+		}
+		int suffix = 0;
+		while (prefix + suffix < minLength && isCommon(paths, suffix, true)) {
+			++suffix;
+		}
+
+		final List<Stmt> result = new ArrayList<>();
+		first.subList(0, prefix).forEach(e -> result.add(e.getStmt()));
+		final List<List<Stmt>> branches = new ArrayList<>(paths.size());
+		for (final List<Edge> path : paths) {
+			branches.add(path.subList(prefix, path.size() - suffix).stream().map(Edge::getStmt)
+					.collect(Collectors.toList()));
+		}
+		result.add(NonDetStmt.of(branches));
+		first.subList(first.size() - suffix, first.size()).forEach(e -> result.add(e.getStmt()));
+		return result;
+	}
+
+	// Checks if the i-th edge (from the start or from the end) is the same in every path
+	private static boolean isCommon(final List<List<Edge>> paths, final int i, final boolean fromEnd) {
+		Edge edge = null;
+		for (final List<Edge> path : paths) {
+			final Edge current = path.get(fromEnd ? path.size() - 1 - i : i);
+			if (edge == null) {
+				edge = current;
+			} else if (!edge.equals(current)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	public static CfaAction create(final Edge edge) {
 		return new CfaAction(edge.getSource(), edge.getTarget(), Collections.singletonList(edge));
 	}
@@ -56,6 +115,33 @@ public final class CfaAction extends StmtAction {
 		return new CfaAction(source, target, edges);
 	}
 
+	/**
+	 * Create an action that corresponds to taking any of the given paths,
+	 * which must have the same source and target. The statements of the paths
+	 * are merged into a single non-deterministic statement.
+	 */
+	public static CfaAction createBlock(final Collection<? extends List<Edge>> paths) {
+		checkArgument(!paths.isEmpty(), "Empty list of paths");
+		if (paths.size() == 1) {
+			return create(Utils.singleElementOf(paths));
+		}
+		final ImmutableList.Builder<List<Edge>> builder = ImmutableList.builder();
+		final Set<Edge> edges = new LinkedHashSet<>();
+		for (final List<Edge> path : paths) {
+			final CfaAction pathAction = create(path);
+			builder.add(pathAction.getEdges());
+			edges.addAll(pathAction.getEdges());
+		}
+		final List<List<Edge>> pathList = builder.build();
+		final Loc source = pathList.get(0).get(0).getSource();
+		final Loc target = pathList.get(0).get(pathList.get(0).size() - 1).getTarget();
+		for (final List<Edge> path : pathList) {
+			checkArgument(path.get(0).getSource().equals(source), "Paths with different sources");
+			checkArgument(path.get(path.size() - 1).getTarget().equals(target), "Paths with different targets");
+		}
+		return new CfaAction(source, target, pathList, ImmutableList.copyOf(edges));
+	}
+
 	public Loc getSource() {
 		return source;
 	}
@@ -69,10 +155,21 @@ public final class CfaAction extends StmtAction {
 		return stmts;
 	}
 
+	/**
+	 * Get the edges of the action. If the action has multiple paths, the
+	 * edges of all paths are returned (without repetition).
+	 */
 	public List<Edge> getEdges() {
 		return edges;
 	}
 
+	/**
+	 * Get the paths of the action, one of which is taken.
+	 */
+	public List<List<Edge>> getPaths() {
+		return paths;
+	}
+
 	@Override
 	public String toString() {
 		return Utils.lispStringBuilder(getClass().getSimpleName()).body().addAll(stmts).toString();
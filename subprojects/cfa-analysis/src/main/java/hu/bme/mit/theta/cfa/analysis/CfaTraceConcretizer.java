@@ -16,6 +16,7 @@
 package hu.bme.mit.theta.cfa.analysis;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,6 +31,7 @@ import hu.bme.mit.theta.analysis.expr.refinement.ItpRefutation;
 import hu.bme.mit.theta.cfa.CFA;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.booltype.BoolExprs;
+import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.solver.*;
 
 public final class CfaTraceConcretizer {
@@ -38,7 +40,12 @@ public final class CfaTraceConcretizer {
 	}
 
 	public static Trace<CfaState<ExplState>, CfaAction> concretize(
-			final Trace<CfaState<?>, CfaAction> trace, SolverFactory solverFactory) {
+			final Trace<CfaState<?>, CfaAction> blockTrace, SolverFactory solverFactory) {
+		// A single solver is used for all queries, the checker leaves it empty
+		final ItpSolver solver = solverFactory.createItpSolver();
+		final ExprTraceChecker<ItpRefutation> checker = ExprTraceFwBinItpChecker.create(BoolExprs.True(),
+				BoolExprs.True(), solver);
+		final Trace<CfaState<?>, CfaAction> trace = selectPaths(blockTrace, checker, solver);
 		List<CfaState<?>> sbeStates = new ArrayList<>();
 		List<CfaAction> sbeActions = new ArrayList<>();
 
@@ -53,8 +60,6 @@ public final class CfaTraceConcretizer {
 			sbeStates.add(trace.getState(i+1));
 		}
 		Trace<CfaState<?>, CfaAction> sbeTrace = Trace.of(sbeStates, sbeActions);
-		final ExprTraceChecker<ItpRefutation> checker = ExprTraceFwBinItpChecker.create(BoolExprs.True(),
-				BoolExprs.True(), solverFactory.createItpSolver());
 		final ExprTraceStatus<ItpRefutation> status = checker.check(sbeTrace);
 		checkArgument(status.isFeasible(), "Infeasible trace.");
 		final Trace<Valuation, ? extends Action> valuations = status.asFeasible().getValuations();
@@ -68,4 +73,48 @@ public final class CfaTraceConcretizer {
 
 		return Trace.of(cfaStates, sbeTrace.getActions());
 	}
+
+	/**
+	 * Replace actions with multiple paths (e.g., from ABE) by a single path
+	 * that is consistent with a concrete execution of the trace.
+	 */
+	private static Trace<CfaState<?>, CfaAction> selectPaths(
+			final Trace<CfaState<?>, CfaAction> trace, final ExprTraceChecker<ItpRefutation> checker,
+			final Solver solver) {
+		if (trace.getActions().stream().allMatch(a -> a.getPaths().size() == 1)) {
+			return trace;
+		}
+
+		final ExprTraceStatus<ItpRefutation> status = checker.check(trace);
+		checkArgument(status.isFeasible(), "Infeasible trace.");
+		final Trace<Valuation, ? extends Action> valuations = status.asFeasible().getValuations();
+
+		final List<CfaAction> pathActions = new ArrayList<>();
+		for (int i = 0; i < trace.getActions().size(); ++i) {
+			final CfaAction action = trace.getAction(i);
+			if (action.getPaths().size() == 1) {
+				pathActions.add(action);
+				continue;
+			}
+			CfaAction selected = null;
+			for (final List<CFA.Edge> path : action.getPaths()) {
+				final CfaAction pathAction = CfaAction.create(path);
+				solver.push();
+				try {
+					solver.add(PathUtils.unfold(valuations.getState(i).toExpr(), 0));
+					solver.add(PathUtils.unfold(pathAction.toExpr(), 0));
+					solver.add(PathUtils.unfold(valuations.getState(i + 1).toExpr(), pathAction.nextIndexing()));
+					if (solver.check().isSat()) {
+						selected = pathAction;
+						break;
+					}
+				} finally {
+					solver.pop();
+				}
+			}
+			checkState(selected != null, "No feasible path in action.");
+			pathActions.add(selected);
+		}
+		return Trace.of(trace.getStates(), pathActions);
+	}
 }
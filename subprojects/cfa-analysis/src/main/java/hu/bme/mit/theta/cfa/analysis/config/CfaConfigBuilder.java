@@ -17,8 +17,14 @@ package hu.bme.mit.theta.cfa.analysis.config;
 
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.Analysis;
+import hu.bme.mit.theta.analysis.PartialOrd;
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
@@ -28,29 +34,37 @@ import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.cegar.Abstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.BasicAbstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.CegarChecker;
+import hu.bme.mit.theta.analysis.algorithm.cegar.ParallelAbstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.Refiner;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterion;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
 import hu.bme.mit.theta.analysis.expl.ExplPrec;
+import hu.bme.mit.theta.analysis.expl.ExplReachedSet;
 import hu.bme.mit.theta.analysis.expl.ExplState;
 import hu.bme.mit.theta.analysis.expl.ExplStmtAnalysis;
 import hu.bme.mit.theta.analysis.expl.ItpRefToExplPrec;
 import hu.bme.mit.theta.analysis.expl.VarsRefToExplPrec;
 import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.analysis.expr.refinement.*;
+import hu.bme.mit.theta.analysis.impl.CachingPartialOrd;
 import hu.bme.mit.theta.analysis.pred.ExprSplitters;
 import hu.bme.mit.theta.analysis.pred.ExprSplitters.ExprSplitter;
 import hu.bme.mit.theta.analysis.pred.ItpRefToPredPrec;
 import hu.bme.mit.theta.analysis.pred.PredAbstractors;
 import hu.bme.mit.theta.analysis.pred.PredAbstractors.PredAbstractor;
 import hu.bme.mit.theta.analysis.pred.PredAnalysis;
+import hu.bme.mit.theta.analysis.pred.PredOrd;
 import hu.bme.mit.theta.analysis.pred.PredPrec;
 import hu.bme.mit.theta.analysis.pred.PredState;
+import hu.bme.mit.theta.analysis.reachedset.PartitionedReachedSet;
+import hu.bme.mit.theta.analysis.reachedset.ReachedSet;
 import hu.bme.mit.theta.analysis.waitlist.PriorityWaitlist;
 import hu.bme.mit.theta.cfa.CFA;
 import hu.bme.mit.theta.cfa.analysis.*;
 import hu.bme.mit.theta.cfa.analysis.initprec.CfaAllVarsInitPrec;
 import hu.bme.mit.theta.cfa.analysis.initprec.CfaEmptyInitPrec;
 import hu.bme.mit.theta.cfa.analysis.initprec.CfaInitPrec;
+import hu.bme.mit.theta.cfa.analysis.lts.CfaAbeLts;
 import hu.bme.mit.theta.cfa.analysis.lts.CfaCachedLts;
 import hu.bme.mit.theta.cfa.analysis.lts.CfaLbeLts;
 import hu.bme.mit.theta.cfa.analysis.lts.CfaLts;
@@ -62,6 +76,7 @@ import hu.bme.mit.theta.cfa.analysis.prec.LocalCfaPrecRefiner;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.NullLogger;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverFactory;
 
 public class CfaConfigBuilder {
@@ -72,7 +87,7 @@ public class CfaConfigBuilder {
 	;
 
 	public enum Refinement {
-		FW_BIN_ITP, BW_BIN_ITP, SEQ_ITP, MULTI_SEQ, UNSAT_CORE
+		FW_BIN_ITP, BW_BIN_ITP, SEQ_ITP, MULTI_SEQ, TREE_ITP, UNSAT_CORE
 	}
 
 	;
@@ -159,19 +174,29 @@ public class CfaConfigBuilder {
 	public enum Encoding {
 		SBE {
 			@Override
-			public CfaLts getLts() {
+			public CfaLts getLts(final CFA cfa, final int blockSize) {
 				return new CfaCachedLts(CfaSbeLts.getInstance());
 			}
 		},
 
 		LBE {
 			@Override
-			public CfaLts getLts() {
+			public CfaLts getLts(final CFA cfa, final int blockSize) {
 				return new CfaCachedLts(CfaLbeLts.getInstance());
 			}
+		},
+
+		ABE {
+			@Override
+			public CfaLts getLts(final CFA cfa, final int blockSize) {
+				return new CfaCachedLts(CfaAbeLts.create(cfa, blockSize));
+			}
 		};
 
-		public abstract CfaLts getLts();
+		/**
+		 * Create the LTS for a CFA. The block size is only used by ABE.
+		 */
+		public abstract CfaLts getLts(CFA cfa, int blockSize);
 	}
 
 	;
@@ -194,8 +219,13 @@ public class CfaConfigBuilder {
 	private PredSplit predSplit = PredSplit.WHOLE;
 	private PrecGranularity precGranularity = PrecGranularity.GLOBAL;
 	private Encoding encoding = Encoding.LBE;
+	private int blockSize = 16;
 	private int maxEnum = 0;
 	private InitPrec initPrec = InitPrec.EMPTY;
+	private int threads = 1;
+	private boolean incremental = false;
+	private boolean incrementalTraces = false;
+	private boolean cacheOrd = false;
 
 	public CfaConfigBuilder(final Domain domain, final Refinement refinement, final SolverFactory solverFactory) {
 		this.domain = domain;
@@ -228,6 +258,15 @@ public class CfaConfigBuilder {
 		return this;
 	}
 
+	/**
+	 * Maximal number of paths merged into the actions of a location with
+	 * ABE encoding.
+	 */
+	public CfaConfigBuilder blockSize(final int blockSize) {
+		this.blockSize = blockSize;
+		return this;
+	}
+
 	public CfaConfigBuilder maxEnum(final int maxEnum) {
 		this.maxEnum = maxEnum;
 		return this;
@@ -238,26 +277,68 @@ public class CfaConfigBuilder {
 		return this;
 	}
 
+	/**
+	 * Number of threads used for expanding the ARG and for checking the
+	 * counterexamples with MULTI_SEQ refinement. Each additional thread gets
+	 * its own solver instance. The solvers are created by the thread building
+	 * the configuration, so the solver factory must create solvers that can
+	 * be used by other threads.
+	 */
+	public CfaConfigBuilder threads(final int threads) {
+		this.threads = threads;
+		return this;
+	}
+
+	/**
+	 * Keep the context of the solver between queries: the definitions of the
+	 * predicates stay asserted in a separate solver of the predicate
+	 * abstraction between successor computations, and states are compared
+	 * using assumptions.
+	 */
+	public CfaConfigBuilder incremental(final boolean incremental) {
+		this.incremental = incremental;
+		return this;
+	}
+
+	/**
+	 * Keep the common prefix of consecutive counterexamples asserted in the
+	 * trace checkers (except BW_BIN_ITP and TREE_ITP), and refute traces
+	 * extending an infeasible prefix without calling the solver.
+	 */
+	public CfaConfigBuilder incrementalTraces(final boolean incrementalTraces) {
+		this.incrementalTraces = incrementalTraces;
+		return this;
+	}
+
+	/**
+	 * Memoize the results of the partial order of predicate states, so that
+	 * the same pairs of states are only checked once by the solver.
+	 */
+	public CfaConfigBuilder cacheOrd(final boolean cacheOrd) {
+		this.cacheOrd = cacheOrd;
+		return this;
+	}
+
 	public CfaConfig<? extends State, ? extends Action, ? extends Prec> build(final CFA cfa) {
 		final ItpSolver solver = solverFactory.createItpSolver();
-		final CfaLts lts = encoding.getLts();
 
 		if (domain == Domain.EXPL) {
-			final Analysis<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> analysis = CfaAnalysis
-					.create(cfa.getInitLoc(), ExplStmtAnalysis.create(solver, True(), maxEnum));
-			final ArgBuilder<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> argBuilder = ArgBuilder.create(lts,
-					analysis, s -> s.getLoc().equals(cfa.getErrorLoc()), true);
-			final Abstractor<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> abstractor = BasicAbstractor
-					.builder(argBuilder).projection(CfaState::getLoc)
-					.waitlist(PriorityWaitlist.create(search.getComp(cfa)))
-					.stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
-							: StopCriterions.firstCex()).logger(logger).build();
+			final Function<Solver, ArgBuilder<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>>> argBuilderFactory = s -> {
+				final CfaLts lts = encoding.getLts(cfa, blockSize);
+				final Analysis<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> analysis = CfaAnalysis
+						.create(cfa.getInitLoc(), ExplStmtAnalysis.create(s, True(), maxEnum));
+				return ArgBuilder.create(lts, analysis, st -> st.getLoc().equals(cfa.getErrorLoc()), true);
+			};
+			final Abstractor<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> abstractor = createAbstractor(cfa,
+					solver, argBuilderFactory, () -> ExplReachedSet.create(CfaState::getLoc, CfaState::getState));
 
 			Refiner<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> refiner = null;
 
 			switch (refinement) {
 				case FW_BIN_ITP:
-					refiner = SingleExprTraceRefiner.create(ExprTraceFwBinItpChecker.create(True(), True(), solver),
+					refiner = SingleExprTraceRefiner.create(incrementalTraces
+							? ExprTraceIncrementalChecker.fwBinItp(True(), True(), solverFactory.createItpSolver())
+							: ExprTraceFwBinItpChecker.create(True(), True(), solver),
 							precGranularity.createRefiner(new ItpRefToExplPrec()), logger);
 					break;
 				case BW_BIN_ITP:
@@ -265,15 +346,26 @@ public class CfaConfigBuilder {
 							precGranularity.createRefiner(new ItpRefToExplPrec()), logger);
 					break;
 				case SEQ_ITP:
-					refiner = SingleExprTraceRefiner.create(ExprTraceSeqItpChecker.create(True(), True(), solver),
+					refiner = SingleExprTraceRefiner.create(incrementalTraces
+							? ExprTraceIncrementalChecker.seqItp(True(), True(), solverFactory.createItpSolver())
+							: ExprTraceSeqItpChecker.create(True(), True(), solver),
 							precGranularity.createRefiner(new ItpRefToExplPrec()), logger);
 					break;
 				case MULTI_SEQ:
-					refiner = MultiExprTraceRefiner.create(ExprTraceSeqItpChecker.create(True(), True(), solver),
+					refiner = MultiExprTraceRefiner.createParallel(
+							createTraceCheckers(solver, s -> incrementalTraces
+									? ExprTraceIncrementalChecker.seqItp(True(), True(), s)
+									: ExprTraceSeqItpChecker.create(True(), True(), s)),
+							precGranularity.createRefiner(new ItpRefToExplPrec()), logger);
+					break;
+				case TREE_ITP:
+					refiner = MultiExprTraceRefiner.createBatch(ExprTraceTreeItpChecker.create(True(), True(), solver),
 							precGranularity.createRefiner(new ItpRefToExplPrec()), logger);
 					break;
 				case UNSAT_CORE:
-					refiner = SingleExprTraceRefiner.create(ExprTraceUnsatCoreChecker.create(True(), True(), solver),
+					refiner = SingleExprTraceRefiner.create(incrementalTraces
+							? ExprTraceIncrementalChecker.unsatCore(True(), True(), solverFactory.createSolver())
+							: ExprTraceUnsatCoreChecker.create(True(), True(), solver),
 							precGranularity.createRefiner(new VarsRefToExplPrec()), logger);
 					break;
 				default:
@@ -289,43 +381,37 @@ public class CfaConfigBuilder {
 			return CfaConfig.create(checker, prec);
 
 		} else if (domain == Domain.PRED_BOOL || domain == Domain.PRED_CART || domain == Domain.PRED_SPLIT) {
-			PredAbstractor predAbstractor = null;
-			switch (domain) {
-				case PRED_BOOL:
-					predAbstractor = PredAbstractors.booleanAbstractor(solver);
-					break;
-				case PRED_SPLIT:
-					predAbstractor = PredAbstractors.booleanSplitAbstractor(solver);
-					break;
-				case PRED_CART:
-					predAbstractor = PredAbstractors.cartesianAbstractor(solver);
-					break;
-				default:
-					throw new UnsupportedOperationException(domain + " domain is not supported.");
-			}
-			final Analysis<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> analysis = CfaAnalysis
-					.create(cfa.getInitLoc(), PredAnalysis.create(solver, predAbstractor, True()));
-			final ArgBuilder<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> argBuilder = ArgBuilder.create(lts,
-					analysis, s -> s.getLoc().equals(cfa.getErrorLoc()), true);
-			final Abstractor<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> abstractor = BasicAbstractor
-					.builder(argBuilder).projection(CfaState::getLoc)
-					.waitlist(PriorityWaitlist.create(search.getComp(cfa)))
-					.stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
-							: StopCriterions.firstCex()).logger(logger).build();
+			final Function<Solver, ArgBuilder<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>>> argBuilderFactory = s -> {
+				final CfaLts lts = encoding.getLts(cfa, blockSize);
+				// The assumptions stay defined in the solver, so it is not shared
+				final PredOrd predOrd = incremental ? PredOrd.createWithAssumptions(solverFactory.createSolver())
+						: PredOrd.create(s);
+				final PartialOrd<PredState> partialOrd = cacheOrd ? CachingPartialOrd.create(predOrd) : predOrd;
+				final Analysis<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> analysis = CfaAnalysis
+						.create(cfa.getInitLoc(), PredAnalysis.create(partialOrd, createPredAbstractor(s), True()));
+				return ArgBuilder.create(lts, analysis, st -> st.getLoc().equals(cfa.getErrorLoc()), true);
+			};
+			final Abstractor<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> abstractor = createAbstractor(cfa,
+					solver, argBuilderFactory, () -> PartitionedReachedSet.create(CfaState::getLoc));
 
 			ExprTraceChecker<ItpRefutation> exprTraceChecker = null;
 			switch (refinement) {
 				case FW_BIN_ITP:
-					exprTraceChecker = ExprTraceFwBinItpChecker.create(True(), True(), solver);
+					exprTraceChecker = incrementalTraces
+							? ExprTraceIncrementalChecker.fwBinItp(True(), True(), solverFactory.createItpSolver())
+							: ExprTraceFwBinItpChecker.create(True(), True(), solver);
 					break;
 				case BW_BIN_ITP:
 					exprTraceChecker = ExprTraceBwBinItpChecker.create(True(), True(), solver);
 					break;
 				case SEQ_ITP:
-					exprTraceChecker = ExprTraceSeqItpChecker.create(True(), True(), solver);
+					exprTraceChecker = incrementalTraces
+							? ExprTraceIncrementalChecker.seqItp(True(), True(), solverFactory.createItpSolver())
+							: ExprTraceSeqItpChecker.create(True(), True(), solver);
 					break;
 				case MULTI_SEQ:
-					exprTraceChecker = ExprTraceSeqItpChecker.create(True(), True(), solver);
+				case TREE_ITP:
+					// Checkers are created with the refiner
 					break;
 				default:
 					throw new UnsupportedOperationException(
@@ -335,8 +421,14 @@ public class CfaConfigBuilder {
 			Refiner<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> refiner;
 
 			if (refinement == Refinement.MULTI_SEQ) {
-				refiner = MultiExprTraceRefiner.create(exprTraceChecker, precGranularity.createRefiner(refToPrec),
-						logger);
+				refiner = MultiExprTraceRefiner.createParallel(
+						createTraceCheckers(solver, s -> incrementalTraces
+								? ExprTraceIncrementalChecker.seqItp(True(), True(), s)
+								: ExprTraceSeqItpChecker.create(True(), True(), s)),
+						precGranularity.createRefiner(refToPrec), logger);
+			} else if (refinement == Refinement.TREE_ITP) {
+				refiner = MultiExprTraceRefiner.createBatch(ExprTraceTreeItpChecker.create(True(), True(), solver),
+						precGranularity.createRefiner(refToPrec), logger);
 			} else {
 				refiner = SingleExprTraceRefiner.create(exprTraceChecker, precGranularity.createRefiner(refToPrec),
 						logger);
@@ -353,4 +445,58 @@ public class CfaConfigBuilder {
 			throw new UnsupportedOperationException(domain + " domain is not supported.");
 		}
 	}
+
+	private PredAbstractor createPredAbstractor(final Solver solver) {
+		// Incremental abstractors keep their definitions in the solver, so
+		// they get their own solver instead of the one shared with the refiner
+		switch (domain) {
+			case PRED_BOOL:
+				return incremental ? PredAbstractors.incrementalBooleanAbstractor(solverFactory.createSolver())
+						: PredAbstractors.booleanAbstractor(solver);
+			case PRED_SPLIT:
+				return incremental ? PredAbstractors.incrementalBooleanSplitAbstractor(solverFactory.createSolver())
+						: PredAbstractors.booleanSplitAbstractor(solver);
+			case PRED_CART:
+				return incremental ? PredAbstractors.incrementalCartesianAbstractor(solverFactory.createSolver())
+						: PredAbstractors.cartesianAbstractor(solver);
+			default:
+				throw new UnsupportedOperationException(domain + " domain is not supported.");
+		}
+	}
+
+	private <S extends ExprState, P extends Prec> Abstractor<CfaState<S>, CfaAction, CfaPrec<P>> createAbstractor(
+			final CFA cfa, final Solver solver,
+			final Function<Solver, ArgBuilder<CfaState<S>, CfaAction, CfaPrec<P>>> argBuilderFactory,
+			final Supplier<? extends ReachedSet<CfaState<S>, CfaAction>> reachedSetFactory) {
+		final ArgBuilder<CfaState<S>, CfaAction, CfaPrec<P>> argBuilder = argBuilderFactory.apply(solver);
+		final StopCriterion<CfaState<S>, CfaAction> stopCriterion
+				= refinement == Refinement.MULTI_SEQ || refinement == Refinement.TREE_ITP
+				? StopCriterions.fullExploration() : StopCriterions.firstCex();
+
+		if (threads <= 1) {
+			return BasicAbstractor.builder(argBuilder).reachedSet(reachedSetFactory)
+					.waitlist(PriorityWaitlist.create(search.getComp(cfa))).stopCriterion(stopCriterion)
+					.logger(logger).build();
+		} else {
+			final List<ArgBuilder<CfaState<S>, CfaAction, CfaPrec<P>>> argBuilders = new ArrayList<>(threads);
+			argBuilders.add(argBuilder);
+			for (int i = 1; i < threads; ++i) {
+				argBuilders.add(argBuilderFactory.apply(solverFactory.createSolver()));
+			}
+			return ParallelAbstractor.builder(argBuilders).reachedSet(reachedSetFactory)
+					.waitlist(PriorityWaitlist.create(search.getComp(cfa))).stopCriterion(stopCriterion)
+					.logger(logger).build();
+		}
+	}
+
+	private List<ExprTraceChecker<ItpRefutation>> createTraceCheckers(final ItpSolver solver,
+			final Function<ItpSolver, ExprTraceChecker<ItpRefutation>> checkerFactory) {
+		final List<ExprTraceChecker<ItpRefutation>> checkers = new ArrayList<>(threads);
+		// Incremental checkers keep their assertions, so they cannot share the solver of the abstractor
+		checkers.add(checkerFactory.apply(incrementalTraces ? solverFactory.createItpSolver() : solver));
+		for (int i = 1; i < threads; ++i) {
+			checkers.add(checkerFactory.apply(solverFactory.createItpSolver()));
+		}
+		return checkers;
+	}
 }
@@ -55,6 +55,16 @@ public final class ImpactReachedSet<S extends State, A extends Action, K> implem
 		partition.add(node);
 	}
 
+	@Override
+	public void remove(final ArgNode<S, A> node) {
+		checkNotNull(node);
+		final K key = partitioning.apply(node.getState());
+		final Collection<ArgNode<S, A>> partition = partitions.get(key);
+		if (partition != null) {
+			partition.remove(node);
+		}
+	}
+
 	@Override
 	public void tryToCover(final ArgNode<S, A> node) {
 		checkNotNull(node);
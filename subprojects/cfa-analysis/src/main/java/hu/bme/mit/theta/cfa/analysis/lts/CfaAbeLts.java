@@ -0,0 +1,136 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.cfa.analysis.lts;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.CFA.Edge;
+import hu.bme.mit.theta.cfa.CFA.Loc;
+import hu.bme.mit.theta.cfa.analysis.CfaAction;
+import hu.bme.mit.theta.cfa.analysis.CfaState;
+
+/**
+ * Adjustable block encoding (ABE) implementation for CFA LTS. It follows each
+ * path from the location of the state until a cut point (loop head, initial,
+ * final or error location) is reached, and merges the paths ending in the
+ * same location into a single action. The block size limits the number of
+ * paths from a location: when following a branch would exceed it, the path
+ * ends at the branching location instead.
+ */
+public final class CfaAbeLts implements CfaLts {
+
+	private final Set<Loc> cutPoints;
+	private final int blockSize;
+
+	private CfaAbeLts(final CFA cfa, final int blockSize) {
+		checkNotNull(cfa);
+		checkArgument(blockSize > 0, "Block size must be positive");
+		this.blockSize = blockSize;
+		this.cutPoints = new HashSet<>(getLoopHeads(cfa.getInitLoc()));
+		cutPoints.add(cfa.getInitLoc());
+		cutPoints.add(cfa.getFinalLoc());
+		cutPoints.add(cfa.getErrorLoc());
+	}
+
+	/**
+	 * Create ABE for a CFA, where the actions of a location contain at most
+	 * blockSize paths (unless the location has more outgoing edges).
+	 */
+	public static CfaAbeLts create(final CFA cfa, final int blockSize) {
+		return new CfaAbeLts(cfa, blockSize);
+	}
+
+	@Override
+	public Collection<CfaAction> getEnabledActionsFor(final CfaState<?> state) {
+		final Loc loc = state.getLoc();
+		final Map<Loc, List<List<Edge>>> pathsByTarget = new LinkedHashMap<>();
+		final Deque<List<Edge>> open = new ArrayDeque<>();
+		for (final Edge edge : loc.getOutEdges()) {
+			open.add(Collections.singletonList(edge));
+		}
+		int pathCount = open.size();
+
+		while (!open.isEmpty()) {
+			final List<Edge> path = open.remove();
+			final Loc end = path.get(path.size() - 1).getTarget();
+			final int branching = end.getOutEdges().size();
+			if (branching == 0 || cutPoints.contains(end) || (branching > 1 && pathCount + branching - 1 > blockSize)) {
+				pathsByTarget.computeIfAbsent(end, l -> new ArrayList<>()).add(path);
+			} else {
+				pathCount += branching - 1;
+				for (final Edge edge : end.getOutEdges()) {
+					final List<Edge> extended = new ArrayList<>(path.size() + 1);
+					extended.addAll(path);
+					extended.add(edge);
+					open.add(extended);
+				}
+			}
+		}
+
+		return pathsByTarget.values().stream().map(CfaAction::createBlock).collect(Collectors.toList());
+	}
+
+	/**
+	 * Collect the targets of back edges of a depth-first search, which cut
+	 * every cycle reachable from the initial location.
+	 */
+	private static Set<Loc> getLoopHeads(final Loc initLoc) {
+		final Set<Loc> loopHeads = new HashSet<>();
+		final Set<Loc> visited = new HashSet<>();
+		final Set<Loc> onStack = new HashSet<>();
+		final Deque<Iterator<Edge>> stack = new ArrayDeque<>();
+		final Deque<Loc> locStack = new ArrayDeque<>();
+
+		visited.add(initLoc);
+		onStack.add(initLoc);
+		locStack.push(initLoc);
+		stack.push(initLoc.getOutEdges().iterator());
+
+		while (!stack.isEmpty()) {
+			final Iterator<Edge> edges = stack.peek();
+			if (edges.hasNext()) {
+				final Loc target = edges.next().getTarget();
+				if (onStack.contains(target)) {
+					loopHeads.add(target);
+				} else if (visited.add(target)) {
+					onStack.add(target);
+					locStack.push(target);
+					stack.push(target.getOutEdges().iterator());
+				}
+			} else {
+				stack.pop();
+				onStack.remove(locStack.pop());
+			}
+		}
+		return loopHeads;
+	}
+
+}
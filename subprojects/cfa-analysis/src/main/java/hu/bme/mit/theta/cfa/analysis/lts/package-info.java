@@ -3,6 +3,7 @@
  *
  * @see hu.bme.mit.theta.cfa.analysis.lts.CfaLbeLts
  * @see hu.bme.mit.theta.cfa.analysis.lts.CfaSbeLts
+ * @see hu.bme.mit.theta.cfa.analysis.lts.CfaAbeLts
  * @see hu.bme.mit.theta.cfa.analysis.lts.CfaCachedLts
  */
 
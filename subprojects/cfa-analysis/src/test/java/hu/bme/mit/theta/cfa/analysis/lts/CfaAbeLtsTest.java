@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.cfa.analysis.lts;
+
+import java.util.Collection;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.CFA.Builder;
+import hu.bme.mit.theta.cfa.CFA.Loc;
+import hu.bme.mit.theta.cfa.analysis.CfaAction;
+import hu.bme.mit.theta.cfa.analysis.CfaState;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.stmt.Stmts;
+import hu.bme.mit.theta.core.type.booltype.BoolExprs;
+
+public class CfaAbeLtsTest {
+
+	private CFA cfa;
+	private Loc loc0;
+	private Loc locA;
+	private Loc locHead;
+	private Loc locErr;
+	private Loc locFinal;
+
+	@Before
+	public void before() {
+		// L0 -> LA -> (L1 | L2) -> LH, LH -> L3 -> LH, LH -> (LE | LF)
+		final Builder builder = CFA.builder();
+		loc0 = builder.createLoc("L0");
+		builder.setInitLoc(loc0);
+		locA = builder.createLoc("LA");
+		final Loc loc1 = builder.createLoc("L1");
+		final Loc loc2 = builder.createLoc("L2");
+		locHead = builder.createLoc("LH");
+		final Loc loc3 = builder.createLoc("L3");
+		locErr = builder.createLoc("LE");
+		builder.setErrorLoc(locErr);
+		locFinal = builder.createLoc("LF");
+		builder.setFinalLoc(locFinal);
+		final Stmt stmt = Stmts.Assume(BoolExprs.True());
+		builder.createEdge(loc0, locA, stmt);
+		builder.createEdge(locA, loc1, stmt);
+		builder.createEdge(locA, loc2, stmt);
+		builder.createEdge(loc1, locHead, stmt);
+		builder.createEdge(loc2, locHead, stmt);
+		builder.createEdge(locHead, loc3, stmt);
+		builder.createEdge(loc3, locHead, stmt);
+		builder.createEdge(locHead, locErr, stmt);
+		builder.createEdge(locHead, locFinal, stmt);
+		cfa = builder.build();
+	}
+
+	@Test
+	public void testMergeUntilLoopHead() {
+		final CfaAbeLts lts = CfaAbeLts.create(cfa, 16);
+
+		final Collection<CfaAction> actions = lts.getEnabledActionsFor(CfaState.of(loc0, ExplState.top()));
+		Assert.assertEquals(1, actions.size());
+		final CfaAction action = Iterables.getOnlyElement(actions);
+		Assert.assertEquals(locHead, action.getTarget());
+		Assert.assertEquals(2, action.getPaths().size());
+		Assert.assertEquals(5, action.getEdges().size());
+
+		final Collection<CfaAction> loopActions = lts.getEnabledActionsFor(CfaState.of(locHead, ExplState.top()));
+		Assert.assertEquals(3, loopActions.size());
+		for (final CfaAction loopAction : loopActions) {
+			Assert.assertEquals(1, loopAction.getPaths().size());
+		}
+	}
+
+	@Test
+	public void testBlockSizeOne() {
+		final CfaAbeLts lts = CfaAbeLts.create(cfa, 1);
+
+		final Collection<CfaAction> actions = lts.getEnabledActionsFor(CfaState.of(loc0, ExplState.top()));
+		Assert.assertEquals(1, actions.size());
+		final CfaAction action = Iterables.getOnlyElement(actions);
+		Assert.assertEquals(locA, action.getTarget());
+		Assert.assertEquals(1, action.getPaths().size());
+	}
+
+}
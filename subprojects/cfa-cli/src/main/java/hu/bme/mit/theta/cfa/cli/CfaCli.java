@@ -16,6 +16,8 @@
 package hu.bme.mit.theta.cfa.cli;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import com.beust.jcommander.JCommander;
@@ -23,11 +25,17 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.google.common.base.Stopwatch;
 
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.algorithm.PortfolioChecker;
+import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult.Unsafe;
 import hu.bme.mit.theta.analysis.algorithm.cegar.CegarStatistics;
 import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.cfa.CFA;
 import hu.bme.mit.theta.cfa.analysis.CfaAction;
 import hu.bme.mit.theta.cfa.analysis.CfaState;
@@ -42,6 +50,7 @@ import hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.PredSplit;
 import hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.Refinement;
 import hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.Search;
 import hu.bme.mit.theta.cfa.dsl.CfaDslManager;
+import hu.bme.mit.theta.common.logging.AsyncFileLogger;
 import hu.bme.mit.theta.common.logging.ConsoleLogger;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.Logger.Level;
@@ -56,7 +65,6 @@ import hu.bme.mit.theta.solver.z3.*;
  */
 public class CfaCli {
 	private static final String JAR_NAME = "theta-cfa-cli.jar";
-	private final SolverFactory solverFactory = Z3SolverFactory.getInstace();
 	private final String[] args;
 	private final TableWriter writer;
 
@@ -81,15 +89,48 @@ public class CfaCli {
 	@Parameter(names = "--encoding", description = "Block encoding")
 	Encoding encoding = Encoding.LBE;
 
+	@Parameter(names = "--blocksize", description = "Maximal number of paths merged into the actions of a location (only for ABE)")
+	Integer blockSize = 16;
+
 	@Parameter(names = "--maxenum", description = "Maximal number of explicitly enumerated successors (0: unlimited)")
 	Integer maxEnum = 0;
 
 	@Parameter(names = "--initprec", description = "Initial precision of abstraction")
 	InitPrec initPrec = InitPrec.EMPTY;
 
+	@Parameter(names = "--threads", description = "Number of threads for expanding the ARG and for checking counterexamples with MULTI_SEQ (1: sequential)")
+	Integer threads = 1;
+
+	@Parameter(names = "--incremental", description = "Keep the solver context between queries")
+	Boolean incremental = false;
+
+	@Parameter(names = "--incremental-traces", description = "Keep the common prefix of consecutive counterexamples in the trace checker")
+	Boolean incrementalTraces = false;
+
+	@Parameter(names = "--cacheord", description = "Cache the results of the partial order of predicate states")
+	Boolean cacheOrd = false;
+
+	@Parameter(names = "--z3-cache-size", description = "Maximal number of expressions whose Z3 translation is cached (-1: unlimited)")
+	Long z3CacheSize = Z3CachePolicy.getDefault().getMaximumSize();
+
+	@Parameter(names = "--z3-cache-weak", description = "Evict the cached Z3 translation of garbage collected expressions (only with -Dtheta.intern=true)")
+	Boolean z3CacheWeak = false;
+
+	@Parameter(names = "--z3-cache-shared", description = "Share the Z3 context and cache among the solvers of a configuration")
+	Boolean z3CacheShared = false;
+
+	@Parameter(names = "--portfolio", description = "Run a portfolio of configurations concurrently, given as a list of DOMAIN:REFINEMENT[:SEARCH] (other options are shared)")
+	List<String> portfolio = null;
+
+	@Parameter(names = "--portfolio-threads", description = "Maximal number of configurations running concurrently in the portfolio (0: all)")
+	Integer portfolioThreads = 0;
+
 	@Parameter(names = "--loglevel", description = "Detailedness of logging")
 	Logger.Level logLevel = Level.SUBSTEP;
 
+	@Parameter(names = "--logfile", description = "Write the log to a file instead of the console (in the background)")
+	String logfile = null;
+
 	@Parameter(names = "--benchmark", description = "Benchmark mode (only print metrics)")
 	Boolean benchmarkMode = false;
 
@@ -100,6 +141,9 @@ public class CfaCli {
 	boolean headerOnly = false;
 
 	private Logger logger;
+	private Z3SolverFactory solverFactory;
+	private List<PortfolioConfig> portfolioConfigs;
+	private final List<Z3SolverFactory> portfolioSolverFactories = new ArrayList<>();
 
 	public CfaCli(final String[] args) {
 		this.args = args;
@@ -112,26 +156,47 @@ public class CfaCli {
 	}
 
 	private void run() {
+		final JCommander jc = JCommander.newBuilder().addObject(this).programName(JAR_NAME).build();
 		try {
-			JCommander.newBuilder().addObject(this).programName(JAR_NAME).build().parse(args);
-			logger = benchmarkMode ? NullLogger.getInstance() : new ConsoleLogger(logLevel);
+			jc.parse(args);
+			if (portfolio != null) {
+				portfolioConfigs = parsePortfolio();
+			}
+			// Solvers sharing a context can only be used by the thread that
+			// created them, but worker threads use solvers of the main thread
+			if (z3CacheShared && (threads > 1 || portfolio != null)) {
+				throw new ParameterException("--z3-cache-shared cannot be used with multiple threads or a portfolio");
+			}
 		} catch (final ParameterException ex) {
+			ex.setJCommander(jc);
 			System.out.println("Invalid parameters, details:");
 			System.out.println(ex.getMessage());
 			ex.usage();
 			return;
 		}
 
+		try {
+			logger = createLogger();
+		} catch (final FileNotFoundException ex) {
+			System.out.println("Cannot open log file: " + ex.getMessage());
+			return;
+		}
+
 		if (headerOnly) {
 			printHeader();
 			return;
 		}
 
+		solverFactory = Z3SolverFactory.create(createCachePolicy());
 		try {
 			final Stopwatch sw = Stopwatch.createStarted();
 			final CFA cfa = loadModel();
-			final CfaConfig<?, ?, ?> configuration = buildConfiguration(cfa);
-			final SafetyResult<?, ?> status = configuration.check();
+			final SafetyResult<?, ?> status;
+			if (portfolio == null) {
+				status = buildConfiguration(cfa, domain, refinement, search, solverFactory, logger).check();
+			} else {
+				status = buildPortfolio(cfa).check(UnitPrec.getInstance());
+			}
 			sw.stop();
 			printResult(status, cfa, sw.elapsed(TimeUnit.MILLISECONDS));
 			if (status.isUnsafe() && cexfile != null) {
@@ -139,15 +204,42 @@ public class CfaCli {
 			}
 		} catch (final Throwable ex) {
 			printError(ex);
+		} finally {
+			solverFactory.close();
+			for (final Z3SolverFactory portfolioSolverFactory : portfolioSolverFactories) {
+				portfolioSolverFactory.close();
+			}
 		}
 		if (benchmarkMode) {
 			writer.newRow();
 		}
+		closeLogger();
+	}
+
+	private Logger createLogger() throws FileNotFoundException {
+		if (benchmarkMode) {
+			return NullLogger.getInstance();
+		} else if (logfile != null) {
+			return new AsyncFileLogger(logLevel, logfile, false);
+		} else {
+			return new ConsoleLogger(logLevel);
+		}
+	}
+
+	private void closeLogger() {
+		if (logger instanceof AsyncFileLogger) {
+			try {
+				((AsyncFileLogger) logger).close();
+			} catch (final IOException ex) {
+				System.out.println("Cannot write log file: " + ex.getMessage());
+			}
+		}
 	}
 
 	private void printHeader() {
 		final String[] header = new String[]{"Result", "TimeMs", "AlgoTimeMs", "AbsTimeMs", "RefTimeMs", "Iterations",
-				"ArgSize", "ArgDepth", "ArgMeanBranchFactor", "CexLen"};
+				"ArgSize", "ArgDepth", "ArgMeanBranchFactor", "CexLen", "Z3CacheHits", "Z3CacheMisses",
+				"Z3CacheEvictions"};
 		for (final String str : header) {
 			writer.cell(str);
 		}
@@ -161,13 +253,69 @@ public class CfaCli {
 		}
 	}
 
-	private CfaConfig<?, ?, ?> buildConfiguration(final CFA cfa) {
+	private Z3CachePolicy createCachePolicy() {
+		final Z3CachePolicy.Builder builder = Z3CachePolicy.builder().weakKeys(z3CacheWeak).shared(z3CacheShared);
+		if (z3CacheSize < 0) {
+			builder.unbounded();
+		} else {
+			builder.maximumSize(z3CacheSize);
+		}
+		return builder.build();
+	}
+
+	private CfaConfig<?, ?, ?> buildConfiguration(final CFA cfa, final Domain domain, final Refinement refinement,
+												  final Search search, final SolverFactory solverFactory,
+												  final Logger logger) {
 		return new CfaConfigBuilder(domain, refinement, solverFactory).precGranularity(precGranularity).search(search)
-				.predSplit(predSplit).encoding(encoding).maxEnum(maxEnum).initPrec(initPrec).logger(logger).build(cfa);
+				.predSplit(predSplit).encoding(encoding).blockSize(blockSize).maxEnum(maxEnum).initPrec(initPrec).threads(threads)
+				.incremental(incremental).incrementalTraces(incrementalTraces).cacheOrd(cacheOrd).logger(logger)
+				.build(cfa);
+	}
+
+	private List<PortfolioConfig> parsePortfolio() {
+		final List<PortfolioConfig> configs = new ArrayList<>(portfolio.size());
+		for (final String config : portfolio) {
+			final String[] parts = config.split(":");
+			if (parts.length < 2 || parts.length > 3) {
+				throw new ParameterException("Invalid portfolio configuration: " + config);
+			}
+			try {
+				final Domain domain = Domain.valueOf(parts[0]);
+				final Refinement refinement = Refinement.valueOf(parts[1]);
+				final Search search = parts.length > 2 ? Search.valueOf(parts[2]) : this.search;
+				configs.add(new PortfolioConfig(config, domain, refinement, search));
+			} catch (final IllegalArgumentException ex) {
+				throw new ParameterException("Invalid portfolio configuration: " + config + " (" + ex.getMessage() + ")");
+			}
+		}
+		return configs;
+	}
+
+	private PortfolioChecker<State, Action, UnitPrec> buildPortfolio(final CFA cfa) {
+		final PortfolioChecker.Builder<State, Action, UnitPrec> builder = PortfolioChecker.builder();
+		for (final PortfolioConfig config : portfolioConfigs) {
+			// Each configuration has its own solvers, so that the checks of
+			// the configurations still running can be interrupted
+			final Z3SolverFactory configSolverFactory = Z3SolverFactory.create(createCachePolicy());
+			portfolioSolverFactories.add(configSolverFactory);
+			// Configurations run concurrently, so only the portfolio logs
+			builder.add(config.name, asChecker(buildConfiguration(cfa, config.domain, config.refinement, config.search,
+					configSolverFactory, NullLogger.getInstance())), configSolverFactory::interrupt);
+		}
+		if (portfolioThreads > 0) {
+			builder.threads(portfolioThreads);
+		}
+		return builder.logger(logger).build();
+	}
+
+	private static <S extends State, A extends Action, P extends Prec> SafetyChecker<S, A, UnitPrec> asChecker(
+			final CfaConfig<S, A, P> configuration) {
+		return prec -> configuration.check();
 	}
 
 	private void printResult(final SafetyResult<?, ?> status, final CFA cfa, final long totalTimeMs) {
 		final CegarStatistics stats = (CegarStatistics) status.getStats().get();
+		final Z3CacheStats cacheStats = getCacheStats();
 		if (benchmarkMode) {
 			writer.cell(status.isSafe());
 			writer.cell(totalTimeMs);
@@ -183,9 +331,23 @@ public class CfaCli {
 			} else {
 				writer.cell("");
 			}
+			writer.cell(cacheStats.getHitCount());
+			writer.cell(cacheStats.getMissCount());
+			writer.cell(cacheStats.getEvictionCount());
+		} else {
+			logger.write(Level.MAINSTEP, "%s%n", cacheStats);
 		}
 	}
 
+	private Z3CacheStats getCacheStats() {
+		final List<Z3CacheStats> cacheStats = new ArrayList<>();
+		cacheStats.add(solverFactory.getCacheStats());
+		for (final Z3SolverFactory portfolioSolverFactory : portfolioSolverFactories) {
+			cacheStats.add(portfolioSolverFactory.getCacheStats());
+		}
+		return Z3CacheStats.sum(cacheStats);
+	}
+
 	private void printError(final Throwable ex) {
 		final String message = ex.getMessage() == null ? "" : ": " + ex.getMessage();
 		if (benchmarkMode) {
@@ -215,4 +377,19 @@ public class CfaCli {
 			}
 		}
 	}
+
+	private static final class PortfolioConfig {
+		private final String name;
+		private final Domain domain;
+		private final Refinement refinement;
+		private final Search search;
+
+		private PortfolioConfig(final String name, final Domain domain, final Refinement refinement,
+								final Search search) {
+			this.name = name;
+			this.domain = domain;
+			this.refinement = refinement;
+			this.search = search;
+		}
+	}
 }
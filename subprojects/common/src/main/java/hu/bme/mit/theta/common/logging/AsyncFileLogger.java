@@ -0,0 +1,95 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.logging;
+
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Logger that writes to a file on a background thread. Messages are formatted
+ * by the caller and queued, and the writer thread writes them through a buffer
+ * that is flushed whenever the queue becomes empty. The logger must be closed
+ * to write the remaining messages.
+ */
+public final class AsyncFileLogger extends BaseLogger implements AutoCloseable {
+
+	private static final String END = new String();
+
+	private final BlockingQueue<String> queue;
+	private final Writer writer;
+	private final Thread thread;
+	private volatile IOException error;
+
+	public AsyncFileLogger(final Level minLevel, final String fileName, final boolean append)
+			throws FileNotFoundException {
+		super(minLevel);
+		queue = new LinkedBlockingQueue<>();
+		writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName, append)));
+		error = null;
+		thread = new Thread(this::run, getClass().getSimpleName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	protected void writeStr(final String str) {
+		queue.add(str);
+	}
+
+	private void run() {
+		try {
+			String str = queue.take();
+			while (str != END) {
+				writer.write(str);
+				str = queue.poll();
+				if (str == null) {
+					writer.flush();
+					str = queue.take();
+				}
+			}
+			writer.close();
+		} catch (final IOException e) {
+			error = e;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Write the remaining messages and close the file.
+	 *
+	 * @throws IOException if writing the file failed
+	 */
+	@Override
+	public void close() throws IOException {
+		queue.add(END);
+		try {
+			thread.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+}
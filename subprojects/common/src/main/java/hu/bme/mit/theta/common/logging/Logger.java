@@ -15,6 +15,8 @@
  */
 package hu.bme.mit.theta.common.logging;
 
+import java.util.function.Supplier;
+
 /**
  * Interface for logging within algorithms.
  */
@@ -37,4 +39,30 @@ public interface Logger {
 	 */
 	Logger write(Level level, String pattern, Object... objects);
 
+	/**
+	 * Write a lazily computed message with a given level. The supplier is
+	 * only evaluated if the level is enabled.
+	 *
+	 * @param level   Level
+	 * @param message Supplier of the message
+	 * @return Logger instance
+	 */
+	default Logger write(final Level level, final Supplier<String> message) {
+		if (isEnabled(level)) {
+			write(level, "%s", message.get());
+		}
+		return this;
+	}
+
+	/**
+	 * Check whether messages with a given level are written. Can be used to
+	 * guard computing expensive arguments.
+	 *
+	 * @param level Level
+	 * @return True if messages with the given level are written
+	 */
+	default boolean isEnabled(final Level level) {
+		return true;
+	}
+
 }
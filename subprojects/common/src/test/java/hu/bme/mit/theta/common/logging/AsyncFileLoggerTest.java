@@ -0,0 +1,58 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.common.logging.Logger.Level;
+
+public class AsyncFileLoggerTest {
+
+	@Test
+	public void testWrite() throws IOException {
+		final File file = File.createTempFile("theta", ".log");
+		file.deleteOnExit();
+
+		final AsyncFileLogger logger = new AsyncFileLogger(Level.INFO, file.getPath(), false);
+		assertTrue(logger.isEnabled(Level.INFO));
+		assertFalse(logger.isEnabled(Level.DETAIL));
+		for (int i = 0; i < 100; i++) {
+			logger.write(Level.INFO, "%d%n", i);
+			logger.write(Level.DETAIL, () -> {
+				throw new AssertionError("Disabled level evaluated");
+			});
+		}
+		logger.write(Level.MAINSTEP, () -> "end");
+		logger.close();
+
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			expected.append(String.format("%d%n", i));
+		}
+		expected.append("end");
+		assertEquals(expected.toString(), new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+	}
+
+}
@@ -6,3 +6,21 @@ plugins {
 dependencies {
     compile(project(":theta-common"))
 }
+
+tasks {
+    // Expressions are only interned if the JVM is started with
+    // -Dtheta.intern=true, so the tests are also run with interning enabled
+    val internTest by creating(Test::class) {
+        group = "verification"
+        description = "Runs the tests with expression interning enabled."
+
+        val sourceSets = project.the<JavaPluginConvention>().sourceSets
+        testClassesDirs = sourceSets["test"].output.classesDirs
+        classpath = sourceSets["test"].runtimeClasspath
+        systemProperty("theta.intern", "true")
+    }
+
+    named("check") {
+        dependsOn(internTest)
+    }
+}
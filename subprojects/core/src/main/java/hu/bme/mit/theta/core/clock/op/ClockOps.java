@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
 import hu.bme.mit.theta.core.stmt.SkipStmt;
 import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.stmt.StmtVisitor;
@@ -154,6 +155,11 @@ public final class ClockOps {
 			}
 		}
 
+		@Override
+		public ClockOp visit(final NonDetStmt stmt, final Void param) {
+			throw new IllegalArgumentException("Non-deterministic statements are not clock operations: " + stmt);
+		}
+
 	}
 
 }
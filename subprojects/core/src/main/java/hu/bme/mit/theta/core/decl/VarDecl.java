@@ -17,8 +17,10 @@ package hu.bme.mit.theta.core.decl;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.core.type.Type;
@@ -26,20 +28,61 @@ import hu.bme.mit.theta.core.type.Type;
 public final class VarDecl<DeclType extends Type> extends Decl<DeclType> {
 	private static final String DECL_LABEL = "var";
 
-	private final Map<Integer, IndexedConstDecl<DeclType>> indexToConst;
+	private static final AtomicInteger ID_COUNTER = new AtomicInteger();
+	// Constants with larger indices (e.g., when unfolding backwards) are
+	// stored in a map
+	private static final int MAX_ARRAY_INDEX = 1 << 12;
 
+	private final int id;
+	// Indexed constants can be requested from multiple threads (e.g., when
+	// unfolding expressions in parallel abstraction). The array is only
+	// replaced by a larger copy, and new constants are created synchronized.
+	private volatile IndexedConstDecl<DeclType>[] indexToConst;
+	private final Map<Integer, IndexedConstDecl<DeclType>> largeIndexToConst;
+
+	@SuppressWarnings("unchecked")
 	VarDecl(final String name, final DeclType type) {
 		super(name, type);
-		indexToConst = new HashMap<>();
+		id = ID_COUNTER.getAndIncrement();
+		indexToConst = (IndexedConstDecl<DeclType>[]) new IndexedConstDecl<?>[0];
+		largeIndexToConst = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Get the unique id of the variable. Ids are assigned densely in the order
+	 * of creation, so the variables of a model (that are created together)
+	 * have consecutive ids, which can be used as array indices.
+	 */
+	public int getId() {
+		return id;
 	}
 
 	public IndexedConstDecl<DeclType> getConstDecl(final int index) {
 		checkArgument(index >= 0);
-		IndexedConstDecl<DeclType> constDecl = indexToConst.get(index);
-		if (constDecl == null) {
-			constDecl = new IndexedConstDecl<>(this, index);
-			indexToConst.put(index, constDecl);
+		final IndexedConstDecl<DeclType>[] consts = indexToConst;
+		if (index < consts.length) {
+			final IndexedConstDecl<DeclType> constDecl = consts[index];
+			if (constDecl != null) {
+				return constDecl;
+			}
+		}
+		if (index >= MAX_ARRAY_INDEX) {
+			return largeIndexToConst.computeIfAbsent(index, i -> new IndexedConstDecl<>(this, i));
+		}
+		return createConstDecl(index);
+	}
+
+	private synchronized IndexedConstDecl<DeclType> createConstDecl(final int index) {
+		IndexedConstDecl<DeclType>[] consts = indexToConst;
+		if (index < consts.length && consts[index] != null) {
+			return consts[index];
+		}
+		if (index >= consts.length) {
+			consts = Arrays.copyOf(consts, Math.min(Math.max(index + 1, 2 * consts.length), MAX_ARRAY_INDEX));
 		}
+		final IndexedConstDecl<DeclType> constDecl = new IndexedConstDecl<>(this, index);
+		consts[index] = constDecl;
+		indexToConst = consts;
 		return constDecl;
 	}
 
@@ -18,6 +18,7 @@ package hu.bme.mit.theta.core.dsl.impl;
 import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
 import hu.bme.mit.theta.core.stmt.SkipStmt;
 import hu.bme.mit.theta.core.stmt.StmtVisitor;
 import hu.bme.mit.theta.core.type.Expr;
@@ -49,4 +50,9 @@ public class StmtWriter implements StmtVisitor<Void, String> {
 		return "havoc " + stmt.getVarDecl().getName();
 	}
 
+	@Override
+	public String visit(final NonDetStmt stmt, final Void param) {
+		throw new UnsupportedOperationException("Non-deterministic statements are not supported by the language");
+	}
+
 }
@@ -18,13 +18,18 @@ package hu.bme.mit.theta.core.model;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import com.google.common.collect.ImmutableMap;
 
 import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
@@ -33,9 +38,19 @@ import hu.bme.mit.theta.core.type.booltype.BoolType;
 /**
  * Basic, immutable implementation of a valuation. The inner builder class can
  * be used to create a new instance.
+ *
+ * Values of variables are stored in an array indexed by the id of the variable
+ * (relative to the smallest id), other declarations are stored in a map.
  */
 public final class ImmutableValuation extends Valuation {
-	private final Map<Decl<?>, LitExpr<?>> declToExpr;
+	// Variables are stored in a map if their ids are too scattered
+	private static final int MAX_SPARSITY = 4;
+
+	private final List<Decl<?>> decls;
+	private final int baseId;
+	private final LitExpr<?>[] varValues;
+	private final Map<Decl<?>, LitExpr<?>> otherValues;
+	private volatile Map<Decl<?>, LitExpr<?>> declToExpr = null;
 	private volatile Expr<BoolType> expr = null;
 
 	private static final class LazyHolder {
@@ -43,7 +58,37 @@ public final class ImmutableValuation extends Valuation {
 	}
 
 	private ImmutableValuation(final Builder builder) {
-		declToExpr = builder.builder.build();
+		decls = Collections.unmodifiableList(new ArrayList<>(builder.decls));
+
+		int minId = Integer.MAX_VALUE;
+		int maxId = -1;
+		int varCount = 0;
+		for (final Decl<?> decl : decls) {
+			if (decl instanceof VarDecl) {
+				final int id = ((VarDecl<?>) decl).getId();
+				minId = Math.min(minId, id);
+				maxId = Math.max(maxId, id);
+				++varCount;
+			}
+		}
+		final boolean dense = varCount > 0 && maxId - minId < MAX_SPARSITY * varCount;
+
+		baseId = dense ? minId : 0;
+		varValues = dense ? new LitExpr<?>[maxId - minId + 1] : null;
+		otherValues = dense && varCount == decls.size() ? Collections.emptyMap() : new HashMap<>();
+		for (int i = 0; i < decls.size(); ++i) {
+			final Decl<?> decl = decls.get(i);
+			final LitExpr<?> value = builder.values.get(i);
+			final LitExpr<?> prevValue;
+			if (dense && decl instanceof VarDecl) {
+				final int slot = ((VarDecl<?>) decl).getId() - baseId;
+				prevValue = varValues[slot];
+				varValues[slot] = value;
+			} else {
+				prevValue = otherValues.put(decl, value);
+			}
+			checkArgument(prevValue == null, "Multiple values for " + decl.getName());
+		}
 	}
 
 	public static ImmutableValuation copyOf(final Valuation val) {
@@ -64,13 +109,20 @@ public final class ImmutableValuation extends Valuation {
 
 	@Override
 	public Collection<Decl<?>> getDecls() {
-		return declToExpr.keySet();
+		return decls;
 	}
 
 	@Override
 	public <DeclType extends Type> Optional<LitExpr<DeclType>> eval(final Decl<DeclType> decl) {
 		checkNotNull(decl);
-		@SuppressWarnings("unchecked") final LitExpr<DeclType> val = (LitExpr<DeclType>) declToExpr.get(decl);
+		final LitExpr<?> value;
+		if (varValues != null && decl instanceof VarDecl) {
+			final int slot = ((VarDecl<?>) decl).getId() - baseId;
+			value = slot >= 0 && slot < varValues.length ? varValues[slot] : null;
+		} else {
+			value = otherValues.get(decl);
+		}
+		@SuppressWarnings("unchecked") final LitExpr<DeclType> val = (LitExpr<DeclType>) value;
 		return Optional.ofNullable(val);
 	}
 
@@ -86,7 +138,16 @@ public final class ImmutableValuation extends Valuation {
 
 	@Override
 	public Map<Decl<?>, LitExpr<?>> toMap() {
-		return declToExpr;
+		Map<Decl<?>, LitExpr<?>> result = declToExpr;
+		if (result == null) {
+			final ImmutableMap.Builder<Decl<?>, LitExpr<?>> builder = ImmutableMap.builder();
+			for (final Decl<?> decl : decls) {
+				builder.put(decl, eval(decl).get());
+			}
+			result = builder.build();
+			declToExpr = result;
+		}
+		return result;
 	}
 
 	public static Builder builder() {
@@ -94,15 +155,20 @@ public final class ImmutableValuation extends Valuation {
 	}
 
 	public final static class Builder {
-		private final ImmutableMap.Builder<Decl<?>, LitExpr<?>> builder;
+		private final List<Decl<?>> decls;
+		private final List<LitExpr<?>> values;
 
 		private Builder() {
-			builder = ImmutableMap.builder();
+			decls = new ArrayList<>();
+			values = new ArrayList<>();
 		}
 
 		public Builder put(final Decl<?> decl, final LitExpr<?> value) {
+			checkNotNull(decl);
+			checkNotNull(value);
 			checkArgument(value.getType().equals(decl.getType()), "Type mismatch.");
-			builder.put(decl, value);
+			decls.add(decl);
+			values.add(value);
 			return this;
 		}
 
@@ -63,9 +63,17 @@ public abstract class Valuation implements Substitution {
 		return true;
 	}
 
+	// Equal to the hash code of toMap(), without creating the map
 	@Override
 	public final int hashCode() {
-		return HASH_SEED * 31 + toMap().hashCode();
+		int result = 0;
+		for (final Decl<?> decl : getDecls()) {
+			final Optional<? extends LitExpr<?>> value = eval(decl);
+			if (value.isPresent()) {
+				result += decl.hashCode() ^ value.get().hashCode();
+			}
+		}
+		return HASH_SEED * 31 + result;
 	}
 
 	@Override
@@ -74,7 +82,15 @@ public abstract class Valuation implements Substitution {
 			return true;
 		} else if (obj instanceof Valuation) {
 			final Valuation that = (Valuation) obj;
-			return this.toMap().equals(that.toMap());
+			if (this.getDecls().size() != that.getDecls().size()) {
+				return false;
+			}
+			for (final Decl<?> decl : this.getDecls()) {
+				if (!this.eval(decl).equals(that.eval(decl))) {
+					return false;
+				}
+			}
+			return true;
 		} else {
 			return false;
 		}
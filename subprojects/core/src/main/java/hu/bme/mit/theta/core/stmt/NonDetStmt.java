@@ -0,0 +1,93 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.stmt;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * Non-deterministic choice between sequences of statements. Executing the
+ * statement executes one of its branches.
+ */
+public final class NonDetStmt implements Stmt {
+
+	private static final int HASH_SEED = 2083;
+	private static final String STMT_LABEL = "nondet";
+	private static final String BRANCH_LABEL = "seq";
+
+	private final List<List<Stmt>> branches;
+
+	private volatile int hashCode = 0;
+
+	private NonDetStmt(final List<? extends List<? extends Stmt>> branches) {
+		checkNotNull(branches);
+		checkArgument(!branches.isEmpty(), "No branches");
+		final ImmutableList.Builder<List<Stmt>> builder = ImmutableList.builder();
+		for (final List<? extends Stmt> branch : branches) {
+			builder.add(ImmutableList.copyOf(branch));
+		}
+		this.branches = builder.build();
+	}
+
+	public static NonDetStmt of(final List<? extends List<? extends Stmt>> branches) {
+		return new NonDetStmt(branches);
+	}
+
+	public List<List<Stmt>> getBranches() {
+		return branches;
+	}
+
+	@Override
+	public <P, R> R accept(final StmtVisitor<? super P, ? extends R> visitor, final P param) {
+		return visitor.visit(this, param);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = hashCode;
+		if (result == 0) {
+			result = HASH_SEED;
+			result = 31 * result + branches.hashCode();
+			hashCode = result;
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof NonDetStmt) {
+			final NonDetStmt that = (NonDetStmt) obj;
+			return this.getBranches().equals(that.getBranches());
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(STMT_LABEL)
+				.addAll(branches.stream().map(b -> Utils.lispStringBuilder(BRANCH_LABEL).addAll(b).toString()))
+				.toString();
+	}
+}
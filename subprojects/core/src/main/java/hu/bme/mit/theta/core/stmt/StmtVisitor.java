@@ -27,4 +27,13 @@ public interface StmtVisitor<P, R> {
 
 	<DeclType extends Type> R visit(HavocStmt<DeclType> stmt, P param);
 
+	/**
+	 * Visit a non-deterministic choice. Visitors that do not support it do
+	 * not have to override this method.
+	 */
+	default R visit(final NonDetStmt stmt, final P param) {
+		throw new UnsupportedOperationException(
+				getClass().getSimpleName() + " does not support non-deterministic statements: " + stmt);
+	}
+
 }
@@ -15,6 +15,8 @@
  */
 package hu.bme.mit.theta.core.stmt;
 
+import java.util.List;
+
 import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.Type;
@@ -41,4 +43,8 @@ public final class Stmts {
 		return HavocStmt.of(varDecl);
 	}
 
+	public static NonDetStmt NonDet(final List<? extends List<? extends Stmt>> branches) {
+		return NonDetStmt.of(branches);
+	}
+
 }
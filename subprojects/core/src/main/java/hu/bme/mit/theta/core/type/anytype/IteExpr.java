@@ -31,6 +31,7 @@ import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 import hu.bme.mit.theta.core.utils.TypeUtils;
 
 public final class IteExpr<ExprType extends Type> implements Expr<ExprType> {
@@ -52,7 +53,7 @@ public final class IteExpr<ExprType extends Type> implements Expr<ExprType> {
 
 	public static <ExprType extends Type> IteExpr<ExprType> of(final Expr<BoolType> cond, final Expr<ExprType> then,
 															   final Expr<ExprType> elze) {
-		return new IteExpr<>(cond, then, elze);
+		return ExprInterner.intern(new IteExpr<>(cond, then, elze));
 	}
 
 	public static <ExprType extends Type> IteExpr<?> create(final Expr<?> cond, final Expr<?> then, final Expr<?> elze) {
@@ -147,6 +148,8 @@ public final class IteExpr<ExprType extends Type> implements Expr<ExprType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IteExpr) {
 			final IteExpr<?> that = (IteExpr<?>) obj;
 			return this.getCond().equals(that.getCond()) && this.getThen().equals(that.getThen())
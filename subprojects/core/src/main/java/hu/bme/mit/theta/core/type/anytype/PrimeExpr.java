@@ -20,6 +20,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
 import hu.bme.mit.theta.core.type.UnaryExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class PrimeExpr<ExprType extends Type> extends UnaryExpr<ExprType, ExprType> {
 
@@ -32,7 +33,7 @@ public final class PrimeExpr<ExprType extends Type> extends UnaryExpr<ExprType,
 	}
 
 	public static <ExprType extends Type> PrimeExpr<ExprType> of(final Expr<ExprType> op) {
-		return new PrimeExpr<>(op);
+		return ExprInterner.intern(new PrimeExpr<>(op));
 	}
 
 	@Override
@@ -58,6 +59,8 @@ public final class PrimeExpr<ExprType extends Type> extends UnaryExpr<ExprType,
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof PrimeExpr) {
 			final PrimeExpr<?> that = (PrimeExpr<?>) obj;
 			return this.getOp().equals(that.getOp());
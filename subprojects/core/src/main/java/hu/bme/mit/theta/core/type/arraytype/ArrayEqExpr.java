@@ -10,6 +10,7 @@ import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
 import hu.bme.mit.theta.core.type.abstracttype.EqExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class ArrayEqExpr<IndexType extends Type, ElemType extends Type>
 		extends EqExpr<ArrayType<IndexType, ElemType>> {
@@ -24,7 +25,7 @@ public final class ArrayEqExpr<IndexType extends Type, ElemType extends Type>
 
 	public static <IndexType extends Type, ElemType extends Type> ArrayEqExpr<IndexType, ElemType> of(
 			final Expr<ArrayType<IndexType, ElemType>> leftOp, final Expr<ArrayType<IndexType, ElemType>> rightOp) {
-		return new ArrayEqExpr<>(leftOp, rightOp);
+		return ExprInterner.intern(new ArrayEqExpr<>(leftOp, rightOp));
 	}
 
 	public static <IndexType extends Type, ElemType extends Type> ArrayEqExpr<?, ?> create(final Expr<?> leftOp,
@@ -71,6 +72,8 @@ public final class ArrayEqExpr<IndexType extends Type, ElemType extends Type>
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof ArrayEqExpr) {
 			final ArrayEqExpr<?, ?> that = (ArrayEqExpr<?, ?>) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
@@ -14,6 +14,7 @@ import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 import hu.bme.mit.theta.core.utils.TypeUtils;
 
 public final class ArrayLitExpr<IndexType extends Type, ElemType extends Type>
@@ -34,7 +35,7 @@ public final class ArrayLitExpr<IndexType extends Type, ElemType extends Type>
 
 	public static <IndexType extends Type, ElemType extends Type> ArrayLitExpr<IndexType, ElemType> of(
 			final ParamDecl<IndexType> index, final Expr<ElemType> elem) {
-		return new ArrayLitExpr<>(index, elem);
+		return ExprInterner.intern(new ArrayLitExpr<>(index, elem));
 	}
 
 	public ParamDecl<IndexType> getIndex() {
@@ -97,6 +98,8 @@ public final class ArrayLitExpr<IndexType extends Type, ElemType extends Type>
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof ArrayLitExpr) {
 			final ArrayLitExpr<?, ?> that = (ArrayLitExpr<?, ?>) obj;
 			return this.index.equals(that.index) && this.elem.equals(that.elem);
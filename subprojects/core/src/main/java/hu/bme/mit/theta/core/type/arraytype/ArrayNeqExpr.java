@@ -10,6 +10,7 @@ import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
 import hu.bme.mit.theta.core.type.abstracttype.NeqExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class ArrayNeqExpr<IndexType extends Type, ElemType extends Type>
 		extends NeqExpr<ArrayType<IndexType, ElemType>> {
@@ -24,7 +25,7 @@ public final class ArrayNeqExpr<IndexType extends Type, ElemType extends Type>
 
 	public static <IndexType extends Type, ElemType extends Type> ArrayNeqExpr<IndexType, ElemType> of(
 			final Expr<ArrayType<IndexType, ElemType>> leftOp, final Expr<ArrayType<IndexType, ElemType>> rightOp) {
-		return new ArrayNeqExpr<>(leftOp, rightOp);
+		return ExprInterner.intern(new ArrayNeqExpr<>(leftOp, rightOp));
 	}
 
 	public static <IndexType extends Type, ElemType extends Type> ArrayNeqExpr<?, ?> create(final Expr<?> leftOp,
@@ -51,7 +52,7 @@ public final class ArrayNeqExpr<IndexType extends Type, ElemType extends Type>
 		if (leftOp == getLeftOp() && rightOp == getRightOp()) {
 			return this;
 		} else {
-			return new ArrayNeqExpr<>(leftOp, rightOp);
+			return ArrayNeqExpr.of(leftOp, rightOp);
 		}
 	}
 
@@ -71,6 +72,8 @@ public final class ArrayNeqExpr<IndexType extends Type, ElemType extends Type>
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof ArrayNeqExpr) {
 			final ArrayNeqExpr<?, ?> that = (ArrayNeqExpr<?, ?>) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
@@ -28,6 +28,7 @@ import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 import hu.bme.mit.theta.core.utils.TypeUtils;
 
 public final class ArrayReadExpr<IndexType extends Type, ElemType extends Type> implements Expr<ElemType> {
@@ -48,7 +49,7 @@ public final class ArrayReadExpr<IndexType extends Type, ElemType extends Type>
 
 	public static <IndexType extends Type, ElemType extends Type> ArrayReadExpr<IndexType, ElemType> of(
 			final Expr<ArrayType<IndexType, ElemType>> array, final Expr<IndexType> index) {
-		return new ArrayReadExpr<>(array, index);
+		return ExprInterner.intern(new ArrayReadExpr<>(array, index));
 	}
 
 	public static <IndexType extends Type, ElemType extends Type> ArrayReadExpr<?, ?> create(final Expr<?> array,
@@ -131,6 +132,8 @@ public final class ArrayReadExpr<IndexType extends Type, ElemType extends Type>
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof ArrayReadExpr<?, ?>) {
 			final ArrayReadExpr<?, ?> that = (ArrayReadExpr<?, ?>) obj;
 			return this.getArray().equals(that.getArray()) && this.getIndex().equals(that.getIndex());
@@ -29,6 +29,7 @@ import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 import hu.bme.mit.theta.core.utils.TypeUtils;
 
 public final class ArrayWriteExpr<IndexType extends Type, ElemType extends Type>
@@ -53,7 +54,7 @@ public final class ArrayWriteExpr<IndexType extends Type, ElemType extends Type>
 
 	public static <IndexType extends Type, ElemType extends Type> ArrayWriteExpr<IndexType, ElemType> of(
 			final Expr<ArrayType<IndexType, ElemType>> array, final Expr<IndexType> index, final Expr<ElemType> elem) {
-		return new ArrayWriteExpr<>(array, index, elem);
+		return ExprInterner.intern(new ArrayWriteExpr<>(array, index, elem));
 	}
 
 	public static <IndexType extends Type, ElemType extends Type> ArrayWriteExpr<?, ?> create(final Expr<?> array,
@@ -142,6 +143,8 @@ public final class ArrayWriteExpr<IndexType extends Type, ElemType extends Type>
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof ArrayWriteExpr<?, ?>) {
 			final ArrayWriteExpr<?, ?> that = (ArrayWriteExpr<?, ?>) obj;
 			return this.getArray().equals(that.getArray()) && this.getIndex().equals(that.getIndex())
@@ -26,6 +26,7 @@ import java.util.List;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.MultiaryExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class AndExpr extends MultiaryExpr<BoolType, BoolType> {
 
@@ -37,7 +38,7 @@ public final class AndExpr extends MultiaryExpr<BoolType, BoolType> {
 	}
 
 	public static AndExpr of(final Iterable<? extends Expr<BoolType>> ops) {
-		return new AndExpr(ops);
+		return ExprInterner.intern(new AndExpr(ops));
 	}
 
 	public static AndExpr create(final List<? extends Expr<?>> ops) {
@@ -73,6 +74,8 @@ public final class AndExpr extends MultiaryExpr<BoolType, BoolType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof AndExpr) {
 			final AndExpr that = (AndExpr) obj;
 			return this.getOps().equals(that.getOps());
@@ -22,6 +22,7 @@ import hu.bme.mit.theta.core.decl.ParamDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class ExistsExpr extends QuantifiedExpr {
 
@@ -34,7 +35,7 @@ public final class ExistsExpr extends QuantifiedExpr {
 	}
 
 	public static ExistsExpr of(final Iterable<? extends ParamDecl<?>> paramDecls, final Expr<BoolType> op) {
-		return new ExistsExpr(paramDecls, op);
+		return ExprInterner.intern(new ExistsExpr(paramDecls, op));
 	}
 
 	public static ExistsExpr create(final Iterable<? extends ParamDecl<?>> paramDecls, final Expr<?> op) {
@@ -60,6 +61,8 @@ public final class ExistsExpr extends QuantifiedExpr {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof ExistsExpr) {
 			final ExistsExpr that = (ExistsExpr) obj;
 			return this.getParamDecls().equals(that.getParamDecls()) && this.getOp().equals(that.getOp());
@@ -22,6 +22,7 @@ import hu.bme.mit.theta.core.decl.ParamDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class ForallExpr extends QuantifiedExpr {
 
@@ -34,7 +35,7 @@ public final class ForallExpr extends QuantifiedExpr {
 	}
 
 	public static ForallExpr of(final Iterable<? extends ParamDecl<?>> paramDecls, final Expr<BoolType> op) {
-		return new ForallExpr(paramDecls, op);
+		return ExprInterner.intern(new ForallExpr(paramDecls, op));
 	}
 
 	public static ForallExpr create(final Iterable<? extends ParamDecl<?>> paramDecls, final Expr<?> op) {
@@ -60,6 +61,8 @@ public final class ForallExpr extends QuantifiedExpr {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof ForallExpr) {
 			final ForallExpr that = (ForallExpr) obj;
 			return this.getParamDecls().equals(that.getParamDecls()) && this.getOp().equals(that.getOp());
@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.EqExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IffExpr extends EqExpr<BoolType> {
 
@@ -33,7 +34,7 @@ public final class IffExpr extends EqExpr<BoolType> {
 	}
 
 	public static IffExpr of(final Expr<BoolType> leftOp, final Expr<BoolType> rightOp) {
-		return new IffExpr(leftOp, rightOp);
+		return ExprInterner.intern(new IffExpr(leftOp, rightOp));
 	}
 
 	public static IffExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -59,7 +60,7 @@ public final class IffExpr extends EqExpr<BoolType> {
 		if (leftOp == getLeftOp() && rightOp == getRightOp()) {
 			return this;
 		} else {
-			return new IffExpr(leftOp, rightOp);
+			return IffExpr.of(leftOp, rightOp);
 		}
 	}
 
@@ -77,6 +78,8 @@ public final class IffExpr extends EqExpr<BoolType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IffExpr) {
 			final IffExpr that = (IffExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
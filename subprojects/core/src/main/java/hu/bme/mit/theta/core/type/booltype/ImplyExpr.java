@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.BinaryExpr;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class ImplyExpr extends BinaryExpr<BoolType, BoolType> {
 
@@ -33,7 +34,7 @@ public final class ImplyExpr extends BinaryExpr<BoolType, BoolType> {
 	}
 
 	public static ImplyExpr of(final Expr<BoolType> leftOp, final Expr<BoolType> rightOp) {
-		return new ImplyExpr(leftOp, rightOp);
+		return ExprInterner.intern(new ImplyExpr(leftOp, rightOp));
 	}
 
 	public static ImplyExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -77,6 +78,8 @@ public final class ImplyExpr extends BinaryExpr<BoolType, BoolType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof ImplyExpr) {
 			final ImplyExpr that = (ImplyExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
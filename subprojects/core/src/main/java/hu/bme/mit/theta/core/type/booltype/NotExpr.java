@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.UnaryExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class NotExpr extends UnaryExpr<BoolType, BoolType> {
 
@@ -33,7 +34,7 @@ public final class NotExpr extends UnaryExpr<BoolType, BoolType> {
 	}
 
 	public static NotExpr of(final Expr<BoolType> op) {
-		return new NotExpr(op);
+		return ExprInterner.intern(new NotExpr(op));
 	}
 
 	public static NotExpr create(final Expr<?> op) {
@@ -57,7 +58,7 @@ public final class NotExpr extends UnaryExpr<BoolType, BoolType> {
 		if (op == getOp()) {
 			return this;
 		} else {
-			return new NotExpr(op);
+			return NotExpr.of(op);
 		}
 	}
 
@@ -65,6 +66,8 @@ public final class NotExpr extends UnaryExpr<BoolType, BoolType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof NotExpr) {
 			final NotExpr that = (NotExpr) obj;
 			return this.getOp().equals(that.getOp());
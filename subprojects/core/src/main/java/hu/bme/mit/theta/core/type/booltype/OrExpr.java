@@ -26,6 +26,7 @@ import java.util.List;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.MultiaryExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class OrExpr extends MultiaryExpr<BoolType, BoolType> {
 
@@ -38,7 +39,7 @@ public final class OrExpr extends MultiaryExpr<BoolType, BoolType> {
 	}
 
 	public static OrExpr of(final Iterable<? extends Expr<BoolType>> ops) {
-		return new OrExpr(ops);
+		return ExprInterner.intern(new OrExpr(ops));
 	}
 
 	public static OrExpr create(final List<? extends Expr<?>> ops) {
@@ -66,7 +67,7 @@ public final class OrExpr extends MultiaryExpr<BoolType, BoolType> {
 		if (ops == getOps()) {
 			return this;
 		} else {
-			return new OrExpr(ops);
+			return OrExpr.of(ops);
 		}
 	}
 
@@ -74,6 +75,8 @@ public final class OrExpr extends MultiaryExpr<BoolType, BoolType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof OrExpr) {
 			final OrExpr that = (OrExpr) obj;
 			return this.getOps().equals(that.getOps());
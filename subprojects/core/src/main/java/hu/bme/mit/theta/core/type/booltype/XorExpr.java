@@ -23,6 +23,7 @@ import hu.bme.mit.theta.core.type.BinaryExpr;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.abstracttype.NeqExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public class XorExpr extends NeqExpr<BoolType> {
 
@@ -35,7 +36,7 @@ public class XorExpr extends NeqExpr<BoolType> {
 	}
 
 	public static XorExpr of(final Expr<BoolType> leftOp, final Expr<BoolType> rightOp) {
-		return new XorExpr(leftOp, rightOp);
+		return ExprInterner.intern(new XorExpr(leftOp, rightOp));
 	}
 
 	public static XorExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -79,6 +80,8 @@ public class XorExpr extends NeqExpr<BoolType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof XorExpr) {
 			final XorExpr that = (XorExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
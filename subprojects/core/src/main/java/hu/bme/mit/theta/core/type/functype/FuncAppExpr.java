@@ -27,6 +27,7 @@ import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class FuncAppExpr<ParamType extends Type, ResultType extends Type> implements Expr<ResultType> {
 
@@ -44,7 +45,7 @@ public final class FuncAppExpr<ParamType extends Type, ResultType extends Type>
 
 	public static <ParamType extends Type, ResultType extends Type> FuncAppExpr<ParamType, ResultType> of(
 			final Expr<FuncType<ParamType, ResultType>> func, final Expr<ParamType> param) {
-		return new FuncAppExpr<>(func, param);
+		return ExprInterner.intern(new FuncAppExpr<>(func, param));
 	}
 
 	public static <ParamType extends Type, ResultType extends Type> FuncAppExpr<?, ?> create(final Expr<?> func,
@@ -123,6 +124,8 @@ public final class FuncAppExpr<ParamType extends Type, ResultType extends Type>
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof FuncAppExpr<?, ?>) {
 			final FuncAppExpr<?, ?> that = (FuncAppExpr<?, ?>) obj;
 			return this.getFunc().equals(that.getFunc()) && this.getParam().equals(that.getParam());
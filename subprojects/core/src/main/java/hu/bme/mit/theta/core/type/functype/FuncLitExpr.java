@@ -29,6 +29,7 @@ import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 import hu.bme.mit.theta.core.utils.TypeUtils;
 
 public final class FuncLitExpr<ParamType extends Type, ResultType extends Type>
@@ -49,7 +50,7 @@ public final class FuncLitExpr<ParamType extends Type, ResultType extends Type>
 
 	public static <ParamType extends Type, ResultType extends Type> FuncLitExpr<ParamType, ResultType> of(
 			final ParamDecl<ParamType> param, final Expr<ResultType> result) {
-		return new FuncLitExpr<>(param, result);
+		return ExprInterner.intern(new FuncLitExpr<>(param, result));
 	}
 
 	public ParamDecl<ParamType> getParam() {
@@ -112,6 +113,8 @@ public final class FuncLitExpr<ParamType extends Type, ResultType extends Type>
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof FuncLitExpr) {
 			final FuncLitExpr<?, ?> that = (FuncLitExpr<?, ?>) obj;
 			return this.getParam().equals(that.getParam()) && this.getResult().equals(that.getResult());
@@ -24,6 +24,7 @@ import java.util.List;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.AddExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IntAddExpr extends AddExpr<IntType> {
 
@@ -35,7 +36,7 @@ public final class IntAddExpr extends AddExpr<IntType> {
 	}
 
 	public static IntAddExpr of(final Iterable<? extends Expr<IntType>> ops) {
-		return new IntAddExpr(ops);
+		return ExprInterner.intern(new IntAddExpr(ops));
 	}
 
 	public static IntAddExpr create(final List<? extends Expr<?>> ops) {
@@ -70,6 +71,8 @@ public final class IntAddExpr extends AddExpr<IntType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IntAddExpr) {
 			final IntAddExpr that = (IntAddExpr) obj;
 			return this.getOps().equals(that.getOps());
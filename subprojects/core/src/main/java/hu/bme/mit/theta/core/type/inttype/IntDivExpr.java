@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.DivExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IntDivExpr extends DivExpr<IntType> {
 
@@ -33,7 +34,7 @@ public final class IntDivExpr extends DivExpr<IntType> {
 	}
 
 	public static IntDivExpr of(final Expr<IntType> leftOp, final Expr<IntType> rightOp) {
-		return new IntDivExpr(leftOp, rightOp);
+		return ExprInterner.intern(new IntDivExpr(leftOp, rightOp));
 	}
 
 	public static IntDivExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -77,6 +78,8 @@ public final class IntDivExpr extends DivExpr<IntType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IntDivExpr) {
 			final IntDivExpr that = (IntDivExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
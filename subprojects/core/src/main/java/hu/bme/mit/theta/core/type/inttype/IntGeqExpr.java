@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.GeqExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IntGeqExpr extends GeqExpr<IntType> {
 
@@ -35,7 +36,7 @@ public final class IntGeqExpr extends GeqExpr<IntType> {
 	}
 
 	public static IntGeqExpr of(final Expr<IntType> leftOp, final Expr<IntType> rightOp) {
-		return new IntGeqExpr(leftOp, rightOp);
+		return ExprInterner.intern(new IntGeqExpr(leftOp, rightOp));
 	}
 
 	public static IntGeqExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -79,6 +80,8 @@ public final class IntGeqExpr extends GeqExpr<IntType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IntGeqExpr) {
 			final IntGeqExpr that = (IntGeqExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.GtExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IntGtExpr extends GtExpr<IntType> {
 
@@ -35,7 +36,7 @@ public final class IntGtExpr extends GtExpr<IntType> {
 	}
 
 	public static IntGtExpr of(final Expr<IntType> leftOp, final Expr<IntType> rightOp) {
-		return new IntGtExpr(leftOp, rightOp);
+		return ExprInterner.intern(new IntGtExpr(leftOp, rightOp));
 	}
 
 	public static IntGtExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -79,6 +80,8 @@ public final class IntGtExpr extends GtExpr<IntType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IntGtExpr) {
 			final IntGtExpr that = (IntGtExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
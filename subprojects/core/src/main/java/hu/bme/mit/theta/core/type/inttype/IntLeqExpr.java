@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.LeqExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IntLeqExpr extends LeqExpr<IntType> {
 
@@ -35,7 +36,7 @@ public final class IntLeqExpr extends LeqExpr<IntType> {
 	}
 
 	public static IntLeqExpr of(final Expr<IntType> leftOp, final Expr<IntType> rightOp) {
-		return new IntLeqExpr(leftOp, rightOp);
+		return ExprInterner.intern(new IntLeqExpr(leftOp, rightOp));
 	}
 
 	public static IntLeqExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -79,6 +80,8 @@ public final class IntLeqExpr extends LeqExpr<IntType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IntLeqExpr) {
 			final IntLeqExpr that = (IntLeqExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
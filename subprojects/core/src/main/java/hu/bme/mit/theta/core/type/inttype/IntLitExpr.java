@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.NullaryExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.rattype.RatLitExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IntLitExpr extends NullaryExpr<IntType> implements LitExpr<IntType>, Comparable<IntLitExpr> {
 
@@ -37,7 +38,7 @@ public final class IntLitExpr extends NullaryExpr<IntType> implements LitExpr<In
 	}
 
 	public static IntLitExpr of(final int value) {
-		return new IntLitExpr(value);
+		return ExprInterner.intern(new IntLitExpr(value));
 	}
 
 	public int getValue() {
@@ -101,9 +102,9 @@ public final class IntLitExpr extends NullaryExpr<IntType> implements LitExpr<In
 			if (result != 0) {
 				result -= thatAbs;
 			}
-			return new IntLitExpr(result);
+			return IntLitExpr.of(result);
 		} else if (this.value >= 0 && that.value < 0) {
-			return new IntLitExpr(-(thisAbs % thatAbs));
+			return IntLitExpr.of(-(thisAbs % thatAbs));
 		} else if (this.value < 0 && that.value >= 0) {
 			int result = thisAbs % thatAbs;
 			if (result != 0) {
@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.abstracttype.LtExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IntLtExpr extends LtExpr<IntType> {
 
@@ -35,7 +36,7 @@ public final class IntLtExpr extends LtExpr<IntType> {
 	}
 
 	public static IntLtExpr of(final Expr<IntType> leftOp, final Expr<IntType> rightOp) {
-		return new IntLtExpr(leftOp, rightOp);
+		return ExprInterner.intern(new IntLtExpr(leftOp, rightOp));
 	}
 
 	public static IntLtExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -79,6 +80,8 @@ public final class IntLtExpr extends LtExpr<IntType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IntLtExpr) {
 			final IntLtExpr that = (IntLtExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
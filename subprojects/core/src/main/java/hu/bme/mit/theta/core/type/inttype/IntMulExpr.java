@@ -24,6 +24,7 @@ import java.util.List;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.MulExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IntMulExpr extends MulExpr<IntType> {
 
@@ -35,7 +36,7 @@ public final class IntMulExpr extends MulExpr<IntType> {
 	}
 
 	public static IntMulExpr of(final Iterable<? extends Expr<IntType>> ops) {
-		return new IntMulExpr(ops);
+		return ExprInterner.intern(new IntMulExpr(ops));
 	}
 
 	public static IntMulExpr create(final List<? extends Expr<?>> ops) {
@@ -70,6 +71,8 @@ public final class IntMulExpr extends MulExpr<IntType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IntMulExpr) {
 			final IntMulExpr that = (IntMulExpr) obj;
 			return this.getOps().equals(that.getOps());
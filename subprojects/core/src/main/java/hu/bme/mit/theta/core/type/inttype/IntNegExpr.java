@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.NegExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IntNegExpr extends NegExpr<IntType> {
 
@@ -32,7 +33,7 @@ public final class IntNegExpr extends NegExpr<IntType> {
 	}
 
 	public static IntNegExpr of(final Expr<IntType> op) {
-		return new IntNegExpr(op);
+		return ExprInterner.intern(new IntNegExpr(op));
 	}
 
 	public static IntNegExpr create(final Expr<?> op) {
@@ -64,6 +65,8 @@ public final class IntNegExpr extends NegExpr<IntType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IntNegExpr) {
 			final IntNegExpr that = (IntNegExpr) obj;
 			return this.getOp().equals(that.getOp());
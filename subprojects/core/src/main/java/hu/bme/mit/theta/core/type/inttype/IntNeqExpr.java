@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.NeqExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IntNeqExpr extends NeqExpr<IntType> {
 
@@ -35,7 +36,7 @@ public final class IntNeqExpr extends NeqExpr<IntType> {
 	}
 
 	public static IntNeqExpr of(final Expr<IntType> leftOp, final Expr<IntType> rightOp) {
-		return new IntNeqExpr(leftOp, rightOp);
+		return ExprInterner.intern(new IntNeqExpr(leftOp, rightOp));
 	}
 
 	public static IntNeqExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -79,6 +80,8 @@ public final class IntNeqExpr extends NeqExpr<IntType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IntNeqExpr) {
 			final IntNeqExpr that = (IntNeqExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
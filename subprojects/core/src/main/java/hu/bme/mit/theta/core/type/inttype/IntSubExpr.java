@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.SubExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IntSubExpr extends SubExpr<IntType> {
 
@@ -32,7 +33,7 @@ public final class IntSubExpr extends SubExpr<IntType> {
 	}
 
 	public static IntSubExpr of(final Expr<IntType> leftOp, final Expr<IntType> rightOp) {
-		return new IntSubExpr(leftOp, rightOp);
+		return ExprInterner.intern(new IntSubExpr(leftOp, rightOp));
 	}
 
 	public static IntSubExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -76,6 +77,8 @@ public final class IntSubExpr extends SubExpr<IntType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IntSubExpr) {
 			final IntSubExpr that = (IntSubExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
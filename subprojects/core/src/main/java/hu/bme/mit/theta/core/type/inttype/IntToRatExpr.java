@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.CastExpr;
 import hu.bme.mit.theta.core.type.rattype.RatLitExpr;
 import hu.bme.mit.theta.core.type.rattype.RatType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class IntToRatExpr extends CastExpr<IntType, RatType> {
 
@@ -35,7 +36,7 @@ public final class IntToRatExpr extends CastExpr<IntType, RatType> {
 	}
 
 	public static IntToRatExpr of(final Expr<IntType> op) {
-		return new IntToRatExpr(op);
+		return ExprInterner.intern(new IntToRatExpr(op));
 	}
 
 	public static IntToRatExpr create(final Expr<?> op) {
@@ -67,6 +68,8 @@ public final class IntToRatExpr extends CastExpr<IntType, RatType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof IntToRatExpr) {
 			final IntToRatExpr that = (IntToRatExpr) obj;
 			return this.getOp().equals(that.getOp());
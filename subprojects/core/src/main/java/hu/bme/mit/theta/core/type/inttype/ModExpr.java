@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.BinaryExpr;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class ModExpr extends BinaryExpr<IntType, IntType> {
 
@@ -32,7 +33,7 @@ public final class ModExpr extends BinaryExpr<IntType, IntType> {
 	}
 
 	public static ModExpr of(final Expr<IntType> leftOp, final Expr<IntType> rightOp) {
-		return new ModExpr(leftOp, rightOp);
+		return ExprInterner.intern(new ModExpr(leftOp, rightOp));
 	}
 
 	public static ModExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -76,6 +77,8 @@ public final class ModExpr extends BinaryExpr<IntType, IntType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof ModExpr) {
 			final ModExpr that = (ModExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
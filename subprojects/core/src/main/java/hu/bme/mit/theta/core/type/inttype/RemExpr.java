@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.BinaryExpr;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class RemExpr extends BinaryExpr<IntType, IntType> {
 
@@ -33,7 +34,7 @@ public final class RemExpr extends BinaryExpr<IntType, IntType> {
 	}
 
 	public static RemExpr of(final Expr<IntType> leftOp, final Expr<IntType> rightOp) {
-		return new RemExpr(leftOp, rightOp);
+		return ExprInterner.intern(new RemExpr(leftOp, rightOp));
 	}
 
 	public static RemExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -77,6 +78,8 @@ public final class RemExpr extends BinaryExpr<IntType, IntType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof RemExpr) {
 			final RemExpr that = (RemExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
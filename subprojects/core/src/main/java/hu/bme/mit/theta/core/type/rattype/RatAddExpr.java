@@ -24,6 +24,7 @@ import java.util.List;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.AddExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class RatAddExpr extends AddExpr<RatType> {
 
@@ -35,7 +36,7 @@ public final class RatAddExpr extends AddExpr<RatType> {
 	}
 
 	public static RatAddExpr of(final Iterable<? extends Expr<RatType>> ops) {
-		return new RatAddExpr(ops);
+		return ExprInterner.intern(new RatAddExpr(ops));
 	}
 
 	public static RatAddExpr create(final List<? extends Expr<?>> ops) {
@@ -76,6 +77,8 @@ public final class RatAddExpr extends AddExpr<RatType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof RatAddExpr) {
 			final RatAddExpr that = (RatAddExpr) obj;
 			return this.getOps().equals(that.getOps());
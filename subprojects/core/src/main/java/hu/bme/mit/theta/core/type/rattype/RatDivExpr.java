@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.DivExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class RatDivExpr extends DivExpr<RatType> {
 
@@ -33,7 +34,7 @@ public final class RatDivExpr extends DivExpr<RatType> {
 	}
 
 	public static RatDivExpr of(final Expr<RatType> leftOp, final Expr<RatType> rightOp) {
-		return new RatDivExpr(leftOp, rightOp);
+		return ExprInterner.intern(new RatDivExpr(leftOp, rightOp));
 	}
 
 	public static RatDivExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -77,6 +78,8 @@ public final class RatDivExpr extends DivExpr<RatType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof RatDivExpr) {
 			final RatDivExpr that = (RatDivExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.EqExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class RatEqExpr extends EqExpr<RatType> {
 
@@ -35,7 +36,7 @@ public final class RatEqExpr extends EqExpr<RatType> {
 	}
 
 	public static RatEqExpr of(final Expr<RatType> leftOp, final Expr<RatType> rightOp) {
-		return new RatEqExpr(leftOp, rightOp);
+		return ExprInterner.intern(new RatEqExpr(leftOp, rightOp));
 	}
 
 	public static RatEqExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -79,6 +80,8 @@ public final class RatEqExpr extends EqExpr<RatType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof RatEqExpr) {
 			final RatEqExpr that = (RatEqExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.GtExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class RatGtExpr extends GtExpr<RatType> {
 
@@ -35,7 +36,7 @@ public final class RatGtExpr extends GtExpr<RatType> {
 	}
 
 	public static RatGtExpr of(final Expr<RatType> leftOp, final Expr<RatType> rightOp) {
-		return new RatGtExpr(leftOp, rightOp);
+		return ExprInterner.intern(new RatGtExpr(leftOp, rightOp));
 	}
 
 	public static RatGtExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -79,6 +80,8 @@ public final class RatGtExpr extends GtExpr<RatType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof RatGtExpr) {
 			final RatGtExpr that = (RatGtExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
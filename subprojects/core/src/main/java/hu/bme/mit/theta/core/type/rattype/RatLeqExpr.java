@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.LeqExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class RatLeqExpr extends LeqExpr<RatType> {
 
@@ -35,7 +36,7 @@ public final class RatLeqExpr extends LeqExpr<RatType> {
 	}
 
 	public static RatLeqExpr of(final Expr<RatType> leftOp, final Expr<RatType> rightOp) {
-		return new RatLeqExpr(leftOp, rightOp);
+		return ExprInterner.intern(new RatLeqExpr(leftOp, rightOp));
 	}
 
 	public static RatLeqExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -79,6 +80,8 @@ public final class RatLeqExpr extends LeqExpr<RatType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof RatLeqExpr) {
 			final RatLeqExpr that = (RatLeqExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
@@ -25,6 +25,7 @@ import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.NullaryExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class RatLitExpr extends NullaryExpr<RatType> implements LitExpr<RatType>, Comparable<RatLitExpr> {
 
@@ -49,7 +50,7 @@ public final class RatLitExpr extends NullaryExpr<RatType> implements LitExpr<Ra
 	}
 
 	public static RatLitExpr of(final int num, final int denom) {
-		return new RatLitExpr(num, denom);
+		return ExprInterner.intern(new RatLitExpr(num, denom));
 	}
 
 	@Override
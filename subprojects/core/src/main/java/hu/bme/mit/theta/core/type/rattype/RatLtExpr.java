@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.LtExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class RatLtExpr extends LtExpr<RatType> {
 
@@ -35,7 +36,7 @@ public final class RatLtExpr extends LtExpr<RatType> {
 	}
 
 	public static RatLtExpr of(final Expr<RatType> leftOp, final Expr<RatType> rightOp) {
-		return new RatLtExpr(leftOp, rightOp);
+		return ExprInterner.intern(new RatLtExpr(leftOp, rightOp));
 	}
 
 	public static RatLtExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -61,7 +62,7 @@ public final class RatLtExpr extends LtExpr<RatType> {
 		if (leftOp == getLeftOp() && rightOp == getRightOp()) {
 			return this;
 		} else {
-			return new RatLtExpr(leftOp, rightOp);
+			return RatLtExpr.of(leftOp, rightOp);
 		}
 	}
 
@@ -79,6 +80,8 @@ public final class RatLtExpr extends LtExpr<RatType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof RatLtExpr) {
 			final RatLtExpr that = (RatLtExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
@@ -24,6 +24,7 @@ import java.util.List;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.MulExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class RatMulExpr extends MulExpr<RatType> {
 
@@ -35,7 +36,7 @@ public final class RatMulExpr extends MulExpr<RatType> {
 	}
 
 	public static RatMulExpr of(final Iterable<? extends Expr<RatType>> ops) {
-		return new RatMulExpr(ops);
+		return ExprInterner.intern(new RatMulExpr(ops));
 	}
 
 	public static RatMulExpr create(final List<? extends Expr<?>> ops) {
@@ -64,7 +65,7 @@ public final class RatMulExpr extends MulExpr<RatType> {
 		if (ops == getOps()) {
 			return this;
 		} else {
-			return new RatMulExpr(ops);
+			return RatMulExpr.of(ops);
 		}
 	}
 
@@ -72,6 +73,8 @@ public final class RatMulExpr extends MulExpr<RatType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof RatMulExpr) {
 			final RatMulExpr that = (RatMulExpr) obj;
 			return this.getOps().equals(that.getOps());
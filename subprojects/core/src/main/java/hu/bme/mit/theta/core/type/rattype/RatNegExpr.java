@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.NegExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class RatNegExpr extends NegExpr<RatType> {
 
@@ -32,7 +33,7 @@ public final class RatNegExpr extends NegExpr<RatType> {
 	}
 
 	public static RatNegExpr of(final Expr<RatType> op) {
-		return new RatNegExpr(op);
+		return ExprInterner.intern(new RatNegExpr(op));
 	}
 
 	public static RatNegExpr create(final Expr<?> op) {
@@ -64,6 +65,8 @@ public final class RatNegExpr extends NegExpr<RatType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof RatNegExpr) {
 			final RatNegExpr that = (RatNegExpr) obj;
 			return this.getOp().equals(that.getOp());
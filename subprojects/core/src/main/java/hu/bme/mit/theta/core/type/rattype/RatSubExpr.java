@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.abstracttype.SubExpr;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 public final class RatSubExpr extends SubExpr<RatType> {
 
@@ -32,7 +33,7 @@ public final class RatSubExpr extends SubExpr<RatType> {
 	}
 
 	public static RatSubExpr of(final Expr<RatType> leftOp, final Expr<RatType> rightOp) {
-		return new RatSubExpr(leftOp, rightOp);
+		return ExprInterner.intern(new RatSubExpr(leftOp, rightOp));
 	}
 
 	public static RatSubExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -76,6 +77,8 @@ public final class RatSubExpr extends SubExpr<RatType> {
 	public boolean equals(final Object obj) {
 		if (this == obj) {
 			return true;
+		} else if (ExprInterner.hashDiffers(this, obj)) {
+			return false;
 		} else if (obj instanceof RatSubExpr) {
 			final RatSubExpr that = (RatSubExpr) obj;
 			return this.getLeftOp().equals(that.getLeftOp()) && this.getRightOp().equals(that.getRightOp());
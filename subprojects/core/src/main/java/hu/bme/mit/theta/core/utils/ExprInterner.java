@@ -0,0 +1,77 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.utils;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import hu.bme.mit.theta.core.type.Expr;
+
+/**
+ * Hash-consing of expressions. If the JVM is started with
+ * {@code -Dtheta.intern=true}, the factories of the expressions return a
+ * canonical instance for structurally equal expressions, so equal expressions
+ * are identical and unequal ones are told apart by their cached hash codes.
+ * Canonical instances are only weakly referenced, so unused expressions can
+ * still be garbage collected. Interning is disabled by default.
+ */
+public final class ExprInterner {
+
+	private static final boolean ENABLED = Boolean.getBoolean("theta.intern");
+
+	private static final Interner<Expr<?>> INTERNER = Interners.newWeakInterner();
+
+	private ExprInterner() {
+	}
+
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * Quick inequality check for the equals methods of expressions. If
+	 * interning is enabled, expressions are mostly compared to unequal ones
+	 * (equal ones are identical), which can be told apart by their cached
+	 * hash codes without comparing their operands.
+	 *
+	 * @param expr Expression whose equals method is called
+	 * @param obj  Object compared to the expression
+	 * @return True if interning is enabled and the object is surely not equal
+	 * to the expression
+	 */
+	public static boolean hashDiffers(final Expr<?> expr, final Object obj) {
+		return ENABLED && obj != null && expr.hashCode() != obj.hashCode();
+	}
+
+	/**
+	 * Get the canonical instance of a newly created expression. Its operands
+	 * are expected to be canonical already, which holds if they were created
+	 * by the factories.
+	 *
+	 * @param expr Newly created expression
+	 * @return Canonical instance, or the expression itself if interning is
+	 * disabled
+	 */
+	public static <E extends Expr<?>> E intern(final E expr) {
+		if (!ENABLED) {
+			return expr;
+		}
+		// Equal expressions have the same class and type, so the cast is safe
+		@SuppressWarnings("unchecked") final E canonical = (E) INTERNER.intern(expr);
+		return canonical;
+	}
+
+}
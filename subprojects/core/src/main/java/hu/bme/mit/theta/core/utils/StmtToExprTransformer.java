@@ -17,6 +17,8 @@ package hu.bme.mit.theta.core.utils;
 
 import static hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Eq;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.Or;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -28,6 +30,7 @@ import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
 import hu.bme.mit.theta.core.stmt.SkipStmt;
 import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.stmt.StmtVisitor;
@@ -98,6 +101,33 @@ final class StmtToExprTransformer {
 			return StmtUnfoldResult.of(ImmutableList.of(expr), newIndexing);
 		}
 
+		@Override
+		public StmtUnfoldResult visit(final NonDetStmt stmt, final VarIndexing indexing) {
+			final List<StmtUnfoldResult> branchResults = new ArrayList<>(stmt.getBranches().size());
+			VarIndexing joinedIndexing = indexing;
+			for (final List<Stmt> branch : stmt.getBranches()) {
+				final StmtUnfoldResult branchResult = toExpr(branch, indexing);
+				branchResults.add(branchResult);
+				joinedIndexing = joinedIndexing.join(branchResult.indexing);
+			}
+
+			// Variables modified fewer times in a branch keep their last value
+			final Collection<VarDecl<?>> varDecls = StmtUtils.getVars(stmt);
+			final List<Expr<BoolType>> branchExprs = new ArrayList<>(branchResults.size());
+			for (final StmtUnfoldResult branchResult : branchResults) {
+				final List<Expr<BoolType>> exprs = new ArrayList<>(branchResult.exprs);
+				for (final VarDecl<?> varDecl : varDecls) {
+					if (branchResult.indexing.get(varDecl) < joinedIndexing.get(varDecl)) {
+						final Expr<?> last = ExprUtils.applyPrimes(varDecl.getRef(), branchResult.indexing);
+						final Expr<?> joined = ExprUtils.applyPrimes(varDecl.getRef(), joinedIndexing);
+						exprs.add(Eq(joined, last));
+					}
+				}
+				branchExprs.add(And(exprs));
+			}
+			return StmtUnfoldResult.of(ImmutableList.of(Or(branchExprs)), joinedIndexing);
+		}
+
 	}
 
 }
@@ -16,12 +16,15 @@
 package hu.bme.mit.theta.core.utils;
 
 import java.util.Collection;
+import java.util.List;
 
 import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
 import hu.bme.mit.theta.core.stmt.SkipStmt;
+import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.stmt.StmtVisitor;
 import hu.bme.mit.theta.core.type.Type;
 
@@ -62,4 +65,14 @@ final class VarCollectorStmtVisitor implements StmtVisitor<Collection<VarDecl<?>
 		return null;
 	}
 
+	@Override
+	public Void visit(final NonDetStmt stmt, final Collection<VarDecl<?>> vars) {
+		for (final List<Stmt> branch : stmt.getBranches()) {
+			for (final Stmt subStmt : branch) {
+				subStmt.accept(this, vars);
+			}
+		}
+		return null;
+	}
+
 }
@@ -18,32 +18,44 @@ package hu.bme.mit.theta.core.utils;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.StringJoiner;
-
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Sets;
+import java.util.function.IntBinaryOperator;
 
 import hu.bme.mit.theta.core.decl.VarDecl;
 
 /**
  * Represents an immutable mapping, where each variable is associated with an
  * index. The inner builder class can also be used to create a new instance.
+ *
+ * The offsets of the variables from the default index are stored in an array,
+ * indexed by the id of the variable (relative to the smallest id). If the ids
+ * are too scattered, the offsets are stored in a map instead.
  */
 public class VarIndexing {
+	// Offsets are stored in a map if the ids of the variables are too scattered
+	private static final int MAX_SPARSITY = 4;
 
 	private static final VarIndexing ALL_ZERO = new Builder(0).build();
 	private static final VarIndexing ALL_ONE = new Builder(1).build();
 
 	private final int defaultIndex;
-	private final Map<VarDecl<?>, Integer> varToOffset;
+	private final int baseId;
+	private final int[] offsets;
+	private final VarDecl<?>[] varDecls;
+	private final Map<VarDecl<?>, Integer> sparseOffsets;
 
 	private VarIndexing(final Builder builder) {
 		defaultIndex = builder.defaultIndex;
-		varToOffset = ImmutableMap.copyOf(builder.varToOffset);
+		baseId = builder.baseId;
+		final int length = builder.length();
+		offsets = Arrays.copyOf(builder.offsets, length);
+		varDecls = Arrays.copyOf(builder.varDecls, length);
+		sparseOffsets = builder.sparseOffsets == null ? null : new HashMap<>(builder.sparseOffsets);
 	}
 
 	/**
@@ -147,15 +159,25 @@ public class VarIndexing {
 	 */
 	public int get(final VarDecl<?> varDecl) {
 		checkNotNull(varDecl);
-		final Integer offset = varToOffset.getOrDefault(varDecl, 0);
-		return defaultIndex + offset;
+		if (sparseOffsets != null) {
+			return defaultIndex + sparseOffsets.getOrDefault(varDecl, 0);
+		}
+		final int i = varDecl.getId() - baseId;
+		if (i >= 0 && i < offsets.length) {
+			return defaultIndex + offsets[i];
+		}
+		return defaultIndex;
 	}
 
 	@Override
 	public String toString() {
 		final StringJoiner sj = new StringJoiner(", ", "IndexMap(", ")");
 		sj.add(Integer.toString(defaultIndex));
-		for (final VarDecl<?> varDecl : varToOffset.keySet()) {
+		final Iterable<VarDecl<?>> vars = sparseOffsets != null ? sparseOffsets.keySet() : Arrays.asList(varDecls);
+		for (final VarDecl<?> varDecl : vars) {
+			if (varDecl == null) {
+				continue;
+			}
 			final StringBuilder sb = new StringBuilder();
 			sb.append(varDecl.getName());
 			sb.append(" -> ");
@@ -169,27 +191,39 @@ public class VarIndexing {
 
 	public static final class Builder {
 		private int defaultIndex;
-		private Map<VarDecl<?>, Integer> varToOffset;
+		private int baseId;
+		private int[] offsets;
+		private VarDecl<?>[] varDecls;
+		private int varCount;
+		// Null while the offsets fit in the arrays
+		private Map<VarDecl<?>, Integer> sparseOffsets;
 
 		private Builder(final int defaultIndex) {
 			checkArgument(defaultIndex >= 0, "Negative default index");
 			this.defaultIndex = defaultIndex;
-			varToOffset = new HashMap<>();
+			this.baseId = 0;
+			this.offsets = new int[0];
+			this.varDecls = new VarDecl<?>[0];
+			this.varCount = 0;
+			this.sparseOffsets = null;
 		}
 
 		private Builder(final VarIndexing indexing) {
 			this.defaultIndex = indexing.defaultIndex;
-			this.varToOffset = new HashMap<>(indexing.varToOffset);
+			this.baseId = indexing.baseId;
+			this.offsets = indexing.offsets.clone();
+			this.varDecls = indexing.varDecls.clone();
+			this.varCount = (int) Arrays.stream(varDecls).filter(v -> v != null).count();
+			this.sparseOffsets = indexing.sparseOffsets == null ? null : new HashMap<>(indexing.sparseOffsets);
 		}
 
 		public Builder inc(final VarDecl<?> varDecl, final int n) {
 			checkNotNull(varDecl);
 
 			if (n != 0) {
-				final Integer offset = varToOffset.getOrDefault(varDecl, 0);
-				final Integer newOffset = offset + n;
+				final int newOffset = offset(varDecl) + n;
 				checkArgument(defaultIndex + newOffset >= 0, "Negative index for variable");
-				varToOffset.put(varDecl, newOffset);
+				put(varDecl, newOffset);
 			}
 
 			return this;
@@ -206,81 +240,162 @@ public class VarIndexing {
 
 		public Builder add(final Builder that) {
 			checkNotNull(that);
-
-			final int newDefaultIndex = this.defaultIndex + that.defaultIndex;
-			final Map<VarDecl<?>, Integer> newVarToOffset = new HashMap<>();
-
-			final Set<VarDecl<?>> varDecls = Sets.union(this.varToOffset.keySet(), that.varToOffset.keySet());
-			for (final VarDecl<?> varDecl : varDecls) {
-				final int index1 = this.get(varDecl);
-				final int index2 = that.get(varDecl);
-				final int newIndex = index1 + index2;
-				checkArgument(newIndex >= 0, "Negative index for variable");
-				final int newOffset = newIndex - newDefaultIndex;
-				if (newOffset != 0) {
-					newVarToOffset.put(varDecl, newOffset);
-				}
-			}
-
-			this.defaultIndex = newDefaultIndex;
-			this.varToOffset = newVarToOffset;
-			return this;
+			return combine(that, this.defaultIndex + that.defaultIndex, (index1, index2) -> index1 + index2);
 		}
 
 		public Builder sub(final Builder that) {
 			checkNotNull(that);
-
 			final int newDefaultIndex = this.defaultIndex - that.defaultIndex;
 			checkArgument(newDefaultIndex >= 0, "Negative default index");
-			final Map<VarDecl<?>, Integer> newVarToOffset = new HashMap<>();
-
-			final Set<VarDecl<?>> varDecls = Sets.union(this.varToOffset.keySet(), that.varToOffset.keySet());
-			for (final VarDecl<?> varDecl : varDecls) {
-				final int index1 = this.get(varDecl);
-				final int index2 = that.get(varDecl);
-				final int newIndex = index1 - index2;
-				checkArgument(newIndex >= 0, "Negative index for variable");
-				final int newOffset = newIndex - newDefaultIndex;
-				if (newOffset != 0) {
-					newVarToOffset.put(varDecl, newOffset);
-				}
-			}
+			return combine(that, newDefaultIndex, (index1, index2) -> index1 - index2);
+		}
+
+		public Builder join(final Builder that) {
+			checkNotNull(that);
+			return combine(that, max(this.defaultIndex, that.defaultIndex), Math::max);
+		}
+
+		public int get(final VarDecl<?> varDecl) {
+			checkNotNull(varDecl);
+			return defaultIndex + offset(varDecl);
+		}
+
+		public VarIndexing build() {
+			return new VarIndexing(this);
+		}
+
+		////
+
+		private Builder combine(final Builder that, final int newDefaultIndex, final IntBinaryOperator operator) {
+			final Builder result = new Builder(newDefaultIndex);
+			combineVars(this, that, result, operator);
+			combineVars(that, that, result, operator);
 
 			this.defaultIndex = newDefaultIndex;
-			this.varToOffset = newVarToOffset;
+			this.baseId = result.baseId;
+			this.offsets = result.offsets;
+			this.varDecls = result.varDecls;
+			this.varCount = result.varCount;
+			this.sparseOffsets = result.sparseOffsets;
 			return this;
 		}
 
-		public Builder join(final Builder that) {
-			checkNotNull(that);
+		private void combineVars(final Builder vars, final Builder that, final Builder result,
+								 final IntBinaryOperator operator) {
+			if (vars.sparseOffsets != null) {
+				for (final VarDecl<?> varDecl : vars.sparseOffsets.keySet()) {
+					combineVar(varDecl, that, result, operator);
+				}
+			} else {
+				for (final VarDecl<?> varDecl : vars.varDecls) {
+					if (varDecl != null) {
+						combineVar(varDecl, that, result, operator);
+					}
+				}
+			}
+		}
 
-			final int newDefaultIndex = max(this.defaultIndex, that.defaultIndex);
-			final Map<VarDecl<?>, Integer> newVarToOffset = new HashMap<>();
-
-			final Set<VarDecl<?>> varDecls = Sets.union(this.varToOffset.keySet(), that.varToOffset.keySet());
-			for (final VarDecl<?> varDecl : varDecls) {
-				final int index1 = this.get(varDecl);
-				final int index2 = that.get(varDecl);
-				final int newIndex = max(index1, index2);
-				final int newOffset = newIndex - newDefaultIndex;
-				if (newOffset != 0) {
-					newVarToOffset.put(varDecl, newOffset);
+		private void combineVar(final VarDecl<?> varDecl, final Builder that, final Builder result,
+								final IntBinaryOperator operator) {
+			if (result.contains(varDecl)) {
+				return;
+			}
+			final int index1 = this.get(varDecl);
+			final int index2 = that.get(varDecl);
+			final int newIndex = operator.applyAsInt(index1, index2);
+			checkArgument(newIndex >= 0, "Negative index for variable");
+			final int newOffset = newIndex - result.defaultIndex;
+			if (newOffset != 0) {
+				result.put(varDecl, newOffset);
+			}
+		}
+
+		private boolean contains(final VarDecl<?> varDecl) {
+			if (sparseOffsets != null) {
+				return sparseOffsets.containsKey(varDecl);
+			}
+			final int i = varDecl.getId() - baseId;
+			return i >= 0 && i < varDecls.length && varDecls[i] != null;
+		}
+
+		private int offset(final VarDecl<?> varDecl) {
+			if (sparseOffsets != null) {
+				return sparseOffsets.getOrDefault(varDecl, 0);
+			}
+			final int i = varDecl.getId() - baseId;
+			if (i >= 0 && i < offsets.length) {
+				return offsets[i];
+			}
+			return 0;
+		}
+
+		private void put(final VarDecl<?> varDecl, final int offset) {
+			if (sparseOffsets == null) {
+				final int i = slot(varDecl);
+				if (i >= 0) {
+					if (varDecls[i] == null) {
+						++varCount;
+					}
+					offsets[i] = offset;
+					varDecls[i] = varDecl;
+					return;
 				}
 			}
+			sparseOffsets.put(varDecl, offset);
+		}
 
-			this.defaultIndex = newDefaultIndex;
-			this.varToOffset = newVarToOffset;
-			return this;
+		// Length of the used part of the arrays
+		private int length() {
+			int length = varDecls.length;
+			while (length > 0 && varDecls[length - 1] == null) {
+				--length;
+			}
+			return length;
 		}
 
-		public int get(final VarDecl<?> varDecl) {
-			checkNotNull(varDecl);
-			final Integer offset = varToOffset.getOrDefault(varDecl, 0);
-			return defaultIndex + offset;
+		// Get the position of a variable in the arrays, extending them if needed,
+		// or switch to the map and return -1 if the ids would be too scattered
+		private int slot(final VarDecl<?> varDecl) {
+			final int id = varDecl.getId();
+			if (varCount > 0 && (id < baseId || id - baseId >= varDecls.length)) {
+				final int span = max(baseId + length(), id + 1) - min(baseId, id);
+				if (span > MAX_SPARSITY * (varCount + 1)) {
+					toSparse();
+					return -1;
+				}
+			}
+			if (varDecls.length == 0) {
+				baseId = id;
+				offsets = new int[1];
+				varDecls = new VarDecl<?>[1];
+			} else if (id < baseId) {
+				final int shift = baseId - id;
+				final int[] newOffsets = new int[offsets.length + shift];
+				final VarDecl<?>[] newVarDecls = new VarDecl<?>[varDecls.length + shift];
+				System.arraycopy(offsets, 0, newOffsets, shift, offsets.length);
+				System.arraycopy(varDecls, 0, newVarDecls, shift, varDecls.length);
+				baseId = id;
+				offsets = newOffsets;
+				varDecls = newVarDecls;
+			} else if (id - baseId >= varDecls.length) {
+				final int newLength = max(id - baseId + 1, 2 * varDecls.length);
+				offsets = Arrays.copyOf(offsets, newLength);
+				varDecls = Arrays.copyOf(varDecls, newLength);
+			}
+			return id - baseId;
 		}
 
-		public VarIndexing build() {
-			return new VarIndexing(this);
+		private void toSparse() {
+			sparseOffsets = new HashMap<>();
+			for (int i = 0; i < varDecls.length; ++i) {
+				if (varDecls[i] != null) {
+					sparseOffsets.put(varDecls[i], offsets[i]);
+				}
+			}
+			baseId = 0;
+			offsets = new int[0];
+			varDecls = new VarDecl<?>[0];
+			varCount = 0;
 		}
 
 	}
@@ -20,6 +20,14 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static hu.bme.mit.theta.core.decl.Decls.Const;
 import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.And;
 import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.Imply;
+import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.Or;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import com.google.common.collect.Lists;
 
 import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.core.decl.VarDecl;
@@ -28,6 +36,7 @@ import hu.bme.mit.theta.core.model.Substitution;
 import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
 import hu.bme.mit.theta.core.stmt.SkipStmt;
 import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.stmt.StmtVisitor;
@@ -77,6 +86,26 @@ public final class WpState {
 		return stmt.accept(WepVisitor.getInstance(), this);
 	}
 
+	/**
+	 * Apply a visitor to each branch of a non-deterministic statement
+	 * (backwards) and combine the results.
+	 */
+	private static WpState visitBranches(final NonDetStmt stmt, final WpState state,
+										 final StmtVisitor<WpState, WpState> visitor,
+										 final Function<Collection<Expr<BoolType>>, Expr<BoolType>> combiner) {
+		final List<Expr<BoolType>> exprs = new ArrayList<>(stmt.getBranches().size());
+		int constCount = state.constCount;
+		for (final List<Stmt> branch : stmt.getBranches()) {
+			WpState running = new WpState(state.getExpr(), constCount);
+			for (final Stmt subStmt : Lists.reverse(branch)) {
+				running = subStmt.accept(visitor, running);
+			}
+			exprs.add(running.getExpr());
+			constCount = running.constCount;
+		}
+		return new WpState(combiner.apply(exprs), constCount);
+	}
+
 	@Override
 	public int hashCode() {
 		int result = hashCode;
@@ -151,6 +180,11 @@ public final class WpState {
 			final int constCount = state.constCount;
 			return new WpState(expr, constCount);
 		}
+
+		@Override
+		public WpState visit(final NonDetStmt stmt, final WpState state) {
+			return visitBranches(stmt, state, this, exprs -> And(exprs));
+		}
 	}
 
 	private static final class WepVisitor implements StmtVisitor<WpState, WpState> {
@@ -187,5 +221,10 @@ public final class WpState {
 			final int constCount = state.constCount;
 			return new WpState(expr, constCount);
 		}
+
+		@Override
+		public WpState visit(final NonDetStmt stmt, final WpState state) {
+			return visitBranches(stmt, state, this, exprs -> Or(exprs));
+		}
 	}
 }
@@ -16,6 +16,7 @@
 package hu.bme.mit.theta.core.model;
 
 import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.decl.Decls.Var;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
@@ -25,12 +26,15 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.type.inttype.IntType;
 
 public class ValuationTest {
 	private final ConstDecl<IntType> ca = Const("a", Int());
 	private final ConstDecl<IntType> cb = Const("b", Int());
 	private final ConstDecl<IntType> cc = Const("c", Int());
+	private final VarDecl<IntType> vx = Var("x", Int());
+	private final VarDecl<IntType> vy = Var("y", Int());
 
 	@Test
 	public void testNullary() {
@@ -107,4 +111,23 @@ public class ValuationTest {
 		Assert.assertFalse(v1.equals(v4));
 
 	}
+
+	@Test
+	public void testVars() {
+		final Valuation v1 = ImmutableValuation.builder().put(vy, Int(2)).put(ca, Int(1)).put(vx, Int(3)).build();
+		final MutableValuation v2 = new MutableValuation().put(vx, Int(3)).put(ca, Int(1)).put(vy, Int(2));
+
+		Assert.assertEquals(Int(3), v1.eval(vx).get());
+		Assert.assertEquals(Int(2), v1.eval(vy).get());
+		Assert.assertFalse(v1.eval(cb).isPresent());
+		Assert.assertFalse(v1.eval(Var("z", Int())).isPresent());
+		Assert.assertEquals(v1, v2);
+		Assert.assertEquals(v1.hashCode(), v2.hashCode());
+		Assert.assertEquals(v1.toMap(), v2.toMap());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMultipleValues() {
+		ImmutableValuation.builder().put(vx, Int(1)).put(vx, Int(2)).build();
+	}
 }
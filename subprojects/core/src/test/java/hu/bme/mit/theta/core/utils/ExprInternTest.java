@@ -0,0 +1,66 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.utils;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class ExprInternTest {
+
+	private final VarDecl<IntType> vx = Var("x", Int());
+	private final VarDecl<IntType> vy = Var("y", Int());
+
+	@Test
+	public void testEquals() {
+		final Expr<BoolType> expr1 = And(Lt(vx.getRef(), Int(5)), Not(Eq(Add(vx.getRef(), vy.getRef()), Int(5))));
+		final Expr<BoolType> expr2 = And(Lt(vx.getRef(), Int(5)), Not(Eq(Add(vx.getRef(), vy.getRef()), Int(5))));
+		final Expr<BoolType> expr3 = And(Lt(vx.getRef(), Int(5)), Not(Eq(Add(vx.getRef(), vy.getRef()), Int(6))));
+
+		Assert.assertEquals(expr1, expr2);
+		Assert.assertEquals(expr1.hashCode(), expr2.hashCode());
+		Assert.assertNotEquals(expr1, expr3);
+		Assert.assertNotEquals(expr1, null);
+	}
+
+	@Test
+	public void testIntern() {
+		Assume.assumeTrue(ExprInterner.isEnabled());
+
+		final Expr<BoolType> expr1 = And(Lt(vx.getRef(), Int(5)), Not(Eq(Add(vx.getRef(), vy.getRef()), Int(5))));
+		final Expr<BoolType> expr2 = And(Lt(vx.getRef(), Int(5)), Not(Eq(Add(vx.getRef(), vy.getRef()), Int(5))));
+		Assert.assertSame(expr1, expr2);
+		Assert.assertSame(expr1.getOps().get(0).getOps().get(1), Int(5));
+
+		final Expr<BoolType> expr = Lt(vx.getRef(), vy.getRef());
+		Assert.assertSame(PathUtils.unfold(expr, 1), PathUtils.unfold(expr, 1));
+		Assert.assertNotSame(PathUtils.unfold(expr, 1), PathUtils.unfold(expr, 2));
+	}
+
+}
@@ -120,4 +120,50 @@ public class VarIndexingTest {
 		indexes1.sub(indexes2);
 	}
 
+	@Test
+	public void testAdd() {
+		final VarDecl<?> w = Var("w", Int());
+		final VarIndexing indexes1 = VarIndexing.builder(0).inc(w).inc(y).build();
+		final VarIndexing indexes2 = VarIndexing.builder(1).inc(x).inc(w, 2).build();
+		final VarIndexing sum = indexes1.add(indexes2);
+		assertEquals(2, sum.get(x));
+		assertEquals(2, sum.get(y));
+		assertEquals(1, sum.get(z));
+		assertEquals(4, sum.get(w));
+		assertEquals(1, indexes1.get(w));
+		assertEquals(3, indexes2.get(w));
+	}
+
+	@Test
+	public void testLargeIndex() {
+		final VarIndexing indexes = VarIndexing.all(Integer.MAX_VALUE / 2).sub(VarIndexing.builder(0).inc(x).build());
+		assertEquals(Integer.MAX_VALUE / 2 - 1, indexes.get(x));
+		assertEquals(Integer.MAX_VALUE / 2, indexes.get(y));
+		assertEquals(indexes.get(x), x.getConstDecl(indexes.get(x)).getIndex());
+	}
+
+	@Test
+	public void testScatteredIds() {
+		for (int i = 0; i < 100; ++i) {
+			Var("tmp" + i, Int());
+		}
+		final VarDecl<?> w = Var("w", Int());
+		final VarIndexing indexes1 = VarIndexing.builder(0).inc(x).inc(w, 2).build();
+		final VarIndexing indexes2 = VarIndexing.builder(1).inc(y).inc(w).build();
+		final VarIndexing sum = indexes1.add(indexes2);
+		final VarIndexing joined = indexes1.join(indexes2);
+
+		assertEquals(1, indexes1.get(x));
+		assertEquals(0, indexes1.get(y));
+		assertEquals(2, indexes1.get(w));
+		assertEquals(2, sum.get(x));
+		assertEquals(2, sum.get(y));
+		assertEquals(1, sum.get(z));
+		assertEquals(4, sum.get(w));
+		assertEquals(1, joined.get(x));
+		assertEquals(2, joined.get(y));
+		assertEquals(2, joined.get(w));
+		assertEquals(3, indexes1.inc(w).get(w));
+	}
+
 }
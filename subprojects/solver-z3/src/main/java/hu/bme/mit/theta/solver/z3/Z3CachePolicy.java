@@ -0,0 +1,128 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.z3;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * Caching policy for translating expressions to Z3 terms.
+ */
+public final class Z3CachePolicy {
+
+	private static final long DEFAULT_SIZE = 1000;
+	private static final long UNBOUNDED = -1;
+
+	private final long maximumSize;
+	private final boolean weakKeys;
+	private final boolean shared;
+
+	private Z3CachePolicy(final long maximumSize, final boolean weakKeys, final boolean shared) {
+		checkArgument(maximumSize >= 0 || maximumSize == UNBOUNDED, "Invalid cache size");
+		this.maximumSize = maximumSize;
+		this.weakKeys = weakKeys;
+		this.shared = shared;
+	}
+
+	/**
+	 * Bounded cache of 1000 entries per solver.
+	 */
+	public static Z3CachePolicy getDefault() {
+		return builder().build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public boolean isBounded() {
+		return maximumSize != UNBOUNDED;
+	}
+
+	public long getMaximumSize() {
+		return maximumSize;
+	}
+
+	public boolean hasWeakKeys() {
+		return weakKeys;
+	}
+
+	public boolean isShared() {
+		return shared;
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName())
+				.add("size = " + (isBounded() ? Long.toString(maximumSize) : "unbounded"))
+				.add("weakKeys = " + weakKeys).add("shared = " + shared).toString();
+	}
+
+	public static final class Builder {
+		private long maximumSize;
+		private boolean weakKeys;
+		private boolean shared;
+
+		private Builder() {
+			this.maximumSize = DEFAULT_SIZE;
+			this.weakKeys = false;
+			this.shared = false;
+		}
+
+		/**
+		 * Maximal number of cached terms, after which the least recently used
+		 * ones are evicted.
+		 */
+		public Builder maximumSize(final long maximumSize) {
+			checkArgument(maximumSize >= 0, "Cache size must be non-negative");
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * Do not limit the number of cached terms.
+		 */
+		public Builder unbounded() {
+			this.maximumSize = UNBOUNDED;
+			return this;
+		}
+
+		/**
+		 * Reference expressions weakly, so that terms are evicted once their
+		 * expression is garbage collected. Note that weak keys are compared by
+		 * identity, so this is only effective with interned expressions.
+		 */
+		public Builder weakKeys(final boolean weakKeys) {
+			this.weakKeys = weakKeys;
+			return this;
+		}
+
+		/**
+		 * Share a single context and cache among the solvers of a factory.
+		 * Solvers sharing a context must not be used concurrently.
+		 */
+		public Builder shared(final boolean shared) {
+			this.shared = shared;
+			return this;
+		}
+
+		public Z3CachePolicy build() {
+			return new Z3CachePolicy(maximumSize, weakKeys, shared);
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.z3;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * Statistics of the expression to term caches of the solvers created by a
+ * factory.
+ */
+public final class Z3CacheStats {
+
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LongAdder evictions;
+
+	Z3CacheStats() {
+		hits = new LongAdder();
+		misses = new LongAdder();
+		evictions = new LongAdder();
+	}
+
+	/**
+	 * Sum the statistics of multiple factories (e.g., of the configurations
+	 * of a portfolio) into a snapshot.
+	 */
+	public static Z3CacheStats sum(final Iterable<Z3CacheStats> stats) {
+		final Z3CacheStats result = new Z3CacheStats();
+		for (final Z3CacheStats s : stats) {
+			result.hits.add(s.getHitCount());
+			result.misses.add(s.getMissCount());
+			result.evictions.add(s.getEvictionCount());
+		}
+		return result;
+	}
+
+	void recordHit() {
+		hits.increment();
+	}
+
+	void recordMiss() {
+		misses.increment();
+	}
+
+	void recordEviction() {
+		evictions.increment();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	public double getHitRate() {
+		final long hitCount = getHitCount();
+		final long requestCount = hitCount + getMissCount();
+		return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add("hits = " + getHitCount())
+				.add("misses = " + getMissCount()).add("evictions = " + getEvictionCount()).toString();
+	}
+
+}
@@ -16,7 +16,6 @@
 package hu.bme.mit.theta.solver.z3;
 
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -80,21 +79,33 @@ import hu.bme.mit.theta.core.type.rattype.RatSubExpr;
 
 final class Z3ExprTransformer {
 
-	private static final int CACHE_SIZE = 1000;
-
 	private final Z3TransformationManager transformer;
 	private final Context context;
 
-	private final Cache<Expr<?>, com.microsoft.z3.Expr> exprToTerm;
+	private final Cache<Expr<?>, com.microsoft.z3.Expr<?>> exprToTerm;
+	private final Z3CacheStats stats;
 	private final DispatchTable<com.microsoft.z3.Expr> table;
 	private final Env env;
 
-	public Z3ExprTransformer(final Z3TransformationManager transformer, final Context context) {
+	public Z3ExprTransformer(final Z3TransformationManager transformer, final Context context,
+							 final Z3CachePolicy cachePolicy, final Z3CacheStats stats) {
 		this.context = context;
 		this.transformer = transformer;
 		this.env = new Env();
+		this.stats = stats;
 
-		exprToTerm = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+		final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+		if (cachePolicy.isBounded()) {
+			cacheBuilder.maximumSize(cachePolicy.getMaximumSize());
+		}
+		if (cachePolicy.hasWeakKeys()) {
+			cacheBuilder.weakKeys();
+		}
+		exprToTerm = cacheBuilder.<Expr<?>, com.microsoft.z3.Expr<?>>removalListener(n -> {
+			if (n.wasEvicted()) {
+				stats.recordEviction();
+			}
+		}).build();
 
 		table = DispatchTable.<com.microsoft.z3.Expr>builder()
 
@@ -202,10 +213,15 @@ final class Z3ExprTransformer {
 	}
 
 	public com.microsoft.z3.Expr toTerm(final Expr<?> expr) {
-		try {
-			return exprToTerm.get(expr, () -> table.dispatch(expr));
-		} catch (final ExecutionException e) {
-			throw new AssertionError();
+		final com.microsoft.z3.Expr<?> cachedTerm = exprToTerm.getIfPresent(expr);
+		if (cachedTerm != null) {
+			stats.recordHit();
+			return cachedTerm;
+		} else {
+			stats.recordMiss();
+			final com.microsoft.z3.Expr<?> term = table.dispatch(expr);
+			exprToTerm.put(expr, term);
+			return term;
 		}
 	}
 
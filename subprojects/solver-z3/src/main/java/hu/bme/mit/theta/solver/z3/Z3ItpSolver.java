@@ -51,13 +51,13 @@ final class Z3ItpSolver implements ItpSolver {
 
 	public Z3ItpSolver(final Z3SymbolTable symbolTable, final Z3TransformationManager transformationManager,
 					   final Z3TermTransformer termTransformer, final com.microsoft.z3.InterpolationContext z3Context,
-					   final com.microsoft.z3.Solver z3Solver) {
+					   final com.microsoft.z3.Solver z3Solver, final Thread owner) {
 		this.transformationManager = transformationManager;
 		this.termTransformer = termTransformer;
 		this.z3Context = z3Context;
 		this.z3Solver = z3Solver;
 
-		solver = new Z3Solver(symbolTable, transformationManager, termTransformer, z3Context, z3Solver);
+		solver = new Z3Solver(symbolTable, transformationManager, termTransformer, z3Context, z3Solver, owner);
 
 		markers = new StackImpl<>();
 	}
@@ -80,6 +80,7 @@ final class Z3ItpSolver implements ItpSolver {
 		checkNotNull(marker);
 		checkNotNull(assertion);
 		checkArgument(markers.toCollection().contains(marker));
+		solver.checkThread();
 		final Z3ItpMarker z3Marker = (Z3ItpMarker) marker;
 		final com.microsoft.z3.BoolExpr term = (com.microsoft.z3.BoolExpr) transformationManager.toTerm(assertion);
 		solver.add(assertion, term);
@@ -89,6 +90,8 @@ final class Z3ItpSolver implements ItpSolver {
 	@Override
 	public Interpolant getInterpolant(final ItpPattern pattern) {
 		checkState(solver.getStatus() == SolverStatus.UNSAT, "Cannot get interpolant if status is not UNSAT.");
+		checkState(!solver.isCheckedWithAssumptions(), "Cannot get interpolant if checked with assumptions.");
+		solver.checkThread();
 
 		final com.microsoft.z3.Expr proof = z3Solver.getProof();
 		final com.microsoft.z3.Expr term = patternToTerm(pattern);
@@ -160,6 +163,11 @@ final class Z3ItpSolver implements ItpSolver {
 		return solver.check();
 	}
 
+	@Override
+	public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+		return solver.check(assumptions);
+	}
+
 	@Override
 	public void push() {
 		markers.push();
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -53,9 +54,14 @@ final class Z3Solver implements Solver {
 
 	private final com.microsoft.z3.Context z3Context;
 	private final com.microsoft.z3.Solver z3Solver;
+	// Thread the solver is confined to if its context is shared, null otherwise
+	private final Thread owner;
 
 	private final Stack<Expr<BoolType>> assertions;
 	private final Map<String, Expr<BoolType>> assumptions;
+	// Labels and proxy literals introduced at each push level, dropped when
+	// the level is popped
+	private final List<Level> levels;
 
 	private static final String ASSUMPTION_LABEL = "_LABEL_%d";
 	private int labelNum = 0;
@@ -63,24 +69,29 @@ final class Z3Solver implements Solver {
 	private Valuation model;
 	private Collection<Expr<BoolType>> unsatCore;
 	private SolverStatus status;
+	private boolean checkedWithAssumptions;
 
 	public Z3Solver(final Z3SymbolTable symbolTable, final Z3TransformationManager transformationManager,
 					final Z3TermTransformer termTransformer, final com.microsoft.z3.Context z3Context,
-					final com.microsoft.z3.Solver z3Solver) {
+					final com.microsoft.z3.Solver z3Solver, final Thread owner) {
 		this.symbolTable = symbolTable;
 		this.transformationManager = transformationManager;
 		this.termTransformer = termTransformer;
 		this.z3Context = z3Context;
 		this.z3Solver = z3Solver;
+		this.owner = owner;
 
 		assertions = new StackImpl<>();
 		assumptions = new HashMap<>();
+		levels = new ArrayList<>();
+		levels.add(new Level());
 	}
 
 	////
 
 	@Override
 	public void add(final Expr<BoolType> assertion) {
+		checkThread();
 		checkNotNull(assertion);
 		final com.microsoft.z3.BoolExpr term = (com.microsoft.z3.BoolExpr) transformationManager.toTerm(assertion);
 		add(assertion, term);
@@ -94,6 +105,7 @@ final class Z3Solver implements Solver {
 
 	@Override
 	public void track(final Expr<BoolType> assertion) {
+		checkThread();
 		checkNotNull(assertion);
 
 		assertions.add(assertion);
@@ -102,6 +114,7 @@ final class Z3Solver implements Solver {
 		final com.microsoft.z3.BoolExpr labelTerm = z3Context.mkBoolConst(label);
 
 		assumptions.put(label, assertion);
+		currentLevel().labels.add(label);
 
 		z3Solver.assertAndTrack(term, labelTerm);
 
@@ -110,11 +123,62 @@ final class Z3Solver implements Solver {
 
 	@Override
 	public SolverStatus check() {
+		checkThread();
+		clearState();
 		final Status z3Status = z3Solver.check();
 		status = transformStatus(z3Status);
+		checkedWithAssumptions = false;
+		return status;
+	}
+
+	@Override
+	public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+		checkThread();
+		checkNotNull(assumptions);
+		final com.microsoft.z3.BoolExpr[] proxies = new com.microsoft.z3.BoolExpr[assumptions.size()];
+		int i = 0;
+		for (final Expr<BoolType> assumption : assumptions) {
+			proxies[i] = getAssumptionProxy(assumption);
+			i = i + 1;
+		}
+		clearState();
+		final Status z3Status = z3Solver.check(proxies);
+		status = transformStatus(z3Status);
+		checkedWithAssumptions = proxies.length > 0;
 		return status;
 	}
 
+	private com.microsoft.z3.BoolExpr getAssumptionProxy(final Expr<BoolType> assumption) {
+		checkNotNull(assumption);
+		// Proxies of outer levels are still asserted
+		for (final Level level : levels) {
+			final com.microsoft.z3.BoolExpr proxy = level.proxies.get(assumption);
+			if (proxy != null) {
+				return proxy;
+			}
+		}
+
+		// Z3 only accepts literals as assumptions, so the assumption is
+		// represented by a fresh literal implying it
+		final com.microsoft.z3.BoolExpr term = (com.microsoft.z3.BoolExpr) transformationManager.toTerm(assumption);
+		final String label = String.format(ASSUMPTION_LABEL, labelNum++);
+		final com.microsoft.z3.BoolExpr proxy = z3Context.mkBoolConst(label);
+		z3Solver.add(new com.microsoft.z3.BoolExpr[]{z3Context.mkImplies(proxy, term)});
+		assumptions.put(label, assumption);
+		currentLevel().labels.add(label);
+		currentLevel().proxies.put(assumption, proxy);
+		return proxy;
+	}
+
+	/**
+	 * Check whether the last check was performed with (non-empty)
+	 * assumptions. The implications defining the proxies of the assumptions
+	 * are then part of the proof.
+	 */
+	boolean isCheckedWithAssumptions() {
+		return checkedWithAssumptions;
+	}
+
 	private SolverStatus transformStatus(final Status z3Status) {
 		switch (z3Status) {
 			case SATISFIABLE:
@@ -128,14 +192,21 @@ final class Z3Solver implements Solver {
 
 	@Override
 	public void push() {
+		checkThread();
 		assertions.push();
 		z3Solver.push();
+		levels.add(new Level());
 	}
 
 	@Override
 	public void pop(final int n) {
+		checkThread();
 		assertions.pop(n);
 		z3Solver.pop(n);
+		for (int i = 0; i < n; ++i) {
+			final Level level = levels.remove(levels.size() - 1);
+			level.labels.forEach(assumptions::remove);
+		}
 		clearState();
 	}
 
@@ -152,6 +223,7 @@ final class Z3Solver implements Solver {
 
 	@Override
 	public Valuation getModel() {
+		checkThread();
 		checkState(status == SolverStatus.SAT, "Cannot get model if status is not SAT.");
 
 		if (model == null) {
@@ -174,6 +246,7 @@ final class Z3Solver implements Solver {
 
 	@Override
 	public Collection<Expr<BoolType>> getUnsatCore() {
+		checkThread();
 		checkState(status == SolverStatus.UNSAT, "Cannot get unsat core if status is not UNSAT");
 
 		if (unsatCore == null) {
@@ -212,12 +285,26 @@ final class Z3Solver implements Solver {
 		return assertions.toCollection();
 	}
 
+	void checkThread() {
+		checkState(owner == null || owner == Thread.currentThread(),
+				"Solver sharing a Z3 context can only be used by the thread that created it.");
+	}
+
 	private void clearState() {
 		status = null;
 		model = null;
 		unsatCore = null;
 	}
 
+	private Level currentLevel() {
+		return levels.get(levels.size() - 1);
+	}
+
+	private static final class Level {
+		private final List<String> labels = new ArrayList<>();
+		private final Map<Expr<BoolType>, com.microsoft.z3.BoolExpr> proxies = new HashMap<>();
+	}
+
 	////
 
 	private final class Z3Model extends Valuation {
@@ -15,6 +15,14 @@
  */
 package hu.bme.mit.theta.solver.z3;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.WeakHashMap;
+
 import com.microsoft.z3.InterpolationContext;
 
 import hu.bme.mit.theta.common.OsHelper;
@@ -28,16 +36,50 @@ public final class Z3SolverFactory implements SolverFactory {
 
 	static {
 		loadLibraries();
-		INSTACE = new Z3SolverFactory();
+		INSTACE = new Z3SolverFactory(Z3CachePolicy.getDefault());
 	}
 
-	private Z3SolverFactory() {
+	private final Z3CachePolicy cachePolicy;
+	private final Z3CacheStats cacheStats;
+
+	// Z3 contexts are not thread-safe, so if the cache is shared, the context
+	// and transformers are only shared among the solvers created by the same
+	// thread, and those solvers can only be used by that thread
+	private final ThreadLocal<Z3SolverContext> sharedContext;
+	private final ThreadLocal<Z3SolverContext> sharedItpContext;
+
+	// Contexts of solvers with their own context, released with the solvers
+	private final Set<com.microsoft.z3.Context> contexts;
+	// Shared contexts, kept until the factory is closed, as the thread
+	// owning them may terminate before that
+	private final Set<com.microsoft.z3.Context> sharedContexts;
+	private volatile boolean closed;
+
+	private Z3SolverFactory(final Z3CachePolicy cachePolicy) {
+		this.cachePolicy = checkNotNull(cachePolicy);
+		this.cacheStats = new Z3CacheStats();
+		this.sharedContext = ThreadLocal.withInitial(() -> new Z3SolverContext(new com.microsoft.z3.Context(), true));
+		this.sharedItpContext = ThreadLocal
+				.withInitial(() -> new Z3SolverContext(InterpolationContext.mkContext(), true));
+		this.contexts = Collections.newSetFromMap(new WeakHashMap<>());
+		this.sharedContexts = new HashSet<>();
+		this.closed = false;
 	}
 
 	public static Z3SolverFactory getInstace() {
 		return INSTACE;
 	}
 
+	/**
+	 * Create a factory whose solvers cache the translation of expressions to
+	 * Z3 terms according to a given policy. If the cache is shared, solvers
+	 * created by the same thread share it, and each solver can only be used
+	 * by the thread that created it.
+	 */
+	public static Z3SolverFactory create(final Z3CachePolicy cachePolicy) {
+		return new Z3SolverFactory(cachePolicy);
+	}
+
 	private static void loadLibraries() {
 		switch (OsHelper.getOs()) {
 			case WINDOWS:
@@ -51,28 +93,111 @@ public final class Z3SolverFactory implements SolverFactory {
 		}
 	}
 
+	public Z3CachePolicy getCachePolicy() {
+		return cachePolicy;
+	}
+
+	/**
+	 * Get the statistics of the caches of all solvers created by this factory.
+	 */
+	public Z3CacheStats getCacheStats() {
+		return cacheStats;
+	}
+
+	/**
+	 * Interrupt the running checks of all solvers created by this factory,
+	 * which then fail with an {@link hu.bme.mit.theta.solver.UnknownSolverStatusException}. This method
+	 * can be called from any thread.
+	 */
+	public void interrupt() {
+		synchronized (contexts) {
+			if (!closed) {
+				for (final com.microsoft.z3.Context context : contexts) {
+					context.interrupt();
+				}
+				for (final com.microsoft.z3.Context context : sharedContexts) {
+					context.interrupt();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Close the Z3 contexts of all solvers created by this factory, including
+	 * the shared contexts of all threads. The solvers and the factory cannot
+	 * be used afterwards. The default instance cannot be closed, as it is
+	 * shared by all users.
+	 */
+	public void close() {
+		checkState(this != INSTACE, "The default instance cannot be closed.");
+		synchronized (contexts) {
+			closed = true;
+			for (final com.microsoft.z3.Context context : contexts) {
+				context.close();
+			}
+			contexts.clear();
+			for (final com.microsoft.z3.Context context : sharedContexts) {
+				context.close();
+			}
+			sharedContexts.clear();
+		}
+	}
+
 	@Override
 	public Solver createSolver() {
-		final com.microsoft.z3.Context z3Context = new com.microsoft.z3.Context();
-		final com.microsoft.z3.Solver z3Solver = z3Context.mkSimpleSolver();
-
-		final Z3SymbolTable symbolTable = new Z3SymbolTable();
-		final Z3TransformationManager transformationManager = new Z3TransformationManager(symbolTable, z3Context);
-		final Z3TermTransformer termTransformer = new Z3TermTransformer(symbolTable);
+		checkState(!closed, "Factory is closed.");
+		final Z3SolverContext context;
+		final Thread owner;
+		if (cachePolicy.isShared()) {
+			context = sharedContext.get();
+			owner = Thread.currentThread();
+		} else {
+			context = new Z3SolverContext(new com.microsoft.z3.Context(), false);
+			owner = null;
+		}
 
-		return new Z3Solver(symbolTable, transformationManager, termTransformer, z3Context, z3Solver);
+		final com.microsoft.z3.Solver z3Solver = context.z3Context.mkSimpleSolver();
+		return new Z3Solver(context.symbolTable, context.transformationManager, context.termTransformer,
+				context.z3Context, z3Solver, owner);
 	}
 
 	@Override
 	public ItpSolver createItpSolver() {
-		final com.microsoft.z3.InterpolationContext z3Context = InterpolationContext.mkContext();
-		final com.microsoft.z3.Solver z3Solver = z3Context.mkSimpleSolver();
+		checkState(!closed, "Factory is closed.");
+		final Z3SolverContext context;
+		final Thread owner;
+		if (cachePolicy.isShared()) {
+			context = sharedItpContext.get();
+			owner = Thread.currentThread();
+		} else {
+			context = new Z3SolverContext(InterpolationContext.mkContext(), false);
+			owner = null;
+		}
 
-		final Z3SymbolTable symbolTable = new Z3SymbolTable();
-		final Z3TransformationManager transformationManager = new Z3TransformationManager(symbolTable, z3Context);
-		final Z3TermTransformer termTransformer = new Z3TermTransformer(symbolTable);
+		final com.microsoft.z3.Solver z3Solver = context.z3Context.mkSimpleSolver();
+		return new Z3ItpSolver(context.symbolTable, context.transformationManager, context.termTransformer,
+				(InterpolationContext) context.z3Context, z3Solver, owner);
+	}
 
-		return new Z3ItpSolver(symbolTable, transformationManager, termTransformer, z3Context, z3Solver);
+	private final class Z3SolverContext {
+		private final com.microsoft.z3.Context z3Context;
+		private final Z3SymbolTable symbolTable;
+		private final Z3TransformationManager transformationManager;
+		private final Z3TermTransformer termTransformer;
+
+		private Z3SolverContext(final com.microsoft.z3.Context z3Context, final boolean shared) {
+			synchronized (contexts) {
+				if (shared) {
+					sharedContexts.add(z3Context);
+				} else {
+					contexts.add(z3Context);
+				}
+			}
+			this.z3Context = z3Context;
+			this.symbolTable = new Z3SymbolTable();
+			this.transformationManager = new Z3TransformationManager(symbolTable, z3Context, cachePolicy, cacheStats);
+			this.termTransformer = new Z3TermTransformer(symbolTable);
+		}
 	}
 
 }
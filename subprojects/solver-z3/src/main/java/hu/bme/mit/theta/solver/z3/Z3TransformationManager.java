@@ -27,10 +27,11 @@ final class Z3TransformationManager {
 	private final Z3DeclTransformer declTransformer;
 	private final Z3ExprTransformer exprTransformer;
 
-	public Z3TransformationManager(final Z3SymbolTable symbolTable, final Context context) {
+	public Z3TransformationManager(final Z3SymbolTable symbolTable, final Context context,
+								   final Z3CachePolicy cachePolicy, final Z3CacheStats cacheStats) {
 		this.typeTransformer = new Z3TypeTransformer(this, context);
 		this.declTransformer = new Z3DeclTransformer(this, symbolTable, context);
-		this.exprTransformer = new Z3ExprTransformer(this, context);
+		this.exprTransformer = new Z3ExprTransformer(this, context, cachePolicy, cacheStats);
 	}
 
 	public com.microsoft.z3.Sort toSort(final Type type) {
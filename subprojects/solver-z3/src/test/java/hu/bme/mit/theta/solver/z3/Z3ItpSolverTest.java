@@ -96,6 +96,20 @@ public final class Z3ItpSolverTest {
 		System.out.println("----------");
 	}
 
+	@Test(expected = IllegalStateException.class)
+	public void testInterpolationWithAssumptions() {
+		final ItpMarker A = solver.createMarker();
+		final ItpMarker B = solver.createMarker();
+		final ItpPattern pattern = solver.createBinPattern(A, B);
+
+		solver.add(A, Eq(a, b));
+		solver.add(B, Eq(b, c));
+
+		// The assumptions are not part of any marker
+		solver.check(ImmutableList.of(Neq(a, c)));
+		solver.getInterpolant(pattern);
+	}
+
 	@Test
 	public void testSequenceInterpolation() {
 		final ItpMarker I1 = solver.createMarker();
@@ -27,7 +27,9 @@ import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverStatus;
 import org.junit.Test;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.google.common.collect.ImmutableList.of;
 import static hu.bme.mit.theta.core.decl.Decls.Const;
@@ -36,6 +38,7 @@ import static hu.bme.mit.theta.core.type.booltype.BoolExprs.*;
 import static hu.bme.mit.theta.core.type.functype.FuncExprs.App;
 import static hu.bme.mit.theta.core.type.functype.FuncExprs.Func;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.*;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -64,6 +67,155 @@ public final class Z3SolverTest {
 		assertTrue(status.isUnsat());
 	}
 
+	@Test
+	public void testCache() {
+		final Z3SolverFactory factory = Z3SolverFactory
+				.create(Z3CachePolicy.builder().unbounded().shared(true).build());
+		final Solver solver1 = factory.createSolver();
+		final Solver solver2 = factory.createSolver();
+
+		final ConstDecl<IntType> cx = Const("x", Int());
+		final Expr<BoolType> expr = Lt(cx.getRef(), Int(5));
+
+		solver1.add(expr);
+		final long misses = factory.getCacheStats().getMissCount();
+		assertTrue(misses > 0);
+
+		// The term is reused across solvers sharing the cache
+		solver2.add(expr);
+		assertTrue(solver2.check().isSat());
+		assertEquals(misses, factory.getCacheStats().getMissCount());
+		assertEquals(1, factory.getCacheStats().getHitCount());
+		assertEquals(0, factory.getCacheStats().getEvictionCount());
+	}
+
+	@Test
+	public void testCacheThreads() throws InterruptedException {
+		final Z3SolverFactory factory = Z3SolverFactory
+				.create(Z3CachePolicy.builder().unbounded().shared(true).build());
+		final Solver solver = factory.createSolver();
+		final ConstDecl<IntType> cx = Const("x", Int());
+		final Expr<BoolType> expr = Lt(cx.getRef(), Int(5));
+		solver.add(expr);
+
+		// Solvers sharing a context cannot be used by other threads, but
+		// other threads can create their own
+		final AtomicBoolean rejected = new AtomicBoolean(false);
+		final AtomicBoolean sat = new AtomicBoolean(false);
+		final Thread thread = new Thread(() -> {
+			try {
+				solver.check();
+			} catch (final IllegalStateException e) {
+				rejected.set(true);
+			}
+			final Solver otherSolver = factory.createSolver();
+			otherSolver.add(expr);
+			sat.set(otherSolver.check().isSat());
+		});
+		thread.start();
+		thread.join();
+
+		assertTrue(rejected.get());
+		assertTrue(sat.get());
+		assertTrue(solver.check().isSat());
+
+		// Closing releases the context of the terminated thread as well
+		factory.close();
+	}
+
+	@Test
+	public void testInterrupt() throws InterruptedException {
+		final Z3SolverFactory factory = Z3SolverFactory.create(Z3CachePolicy.getDefault());
+		final Solver solver = factory.createSolver();
+		final ConstDecl<IntType> cx = Const("x", Int());
+		solver.add(Lt(cx.getRef(), Int(5)));
+
+		// Interrupting idle solvers has no effect
+		factory.interrupt();
+		assertTrue(solver.check().isSat());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testClosedFactory() {
+		final Z3SolverFactory factory = Z3SolverFactory.create(Z3CachePolicy.getDefault());
+		final Solver solver = factory.createSolver();
+		solver.add(Lt(Const("x", Int()).getRef(), Int(5)));
+		assertTrue(solver.check().isSat());
+
+		factory.close();
+		factory.createSolver();
+	}
+
+	@Test
+	public void testCacheEviction() {
+		final Z3SolverFactory factory = Z3SolverFactory.create(Z3CachePolicy.builder().maximumSize(1).build());
+		final Solver solver = factory.createSolver();
+
+		final ConstDecl<IntType> cx = Const("x", Int());
+		solver.add(Lt(cx.getRef(), Int(5)));
+		solver.add(Gt(cx.getRef(), Int(2)));
+		assertTrue(solver.check().isSat());
+		assertTrue(factory.getCacheStats().getEvictionCount() > 0);
+	}
+
+	@Test
+	public void testAssumptions() {
+		final Solver solver = Z3SolverFactory.getInstace().createSolver();
+
+		final ConstDecl<IntType> cx = Const("x", Int());
+		final Expr<BoolType> gt = Gt(cx.getRef(), Int(5));
+		final Expr<BoolType> lt = Lt(cx.getRef(), Int(3));
+		final Expr<BoolType> eq = Eq(cx.getRef(), Int(7));
+
+		solver.add(Geq(cx.getRef(), Int(0)));
+
+		assertTrue(solver.check(of(gt, eq)).isSat());
+		assertEquals(Int(7), solver.getModel().eval(cx).get());
+
+		assertTrue(solver.check(of(gt, lt, eq)).isUnsat());
+		final Collection<Expr<BoolType>> core = solver.getUnsatCore();
+		assertTrue(core.contains(gt) || core.contains(eq));
+		assertTrue(core.contains(lt));
+
+		// Assumptions are not kept
+		assertTrue(solver.check(of(lt)).isSat());
+		assertTrue(solver.check().isSat());
+
+		// Assumptions are valid after a pop
+		solver.push();
+		solver.add(Lt(cx.getRef(), Int(10)));
+		assertTrue(solver.check(of(eq)).isSat());
+		solver.pop();
+		assertTrue(solver.check(of(gt, lt)).isUnsat());
+	}
+
+	@Test
+	public void testAssumptionsLevels() {
+		final Solver solver = Z3SolverFactory.getInstace().createSolver();
+
+		final ConstDecl<IntType> cx = Const("x", Int());
+		final Expr<BoolType> lt = Lt(cx.getRef(), Int(3));
+		final Expr<BoolType> eq = Eq(cx.getRef(), Int(7));
+
+		solver.add(Geq(cx.getRef(), Int(0)));
+		assertTrue(solver.check(of(lt)).isSat());
+
+		// Assumptions of outer levels can be used in inner levels
+		solver.push();
+		solver.add(Gt(cx.getRef(), Int(5)));
+		assertTrue(solver.check(of(lt)).isUnsat());
+		assertTrue(solver.getUnsatCore().contains(lt));
+		assertTrue(solver.check(of(eq)).isSat());
+		solver.pop();
+
+		// Assumptions of popped levels can be used again
+		assertTrue(solver.check(of(lt, eq)).isUnsat());
+		final Collection<Expr<BoolType>> core = solver.getUnsatCore();
+		assertTrue(core.contains(lt));
+		assertTrue(core.contains(eq));
+		assertTrue(solver.check(of(eq)).isSat());
+	}
+
 	@Test
 	public void testTrack() {
 		final Solver solver = Z3SolverFactory.getInstace().createSolver();
@@ -70,6 +70,18 @@ public interface Solver {
 	 */
 	SolverStatus check();
 
+	/**
+	 * Check if the currently added expressions are satisfiable under some
+	 * assumptions. Unlike {@link #add(Expr)}, the assumptions only hold for
+	 * this check, so no {@link #push()} and {@link #pop()} is required. If
+	 * the result is UNSAT, the unsat core ({@link #getUnsatCore()}) contains
+	 * the assumptions that are required for unsatisfiability.
+	 *
+	 * @param assumptions Assumptions
+	 * @return Status
+	 */
+	SolverStatus check(Collection<? extends Expr<BoolType>> assumptions);
+
 	/**
 	 * Push the current solver state. When calling {@link #pop()}, all expressions added after
 	 * the last push will be removed.
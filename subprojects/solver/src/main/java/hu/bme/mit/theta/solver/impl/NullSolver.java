@@ -51,6 +51,11 @@ public final class NullSolver implements Solver {
 		throw new UnsupportedOperationException();
 	}
 
+	@Override
+	public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+		throw new UnsupportedOperationException();
+	}
+
 	@Override
 	public void push() {
 		throw new UnsupportedOperationException();
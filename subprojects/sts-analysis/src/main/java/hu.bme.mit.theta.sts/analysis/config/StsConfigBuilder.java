@@ -17,11 +17,16 @@ package hu.bme.mit.theta.sts.analysis.config;
 
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.Analysis;
 import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.analysis.PartialOrd;
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
@@ -31,10 +36,13 @@ import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.cegar.Abstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.BasicAbstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.CegarChecker;
+import hu.bme.mit.theta.analysis.algorithm.cegar.ParallelAbstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.Refiner;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterion;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
 import hu.bme.mit.theta.analysis.expl.ExplAnalysis;
 import hu.bme.mit.theta.analysis.expl.ExplPrec;
+import hu.bme.mit.theta.analysis.expl.ExplReachedSet;
 import hu.bme.mit.theta.analysis.expl.ExplState;
 import hu.bme.mit.theta.analysis.expl.ExplStatePredicate;
 import hu.bme.mit.theta.analysis.expl.ItpRefToExplPrec;
@@ -43,20 +51,25 @@ import hu.bme.mit.theta.analysis.expr.ExprAction;
 import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.analysis.expr.ExprStatePredicate;
 import hu.bme.mit.theta.analysis.expr.refinement.*;
+import hu.bme.mit.theta.analysis.impl.CachingPartialOrd;
 import hu.bme.mit.theta.analysis.pred.ExprSplitters;
 import hu.bme.mit.theta.analysis.pred.ExprSplitters.ExprSplitter;
 import hu.bme.mit.theta.analysis.pred.ItpRefToPredPrec;
 import hu.bme.mit.theta.analysis.pred.PredAbstractors;
 import hu.bme.mit.theta.analysis.pred.PredAbstractors.PredAbstractor;
 import hu.bme.mit.theta.analysis.pred.PredAnalysis;
+import hu.bme.mit.theta.analysis.pred.PredOrd;
 import hu.bme.mit.theta.analysis.pred.PredPrec;
 import hu.bme.mit.theta.analysis.pred.PredState;
+import hu.bme.mit.theta.analysis.reachedset.PartitionedReachedSet;
+import hu.bme.mit.theta.analysis.reachedset.ReachedSet;
 import hu.bme.mit.theta.analysis.waitlist.PriorityWaitlist;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.NullLogger;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverFactory;
 import hu.bme.mit.theta.sts.STS;
 import hu.bme.mit.theta.sts.analysis.StsAction;
@@ -74,7 +87,7 @@ public final class StsConfigBuilder {
 	;
 
 	public enum Refinement {
-		FW_BIN_ITP, BW_BIN_ITP, SEQ_ITP, MULTI_SEQ, UNSAT_CORE
+		FW_BIN_ITP, BW_BIN_ITP, SEQ_ITP, MULTI_SEQ, TREE_ITP, UNSAT_CORE
 	}
 
 	;
@@ -130,6 +143,10 @@ public final class StsConfigBuilder {
 	private Search search = Search.BFS;
 	private PredSplit predSplit = PredSplit.WHOLE;
 	private InitPrec initPrec = InitPrec.EMPTY;
+	private int threads = 1;
+	private boolean incremental = false;
+	private boolean incrementalTraces = false;
+	private boolean cacheOrd = false;
 
 	public StsConfigBuilder(final Domain domain, final Refinement refinement, final SolverFactory solverFactory) {
 		this.domain = domain;
@@ -157,6 +174,48 @@ public final class StsConfigBuilder {
 		return this;
 	}
 
+	/**
+	 * Number of threads used for expanding the ARG and for checking the
+	 * counterexamples with MULTI_SEQ refinement. Each additional thread gets
+	 * its own solver instance. The solvers are created by the thread building
+	 * the configuration, so the solver factory must create solvers that can
+	 * be used by other threads.
+	 */
+	public StsConfigBuilder threads(final int threads) {
+		this.threads = threads;
+		return this;
+	}
+
+	/**
+	 * Keep the context of the solver between queries: the definitions of the
+	 * predicates stay asserted in a separate solver of the predicate
+	 * abstraction between successor computations, and states are compared
+	 * using assumptions.
+	 */
+	public StsConfigBuilder incremental(final boolean incremental) {
+		this.incremental = incremental;
+		return this;
+	}
+
+	/**
+	 * Keep the common prefix of consecutive counterexamples asserted in the
+	 * trace checkers (except BW_BIN_ITP and TREE_ITP), and refute traces
+	 * extending an infeasible prefix without calling the solver.
+	 */
+	public StsConfigBuilder incrementalTraces(final boolean incrementalTraces) {
+		this.incrementalTraces = incrementalTraces;
+		return this;
+	}
+
+	/**
+	 * Memoize the results of the partial order of predicate states, so that
+	 * the same pairs of states are only checked once by the solver.
+	 */
+	public StsConfigBuilder cacheOrd(final boolean cacheOrd) {
+		this.cacheOrd = cacheOrd;
+		return this;
+	}
+
 	public InitPrec getInitPrec() {
 		return initPrec;
 	}
@@ -168,21 +227,21 @@ public final class StsConfigBuilder {
 		final Expr<BoolType> negProp = Not(sts.getProp());
 
 		if (domain == Domain.EXPL) {
-			final Predicate<ExplState> target = new ExplStatePredicate(negProp, solver);
-			final Analysis<ExplState, ExprAction, ExplPrec> analysis = ExplAnalysis.create(solver, init);
-			final ArgBuilder<ExplState, StsAction, ExplPrec> argBuilder = ArgBuilder.create(lts, analysis, target,
-					true);
-			final Abstractor<ExplState, StsAction, ExplPrec> abstractor = BasicAbstractor.builder(argBuilder)
-					.waitlist(PriorityWaitlist.create(search.comparator))
-					.stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
-							: StopCriterions.firstCex())
-					.logger(logger).build();
+			final Function<Solver, ArgBuilder<ExplState, StsAction, ExplPrec>> argBuilderFactory = s -> {
+				final Predicate<ExplState> target = new ExplStatePredicate(negProp, s);
+				final Analysis<ExplState, ExprAction, ExplPrec> analysis = ExplAnalysis.create(s, init);
+				return ArgBuilder.create(lts, analysis, target, true);
+			};
+			final Abstractor<ExplState, StsAction, ExplPrec> abstractor = createAbstractor(solver, argBuilderFactory,
+					ExplReachedSet::create);
 
 			Refiner<ExplState, StsAction, ExplPrec> refiner = null;
 
 			switch (refinement) {
 				case FW_BIN_ITP:
-					refiner = SingleExprTraceRefiner.create(ExprTraceFwBinItpChecker.create(init, negProp, solver),
+					refiner = SingleExprTraceRefiner.create(incrementalTraces
+							? ExprTraceIncrementalChecker.fwBinItp(init, negProp, solverFactory.createItpSolver())
+							: ExprTraceFwBinItpChecker.create(init, negProp, solver),
 							JoiningPrecRefiner.create(new ItpRefToExplPrec()), logger);
 					break;
 				case BW_BIN_ITP:
@@ -190,15 +249,26 @@ public final class StsConfigBuilder {
 							JoiningPrecRefiner.create(new ItpRefToExplPrec()), logger);
 					break;
 				case SEQ_ITP:
-					refiner = SingleExprTraceRefiner.create(ExprTraceSeqItpChecker.create(init, negProp, solver),
+					refiner = SingleExprTraceRefiner.create(incrementalTraces
+							? ExprTraceIncrementalChecker.seqItp(init, negProp, solverFactory.createItpSolver())
+							: ExprTraceSeqItpChecker.create(init, negProp, solver),
 							JoiningPrecRefiner.create(new ItpRefToExplPrec()), logger);
 					break;
 				case MULTI_SEQ:
-					refiner = MultiExprTraceRefiner.create(ExprTraceSeqItpChecker.create(init, negProp, solver),
+					refiner = MultiExprTraceRefiner.createParallel(
+							createTraceCheckers(solver, s -> incrementalTraces
+									? ExprTraceIncrementalChecker.seqItp(init, negProp, s)
+									: ExprTraceSeqItpChecker.create(init, negProp, s)),
+							JoiningPrecRefiner.create(new ItpRefToExplPrec()), logger);
+					break;
+				case TREE_ITP:
+					refiner = MultiExprTraceRefiner.createBatch(ExprTraceTreeItpChecker.create(init, negProp, solver),
 							JoiningPrecRefiner.create(new ItpRefToExplPrec()), logger);
 					break;
 				case UNSAT_CORE:
-					refiner = SingleExprTraceRefiner.create(ExprTraceUnsatCoreChecker.create(init, negProp, solver),
+					refiner = SingleExprTraceRefiner.create(incrementalTraces
+							? ExprTraceIncrementalChecker.unsatCore(init, negProp, solverFactory.createSolver())
+							: ExprTraceUnsatCoreChecker.create(init, negProp, solver),
 							JoiningPrecRefiner.create(new VarsRefToExplPrec()), logger);
 					break;
 				default:
@@ -212,44 +282,37 @@ public final class StsConfigBuilder {
 			return StsConfig.create(checker, prec);
 
 		} else if (domain == Domain.PRED_BOOL || domain == Domain.PRED_CART || domain == Domain.PRED_SPLIT) {
-			PredAbstractor predAbstractor = null;
-			switch (domain) {
-				case PRED_BOOL:
-					predAbstractor = PredAbstractors.booleanAbstractor(solver);
-					break;
-				case PRED_SPLIT:
-					predAbstractor = PredAbstractors.booleanSplitAbstractor(solver);
-					break;
-				case PRED_CART:
-					predAbstractor = PredAbstractors.cartesianAbstractor(solver);
-					break;
-				default:
-					throw new UnsupportedOperationException(domain + " domain is not supported.");
-			}
-			final Predicate<ExprState> target = new ExprStatePredicate(negProp, solver);
-			final Analysis<PredState, ExprAction, PredPrec> analysis = PredAnalysis.create(solver, predAbstractor,
-					init);
-			final ArgBuilder<PredState, StsAction, PredPrec> argBuilder = ArgBuilder.create(lts, analysis, target,
-					true);
-			final Abstractor<PredState, StsAction, PredPrec> abstractor = BasicAbstractor.builder(argBuilder)
-					.waitlist(PriorityWaitlist.create(search.comparator))
-					.stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
-							: StopCriterions.firstCex())
-					.logger(logger).build();
+			final Function<Solver, ArgBuilder<PredState, StsAction, PredPrec>> argBuilderFactory = s -> {
+				final Predicate<ExprState> target = new ExprStatePredicate(negProp, s);
+				// The assumptions stay defined in the solver, so it is not shared
+				final PredOrd predOrd = incremental ? PredOrd.createWithAssumptions(solverFactory.createSolver())
+						: PredOrd.create(s);
+				final PartialOrd<PredState> partialOrd = cacheOrd ? CachingPartialOrd.create(predOrd) : predOrd;
+				final Analysis<PredState, ExprAction, PredPrec> analysis = PredAnalysis.create(partialOrd,
+						createPredAbstractor(s), init);
+				return ArgBuilder.create(lts, analysis, target, true);
+			};
+			final Abstractor<PredState, StsAction, PredPrec> abstractor = createAbstractor(solver, argBuilderFactory,
+					() -> PartitionedReachedSet.create(st -> 0));
 
 			ExprTraceChecker<ItpRefutation> exprTraceChecker = null;
 			switch (refinement) {
 				case FW_BIN_ITP:
-					exprTraceChecker = ExprTraceFwBinItpChecker.create(init, negProp, solver);
+					exprTraceChecker = incrementalTraces
+							? ExprTraceIncrementalChecker.fwBinItp(init, negProp, solverFactory.createItpSolver())
+							: ExprTraceFwBinItpChecker.create(init, negProp, solver);
 					break;
 				case BW_BIN_ITP:
 					exprTraceChecker = ExprTraceBwBinItpChecker.create(init, negProp, solver);
 					break;
 				case SEQ_ITP:
-					exprTraceChecker = ExprTraceSeqItpChecker.create(init, negProp, solver);
+					exprTraceChecker = incrementalTraces
+							? ExprTraceIncrementalChecker.seqItp(init, negProp, solverFactory.createItpSolver())
+							: ExprTraceSeqItpChecker.create(init, negProp, solver);
 					break;
 				case MULTI_SEQ:
-					exprTraceChecker = ExprTraceSeqItpChecker.create(init, negProp, solver);
+				case TREE_ITP:
+					// Checkers are created with the refiner
 					break;
 				default:
 					throw new UnsupportedOperationException(
@@ -257,7 +320,13 @@ public final class StsConfigBuilder {
 			}
 			Refiner<PredState, StsAction, PredPrec> refiner;
 			if (refinement == Refinement.MULTI_SEQ) {
-				refiner = MultiExprTraceRefiner.create(exprTraceChecker,
+				refiner = MultiExprTraceRefiner.createParallel(
+						createTraceCheckers(solver, s -> incrementalTraces
+								? ExprTraceIncrementalChecker.seqItp(init, negProp, s)
+								: ExprTraceSeqItpChecker.create(init, negProp, s)),
+						JoiningPrecRefiner.create(new ItpRefToPredPrec(predSplit.splitter)), logger);
+			} else if (refinement == Refinement.TREE_ITP) {
+				refiner = MultiExprTraceRefiner.createBatch(ExprTraceTreeItpChecker.create(init, negProp, solver),
 						JoiningPrecRefiner.create(new ItpRefToPredPrec(predSplit.splitter)), logger);
 			} else {
 				refiner = SingleExprTraceRefiner.create(exprTraceChecker,
@@ -273,4 +342,57 @@ public final class StsConfigBuilder {
 			throw new UnsupportedOperationException(domain + " domain is not supported.");
 		}
 	}
+
+	private PredAbstractor createPredAbstractor(final Solver solver) {
+		// Incremental abstractors keep their definitions in the solver, so
+		// they get their own solver instead of the one shared with the refiner
+		switch (domain) {
+			case PRED_BOOL:
+				return incremental ? PredAbstractors.incrementalBooleanAbstractor(solverFactory.createSolver())
+						: PredAbstractors.booleanAbstractor(solver);
+			case PRED_SPLIT:
+				return incremental ? PredAbstractors.incrementalBooleanSplitAbstractor(solverFactory.createSolver())
+						: PredAbstractors.booleanSplitAbstractor(solver);
+			case PRED_CART:
+				return incremental ? PredAbstractors.incrementalCartesianAbstractor(solverFactory.createSolver())
+						: PredAbstractors.cartesianAbstractor(solver);
+			default:
+				throw new UnsupportedOperationException(domain + " domain is not supported.");
+		}
+	}
+
+	private <S extends State, P extends Prec> Abstractor<S, StsAction, P> createAbstractor(final Solver solver,
+			final Function<Solver, ArgBuilder<S, StsAction, P>> argBuilderFactory,
+			final Supplier<? extends ReachedSet<S, StsAction>> reachedSetFactory) {
+		final ArgBuilder<S, StsAction, P> argBuilder = argBuilderFactory.apply(solver);
+		final StopCriterion<S, StsAction> stopCriterion
+				= refinement == Refinement.MULTI_SEQ || refinement == Refinement.TREE_ITP
+				? StopCriterions.fullExploration() : StopCriterions.firstCex();
+
+		if (threads <= 1) {
+			return BasicAbstractor.builder(argBuilder).reachedSet(reachedSetFactory)
+					.waitlist(PriorityWaitlist.create(search.comparator))
+					.stopCriterion(stopCriterion).logger(logger).build();
+		} else {
+			final List<ArgBuilder<S, StsAction, P>> argBuilders = new ArrayList<>(threads);
+			argBuilders.add(argBuilder);
+			for (int i = 1; i < threads; ++i) {
+				argBuilders.add(argBuilderFactory.apply(solverFactory.createSolver()));
+			}
+			return ParallelAbstractor.builder(argBuilders).reachedSet(reachedSetFactory)
+					.waitlist(PriorityWaitlist.create(search.comparator))
+					.stopCriterion(stopCriterion).logger(logger).build();
+		}
+	}
+
+	private List<ExprTraceChecker<ItpRefutation>> createTraceCheckers(final ItpSolver solver,
+			final Function<ItpSolver, ExprTraceChecker<ItpRefutation>> checkerFactory) {
+		final List<ExprTraceChecker<ItpRefutation>> checkers = new ArrayList<>(threads);
+		// Incremental checkers keep their assertions, so they cannot share the solver of the abstractor
+		checkers.add(checkerFactory.apply(incrementalTraces ? solverFactory.createItpSolver() : solver));
+		for (int i = 1; i < threads; ++i) {
+			checkers.add(checkerFactory.apply(solverFactory.createItpSolver()));
+		}
+		return checkers;
+	}
 }
@@ -28,9 +28,12 @@ import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.function.Predicate;
 
+import org.junit.Before;
 import org.junit.Test;
 
 import hu.bme.mit.theta.analysis.Analysis;
@@ -44,6 +47,8 @@ import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
 import hu.bme.mit.theta.analysis.algorithm.cegar.Abstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.BasicAbstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.CegarChecker;
+import hu.bme.mit.theta.analysis.algorithm.cegar.ParallelAbstractor;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
 import hu.bme.mit.theta.analysis.expl.ExplAnalysis;
 import hu.bme.mit.theta.analysis.expl.ExplPrec;
 import hu.bme.mit.theta.analysis.expl.ExplState;
@@ -54,6 +59,7 @@ import hu.bme.mit.theta.analysis.expr.ExprStatePredicate;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceChecker;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceUnsatCoreChecker;
 import hu.bme.mit.theta.analysis.expr.refinement.JoiningPrecRefiner;
+import hu.bme.mit.theta.analysis.expr.refinement.MultiExprTraceRefiner;
 import hu.bme.mit.theta.analysis.expr.refinement.SingleExprTraceRefiner;
 import hu.bme.mit.theta.analysis.expr.refinement.VarsRefutation;
 import hu.bme.mit.theta.analysis.waitlist.PriorityWaitlist;
@@ -64,6 +70,7 @@ import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.inttype.IntType;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
 import hu.bme.mit.theta.sts.STS;
 import hu.bme.mit.theta.sts.STS.Builder;
@@ -71,15 +78,16 @@ import hu.bme.mit.theta.sts.analysis.StsAction;
 import hu.bme.mit.theta.sts.analysis.StsLts;
 
 public class StsExplTest {
+	final Logger logger = new ConsoleLogger(Level.VERBOSE);
+	final ItpSolver solver = Z3SolverFactory.getInstace().createItpSolver();
+	VarDecl<IntType> vy = null;
+	STS sts = null;
 
-	@Test
-	public void test() {
-
-		final Logger logger = new ConsoleLogger(Level.VERBOSE);
-
+	@Before
+	public void setUp() {
 		final VarDecl<IntType> vx = Var("x", Int());
 		final Expr<IntType> x = vx.getRef();
-		final VarDecl<IntType> vy = Var("y", Int());
+		vy = Var("y", Int());
 		final Expr<IntType> y = vy.getRef();
 
 		final int mod = 10;
@@ -93,10 +101,11 @@ public class StsExplTest {
 		builder.addTrans(Eq(Prime(y), Int(0)));
 		builder.setProp(Not(Eq(x, Int(mod))));
 
-		final STS sts = builder.build();
-
-		final ItpSolver solver = Z3SolverFactory.getInstace().createItpSolver();
+		sts = builder.build();
+	}
 
+	@Test
+	public void test() {
 		final Analysis<ExplState, ExprAction, ExplPrec> analysis = ExplAnalysis.create(solver, sts.getInit());
 		final Predicate<ExprState> target = new ExprStatePredicate(Not(sts.getProp()), solver);
 
@@ -126,4 +135,76 @@ public class StsExplTest {
 		// GraphvizWriter().writeString(ArgVisualizer.visualize(arg)));
 	}
 
+	@Test
+	public void testParallel() throws InterruptedException {
+		final LTS<State, StsAction> lts = StsLts.create(sts);
+		final List<ArgBuilder<ExplState, StsAction, ExplPrec>> argBuilders = new ArrayList<>();
+		for (int i = 0; i < 4; ++i) {
+			final Solver workerSolver = i == 0 ? solver : Z3SolverFactory.getInstace().createSolver();
+			final Analysis<ExplState, ExprAction, ExplPrec> analysis = ExplAnalysis.create(workerSolver,
+					sts.getInit());
+			final Predicate<ExprState> target = new ExprStatePredicate(Not(sts.getProp()), workerSolver);
+			argBuilders.add(ArgBuilder.create(lts, analysis, target));
+		}
+
+		final Abstractor<ExplState, StsAction, ExplPrec> abstractor = ParallelAbstractor.builder(argBuilders)
+				.waitlist(PriorityWaitlist.create(ArgNodeComparators.bfs())).logger(logger).build();
+
+		final ExprTraceChecker<VarsRefutation> exprTraceChecker = ExprTraceUnsatCoreChecker.create(sts.getInit(),
+				Not(sts.getProp()), solver);
+
+		final SingleExprTraceRefiner<ExplState, StsAction, ExplPrec, VarsRefutation> refiner = SingleExprTraceRefiner
+				.create(exprTraceChecker, JoiningPrecRefiner.create(new VarsRefToExplPrec()), logger);
+
+		final SafetyChecker<ExplState, StsAction, ExplPrec> checker = CegarChecker.create(abstractor, refiner, logger);
+
+		final SafetyResult<ExplState, StsAction> safetyStatus = checker.check(ExplPrec.of(Collections.singleton(vy)));
+
+		assertTrue(safetyStatus.isUnsafe());
+		final ARG<ExplState, StsAction> arg = safetyStatus.getArg();
+		assertTrue(isWellLabeled(arg, solver));
+		assertTrue(workerThreadsTerminate("ParallelAbstractor-worker"));
+	}
+
+	@Test
+	public void testParallelRefiner() throws InterruptedException {
+		final Analysis<ExplState, ExprAction, ExplPrec> analysis = ExplAnalysis.create(solver, sts.getInit());
+		final Predicate<ExprState> target = new ExprStatePredicate(Not(sts.getProp()), solver);
+		final LTS<State, StsAction> lts = StsLts.create(sts);
+		final ArgBuilder<ExplState, StsAction, ExplPrec> argBuilder = ArgBuilder.create(lts, analysis, target);
+
+		final Abstractor<ExplState, StsAction, ExplPrec> abstractor = BasicAbstractor.builder(argBuilder)
+				.waitlist(PriorityWaitlist.create(ArgNodeComparators.bfs()))
+				.stopCriterion(StopCriterions.fullExploration()).logger(logger).build();
+
+		final List<ExprTraceChecker<VarsRefutation>> exprTraceCheckers = new ArrayList<>();
+		for (int i = 0; i < 4; ++i) {
+			final ItpSolver workerSolver = i == 0 ? solver : Z3SolverFactory.getInstace().createItpSolver();
+			exprTraceCheckers.add(ExprTraceUnsatCoreChecker.create(sts.getInit(), Not(sts.getProp()), workerSolver));
+		}
+
+		final MultiExprTraceRefiner<ExplState, StsAction, ExplPrec, VarsRefutation> refiner = MultiExprTraceRefiner
+				.createParallel(exprTraceCheckers, JoiningPrecRefiner.create(new VarsRefToExplPrec()), logger);
+
+		final SafetyChecker<ExplState, StsAction, ExplPrec> checker = CegarChecker.create(abstractor, refiner, logger);
+
+		final SafetyResult<ExplState, StsAction> safetyStatus = checker.check(ExplPrec.of(Collections.singleton(vy)));
+
+		assertTrue(safetyStatus.isUnsafe());
+		final ARG<ExplState, StsAction> arg = safetyStatus.getArg();
+		assertTrue(isWellLabeled(arg, solver));
+		assertTrue(workerThreadsTerminate("ExprTraceBatchCheckers-worker"));
+	}
+
+	// Worker threads are only alive while the components are in use
+	private static boolean workerThreadsTerminate(final String name) throws InterruptedException {
+		for (int i = 0; i < 100; ++i) {
+			if (Thread.getAllStackTraces().keySet().stream().noneMatch(t -> t.getName().equals(name))) {
+				return true;
+			}
+			Thread.sleep(10);
+		}
+		return false;
+	}
+
 }
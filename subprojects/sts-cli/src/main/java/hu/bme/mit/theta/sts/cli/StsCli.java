@@ -21,6 +21,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import com.beust.jcommander.JCommander;
@@ -28,12 +30,18 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.google.common.base.Stopwatch;
 
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.PortfolioChecker;
+import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
 import hu.bme.mit.theta.analysis.algorithm.cegar.CegarStatistics;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.analysis.utils.ArgVisualizer;
 import hu.bme.mit.theta.analysis.utils.TraceVisualizer;
 import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.common.logging.AsyncFileLogger;
 import hu.bme.mit.theta.common.logging.ConsoleLogger;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.Logger.Level;
@@ -67,7 +75,6 @@ import hu.bme.mit.theta.sts.analysis.config.StsConfigBuilder.Search;
  */
 public class StsCli {
 	private static final String JAR_NAME = "theta-sts-cli.jar";
-	private final SolverFactory solverFactory = Z3SolverFactory.getInstace();
 	private final String[] args;
 	private final TableWriter writer;
 
@@ -89,9 +96,39 @@ public class StsCli {
 	@Parameter(names = {"--initprec"}, description = "Initial precision")
 	InitPrec initPrec = InitPrec.EMPTY;
 
+	@Parameter(names = {"--threads"}, description = "Number of threads for expanding the ARG and for checking counterexamples with MULTI_SEQ (1: sequential)")
+	Integer threads = 1;
+
+	@Parameter(names = {"--incremental"}, description = "Keep the solver context between queries")
+	Boolean incremental = false;
+
+	@Parameter(names = {"--incremental-traces"}, description = "Keep the common prefix of consecutive counterexamples in the trace checker")
+	Boolean incrementalTraces = false;
+
+	@Parameter(names = {"--cacheord"}, description = "Cache the results of the partial order of predicate states")
+	Boolean cacheOrd = false;
+
+	@Parameter(names = {"--z3-cache-size"}, description = "Maximal number of expressions whose Z3 translation is cached (-1: unlimited)")
+	Long z3CacheSize = Z3CachePolicy.getDefault().getMaximumSize();
+
+	@Parameter(names = {"--z3-cache-weak"}, description = "Evict the cached Z3 translation of garbage collected expressions (only with -Dtheta.intern=true)")
+	Boolean z3CacheWeak = false;
+
+	@Parameter(names = {"--z3-cache-shared"}, description = "Share the Z3 context and cache among the solvers of a configuration")
+	Boolean z3CacheShared = false;
+
+	@Parameter(names = {"--portfolio"}, description = "Run a portfolio of configurations concurrently, given as a list of DOMAIN:REFINEMENT[:SEARCH] (other options are shared)")
+	List<String> portfolio = null;
+
+	@Parameter(names = {"--portfolio-threads"}, description = "Maximal number of configurations running concurrently in the portfolio (0: all)")
+	Integer portfolioThreads = 0;
+
 	@Parameter(names = {"--loglevel"}, description = "Detailedness of logging")
 	Logger.Level logLevel = Level.SUBSTEP;
 
+	@Parameter(names = {"--logfile"}, description = "Write the log to a file instead of the console (in the background)")
+	String logfile = null;
+
 	@Parameter(names = {"--benchmark"}, description = "Benchmark mode (only print metrics)")
 	Boolean benchmarkMode = false;
 
@@ -102,6 +139,9 @@ public class StsCli {
 	boolean headerOnly = false;
 
 	private Logger logger;
+	private Z3SolverFactory solverFactory;
+	private List<PortfolioConfig> portfolioConfigs;
+	private final List<Z3SolverFactory> portfolioSolverFactories = new ArrayList<>();
 
 	public StsCli(final String[] args) {
 		this.args = args;
@@ -114,26 +154,47 @@ public class StsCli {
 	}
 
 	private void run() {
+		final JCommander jc = JCommander.newBuilder().addObject(this).programName(JAR_NAME).build();
 		try {
-			JCommander.newBuilder().addObject(this).programName(JAR_NAME).build().parse(args);
-			logger = benchmarkMode ? NullLogger.getInstance() : new ConsoleLogger(logLevel);
+			jc.parse(args);
+			if (portfolio != null) {
+				portfolioConfigs = parsePortfolio();
+			}
+			// Solvers sharing a context can only be used by the thread that
+			// created them, but worker threads use solvers of the main thread
+			if (z3CacheShared && (threads > 1 || portfolio != null)) {
+				throw new ParameterException("--z3-cache-shared cannot be used with multiple threads or a portfolio");
+			}
 		} catch (final ParameterException ex) {
+			ex.setJCommander(jc);
 			System.out.println("Invalid parameters, details:");
 			System.out.println(ex.getMessage());
 			ex.usage();
 			return;
 		}
 
+		try {
+			logger = createLogger();
+		} catch (final FileNotFoundException ex) {
+			System.out.println("Cannot open log file: " + ex.getMessage());
+			return;
+		}
+
 		if (headerOnly) {
 			printHeader();
 			return;
 		}
 
+		solverFactory = Z3SolverFactory.create(createCachePolicy());
 		try {
 			final Stopwatch sw = Stopwatch.createStarted();
 			final STS sts = loadModel();
-			final StsConfig<?, ?, ?> configuration = buildConfiguration(sts);
-			final SafetyResult<?, ?> status = configuration.check();
+			final SafetyResult<?, ?> status;
+			if (portfolio == null) {
+				status = buildConfiguration(sts, domain, refinement, search, solverFactory, logger).check();
+			} else {
+				status = buildPortfolio(sts).check(UnitPrec.getInstance());
+			}
 			sw.stop();
 			printResult(status, sts, sw.elapsed(TimeUnit.MILLISECONDS));
 			if (dotfile != null) {
@@ -141,15 +202,42 @@ public class StsCli {
 			}
 		} catch (final Throwable ex) {
 			printError(ex);
+		} finally {
+			solverFactory.close();
+			for (final Z3SolverFactory portfolioSolverFactory : portfolioSolverFactories) {
+				portfolioSolverFactory.close();
+			}
 		}
 		if (benchmarkMode) {
 			writer.newRow();
 		}
+		closeLogger();
+	}
+
+	private Logger createLogger() throws FileNotFoundException {
+		if (benchmarkMode) {
+			return NullLogger.getInstance();
+		} else if (logfile != null) {
+			return new AsyncFileLogger(logLevel, logfile, false);
+		} else {
+			return new ConsoleLogger(logLevel);
+		}
+	}
+
+	private void closeLogger() {
+		if (logger instanceof AsyncFileLogger) {
+			try {
+				((AsyncFileLogger) logger).close();
+			} catch (final IOException ex) {
+				System.out.println("Cannot write log file: " + ex.getMessage());
+			}
+		}
 	}
 
 	private void printHeader() {
 		final String[] header = new String[]{"Result", "TimeMs", "AlgoTimeMs", "AbsTimeMs", "RefTimeMs", "Iterations",
-				"ArgSize", "ArgDepth", "ArgMeanBranchFactor", "CexLen", "Vars", "Size"};
+				"ArgSize", "ArgDepth", "ArgMeanBranchFactor", "CexLen", "Vars", "Size", "Z3CacheHits", "Z3CacheMisses",
+				"Z3CacheEvictions"};
 		for (final String str : header) {
 			writer.cell(str);
 		}
@@ -174,13 +262,68 @@ public class StsCli {
 		}
 	}
 
-	private StsConfig<?, ?, ?> buildConfiguration(final STS sts) {
+	private Z3CachePolicy createCachePolicy() {
+		final Z3CachePolicy.Builder builder = Z3CachePolicy.builder().weakKeys(z3CacheWeak).shared(z3CacheShared);
+		if (z3CacheSize < 0) {
+			builder.unbounded();
+		} else {
+			builder.maximumSize(z3CacheSize);
+		}
+		return builder.build();
+	}
+
+	private StsConfig<?, ?, ?> buildConfiguration(final STS sts, final Domain domain, final Refinement refinement,
+												  final Search search, final SolverFactory solverFactory,
+												  final Logger logger) {
 		return new StsConfigBuilder(domain, refinement, solverFactory).initPrec(initPrec).search(search)
-				.predSplit(predSplit).logger(logger).build(sts);
+				.predSplit(predSplit).threads(threads).incremental(incremental).incrementalTraces(incrementalTraces)
+				.cacheOrd(cacheOrd).logger(logger).build(sts);
+	}
+
+	private List<PortfolioConfig> parsePortfolio() {
+		final List<PortfolioConfig> configs = new ArrayList<>(portfolio.size());
+		for (final String config : portfolio) {
+			final String[] parts = config.split(":");
+			if (parts.length < 2 || parts.length > 3) {
+				throw new ParameterException("Invalid portfolio configuration: " + config);
+			}
+			try {
+				final Domain domain = Domain.valueOf(parts[0]);
+				final Refinement refinement = Refinement.valueOf(parts[1]);
+				final Search search = parts.length > 2 ? Search.valueOf(parts[2]) : this.search;
+				configs.add(new PortfolioConfig(config, domain, refinement, search));
+			} catch (final IllegalArgumentException ex) {
+				throw new ParameterException("Invalid portfolio configuration: " + config + " (" + ex.getMessage() + ")");
+			}
+		}
+		return configs;
+	}
+
+	private PortfolioChecker<State, Action, UnitPrec> buildPortfolio(final STS sts) {
+		final PortfolioChecker.Builder<State, Action, UnitPrec> builder = PortfolioChecker.builder();
+		for (final PortfolioConfig config : portfolioConfigs) {
+			// Each configuration has its own solvers, so that the checks of
+			// the configurations still running can be interrupted
+			final Z3SolverFactory configSolverFactory = Z3SolverFactory.create(createCachePolicy());
+			portfolioSolverFactories.add(configSolverFactory);
+			// Configurations run concurrently, so only the portfolio logs
+			builder.add(config.name, asChecker(buildConfiguration(sts, config.domain, config.refinement, config.search,
+					configSolverFactory, NullLogger.getInstance())), configSolverFactory::interrupt);
+		}
+		if (portfolioThreads > 0) {
+			builder.threads(portfolioThreads);
+		}
+		return builder.logger(logger).build();
+	}
+
+	private static <S extends State, A extends Action, P extends Prec> SafetyChecker<S, A, UnitPrec> asChecker(
+			final StsConfig<S, A, P> configuration) {
+		return prec -> configuration.check();
 	}
 
 	private void printResult(final SafetyResult<?, ?> status, final STS sts, final long totalTimeMs) {
 		final CegarStatistics stats = (CegarStatistics) status.getStats().get();
+		final Z3CacheStats cacheStats = getCacheStats();
 		if (benchmarkMode) {
 			writer.cell(status.isSafe());
 			writer.cell(totalTimeMs);
@@ -198,7 +341,21 @@ public class StsCli {
 			}
 			writer.cell(sts.getVars().size());
 			writer.cell(ExprUtils.nodeCountSize(BoolExprs.And(sts.getInit(), sts.getTrans())));
+			writer.cell(cacheStats.getHitCount());
+			writer.cell(cacheStats.getMissCount());
+			writer.cell(cacheStats.getEvictionCount());
+		} else {
+			logger.write(Level.MAINSTEP, "%s%n", cacheStats);
+		}
+	}
+
+	private Z3CacheStats getCacheStats() {
+		final List<Z3CacheStats> cacheStats = new ArrayList<>();
+		cacheStats.add(solverFactory.getCacheStats());
+		for (final Z3SolverFactory portfolioSolverFactory : portfolioSolverFactories) {
+			cacheStats.add(portfolioSolverFactory.getCacheStats());
 		}
+		return Z3CacheStats.sum(cacheStats);
 	}
 
 	private void printError(final Throwable ex) {
@@ -221,4 +378,19 @@ public class StsCli {
 				: new TraceVisualizer<>(State::toString, a -> "").visualize(status.asUnsafe().getTrace());
 		GraphvizWriter.getInstance().writeFile(graph, filename);
 	}
+
+	private static final class PortfolioConfig {
+		private final String name;
+		private final Domain domain;
+		private final Refinement refinement;
+		private final Search search;
+
+		private PortfolioConfig(final String name, final Domain domain, final Refinement refinement,
+								final Search search) {
+			this.name = name;
+			this.domain = domain;
+			this.refinement = refinement;
+			this.search = search;
+		}
+	}
 }
@@ -20,95 +20,158 @@ import static hu.bme.mit.theta.xta.XtaProcess.LocKind.COMMITTED;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
 
 import hu.bme.mit.theta.analysis.LTS;
 import hu.bme.mit.theta.xta.Label;
 import hu.bme.mit.theta.xta.Sync;
-import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.Sync.Kind;
+import hu.bme.mit.theta.xta.XtaProcess;
 import hu.bme.mit.theta.xta.XtaProcess.Edge;
 import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
 
+/**
+ * LTS of an XtaSystem. The edges of each location are indexed when the LTS is
+ * created, with receiving edges grouped by their label, and the processes
+ * that can receive on each label are also precomputed. The enabled actions
+ * only depend on the location vector, so they are computed once for each
+ * location vector and cached. The system should not be modified after
+ * creating the LTS.
+ *
+ * The cache is not bounded: it holds a list of actions for each location
+ * vector queried so far, which is proportional to the number of distinct
+ * location vectors in the ARG. It is released together with the LTS.
+ */
 public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
 
+	private static final int[] NO_RECEIVERS = new int[0];
+
 	private final XtaSystem system;
+	private final Map<Loc, LocEdges> locEdges;
+	private final Map<Label, int[]> receivers;
+	private final Map<List<Loc>, List<XtaAction>> actions;
 
 	private XtaLts(final XtaSystem system) {
 		this.system = checkNotNull(system);
+		locEdges = new HashMap<>();
+		receivers = new HashMap<>();
+		actions = new ConcurrentHashMap<>();
+		index(system);
 	}
 
 	public static XtaLts create(final XtaSystem system) {
 		return new XtaLts(system);
 	}
 
-	@Override
-	public Collection<XtaAction> getEnabledActionsFor(final XtaState<?> state) {
-		final Collection<XtaAction> result = new ArrayList<>();
-		for (final Loc loc : state.getLocs()) {
-			for (final Edge edge : loc.getOutEdges()) {
-				addActionsForEdge(result, system, state, edge);
+	private void index(final XtaSystem system) {
+		final Map<Label, List<Integer>> receiverLists = new HashMap<>();
+		final List<XtaProcess> processes = system.getProcesses();
+		for (int i = 0; i < processes.size(); i++) {
+			for (final Loc loc : processes.get(i).getLocs()) {
+				final LocEdges edges = new LocEdges(loc);
+				locEdges.put(loc, edges);
+				for (final Label label : edges.recvEdges.keySet()) {
+					final List<Integer> receiverList = receiverLists.computeIfAbsent(label, l -> new ArrayList<>());
+					if (receiverList.isEmpty() || receiverList.get(receiverList.size() - 1) != i) {
+						receiverList.add(i);
+					}
+				}
 			}
 		}
-		return result;
+		receiverLists.forEach((label, receiverList) -> receivers.put(label, Ints.toArray(receiverList)));
 	}
 
-	private static void addActionsForEdge(final Collection<XtaAction> result, final XtaSystem system,
-										  final XtaState<?> state, final Edge edge) {
-		if (edge.getSync().isPresent()) {
-			addSyncActionsForEdge(result, system, state, edge);
-		} else {
-			addSimpleActionsForEdge(result, system, state, edge);
-		}
+	@Override
+	public Collection<XtaAction> getEnabledActionsFor(final XtaState<?> state) {
+		final List<Loc> locs = state.getLocs();
+		return actions.computeIfAbsent(locs, l -> computeActions(l, state.isCommitted()));
 	}
 
-	private static void addSyncActionsForEdge(final Collection<XtaAction> result, final XtaSystem system,
-											  final XtaState<?> state, final Edge emitEdge) {
-
-		final Loc emitLoc = emitEdge.getSource();
-		final Sync emitSync = emitEdge.getSync().get();
-		if (emitSync.getKind() != Kind.EMIT) {
-			return;
+	private List<XtaAction> computeActions(final List<Loc> locs, final boolean committed) {
+		final ImmutableList.Builder<XtaAction> builder = ImmutableList.builder();
+		for (final Loc loc : locs) {
+			for (final Edge edge : getLocEdges(loc).edges) {
+				if (edge.getSync().isPresent()) {
+					addSyncActionsForEdge(builder, locs, committed, edge);
+				} else {
+					addSimpleActionsForEdge(builder, locs, committed, edge);
+				}
+			}
 		}
+		return builder.build();
+	}
 
-		final Label emitLabel = emitSync.getLabel();
+	private void addSyncActionsForEdge(final ImmutableList.Builder<XtaAction> builder, final List<Loc> locs,
+									   final boolean committed, final Edge emitEdge) {
+		final Loc emitLoc = emitEdge.getSource();
+		final Label emitLabel = emitEdge.getSync().get().getLabel();
 
-		for (final Loc recvLoc : state.getLocs()) {
+		for (final int i : receivers.getOrDefault(emitLabel, NO_RECEIVERS)) {
+			final Loc recvLoc = locs.get(i);
 			if (recvLoc == emitLoc) {
 				continue;
 			}
 
-			if (state.isCommitted() && emitLoc.getKind() != COMMITTED && recvLoc.getKind() != COMMITTED) {
+			if (committed && emitLoc.getKind() != COMMITTED && recvLoc.getKind() != COMMITTED) {
 				continue;
 			}
 
-			for (final Edge recvEdge : recvLoc.getOutEdges()) {
-				if (!recvEdge.getSync().isPresent()) {
-					continue;
-				}
-
-				final Sync recvSync = recvEdge.getSync().get();
-				if (recvSync.getKind() != Kind.RECV) {
-					continue;
-				}
-
-				final Label recvLabel = recvSync.getLabel();
-
-				if (emitLabel.equals(recvLabel)) {
-					final XtaAction action = XtaAction.synced(system, state.getLocs(), emitEdge, recvEdge);
-					result.add(action);
-				}
+			final List<Edge> recvEdges = getLocEdges(recvLoc).recvEdges.getOrDefault(emitLabel,
+					Collections.emptyList());
+			for (final Edge recvEdge : recvEdges) {
+				builder.add(XtaAction.synced(system, locs, emitEdge, recvEdge));
 			}
 		}
 	}
 
-	private static void addSimpleActionsForEdge(final Collection<XtaAction> result, final XtaSystem system,
-												final XtaState<?> state, final Edge edge) {
+	private void addSimpleActionsForEdge(final ImmutableList.Builder<XtaAction> builder, final List<Loc> locs,
+										 final boolean committed, final Edge edge) {
 		final Loc loc = edge.getSource();
-		if (state.isCommitted() && loc.getKind() != COMMITTED) {
+		if (committed && loc.getKind() != COMMITTED) {
 			return;
 		}
-		final XtaAction action = XtaAction.simple(system, state.getLocs(), edge);
-		result.add(action);
+		builder.add(XtaAction.simple(system, locs, edge));
+	}
+
+	private LocEdges getLocEdges(final Loc loc) {
+		final LocEdges result = locEdges.get(loc);
+		checkNotNull(result, "Unknown location");
+		return result;
+	}
+
+	/**
+	 * Outgoing edges of a location: edges without synchronization and emitting
+	 * edges in their original order, and receiving edges by label.
+	 */
+	private static final class LocEdges {
+		private final List<Edge> edges;
+		private final Map<Label, List<Edge>> recvEdges;
+
+		private LocEdges(final Loc loc) {
+			final ImmutableList.Builder<Edge> edgesBuilder = ImmutableList.builder();
+			recvEdges = new HashMap<>();
+			for (final Edge edge : loc.getOutEdges()) {
+				if (edge.getSync().isPresent()) {
+					final Sync sync = edge.getSync().get();
+					if (sync.getKind() == Kind.EMIT) {
+						edgesBuilder.add(edge);
+					} else {
+						recvEdges.computeIfAbsent(sync.getLabel(), l -> new ArrayList<>()).add(edge);
+					}
+				} else {
+					edgesBuilder.add(edge);
+				}
+			}
+			edges = edgesBuilder.build();
+		}
 	}
 
 }
@@ -0,0 +1,105 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+
+/**
+ * Reachability property of an XTA system. A state is a target if its location
+ * vector contains all locations of at least one of the location sets (or there
+ * are no location sets), and its data valuation satisfies the data expression.
+ */
+public final class XtaTarget {
+
+	private final List<Set<Loc>> locSets;
+	private final Expr<BoolType> dataExpr;
+
+	private XtaTarget(final Collection<? extends Collection<? extends Loc>> locSets, final Expr<BoolType> dataExpr) {
+		checkNotNull(locSets);
+		this.locSets = locSets.stream().map(ImmutableSet::<Loc>copyOf).collect(toImmutableList());
+		this.dataExpr = checkNotNull(dataExpr);
+	}
+
+	public static XtaTarget create(final Collection<? extends Collection<? extends Loc>> locSets,
+								   final Expr<BoolType> dataExpr) {
+		return new XtaTarget(locSets, dataExpr);
+	}
+
+	/**
+	 * Target with a single location set that has to be reached (by different
+	 * processes) at the same time.
+	 */
+	public static XtaTarget locs(final Collection<? extends Loc> locs) {
+		return new XtaTarget(ImmutableList.of(locs), True());
+	}
+
+	public static XtaTarget data(final Expr<BoolType> dataExpr) {
+		return new XtaTarget(ImmutableList.of(), dataExpr);
+	}
+
+	public List<Set<Loc>> getLocSets() {
+		return locSets;
+	}
+
+	public Expr<BoolType> getDataExpr() {
+		return dataExpr;
+	}
+
+	/**
+	 * Checks whether a location vector with a concrete data valuation is a
+	 * target. Variables not assigned by the valuation make the data expression
+	 * unsatisfied.
+	 */
+	public boolean test(final List<Loc> locs, final Valuation dataVal) {
+		checkNotNull(locs);
+		checkNotNull(dataVal);
+		return testLocs(locs) && ExprUtils.simplify(dataExpr, dataVal).equals(True());
+	}
+
+	private boolean testLocs(final List<Loc> locs) {
+		if (locSets.isEmpty()) {
+			return true;
+		}
+		for (final Set<Loc> locSet : locSets) {
+			if (locs.containsAll(locSet)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).addAll(locSets).add(dataExpr).toString();
+	}
+
+}
@@ -22,6 +22,7 @@ import hu.bme.mit.theta.analysis.Analysis;
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.analysis.zone.ZoneStore;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
 import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaStatistics.Builder;
 
@@ -29,6 +30,11 @@ interface AlgorithmStrategy<S1 extends State, S2 extends State> {
 
 	Analysis<S2, XtaAction, UnitPrec> getAnalysis();
 
+	/**
+	 * Projection of states to keys of the passed list. Only nodes with the same
+	 * location vector and equal keys are checked for coverage, so strategies
+	 * whose states are never refined can project to the exact state.
+	 */
 	Function<S2, ?> getProjection();
 
 	boolean mightCover(final ArgNode<S1, XtaAction> coveree, ArgNode<S1, XtaAction> coverer);
@@ -39,4 +45,10 @@ interface AlgorithmStrategy<S1 extends State, S2 extends State> {
 	void block(ArgNode<S1, XtaAction> node, final XtaAction action, final S1 succState,
 			   Collection<ArgNode<S1, XtaAction>> uncoveredNodes, final Builder stats);
 
+	/**
+	 * Called when an expanded node is added to the passed list. Zones of the
+	 * node can be replaced by their interned versions from the store.
+	 */
+	void pass(ArgNode<S1, XtaAction> node, ZoneStore zoneStore);
+
 }
@@ -28,7 +28,8 @@ import hu.bme.mit.theta.analysis.prod2.Prod2Analysis;
 import hu.bme.mit.theta.analysis.prod2.Prod2Prec;
 import hu.bme.mit.theta.analysis.prod2.Prod2State;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
-import hu.bme.mit.theta.common.Tuple3;
+import hu.bme.mit.theta.analysis.zone.ZoneStore;
+import hu.bme.mit.theta.common.Tuple2;
 import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
 import hu.bme.mit.theta.xta.analysis.XtaAnalysis;
@@ -48,8 +49,8 @@ final class CombinedStrategy<S1 extends State, S2 extends State>
 		this.strategy1 = checkNotNull(strategy1);
 		this.strategy2 = checkNotNull(strategy2);
 		this.analysis = createAnalysis(system);
-		projection = s -> Tuple3.of(strategy1.getProjection().apply(s.getState().getState1()),
-				strategy2.getProjection().apply(s.getState().getState2()), s.getLocs());
+		projection = s -> Tuple2.of(strategy1.getProjection().apply(s.getState().getState1()),
+				strategy2.getProjection().apply(s.getState().getState2()));
 	}
 
 	@Override
@@ -94,6 +95,12 @@ final class CombinedStrategy<S1 extends State, S2 extends State>
 		}
 	}
 
+	@Override
+	public void pass(final ArgNode<XtaState<Prod2State<S1, S2>>, XtaAction> node, final ZoneStore zoneStore) {
+		strategy1.pass(node, zoneStore);
+		strategy2.pass(node, zoneStore);
+	}
+
 	////
 
 	private Analysis<XtaState<Prod2State<S1, S2>>, XtaAction, UnitPrec> createAnalysis(final XtaSystem system) {
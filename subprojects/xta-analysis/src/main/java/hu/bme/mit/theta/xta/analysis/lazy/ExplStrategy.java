@@ -25,6 +25,7 @@ import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 import hu.bme.mit.theta.analysis.expl.ExplState;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.analysis.zone.ZoneStore;
 import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
 import hu.bme.mit.theta.xta.analysis.expl.XtaExplAnalysis;
@@ -72,4 +73,9 @@ final class ExplStrategy<S extends State> implements AlgorithmStrategy<S, ExplSt
 		return;
 	}
 
+	@Override
+	public void pass(final ArgNode<S, XtaAction> node, final ZoneStore zoneStore) {
+		return;
+	}
+
 }
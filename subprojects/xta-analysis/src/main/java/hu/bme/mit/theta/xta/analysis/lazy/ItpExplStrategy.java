@@ -30,6 +30,7 @@ import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 import hu.bme.mit.theta.analysis.expl.ExplState;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.analysis.zone.ZoneStore;
 import hu.bme.mit.theta.core.decl.Decl;
 import hu.bme.mit.theta.core.model.ImmutableValuation;
 import hu.bme.mit.theta.core.model.Valuation;
@@ -91,6 +92,11 @@ abstract class ItpExplStrategy<S extends State> implements AlgorithmStrategy<S,
 		stats.stopExpandExplRefinement();
 	}
 
+	@Override
+	public final void pass(final ArgNode<S, XtaAction> node, final ZoneStore zoneStore) {
+		return;
+	}
+
 	////
 
 	protected abstract Valuation blockExpl(final ArgNode<S, XtaAction> node, final Expr<BoolType> expr,
@@ -29,6 +29,7 @@ import hu.bme.mit.theta.analysis.impl.PrecMappingAnalysis;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.analysis.zone.ZonePrec;
 import hu.bme.mit.theta.analysis.zone.ZoneState;
+import hu.bme.mit.theta.analysis.zone.ZoneStore;
 import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
 import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaStatistics.Builder;
@@ -91,6 +92,18 @@ abstract class ItpZoneStrategy<S extends State> implements AlgorithmStrategy<S,
 		stats.stopExpandZoneRefinement();
 	}
 
+	@Override
+	public final void pass(final ArgNode<S, XtaAction> node, final ZoneStore zoneStore) {
+		final S state = node.getState();
+		final ItpZoneState itpZoneState = lens.get(state);
+		final ZoneState concrState = zoneStore.internReduced(itpZoneState.getConcrState());
+		final ZoneState abstrState = zoneStore.internReduced(itpZoneState.getAbstrState());
+		if (concrState != itpZoneState.getConcrState() || abstrState != itpZoneState.getAbstrState()) {
+			final ItpZoneState newItpZoneState = ItpZoneState.of(concrState, abstrState);
+			node.setState(lens.set(state, newItpZoneState));
+		}
+	}
+
 	////
 
 	protected abstract ZoneState blockZone(final ArgNode<S, XtaAction> node, final ZoneState zone,
@@ -19,18 +19,22 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.function.Predicate;
 
 import com.google.common.collect.Lists;
 
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ARG;
 import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.algorithm.ArgTrace;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
 import hu.bme.mit.theta.analysis.algorithm.SearchStrategy;
 import hu.bme.mit.theta.analysis.reachedset.Partition;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.analysis.waitlist.Waitlist;
+import hu.bme.mit.theta.analysis.zone.ZoneStore;
+import hu.bme.mit.theta.common.Tuple2;
 import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
 import hu.bme.mit.theta.xta.analysis.XtaLts;
@@ -40,18 +44,30 @@ final class LazyXtaChecker<S extends State> implements SafetyChecker<XtaState<S>
 	private final XtaLts lts;
 	private final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy;
 	private final SearchStrategy searchStrategy;
+	private final Predicate<? super XtaState<S>> target;
 
 	private LazyXtaChecker(final XtaSystem system, final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy,
-						   final SearchStrategy searchStrategy) {
+						   final SearchStrategy searchStrategy, final Predicate<? super XtaState<S>> target) {
 		checkNotNull(system);
 		lts = XtaLts.create(system);
 		this.algorithmStrategy = checkNotNull(algorithmStrategy);
 		this.searchStrategy = checkNotNull(searchStrategy);
+		this.target = checkNotNull(target);
 	}
 
 	public static <S extends State> LazyXtaChecker<S> create(final XtaSystem system,
 															 final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy, final SearchStrategy searchStrategy) {
-		return new LazyXtaChecker<>(system, algorithmStrategy, searchStrategy);
+		return new LazyXtaChecker<>(system, algorithmStrategy, searchStrategy, s -> false);
+	}
+
+	/**
+	 * Create a checker that stops at the first reached target state and
+	 * returns the trace leading to it.
+	 */
+	public static <S extends State> LazyXtaChecker<S> create(final XtaSystem system,
+															 final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy, final SearchStrategy searchStrategy,
+															 final Predicate<? super XtaState<S>> target) {
+		return new LazyXtaChecker<>(system, algorithmStrategy, searchStrategy, target);
 	}
 
 	@Override
@@ -64,39 +80,57 @@ final class LazyXtaChecker<S extends State> implements SafetyChecker<XtaState<S>
 		final LazyXtaStatistics.Builder stats;
 		final Partition<ArgNode<XtaState<S>, XtaAction>, ?> passed;
 		final Waitlist<ArgNode<XtaState<S>, XtaAction>> waiting;
+		final ZoneStore zoneStore;
 
 		public CheckMethod() {
 			arg = ARG.create(algorithmStrategy.getAnalysis().getPartialOrd());
-			stats = LazyXtaStatistics.builder(arg);
-			passed = Partition.of(n -> algorithmStrategy.getProjection().apply(n.getState()));
+			zoneStore = ZoneStore.create();
+			stats = LazyXtaStatistics.builder(arg, zoneStore);
+			// Coverage candidates must have the same location vector, regardless of the strategy
+			passed = Partition.of(n -> Tuple2.of(n.getState().getLocs(),
+					algorithmStrategy.getProjection().apply(n.getState())));
 			waiting = searchStrategy.createWaitlist();
 		}
 
 		public SafetyResult<XtaState<S>, XtaAction> run() {
 			stats.startAlgorithm();
 
-			init();
+			ArgNode<XtaState<S>, XtaAction> targetNode = init();
 			waiting.addAll(arg.getInitNodes());
-			while (!waiting.isEmpty()) {
+			while (targetNode == null && !waiting.isEmpty()) {
 				final ArgNode<XtaState<S>, XtaAction> v = waiting.remove();
 				assert v.isFeasible();
 
 				close(v);
 				if (!v.isCovered()) {
-					expand(v);
+					targetNode = expand(v);
 				}
 			}
 
 			stats.stopAlgorithm();
 			final LazyXtaStatistics statistics = stats.build();
-			final SafetyResult<XtaState<S>, XtaAction> result = SafetyResult.safe(arg, statistics);
+			final SafetyResult<XtaState<S>, XtaAction> result;
+			if (targetNode == null) {
+				result = SafetyResult.safe(arg, statistics);
+			} else {
+				result = SafetyResult.unsafe(ArgTrace.to(targetNode).toTrace(), arg, statistics);
+			}
 			return result;
 		}
 
-		private void init() {
+		/**
+		 * Returns the first target node created, or null if there is none.
+		 */
+		private ArgNode<XtaState<S>, XtaAction> init() {
 			final Collection<? extends XtaState<S>> initStates = algorithmStrategy.getAnalysis().getInitFunc()
 					.getInitStates(UnitPrec.getInstance());
-			initStates.forEach(s -> arg.createInitNode(s, false));
+			for (final XtaState<S> initState : initStates) {
+				final ArgNode<XtaState<S>, XtaAction> initNode = arg.createInitNode(initState, target.test(initState));
+				if (initNode.isTarget()) {
+					return initNode;
+				}
+			}
+			return null;
 		}
 
 		private void close(final ArgNode<XtaState<S>, XtaAction> coveree) {
@@ -127,7 +161,11 @@ final class LazyXtaChecker<S extends State> implements SafetyChecker<XtaState<S>
 			stats.stopClosing();
 		}
 
-		private void expand(final ArgNode<XtaState<S>, XtaAction> node) {
+		/**
+		 * Returns the first target successor, or null if there is none. The
+		 * expansion stops at the first target.
+		 */
+		private ArgNode<XtaState<S>, XtaAction> expand(final ArgNode<XtaState<S>, XtaAction> node) {
 			stats.startExpanding();
 			final XtaState<S> state = node.getState();
 
@@ -142,14 +180,20 @@ final class LazyXtaChecker<S extends State> implements SafetyChecker<XtaState<S>
 						waiting.addAll(uncoveredNodes);
 					} else {
 						final ArgNode<XtaState<S>, XtaAction> succNode = arg.createSuccNode(node, action, succState,
-								false);
+								target.test(succState));
+						if (succNode.isTarget()) {
+							stats.stopExpanding();
+							return succNode;
+						}
 						waiting.add(succNode);
 					}
 				}
 			}
 
+			algorithmStrategy.pass(node, zoneStore);
 			passed.add(node);
 			stats.stopExpanding();
+			return null;
 		}
 	}
 
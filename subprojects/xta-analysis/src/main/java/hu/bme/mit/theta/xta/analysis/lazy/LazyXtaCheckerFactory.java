@@ -15,12 +15,22 @@
  */
 package hu.bme.mit.theta.xta.analysis.lazy;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.function.Predicate;
+
+import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.SearchStrategy;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.prod2.Prod2State;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
 import hu.bme.mit.theta.xta.analysis.XtaState;
+import hu.bme.mit.theta.xta.analysis.XtaTarget;
+import hu.bme.mit.theta.xta.analysis.expl.itp.ItpExplState;
 
 public final class LazyXtaCheckerFactory {
 
@@ -35,6 +45,35 @@ public final class LazyXtaCheckerFactory {
 		return checker;
 	}
 
+	/**
+	 * Create a checker that stops at the first reachable target state, and
+	 * returns an unsafe result with the trace leading to it.
+	 */
+	public static SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> create(final XtaSystem system,
+																				   final DataStrategy dataStrategy, final ClockStrategy clockStrategy, final SearchStrategy searchStrategy,
+																				   final XtaTarget target) {
+		checkNotNull(target);
+		final CombinedStrategy<?, ?> algorithmStrategy = combineStrategies(system, dataStrategy, clockStrategy);
+		final SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> checker = LazyXtaChecker.create(system,
+				algorithmStrategy, searchStrategy, createTargetPredicate(target));
+		return checker;
+	}
+
+	private static Predicate<XtaState<? extends Prod2State<?, ?>>> createTargetPredicate(final XtaTarget target) {
+		return s -> target.test(s.getLocs(), getConcrDataVal(s.getState().getState1()));
+	}
+
+	// Data states of every data strategy are exact
+	private static Valuation getConcrDataVal(final State dataState) {
+		if (dataState instanceof ExplState) {
+			return (ExplState) dataState;
+		} else if (dataState instanceof ItpExplState) {
+			return ((ItpExplState) dataState).getConcrState();
+		} else {
+			throw new AssertionError();
+		}
+	}
+
 	private static CombinedStrategy<?, ?> combineStrategies(final XtaSystem system, final DataStrategy dataStrategy,
 															final ClockStrategy clockStrategy) {
 
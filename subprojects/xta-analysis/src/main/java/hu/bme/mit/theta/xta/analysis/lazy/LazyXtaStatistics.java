@@ -23,6 +23,7 @@ import com.google.common.base.Stopwatch;
 
 import hu.bme.mit.theta.analysis.algorithm.ARG;
 import hu.bme.mit.theta.analysis.algorithm.Statistics;
+import hu.bme.mit.theta.analysis.zone.ZoneStore;
 import hu.bme.mit.theta.common.table.TableWriter;
 
 public final class LazyXtaStatistics extends Statistics {
@@ -42,6 +43,9 @@ public final class LazyXtaStatistics extends Statistics {
 	private final long argDepth;
 	private final long argNodes;
 	private final long argNodesExpanded;
+	private final long storedZones;
+	private final long sharedZones;
+	private final long zoneBytesSaved;
 
 	private LazyXtaStatistics(final Builder builder) {
 		algorithmTimeInMs = builder.algorithmTimer.elapsed(MILLISECONDS);
@@ -59,6 +63,9 @@ public final class LazyXtaStatistics extends Statistics {
 		argDepth = builder.arg.getDepth();
 		argNodes = builder.arg.size();
 		argNodesExpanded = builder.arg.getNodes().filter(n -> !n.isSubsumed()).count();
+		storedZones = builder.zoneStore.getZoneCount();
+		sharedZones = builder.zoneStore.getHits();
+		zoneBytesSaved = builder.zoneStore.getSavedBytes();
 
 		addStat("AlgorithmTimeInMs", this::getAlgorithmTimeInMs);
 		addStat("ExpandTimeInMs", this::getExpandTimeInMs);
@@ -75,10 +82,13 @@ public final class LazyXtaStatistics extends Statistics {
 		addStat("ArgDepth", this::getArgDepth);
 		addStat("ArgNodes", this::getArgNodes);
 		addStat("ArgNodesExpanded", this::getArgNodesExpanded);
+		addStat("StoredZones", this::getStoredZones);
+		addStat("SharedZones", this::getSharedZones);
+		addStat("ZoneBytesSaved", this::getZoneBytesSaved);
 	}
 
-	public static Builder builder(final ARG<?, ?> arg) {
-		return new Builder(arg);
+	public static Builder builder(final ARG<?, ?> arg, final ZoneStore zoneStore) {
+		return new Builder(arg, zoneStore);
 	}
 
 	public long getAlgorithmTimeInMs() {
@@ -141,6 +151,18 @@ public final class LazyXtaStatistics extends Statistics {
 		return argNodesExpanded;
 	}
 
+	public long getStoredZones() {
+		return storedZones;
+	}
+
+	public long getSharedZones() {
+		return sharedZones;
+	}
+
+	public long getZoneBytesSaved() {
+		return zoneBytesSaved;
+	}
+
 	public static void writeHeader(final TableWriter writer) {
 		writer.cell("AlgorithmTimeInMs");
 		writer.cell("ExpandTimeInMs");
@@ -157,6 +179,9 @@ public final class LazyXtaStatistics extends Statistics {
 		writer.cell("ArgDepth");
 		writer.cell("ArgNodes");
 		writer.cell("ArgNodesExpanded");
+		writer.cell("StoredZones");
+		writer.cell("SharedZones");
+		writer.cell("ZoneBytesSaved");
 		writer.newRow();
 	}
 
@@ -176,6 +201,9 @@ public final class LazyXtaStatistics extends Statistics {
 		writer.cell(argDepth);
 		writer.cell(argNodes);
 		writer.cell(argNodesExpanded);
+		writer.cell(storedZones);
+		writer.cell(sharedZones);
+		writer.cell(zoneBytesSaved);
 		writer.newRow();
 	}
 
@@ -188,6 +216,7 @@ public final class LazyXtaStatistics extends Statistics {
 		private State state;
 
 		private final ARG<?, ?> arg;
+		private final ZoneStore zoneStore;
 		private final Stopwatch algorithmTimer;
 		private final Stopwatch expandTimer;
 		private final Stopwatch closeTimer;
@@ -201,8 +230,9 @@ public final class LazyXtaStatistics extends Statistics {
 		private long explRefinementSteps;
 		private long zoneRefinementSteps;
 
-		private Builder(final ARG<?, ?> arg) {
+		private Builder(final ARG<?, ?> arg, final ZoneStore zoneStore) {
 			this.arg = checkNotNull(arg);
+			this.zoneStore = checkNotNull(zoneStore);
 			state = State.CREATED;
 			algorithmTimer = Stopwatch.createUnstarted();
 			expandTimer = Stopwatch.createUnstarted();
@@ -30,6 +30,8 @@ import hu.bme.mit.theta.analysis.impl.PrecMappingAnalysis;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.analysis.zone.BoundFunc;
 import hu.bme.mit.theta.analysis.zone.ZonePrec;
+import hu.bme.mit.theta.analysis.zone.ZoneState;
+import hu.bme.mit.theta.analysis.zone.ZoneStore;
 import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
 import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaStatistics.Builder;
@@ -89,6 +91,18 @@ final class LuZoneStrategy<S extends State> implements AlgorithmStrategy<S, LuZo
 		stats.stopExpandZoneRefinement();
 	}
 
+	@Override
+	public void pass(final ArgNode<S, XtaAction> node, final ZoneStore zoneStore) {
+		// Zones are not reduced, as inclusion with LU bounds needs the full DBM of the coverer
+		final S state = node.getState();
+		final LuZoneState luZoneState = lens.get(state);
+		final ZoneState zone = zoneStore.intern(luZoneState.getZone());
+		if (zone != luZoneState.getZone()) {
+			final LuZoneState newLuZoneState = LuZoneState.of(zone, luZoneState.getBoundFunc());
+			node.setState(lens.set(state, newLuZoneState));
+		}
+	}
+
 	////
 
 	private void propagateBounds(final ArgNode<S, XtaAction> node, final BoundFunc boundFunc,
@@ -0,0 +1,170 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import static hu.bme.mit.theta.analysis.algorithm.SearchStrategy.BFS;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.algorithm.ArgChecker;
+import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.TypeUtils;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+import hu.bme.mit.theta.xta.XtaProcess;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.lazy.ClockStrategy;
+import hu.bme.mit.theta.xta.analysis.lazy.DataStrategy;
+import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaCheckerFactory;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+
+@RunWith(Parameterized.class)
+public final class LazyXtaCheckerTargetTest {
+
+	@Parameter(0)
+	public DataStrategy dataStrategy;
+
+	@Parameter(1)
+	public ClockStrategy clockStrategy;
+
+	@Parameters(name = "discrete: {0}, clock: {1}")
+	public static Collection<Object[]> data() {
+		final Collection<Object[]> result = new ArrayList<>();
+		for (final DataStrategy dataStrategy : DataStrategy.values()) {
+			for (final ClockStrategy clockStrategy : ClockStrategy.values()) {
+				result.add(new Object[]{dataStrategy, clockStrategy});
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void testMutualExclusion() throws IOException {
+		final XtaSystem system = load("/fischer-2-32-64.xta");
+		final XtaTarget target = XtaTarget.locs(ImmutableList.of(loc(system, "P_1_cs"), loc(system, "P_2_cs")));
+
+		final SafetyResult<? extends XtaState<?>, XtaAction> result = check(system, target);
+
+		assertTrue(result.isSafe());
+	}
+
+	@Test
+	public void testReachableLocs() throws IOException {
+		final XtaSystem system = load("/critical-2-25-50.xta");
+		final Loc error1 = loc(system, "ProdCell_1_error");
+		final Loc error2 = loc(system, "ProdCell_2_error");
+		final XtaTarget target = XtaTarget.create(ImmutableList.of(ImmutableList.of(error1), ImmutableList.of(error2)),
+				True());
+
+		final SafetyResult<? extends XtaState<?>, XtaAction> result = check(system, target);
+
+		assertTrue(result.isUnsafe());
+		final List<Loc> lastLocs = last(result).getLocs();
+		assertTrue(lastLocs.contains(error1) || lastLocs.contains(error2));
+	}
+
+	@Test
+	public void testReachableData() throws IOException {
+		final XtaSystem system = load("/fischer-2-32-64.xta");
+		final Loc cs1 = loc(system, "P_1_cs");
+		final VarDecl<IntType> id = TypeUtils.cast(var(system, "idid"), Int());
+
+		final SafetyResult<? extends XtaState<?>, XtaAction> reachable = check(system,
+				XtaTarget.create(ImmutableList.of(ImmutableList.of(cs1)), Eq(id.getRef(), Int(1))));
+		final SafetyResult<? extends XtaState<?>, XtaAction> unreachable = check(system,
+				XtaTarget.create(ImmutableList.of(ImmutableList.of(cs1)), Eq(id.getRef(), Int(2))));
+
+		assertTrue(reachable.isUnsafe());
+		assertTrue(last(reachable).getLocs().contains(cs1));
+		assertTrue(unreachable.isSafe());
+	}
+
+	@Test
+	public void testInitialTarget() throws IOException {
+		final XtaSystem system = load("/fischer-2-32-64.xta");
+
+		final SafetyResult<? extends XtaState<?>, XtaAction> result = check(system,
+				XtaTarget.locs(system.getInitLocs()));
+
+		assertTrue(result.isUnsafe());
+		assertEquals(0, result.asUnsafe().getTrace().length());
+	}
+
+	////
+
+	private SafetyResult<? extends XtaState<?>, XtaAction> check(final XtaSystem system, final XtaTarget target) {
+		final SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> checker = LazyXtaCheckerFactory
+				.create(system, dataStrategy, clockStrategy, BFS, target);
+		final SafetyResult<? extends XtaState<?>, XtaAction> result = checker.check(UnitPrec.getInstance());
+
+		final ArgChecker argChecker = ArgChecker.create(Z3SolverFactory.getInstace().createSolver());
+		assertTrue(argChecker.isWellLabeled(result.getArg()));
+		return result;
+	}
+
+	private static XtaState<?> last(final SafetyResult<? extends XtaState<?>, XtaAction> result) {
+		final List<? extends XtaState<?>> states = result.asUnsafe().getTrace().getStates();
+		return states.get(states.size() - 1);
+	}
+
+	private XtaSystem load(final String filepath) throws FileNotFoundException, IOException {
+		final InputStream inputStream = getClass().getResourceAsStream(filepath);
+		return XtaDslManager.createSystem(inputStream);
+	}
+
+	private static VarDecl<?> var(final XtaSystem system, final String name) {
+		for (final VarDecl<?> var : system.getDataVars()) {
+			if (var.getName().equals(name)) {
+				return var;
+			}
+		}
+		throw new AssertionError("Unknown variable: " + name);
+	}
+
+	private static Loc loc(final XtaSystem system, final String name) {
+		for (final XtaProcess process : system.getProcesses()) {
+			for (final Loc loc : process.getLocs()) {
+				if (loc.getName().equals(name)) {
+					return loc;
+				}
+			}
+		}
+		throw new AssertionError("Unknown location: " + name);
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import static hu.bme.mit.theta.xta.XtaProcess.LocKind.COMMITTED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import hu.bme.mit.theta.analysis.unit.UnitState;
+import hu.bme.mit.theta.common.Tuple2;
+import hu.bme.mit.theta.xta.Sync;
+import hu.bme.mit.theta.xta.Sync.Kind;
+import hu.bme.mit.theta.xta.XtaProcess.Edge;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+
+@RunWith(Parameterized.class)
+public final class XtaLtsTest {
+
+	@Parameters(name = "{0}")
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][]{
+
+				{"/critical-2-25-50.xta"},
+
+				{"/csma-2.xta"},
+
+				{"/engine-classic.xta"},
+
+				{"/fddi-2.xta"},
+
+				{"/fischer-2-32-64.xta"},
+
+				{"/lynch-2-16.xta"}
+
+		});
+	}
+
+	@Parameter(0)
+	public String filepath;
+
+	@Test
+	public void test() throws IOException {
+		final InputStream inputStream = getClass().getResourceAsStream(filepath);
+		final XtaSystem system = XtaDslManager.createSystem(inputStream);
+		final XtaLts lts = XtaLts.create(system);
+
+		final Set<List<Loc>> visited = new HashSet<>();
+		final Queue<List<Loc>> queue = new ArrayDeque<>();
+		queue.add(system.getInitLocs());
+		while (!queue.isEmpty()) {
+			final List<Loc> locs = queue.remove();
+			if (!visited.add(locs)) {
+				continue;
+			}
+			final XtaState<UnitState> state = XtaState.of(locs, UnitState.getInstance());
+			final Collection<XtaAction> actions = lts.getEnabledActionsFor(state);
+
+			assertEquals(expectedEdges(state), edgesOf(actions));
+			assertSame(actions, lts.getEnabledActionsFor(XtaState.of(locs, UnitState.getInstance())));
+
+			for (final XtaAction action : actions) {
+				queue.add(action.getTargetLocs());
+			}
+		}
+	}
+
+	private static List<Object> edgesOf(final Collection<XtaAction> actions) {
+		final List<Object> result = new ArrayList<>();
+		for (final XtaAction action : actions) {
+			if (action.isBasic()) {
+				result.add(action.asBasic().getEdge());
+			} else {
+				result.add(Tuple2.of(action.asSynced().getEmitEdge(), action.asSynced().getRecvEdge()));
+			}
+		}
+		return result;
+	}
+
+	// Enumerates all pairs of edges, as the LTS did before indexing
+	private static List<Object> expectedEdges(final XtaState<?> state) {
+		final List<Object> result = new ArrayList<>();
+		for (final Loc loc : state.getLocs()) {
+			for (final Edge edge : loc.getOutEdges()) {
+				if (!edge.getSync().isPresent()) {
+					if (!state.isCommitted() || loc.getKind() == COMMITTED) {
+						result.add(edge);
+					}
+				} else if (edge.getSync().get().getKind() == Kind.EMIT) {
+					for (final Loc recvLoc : state.getLocs()) {
+						if (recvLoc == loc || (state.isCommitted() && loc.getKind() != COMMITTED
+								&& recvLoc.getKind() != COMMITTED)) {
+							continue;
+						}
+						for (final Edge recvEdge : recvLoc.getOutEdges()) {
+							final Sync recvSync = recvEdge.getSync().orElse(null);
+							if (recvSync != null && recvSync.getKind() == Kind.RECV
+									&& recvSync.getLabel().equals(edge.getSync().get().getLabel())) {
+								result.add(Tuple2.of(edge, recvEdge));
+							}
+						}
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+}
@@ -15,10 +15,22 @@
  */
 package hu.bme.mit.theta.xta.cli;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
@@ -34,7 +46,14 @@ import hu.bme.mit.theta.common.table.BasicTableWriter;
 import hu.bme.mit.theta.common.table.TableWriter;
 import hu.bme.mit.theta.common.visualization.Graph;
 import hu.bme.mit.theta.common.visualization.writer.GraphvizWriter;
+import hu.bme.mit.theta.core.parser.CoreParser;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.TypeUtils;
+import hu.bme.mit.theta.xta.XtaProcess;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
 import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.XtaTarget;
 import hu.bme.mit.theta.xta.analysis.lazy.ClockStrategy;
 import hu.bme.mit.theta.xta.analysis.lazy.DataStrategy;
 import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaCheckerFactory;
@@ -58,6 +77,12 @@ public final class XtaCli {
 	@Parameter(names = {"--search", "-s"}, description = "Search strategy", required = true)
 	SearchStrategy searchStrategy;
 
+	@Parameter(names = {"--target", "-t"}, description = "Target locations, given as sets of location names joined by '&' (a state is a target if it is in all locations of any of the sets)")
+	List<String> targetLocs = new ArrayList<>();
+
+	@Parameter(names = "--target-data", description = "Predicate over the data variables that target states have to satisfy, e.g. \"(= x 1)\"")
+	String targetData = null;
+
 	@Parameter(names = {"--benchmark", "-b"}, description = "Benchmark mode (only print metrics)")
 	Boolean benchmarkMode = false;
 
@@ -94,8 +119,7 @@ public final class XtaCli {
 
 		try {
 			final XtaSystem system = loadModel();
-			final SafetyChecker<?, ?, UnitPrec> checker = LazyXtaCheckerFactory.create(system, dataStrategy,
-					clockStrategy, searchStrategy);
+			final SafetyChecker<?, ?, UnitPrec> checker = createChecker(system);
 			final SafetyResult<?, ?> result = checker.check(UnitPrec.getInstance());
 			printResult(result);
 			if (dotfile != null) {
@@ -112,11 +136,54 @@ public final class XtaCli {
 		}
 	}
 
+	private SafetyChecker<?, ?, UnitPrec> createChecker(final XtaSystem system) {
+		if (targetLocs.isEmpty() && targetData == null) {
+			return LazyXtaCheckerFactory.create(system, dataStrategy, clockStrategy, searchStrategy);
+		}
+		final XtaTarget target = XtaTarget.create(parseTargetLocs(system), parseTargetData(system));
+		return LazyXtaCheckerFactory.create(system, dataStrategy, clockStrategy, searchStrategy, target);
+	}
+
+	private List<Collection<Loc>> parseTargetLocs(final XtaSystem system) {
+		final Map<String, Loc> locsByName = new HashMap<>();
+		final Set<String> duplicateNames = new HashSet<>();
+		for (final XtaProcess process : system.getProcesses()) {
+			for (final Loc loc : process.getLocs()) {
+				if (locsByName.put(loc.getName(), loc) != null) {
+					duplicateNames.add(loc.getName());
+				}
+			}
+		}
+
+		final List<Collection<Loc>> locSets = new ArrayList<>();
+		for (final String locSet : targetLocs) {
+			final Collection<Loc> locs = new ArrayList<>();
+			for (final String name : locSet.split("&")) {
+				final Loc loc = locsByName.get(name.trim());
+				checkArgument(loc != null, "Unknown target location: " + name.trim());
+				checkArgument(!duplicateNames.contains(name.trim()), "Ambiguous target location: " + name.trim());
+				locs.add(loc);
+			}
+			locSets.add(locs);
+		}
+		return locSets;
+	}
+
+	private Expr<BoolType> parseTargetData(final XtaSystem system) {
+		if (targetData == null) {
+			return True();
+		}
+		final CoreParser parser = new CoreParser(new StringReader(targetData));
+		system.getDataVars().forEach(parser::declare);
+		return TypeUtils.cast(parser.expr(), Bool());
+	}
+
 	private void printResult(final SafetyResult<?, ?> result) {
 		final LazyXtaStatistics stats = (LazyXtaStatistics) result.getStats().get();
 		if (benchmarkMode) {
 			stats.writeData(writer);
 		} else {
+			System.out.println(result.toString());
 			System.out.println(stats.toString());
 		}
 	}